@@ -6,7 +6,15 @@ import com.embabel.agent.core.ProcessOptions;
 import com.embabel.agent.core.Verbosity;
 import com.embabel.agent.rag.service.ResultExpander.Method;
 import com.embabel.common.core.types.TextSimilaritySearchRequest;
+import com.thecookiezen.archiledger.agenticmemory.AgentMetrics;
+import com.thecookiezen.archiledger.agenticmemory.AnalysisCache;
+import com.thecookiezen.archiledger.agenticmemory.DeferredEvolutionQueue;
+import com.thecookiezen.archiledger.agenticmemory.EvolutionMetrics;
+import com.thecookiezen.archiledger.agenticmemory.EvolutionStatus;
+import com.thecookiezen.archiledger.agenticmemory.LlmScheduler;
+import com.thecookiezen.archiledger.agenticmemory.domain.EvolutionRequest;
 import com.thecookiezen.archiledger.agenticmemory.domain.UpsertMemoryRequest;
+import com.thecookiezen.archiledger.domain.model.CacheStats;
 import com.thecookiezen.archiledger.domain.model.MemoryNote;
 import com.thecookiezen.archiledger.domain.model.SimilarityResult;
 
@@ -23,13 +31,28 @@ public class AgenticMemoryMcpTools {
 
     private final MemoryNoteSearchOperations searchOperations;
     private final AgentPlatform agentPlatform;
+    private final EvolutionMetrics evolutionMetrics;
+    private final DeferredEvolutionQueue evolutionQueue;
+    private final LlmScheduler llmScheduler;
+    private final AnalysisCache analysisCache;
+    private final AgentMetrics agentMetrics;
     private final boolean debugEnabled;
 
     public AgenticMemoryMcpTools(@Qualifier("archiledgerSearchOperations") MemoryNoteSearchOperations searchOperations,
         AgentPlatform agentPlatform,
+        EvolutionMetrics evolutionMetrics,
+        DeferredEvolutionQueue evolutionQueue,
+        LlmScheduler llmScheduler,
+        AnalysisCache analysisCache,
+        AgentMetrics agentMetrics,
         @Value("${agentic-memory.debug:false}") boolean debugEnabled) {
         this.searchOperations = searchOperations;
         this.agentPlatform = agentPlatform;
+        this.evolutionMetrics = evolutionMetrics;
+        this.evolutionQueue = evolutionQueue;
+        this.llmScheduler = llmScheduler;
+        this.analysisCache = analysisCache;
+        this.agentMetrics = agentMetrics;
         this.debugEnabled = debugEnabled;
     }
 
@@ -74,8 +97,46 @@ public class AgenticMemoryMcpTools {
             .toList();
     }
 
-    @Tool(name = "agentic_memory_write", description = "Store content in agentic memory as a memory note. Creates a basic note with the provided content and optional tags.")
+    @Tool(name = "agentic_memory_write", description = "Store content in agentic memory as a memory note. Creates a basic note with the provided content and optional tags. Depending on the configured write mode, links and tag updates may be added in the background after the note is returned.")
     public MemoryNote writeMemory(@ToolParam(description = "The content to store in memory") String content) {
+        return switch (evolutionQueue.writeMode()) {
+            case SYNC -> invocation(MemoryNote.class).invoke(new UpsertMemoryRequest(content));
+            case DEFERRED -> {
+                EvolutionRequest request = invocation(EvolutionRequest.class).invoke(new UpsertMemoryRequest(content));
+                evolutionQueue.submit(request);
+                yield request.note();
+            }
+            case RAW -> evolutionQueue.storeRaw(content);
+        };
+    }
+
+    @Tool(name = "agentic_memory_evolution_status", description = "Get the status of background memory evolution: queued, running, completed, failed and coalesced jobs, and the most recent jobs or the job of one note.")
+    public EvolutionStatus evolutionStatus(
+            @ToolParam(description = "ID of a note to get the evolution job of", required = false) String noteId) {
+        return evolutionQueue.status(noteId);
+    }
+
+    @Tool(name = "agentic_memory_stats", description = "Get statistics of the memory evolution step: evaluations and LLM calls per evolution mode, prefetched neighbors, and estimated tool-loop iterations saved by prefetching.")
+    public EvolutionMetrics.Stats stats() {
+        return evolutionMetrics.stats();
+    }
+
+    @Tool(name = "agentic_memory_llm_stats", description = "Get statistics of the LLM call scheduler: calls in flight and queued, queue wait time per priority, latency per agent action, and timeouts.")
+    public LlmScheduler.Stats llmStats() {
+        return llmScheduler.stats();
+    }
+
+    @Tool(name = "agentic_memory_analysis_cache_stats", description = "Get hit/miss counters and size of the content analysis cache. Writes of content that was analyzed before are served from this cache without an LLM call.")
+    public CacheStats analysisCacheStats() {
+        return analysisCache.stats();
+    }
+
+    @Tool(name = "agentic_memory_agent_stats", description = "Get instrumentation of the memory agent: latency per agent action including storage, a histogram of LLM calls per evolution tool loop, how often the final-iteration warning cut a loop off, prompt and response sizes per LLM call, and RAG searches per write.")
+    public AgentMetrics.Stats agentStats() {
+        return agentMetrics.stats();
+    }
+
+    private <T> AgentInvocation<T> invocation(Class<T> resultType) {
         ProcessOptions options = new ProcessOptions();
         if (debugEnabled) {
             options = options.withVerbosity(new Verbosity()
@@ -84,11 +145,9 @@ public class AgenticMemoryMcpTools {
                 .withDebug(true));
         }
 
-         var invocation = AgentInvocation
+        return AgentInvocation
             .builder(agentPlatform)
             .options(options)
-            .build(MemoryNote.class);
-
-        return invocation.invoke(new UpsertMemoryRequest(content));
+            .build(resultType);
     }
 }
@@ -0,0 +1,276 @@
+package com.thecookiezen.archiledger.agenticmemory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thecookiezen.archiledger.agenticmemory.LlmScheduler.TimerStats;
+import com.thecookiezen.archiledger.agenticmemory.rag.FinalIterationWarningTransformer;
+import com.thecookiezen.archiledger.agenticmemory.rag.ToolLoopMeter;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Instrumentation of the agent's actions.
+ * <p>
+ * Every action runs in a {@link Span} that records its latency, so the time of analysis, evolution and storage
+ * can be compared. LLM calls record the size of their prompts and structured responses, evolution evaluations
+ * the number of LLM calls of their tool loop and whether the final-iteration warning cut it off, and RAG
+ * searches issued while an evaluation {@linkplain #trackSearches() tracks searches} are counted per write.
+ * <p>
+ * With {@code agenticmemory.trace.enabled} the spans of one agent invocation are also collected per note and
+ * logged as one JSON line to the {@value #TRACE_LOGGER} logger when the invocation reaches its goal or fails.
+ */
+@Component
+public class AgentMetrics {
+
+    static final String TRACE_LOGGER = "com.thecookiezen.archiledger.agenticmemory.trace";
+    static final int MAX_OPEN_TRACES = 10_000;
+
+    private static final Logger logger = LoggerFactory.getLogger(AgentMetrics.class);
+    private static final Logger traceLogger = LoggerFactory.getLogger(TRACE_LOGGER);
+
+    private final boolean traceEnabled;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, LlmScheduler.Timer> actions = new ConcurrentHashMap<>();
+    private final Map<String, Sizes> llmCallSizes = new ConcurrentHashMap<>();
+    private final LongAdder[] toolIterations;
+    private final LongAdder finalIterationWarnings = new LongAdder();
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder ragSearches = new LongAdder();
+    private final ThreadLocal<Searches> currentSearches = new ThreadLocal<>();
+    private final Map<String, List<Map<String, Object>>> traces = new ConcurrentHashMap<>();
+
+    public AgentMetrics(AgenticMemoryProperties properties,
+            @Value("${agenticmemory.trace.enabled:false}") boolean traceEnabled) {
+        this(properties.maxToolIterations(), traceEnabled);
+    }
+
+    AgentMetrics(int maxToolIterations, boolean traceEnabled) {
+        this.traceEnabled = traceEnabled;
+        this.toolIterations = new LongAdder[maxToolIterations + 1];
+        for (int i = 0; i < toolIterations.length; i++) {
+            toolIterations[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Starts timing an action. Close the span when the action ends; an action that did not
+     * {@linkplain Span#complete(Object) complete} its span is recorded as failed.
+     */
+    public Span span(String action) {
+        return new Span(action);
+    }
+
+    public void recordLlmCall(String action, ToolLoopMeter meter, Object response) {
+        llmCallSizes.computeIfAbsent(action, a -> new Sizes()).record(meter.promptChars(), responseChars(response));
+    }
+
+    public void recordEvaluation(FinalIterationWarningTransformer iterations) {
+        evaluations.increment();
+        int calls = Math.max(1, iterations.llmCalls());
+        toolIterations[Math.min(calls, toolIterations.length) - 1].increment();
+        if (iterations.warned()) {
+            finalIterationWarnings.increment();
+        }
+    }
+
+    /**
+     * Counts the RAG searches the calling thread issues until the returned tally is closed.
+     */
+    public Searches trackSearches() {
+        Searches searches = new Searches(currentSearches.get());
+        currentSearches.set(searches);
+        return searches;
+    }
+
+    /**
+     * Counts a RAG search if the calling thread is tracking searches. Searches issued outside an evaluation,
+     * like the ones of the MCP search tools, are not part of a write and are not counted.
+     */
+    public void recordSearch() {
+        Searches searches = currentSearches.get();
+        if (searches != null) {
+            searches.count++;
+            ragSearches.increment();
+        }
+    }
+
+    public Stats stats() {
+        List<TimerStats> latencies = new ArrayList<>();
+        actions.forEach((action, timer) -> latencies.add(timer.stats(action)));
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < toolIterations.length - 1; i++) {
+            histogram.put(String.valueOf(i + 1), toolIterations[i].sum());
+        }
+        histogram.put(toolIterations.length + "+", toolIterations[toolIterations.length - 1].sum());
+        List<SizeStats> sizes = new ArrayList<>();
+        llmCallSizes.forEach((action, size) -> sizes.add(size.stats(action)));
+        long evaluated = evaluations.sum();
+        long searches = ragSearches.sum();
+        return new Stats(latencies, histogram, finalIterationWarnings.sum(), sizes, evaluated, searches,
+                evaluated == 0 ? 0.0 : (double) searches / evaluated);
+    }
+
+    private long responseChars(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response).length();
+        } catch (JsonProcessingException e) {
+            logger.debug("Cannot measure LLM response {}", response, e);
+            return 0;
+        }
+    }
+
+    private void trace(String noteId, Map<String, Object> event, boolean last) {
+        List<Map<String, Object>> events = traces.get(noteId);
+        if (events == null && !last) {
+            if (traces.size() >= MAX_OPEN_TRACES) {
+                return;
+            }
+            events = traces.computeIfAbsent(noteId, id -> new ArrayList<>());
+        }
+        if (events != null) {
+            synchronized (events) {
+                events.add(event);
+            }
+        }
+        if (!last) {
+            return;
+        }
+        List<Map<String, Object>> finished = traces.remove(noteId);
+        Map<String, Object> trace = new LinkedHashMap<>();
+        trace.put("noteId", noteId);
+        trace.put("actions", finished != null ? finished : List.of(event));
+        try {
+            traceLogger.info(objectMapper.writeValueAsString(trace));
+        } catch (JsonProcessingException e) {
+            logger.debug("Cannot write trace of note {}", noteId, e);
+        }
+    }
+
+    public final class Span implements AutoCloseable {
+
+        private final String action;
+        private final long started = System.nanoTime();
+        private final Map<String, Object> attributes = new LinkedHashMap<>();
+        private String noteId;
+        private boolean endsTrace;
+        private boolean completed;
+
+        private Span(String action) {
+            this.action = action;
+        }
+
+        /**
+         * Associates the span with the note the invocation is about, which groups it into that note's trace.
+         */
+        public Span note(MemoryNoteId id) {
+            this.noteId = id.value();
+            return this;
+        }
+
+        public Span attribute(String name, Object value) {
+            attributes.put(name, value);
+            return this;
+        }
+
+        /**
+         * Marks the action as the goal of its invocation, so closing the span logs the trace.
+         */
+        public Span endsTrace() {
+            this.endsTrace = true;
+            return this;
+        }
+
+        public <T> T complete(T result) {
+            completed = true;
+            return result;
+        }
+
+        @Override
+        public void close() {
+            long nanos = System.nanoTime() - started;
+            actions.computeIfAbsent(action, a -> new LlmScheduler.Timer()).record(nanos, !completed);
+            if (!traceEnabled || noteId == null) {
+                return;
+            }
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("action", action);
+            event.put("ms", nanos / 1e6);
+            event.put("failed", !completed);
+            event.putAll(attributes);
+            trace(noteId, event, endsTrace || !completed);
+        }
+    }
+
+    public final class Searches implements AutoCloseable {
+
+        private final Searches previous;
+        private int count;
+
+        private Searches(Searches previous) {
+            this.previous = previous;
+        }
+
+        public int count() {
+            return count;
+        }
+
+        @Override
+        public void close() {
+            if (previous != null) {
+                currentSearches.set(previous);
+            } else {
+                currentSearches.remove();
+            }
+        }
+    }
+
+    private static final class Sizes {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder promptChars = new LongAdder();
+        private final LongAdder responseChars = new LongAdder();
+        private final LongAccumulator maxPromptChars = new LongAccumulator(Math::max, 0);
+
+        void record(long prompt, long response) {
+            calls.increment();
+            promptChars.add(prompt);
+            responseChars.add(response);
+            maxPromptChars.accumulate(prompt);
+        }
+
+        SizeStats stats(String action) {
+            long n = calls.sum();
+            return new SizeStats(action, n, n == 0 ? 0.0 : (double) promptChars.sum() / n,
+                    n == 0 ? 0.0 : (double) responseChars.sum() / n, maxPromptChars.get());
+        }
+    }
+
+    /**
+     * @param toolIterations evolution evaluations by the number of LLM calls of their tool loop; the last bucket
+     *                       collects loops that ran past {@code maxToolIterations}
+     */
+    public record Stats(
+            List<TimerStats> latencyByAction,
+            Map<String, Long> toolIterations,
+            long finalIterationWarnings,
+            List<SizeStats> llmCallSizes,
+            long evolutionEvaluations,
+            long ragSearches,
+            double ragSearchesPerWrite) {
+    }
+
+    public record SizeStats(String action, long calls, double meanPromptChars, double meanResponseChars,
+            long maxPromptChars) {
+    }
+}
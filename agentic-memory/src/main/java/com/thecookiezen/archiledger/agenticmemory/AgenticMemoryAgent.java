@@ -5,14 +5,22 @@ import com.embabel.agent.api.annotation.Action;
 import com.embabel.agent.api.annotation.Agent;
 import com.embabel.agent.api.common.Ai;
 import com.embabel.agent.rag.tools.ToolishRag;
+import com.thecookiezen.archiledger.agenticmemory.LlmScheduler.Priority;
+import com.thecookiezen.archiledger.agenticmemory.AgentMetrics.Searches;
+import com.thecookiezen.archiledger.agenticmemory.AgentMetrics.Span;
 import com.thecookiezen.archiledger.agenticmemory.rag.FinalIterationWarningTransformer;
+import com.thecookiezen.archiledger.agenticmemory.rag.ToolLoopMeter;
 import com.thecookiezen.archiledger.agenticmemory.domain.EvolutionDecision;
+import com.thecookiezen.archiledger.agenticmemory.domain.EvolutionPlan;
+import com.thecookiezen.archiledger.agenticmemory.domain.EvolutionRequest;
+import com.thecookiezen.archiledger.agenticmemory.domain.NeighborSummary;
 import com.thecookiezen.archiledger.agenticmemory.domain.NeighborUpdate;
 import com.thecookiezen.archiledger.agenticmemory.domain.NoteAnalysis;
 import com.thecookiezen.archiledger.agenticmemory.domain.UpsertMemoryRequest;
 import com.thecookiezen.archiledger.domain.model.MemoryNote;
 import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
 import com.thecookiezen.archiledger.domain.model.NoteLink;
+import com.thecookiezen.archiledger.domain.model.NotePatch;
 import com.thecookiezen.archiledger.application.service.MemoryNoteService;
 import com.thecookiezen.archiledger.agenticmemory.rag.MemoryNoteSearchOperations;
 import com.thecookiezen.archiledger.agenticmemory.rag.MemoryNoteRetrievable;
@@ -20,6 +28,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -32,12 +41,20 @@ public class AgenticMemoryAgent {
     private final AgenticMemoryProperties properties;
     private final MemoryNoteService memoryNoteService;
     private final ToolishRag memoryRag;
-    private final FinalIterationWarningTransformer iterationWarningTransformer;
-
-    public AgenticMemoryAgent(AgenticMemoryProperties properties, MemoryNoteService memoryNoteService, MemoryNoteSearchOperations memoryNoteSearchOperations) {
+    private final EvolutionMetrics evolutionMetrics;
+    private final LlmScheduler llmScheduler;
+    private final AnalysisCache analysisCache;
+    private final AgentMetrics agentMetrics;
+
+    public AgenticMemoryAgent(AgenticMemoryProperties properties, MemoryNoteService memoryNoteService,
+            MemoryNoteSearchOperations memoryNoteSearchOperations, EvolutionMetrics evolutionMetrics,
+            LlmScheduler llmScheduler, AnalysisCache analysisCache, AgentMetrics agentMetrics) {
         this.properties = properties;
         this.memoryNoteService = memoryNoteService;
-        this.iterationWarningTransformer = new FinalIterationWarningTransformer(properties.maxToolIterations());
+        this.evolutionMetrics = evolutionMetrics;
+        this.llmScheduler = llmScheduler;
+        this.analysisCache = analysisCache;
+        this.agentMetrics = agentMetrics;
         this.memoryRag = new ToolishRag("memory-notes", "Historical memories for finding related content and establishing connections",
                 memoryNoteSearchOperations)
             .withSearchFor(List.of(MemoryNoteRetrievable.class));
@@ -45,54 +62,152 @@ public class AgenticMemoryAgent {
 
     @Action
     MemoryNote analyzeContent(UpsertMemoryRequest request, Ai ai) {
-        NoteAnalysis analysis = ai.withLlm(properties.chatLlm())
-            .rendering("agenticmemory/analyze_content")
-            .createObject(NoteAnalysis.class, Map.of("content", request.content()));
-
-        logger.info("Analysis complete: keywords={}, context={}, tags={}", 
-            analysis.keywords(), analysis.context(), analysis.tags());
+        try (Span span = agentMetrics.span("analyzeContent")) {
+            var noteId = new MemoryNoteId(UUID.randomUUID().toString());
+            span.note(noteId);
+            NoteAnalysis analysis = analyze(request.content(), Priority.INTERACTIVE, ai, span);
+
+            return span.complete(memoryNoteService.embed(new MemoryNote(
+                noteId,
+                request.content(),
+                analysis.keywords(),
+                analysis.context(),
+                analysis.tags(),
+                List.of(),
+                Instant.now().toString(),
+                0,
+                null
+            )));
+        }
+    }
 
-        var noteId = new MemoryNoteId(UUID.randomUUID().toString());
-        return new MemoryNote(
-            noteId,
-            request.content(),
-            analysis.keywords(),
-            analysis.context(),
-            analysis.tags(),
-            List.of(),
-            Instant.now().toString(),
-            0,
-            null
-        );
+    /**
+     * Brings a note stored ahead of its evolution into the pipeline, analyzing it first if it was stored raw.
+     */
+    @Action
+    MemoryNote prepareStoredNote(EvolutionRequest request, Ai ai) {
+        MemoryNote note = request.note();
+        try (Span span = agentMetrics.span("prepareStoredNote").note(note.id())) {
+            if (request.analyzed()) {
+                return span.complete(note);
+            }
+            NoteAnalysis analysis = analyze(note.content(), Priority.BACKGROUND, ai, span);
+            return span.complete(new MemoryNote(note.id(), note.content(), analysis.keywords(), analysis.context(),
+                analysis.tags(), note.links(), note.timestamp(), note.retrievalCount(), note.embedding(), note.namespace()));
+        }
     }
 
+    /**
+     * Evolution runs in the background whenever the write mode defers it, and for the caller otherwise.
+     */
     @Action
     EvolutionDecision evaluateEvolution(MemoryNote newNote, Ai ai) {
-        EvolutionDecision evolutionDecision = ai.withLlm(properties.chatLlm())
-            .withReference(memoryRag)
-            .withToolLoopTransformers(iterationWarningTransformer)
-            .rendering("agenticmemory/evaluate_evolution")
-            .createObject(EvolutionDecision.class, Map.of("newNote", newNote));
-
-            logger.info("Found {} similar neighbors", evolutionDecision.neighborUpdates().size());
-            return evolutionDecision;
+        try (Span span = agentMetrics.span("evaluateEvolution").note(newNote.id());
+                Searches searches = agentMetrics.trackSearches()) {
+            Map<String, Object> model = new HashMap<>();
+            model.put("newNote", newNote);
+            List<NeighborSummary> neighbors = List.of();
+            if (properties.evolutionMode() == EvolutionMode.PREFETCH) {
+                float[] embedding = memoryNoteService.embed(newNote).embedding();
+                agentMetrics.recordSearch();
+                neighbors = memoryNoteService.similaritySearch(embedding, properties.neighborsK() + 1, 0.0, 0.0).stream()
+                    .filter(result -> !result.item().id().equals(newNote.id()))
+                    .limit(properties.neighborsK())
+                    .map(NeighborSummary::of)
+                    .toList();
+                model.put("neighbors", neighbors);
+            }
+
+            var iterations = new FinalIterationWarningTransformer(properties.maxToolIterations());
+            Priority priority = properties.writeMode() == WriteMode.SYNC ? Priority.INTERACTIVE : Priority.BACKGROUND;
+            EvolutionDecision evolutionDecision = llmScheduler.call(priority, "evaluateEvolution", () -> ai.withLlm(properties.chatLlm())
+                .withReference(memoryRag)
+                .withToolLoopTransformers(iterations)
+                .rendering("agenticmemory/evaluate_evolution")
+                .createObject(EvolutionDecision.class, model));
+
+            if (properties.evolutionMode() == EvolutionMode.PREFETCH) {
+                evolutionMetrics.recordPrefetch(neighbors.size(), iterations.llmCalls());
+            } else {
+                evolutionMetrics.recordToolLoop(iterations.llmCalls());
+            }
+            agentMetrics.recordLlmCall("evaluateEvolution", iterations, evolutionDecision);
+            agentMetrics.recordEvaluation(iterations);
+            span.attribute("neighbors", neighbors.size())
+                .attribute("llmCalls", iterations.llmCalls())
+                .attribute("finalIterationWarning", iterations.warned())
+                .attribute("promptChars", iterations.promptChars())
+                .attribute("ragSearches", searches.count());
+            logger.info("Found {} similar neighbors in {} LLM calls", evolutionDecision.neighborUpdates().size(), iterations.llmCalls());
+            return span.complete(evolutionDecision);
+        }
     }
 
     @Action
     @AchievesGoal(description = "Store the request in agentic memory as memory note")
     public MemoryNote storeMemory(EvolutionDecision evolutionDecision, MemoryNote newNote) {
-        var content = newNote.content();
-        logger.info("Storing memory: {}...", content.substring(0, Math.min(50, content.length())));
-        
-        if (evolutionDecision.shouldEvolve() && !evolutionDecision.neighborUpdates().isEmpty()) {
-            newNote = applyEvolution(newNote, evolutionDecision);
-            updateNeighbors(evolutionDecision.neighborUpdates());
+        try (Span span = agentMetrics.span("storeMemory").note(newNote.id()).endsTrace()) {
+            var content = newNote.content();
+            logger.info("Storing memory: {}...", content.substring(0, Math.min(50, content.length())));
+
+            EvolutionPlan plan = plan(evolutionDecision, newNote);
+
+            logger.info("saving memory {} with {} neighbor updates", plan.note().id().value(), plan.neighborPatches().size());
+            var savedNote = memoryNoteService.createNote(plan.note(), plan.neighborPatches());
+            logger.info("Memory stored with id: {}", savedNote.id().value());
+            span.attribute("links", plan.note().links().size()).attribute("neighborPatches", plan.neighborPatches().size());
+            return span.complete(savedNote);
+        }
+    }
+
+    @Action
+    @AchievesGoal(description = "Store the analyzed request in agentic memory right away and defer its evolution")
+    public EvolutionRequest storeForEvolution(MemoryNote newNote) {
+        try (Span span = agentMetrics.span("storeForEvolution").note(newNote.id()).endsTrace()) {
+            var savedNote = memoryNoteService.createNote(newNote);
+            if (!savedNote.id().equals(newNote.id())) {
+                logger.info("Memory merged into existing note {}, no evolution needed", savedNote.id().value());
+                return span.complete(new EvolutionRequest(savedNote, true, true));
+            }
+            logger.info("Memory stored with id: {}, evolution deferred", savedNote.id().value());
+            return span.complete(new EvolutionRequest(savedNote.withEmbedding(newNote.embedding()), true));
+        }
+    }
+
+    @Action
+    @AchievesGoal(description = "Decide how a memory note stored ahead of its evolution evolves")
+    public EvolutionPlan planEvolution(EvolutionDecision evolutionDecision, MemoryNote storedNote) {
+        try (Span span = agentMetrics.span("planEvolution").note(storedNote.id()).endsTrace()) {
+            return span.complete(plan(evolutionDecision, storedNote));
         }
+    }
+
+    private NoteAnalysis analyze(String content, Priority priority, Ai ai, Span span) {
+        span.attribute("cachedAnalysis", true);
+        NoteAnalysis analysis = analysisCache.computeIfAbsent(content, () -> {
+            var meter = new ToolLoopMeter();
+            NoteAnalysis computed = llmScheduler.call(priority, "analyzeContent", () -> ai.withLlm(properties.chatLlm())
+                .withToolLoopTransformers(meter)
+                .rendering("agenticmemory/analyze_content")
+                .createObject(NoteAnalysis.class, Map.of("content", content)));
+            agentMetrics.recordLlmCall("analyzeContent", meter, computed);
+            span.attribute("cachedAnalysis", false).attribute("promptChars", meter.promptChars());
+            return computed;
+        });
+
+        logger.info("Analysis complete: keywords={}, context={}, tags={}", 
+            analysis.keywords(), analysis.context(), analysis.tags());
+        return analysis;
+    }
 
-        logger.info("saving memory {}", newNote);
-        var savedNote = memoryNoteService.createNote(newNote);
-        logger.info("Memory stored with id: {}", savedNote.id().value());
-        return savedNote;
+    private EvolutionPlan plan(EvolutionDecision decision, MemoryNote note) {
+        if (!decision.shouldEvolve() || decision.neighborUpdates().isEmpty()) {
+            return new EvolutionPlan(note, List.of());
+        }
+        List<NotePatch> neighborPatches = decision.neighborUpdates().stream()
+            .map(NeighborUpdate::toPatch)
+            .toList();
+        return new EvolutionPlan(applyEvolution(note, decision), neighborPatches);
     }
 
     private MemoryNote applyEvolution(MemoryNote note, EvolutionDecision decision) {
@@ -115,24 +230,4 @@ public class AgenticMemoryAgent {
             note.embedding()
         );
     }
-
-    private void updateNeighbors(List<NeighborUpdate> updates) {
-        for (var update : updates) {
-            memoryNoteService.getNote(new MemoryNoteId(update.noteId())).ifPresent(neighbor -> {
-                var updatedNeighbor = new MemoryNote(
-                    neighbor.id(),
-                    neighbor.content(),
-                    neighbor.keywords(),
-                    update.newContext().isBlank() ? neighbor.context() : update.newContext(),
-                    update.newTags().isEmpty() ? neighbor.tags() : update.newTags(),
-                    neighbor.links(),
-                    neighbor.timestamp(),
-                    neighbor.retrievalCount(),
-                    neighbor.embedding()
-                );
-                memoryNoteService.createNote(updatedNeighbor);
-                logger.info("Updated neighbor: {}", update.noteId());
-            });
-        }
-    }
 }
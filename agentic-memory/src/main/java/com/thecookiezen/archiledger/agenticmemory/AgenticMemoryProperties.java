@@ -8,7 +8,11 @@ import org.springframework.boot.context.properties.NestedConfigurationProperty;
 public record AgenticMemoryProperties(
     @NestedConfigurationProperty LlmOptions chatLlm,
     int neighborsK,
-    int maxToolIterations
+    int maxToolIterations,
+    EvolutionMode evolutionMode,
+    WriteMode writeMode,
+    int evolutionWorkers,
+    int evolutionQueueCapacity
 ) {
     public AgenticMemoryProperties {
         if (neighborsK <= 0) {
@@ -17,5 +21,17 @@ public record AgenticMemoryProperties(
         if (maxToolIterations <= 0) {
             maxToolIterations = 5;
         }
+        if (evolutionMode == null) {
+            evolutionMode = EvolutionMode.PREFETCH;
+        }
+        if (writeMode == null) {
+            writeMode = WriteMode.SYNC;
+        }
+        if (evolutionWorkers <= 0) {
+            evolutionWorkers = 2;
+        }
+        if (evolutionQueueCapacity <= 0) {
+            evolutionQueueCapacity = 1000;
+        }
     }
 }
@@ -0,0 +1,306 @@
+package com.thecookiezen.archiledger.agenticmemory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thecookiezen.archiledger.agenticmemory.domain.NoteAnalysis;
+import com.thecookiezen.archiledger.domain.model.CacheStats;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Bounded cache of content analyses, so storing the same content again skips the analysis LLM call.
+ * <p>
+ * Entries are keyed by a SHA-256 hash of the normalized content (Unicode NFKC, lower case, whitespace runs
+ * collapsed) and of the analysis version, which covers the chat model and the analysis prompt template; changing
+ * either starts from an empty cache. The least recently used entries are evicted beyond {@code maxEntries}.
+ * Concurrent misses for the same key share one analysis.
+ * <p>
+ * Entries are appended to a JSON lines file next to the LadybugDB data by a single background writer and
+ * reloaded on start; the file is compacted once it holds twice as many lines as the cache has room for. With an
+ * in-memory database the cache is kept in memory only.
+ */
+@Component
+public class AnalysisCache implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisCache.class);
+
+    static final String PROMPT_TEMPLATE = "prompts/agenticmemory/analyze_content.jinja";
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final String version;
+    private final Path file;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, NoteAnalysis> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, CompletableFuture<NoteAnalysis>> loading = new HashMap<>();
+    private final ExecutorService writer;
+    private long hits;
+    private long misses;
+    private long evictions;
+    /** Lines in the file, owned by the writer thread once loading is done. */
+    private long fileLines;
+
+    @Autowired
+    public AnalysisCache(
+            AgenticMemoryProperties properties,
+            @Value("${agenticmemory.analysis-cache.enabled:true}") boolean enabled,
+            @Value("${agenticmemory.analysis-cache.max-entries:10000}") int maxEntries,
+            @Value("${agenticmemory.analysis-cache.path:}") String path,
+            @Value("${ladybugdb.data-path:}") String dataPath) {
+        this(enabled, maxEntries, version(properties), resolve(path, dataPath));
+    }
+
+    AnalysisCache(boolean enabled, int maxEntries, String version, Path file) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("agenticmemory.analysis-cache.max-entries must be at least 1");
+        }
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.version = version;
+        this.file = enabled ? file : null;
+        if (this.file != null) {
+            load();
+        }
+        this.writer = this.file != null
+                ? Executors.newSingleThreadExecutor(
+                        Thread.ofPlatform().name("agentic-memory-analysis-cache-writer").daemon().factory())
+                : null;
+    }
+
+    private static Path resolve(String path, String dataPath) {
+        if (!path.isBlank()) {
+            return Path.of(path);
+        }
+        if (!dataPath.isBlank()) {
+            Path data = Path.of(dataPath).toAbsolutePath();
+            return data.resolveSibling(data.getFileName() + ".analysis-cache.jsonl");
+        }
+        return null;
+    }
+
+    private static String version(AgenticMemoryProperties properties) {
+        String model = properties.chatLlm() != null ? String.valueOf(properties.chatLlm().getModel()) : "default";
+        try (InputStream template = AnalysisCache.class.getClassLoader().getResourceAsStream(PROMPT_TEMPLATE)) {
+            String prompt = template != null ? new String(template.readAllBytes(), StandardCharsets.UTF_8) : "";
+            return model + ":" + sha256(prompt).substring(0, 16);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + PROMPT_TEMPLATE, e);
+        }
+    }
+
+    /**
+     * Returns the cached analysis of {@code content}, or runs {@code analysis} and caches its result. Callers
+     * missing on a key whose analysis is already running wait for that analysis instead of starting another.
+     */
+    public NoteAnalysis computeIfAbsent(String content, Supplier<NoteAnalysis> analysis) {
+        if (!enabled) {
+            return analysis.get();
+        }
+        String key = key(content);
+        CompletableFuture<NoteAnalysis> pending = new CompletableFuture<>();
+        CompletableFuture<NoteAnalysis> running;
+        synchronized (this) {
+            NoteAnalysis cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            running = loading.putIfAbsent(key, pending);
+            if (running != null) {
+                hits++;
+            } else {
+                misses++;
+            }
+        }
+        if (running != null) {
+            return await(running);
+        }
+        NoteAnalysis computed;
+        try {
+            computed = analysis.get();
+        } catch (RuntimeException | Error e) {
+            synchronized (this) {
+                loading.remove(key);
+            }
+            pending.completeExceptionally(e);
+            throw e;
+        }
+        synchronized (this) {
+            put(key, computed);
+            loading.remove(key);
+        }
+        pending.complete(computed);
+        persist(key, computed);
+        return computed;
+    }
+
+    /**
+     * Writes the queued entries and stops the writer.
+     */
+    @Override
+    public void close() {
+        if (writer == null) {
+            return;
+        }
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warn("Analysis cache writer did not finish within 10 seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public synchronized CacheStats stats() {
+        return CacheStats.of(hits, misses, evictions, entries.size(), entries.size(), maxEntries);
+    }
+
+    String key(String content) {
+        String normalized = WHITESPACE.matcher(Normalizer.normalize(content, Normalizer.Form.NFKC))
+                .replaceAll(" ")
+                .strip()
+                .toLowerCase(Locale.ROOT);
+        return sha256(version + "\n" + normalized);
+    }
+
+    private void put(String key, NoteAnalysis analysis) {
+        entries.put(key, analysis);
+        var eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries) {
+            eldest.next();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                fileLines++;
+                try {
+                    Entry entry = objectMapper.readValue(line, Entry.class);
+                    put(entry.key(), new NoteAnalysis(entry.keywords(), entry.context(), entry.tags()));
+                } catch (IOException e) {
+                    logger.debug("Skipping unreadable analysis cache line in {}", file, e);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to load analysis cache {}, starting empty", file, e);
+            entries.clear();
+        }
+        evictions = 0;
+        logger.info("Loaded {} cached analyses from {}", entries.size(), file);
+    }
+
+    private void persist(String key, NoteAnalysis analysis) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.execute(() -> append(key, analysis));
+        } catch (RejectedExecutionException e) {
+            logger.debug("Analysis cache is closed, not persisting entry {}", key);
+        }
+    }
+
+    private void append(String key, NoteAnalysis analysis) {
+        try {
+            if (fileLines >= 2L * maxEntries) {
+                compact();
+                return;
+            }
+            Files.writeString(file, line(key, analysis), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            fileLines++;
+        } catch (IOException e) {
+            logger.warn("Failed to persist analysis cache entry to {}", file, e);
+        }
+    }
+
+    /**
+     * Rewrites the file from a copy of the entries taken under the lock, so lookups wait only for the copy. Entries
+     * whose appends are still queued are written again afterwards; loading keeps the last line of a key.
+     */
+    private void compact() throws IOException {
+        List<Map.Entry<String, NoteAnalysis>> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(entries.size());
+            for (Map.Entry<String, NoteAnalysis> entry : entries.entrySet()) {
+                snapshot.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, NoteAnalysis> entry : snapshot) {
+                out.write(line(entry.getKey(), entry.getValue()));
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        fileLines = snapshot.size();
+    }
+
+    private static NoteAnalysis await(CompletableFuture<NoteAnalysis> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private String line(String key, NoteAnalysis analysis) throws IOException {
+        return objectMapper.writeValueAsString(new Entry(key, analysis.keywords(), analysis.context(), analysis.tags())) + "\n";
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    record Entry(String key, List<String> keywords, String context, List<String> tags) {
+    }
+}
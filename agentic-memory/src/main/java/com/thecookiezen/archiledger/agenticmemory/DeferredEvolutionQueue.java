@@ -0,0 +1,368 @@
+package com.thecookiezen.archiledger.agenticmemory;
+
+import com.embabel.agent.api.invocation.AgentInvocation;
+import com.embabel.agent.core.AgentPlatform;
+import com.thecookiezen.archiledger.agenticmemory.EvolutionStatus.State;
+import com.thecookiezen.archiledger.agenticmemory.domain.EvolutionPlan;
+import com.thecookiezen.archiledger.agenticmemory.domain.EvolutionRequest;
+import com.thecookiezen.archiledger.application.service.MemoryNoteService;
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Runs the evolution of notes that were stored ahead of it on a bounded pool of background workers.
+ * <p>
+ * Before a job runs, its neighborhood is looked up: the note itself and its {@code neighborsK} nearest notes.
+ * A job whose neighborhood overlaps the one of a group already being worked on is coalesced into that group
+ * and runs after it on the same worker, so evolutions that could link or update the same notes never run
+ * concurrently and each one sees the result of the previous. A group's neighborhood only covers its jobs that
+ * have not finished yet, so it stays bounded by the queue. When the queue is full, the submitting thread waits
+ * for room, so every job still goes through coalescing. Pending jobs are not persisted; their notes are already
+ * stored and simply stay unevolved if the process stops.
+ */
+@Component
+public class DeferredEvolutionQueue implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeferredEvolutionQueue.class);
+
+    private static final int MAX_FINISHED_JOBS = 1000;
+    private static final int MAX_REPORTED_JOBS = 20;
+
+    private final Function<EvolutionRequest, EvolutionPlan> planner;
+    private final MemoryNoteService memoryNoteService;
+    private final WriteMode writeMode;
+    private final int neighborsK;
+    private final BlockingQueue<Job> queue;
+    private final List<Group> groups = new ArrayList<>();
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final List<Thread> workers = new ArrayList<>();
+    private final Object idle = new Object();
+    private volatile boolean active = true;
+
+    @Autowired
+    public DeferredEvolutionQueue(AgentPlatform agentPlatform, MemoryNoteService memoryNoteService, AgenticMemoryProperties properties) {
+        this(request -> AgentInvocation.builder(agentPlatform).build(EvolutionPlan.class).invoke(request),
+                memoryNoteService, properties.writeMode(), properties.neighborsK(),
+                properties.evolutionWorkers(), properties.evolutionQueueCapacity());
+    }
+
+    DeferredEvolutionQueue(Function<EvolutionRequest, EvolutionPlan> planner, MemoryNoteService memoryNoteService,
+            WriteMode writeMode, int neighborsK, int workerCount, int capacity) {
+        this.planner = planner;
+        this.memoryNoteService = memoryNoteService;
+        this.writeMode = writeMode;
+        this.neighborsK = neighborsK;
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        if (writeMode != WriteMode.SYNC) {
+            for (int i = 0; i < workerCount; i++) {
+                workers.add(Thread.ofPlatform().name("agentic-memory-evolution-" + i).daemon().start(this::work));
+            }
+        }
+    }
+
+    public WriteMode writeMode() {
+        return writeMode;
+    }
+
+    /**
+     * Stores {@code content} as a note without analysis and queues its analysis and evolution. Content merged
+     * into a near-identical stored note is not queued, as that note is evolved already.
+     */
+    public MemoryNote storeRaw(String content) {
+        MemoryNote note = new MemoryNote(new MemoryNoteId(UUID.randomUUID().toString()), content, List.of(), "",
+                List.of(), List.of(), Instant.now().toString(), 0, null);
+        MemoryNote embedded = memoryNoteService.embed(note);
+        MemoryNote stored = memoryNoteService.createNote(embedded);
+        if (stored.id().equals(embedded.id())) {
+            submit(new EvolutionRequest(embedded, false));
+        }
+        return stored;
+    }
+
+    /**
+     * Queues the evolution of a stored note. A note that already has a pending job is not queued twice, and a
+     * note merged into an existing duplicate is not queued at all.
+     */
+    public void submit(EvolutionRequest request) {
+        if (!active) {
+            throw new IllegalStateException("Deferred evolution queue is shut down");
+        }
+        if (request.merged()) {
+            return;
+        }
+        String noteId = request.note().id().value();
+        Job job = new Job(request);
+        synchronized (jobs) {
+            Job existing = jobs.get(noteId);
+            if (existing != null && existing.state == State.PENDING) {
+                return;
+            }
+            jobs.remove(noteId);
+            jobs.put(noteId, job);
+            trimFinished();
+        }
+        outstanding.incrementAndGet();
+        try {
+            while (!queue.offer(job, 100, TimeUnit.MILLISECONDS)) {
+                if (!active) {
+                    throw new IllegalStateException("Deferred evolution queue is shut down");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(job, new IllegalStateException("Interrupted while waiting for room in the evolution queue"));
+            return;
+        } catch (IllegalStateException e) {
+            fail(job, e);
+            throw e;
+        }
+    }
+
+    public EvolutionStatus status(String noteId) {
+        List<EvolutionStatus.Job> reported;
+        synchronized (jobs) {
+            if (noteId != null && !noteId.isBlank()) {
+                Job job = jobs.get(noteId);
+                reported = job != null ? List.of(job.status()) : List.of();
+            } else {
+                List<Job> all = new ArrayList<>(jobs.values());
+                Collections.reverse(all);
+                reported = all.stream().limit(MAX_REPORTED_JOBS).map(Job::status).toList();
+            }
+        }
+        int runningJobs = running.get();
+        return new EvolutionStatus(writeMode, workers.size(), Math.max(0, outstanding.get() - runningJobs), runningJobs, completed.sum(),
+                failed.sum(), coalesced.sum(), reported);
+    }
+
+    /**
+     * Waits until every queued job has finished or {@code timeout} elapsed.
+     *
+     * @return whether the queue drained in time
+     */
+    public boolean awaitIdle(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (idle) {
+            while (outstanding.get() > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(idle, remaining);
+            }
+        }
+        return true;
+    }
+
+    private void work() {
+        while (active) {
+            Job job;
+            try {
+                job = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (job == null) {
+                continue;
+            }
+            try {
+                job.neighborhood = neighborhood(job.request.note());
+            } catch (RuntimeException e) {
+                fail(job, e);
+                continue;
+            }
+            Group group = join(job);
+            if (group != null) {
+                runGroup(group);
+            }
+        }
+    }
+
+    private Set<String> neighborhood(MemoryNote note) {
+        Set<String> ids = new HashSet<>();
+        ids.add(note.id().value());
+        memoryNoteService.similaritySearch(memoryNoteService.embed(note).embedding(), neighborsK, 0.0, 0.0)
+                .forEach(result -> ids.add(result.item().id().value()));
+        return ids;
+    }
+
+    /**
+     * @return the new group this worker has to run, or {@code null} when the job joined a running group
+     */
+    private Group join(Job job) {
+        synchronized (groups) {
+            for (Group group : groups) {
+                if (group.overlaps(job.neighborhood)) {
+                    group.add(job);
+                    job.coalesced = true;
+                    coalesced.increment();
+                    return null;
+                }
+            }
+            Group group = new Group();
+            group.add(job);
+            groups.add(group);
+            return group;
+        }
+    }
+
+    private void runGroup(Group group) {
+        while (true) {
+            Job next;
+            synchronized (groups) {
+                next = group.jobs.poll();
+                if (next == null) {
+                    groups.remove(group);
+                    return;
+                }
+            }
+            try {
+                process(next);
+            } finally {
+                synchronized (groups) {
+                    group.release(next);
+                }
+            }
+        }
+    }
+
+    private void process(Job job) {
+        job.state = State.RUNNING;
+        running.incrementAndGet();
+        try {
+            apply(planner.apply(job.request));
+            completed.increment();
+            finish(job, State.COMPLETED, null);
+        } catch (RuntimeException e) {
+            fail(job, e);
+        } finally {
+            running.decrementAndGet();
+        }
+    }
+
+    private void apply(EvolutionPlan plan) {
+        MemoryNote evolved = plan.note();
+        memoryNoteService.updateNote(evolved.id(), current -> new MemoryNote(current.id(), current.content(),
+                        evolved.keywords(), evolved.context(), evolved.tags(), evolved.links(), current.timestamp(),
+                        current.retrievalCount(), null, current.namespace()),
+                plan.neighborPatches())
+            .ifPresentOrElse(
+                note -> logger.info("Evolved memory {}: {} links, {} neighbor updates", note.id().value(),
+                        evolved.links().size(), plan.neighborPatches().size()),
+                () -> logger.info("Memory {} was deleted before its evolution", evolved.id().value()));
+    }
+
+    private void fail(Job job, RuntimeException e) {
+        logger.warn("Evolution of memory {} failed", job.request.note().id().value(), e);
+        failed.increment();
+        finish(job, State.FAILED, e.getMessage());
+    }
+
+    private void finish(Job job, State state, String error) {
+        job.finishedAt = Instant.now().toString();
+        job.error = error;
+        job.state = state;
+        if (outstanding.decrementAndGet() == 0) {
+            synchronized (idle) {
+                idle.notifyAll();
+            }
+        }
+    }
+
+    private void trimFinished() {
+        int finished = (int) jobs.values().stream().filter(Job::isFinished).count();
+        var iterator = jobs.values().iterator();
+        while (finished > MAX_FINISHED_JOBS && iterator.hasNext()) {
+            if (iterator.next().isFinished()) {
+                iterator.remove();
+                finished--;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        active = false;
+        for (Thread worker : workers) {
+            worker.join(Duration.ofSeconds(30));
+        }
+        if (!queue.isEmpty()) {
+            logger.warn("{} deferred evolutions were not run before shutdown", queue.size());
+        }
+    }
+
+    private static final class Job {
+        private final EvolutionRequest request;
+        private final String submittedAt = Instant.now().toString();
+        private volatile State state = State.PENDING;
+        private volatile boolean coalesced;
+        private volatile String finishedAt;
+        private volatile String error;
+        private Set<String> neighborhood = Set.of();
+
+        private Job(EvolutionRequest request) {
+            this.request = request;
+        }
+
+        private boolean isFinished() {
+            return state == State.COMPLETED || state == State.FAILED;
+        }
+
+        private EvolutionStatus.Job status() {
+            return new EvolutionStatus.Job(request.note().id().value(), state, submittedAt, finishedAt, coalesced, error);
+        }
+    }
+
+    /**
+     * Jobs with overlapping neighborhoods. The neighborhood counts, per note id, the unfinished jobs that
+     * reference it, so ids drop out again once their jobs have run.
+     */
+    private static final class Group {
+        private final Map<String, Integer> neighborhood = new HashMap<>();
+        private final Deque<Job> jobs = new ArrayDeque<>();
+
+        private boolean overlaps(Set<String> ids) {
+            return ids.stream().anyMatch(neighborhood::containsKey);
+        }
+
+        private void add(Job job) {
+            job.neighborhood.forEach(id -> neighborhood.merge(id, 1, Integer::sum));
+            jobs.add(job);
+        }
+
+        private void release(Job job) {
+            job.neighborhood.forEach(id -> neighborhood.computeIfPresent(id, (key, count) -> count > 1 ? count - 1 : null));
+        }
+    }
+}
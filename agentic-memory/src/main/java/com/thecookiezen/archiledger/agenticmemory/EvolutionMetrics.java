@@ -0,0 +1,57 @@
+package com.thecookiezen.archiledger.agenticmemory;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts LLM calls of the evolution step per {@link EvolutionMode}.
+ * <p>
+ * Iterations saved are estimated per prefetch evaluation as the average number of LLM calls of tool-loop
+ * evaluations minus the calls the prefetch evaluation needed. Until a tool-loop evaluation has been observed,
+ * the baseline is {@value #DEFAULT_TOOL_LOOP_CALLS} calls: one search round trip plus the final answer.
+ */
+@Component
+public class EvolutionMetrics {
+
+    static final double DEFAULT_TOOL_LOOP_CALLS = 2.0;
+
+    private final LongAdder prefetchEvaluations = new LongAdder();
+    private final LongAdder prefetchLlmCalls = new LongAdder();
+    private final LongAdder prefetchedNeighbors = new LongAdder();
+    private final LongAdder toolLoopEvaluations = new LongAdder();
+    private final LongAdder toolLoopLlmCalls = new LongAdder();
+    private final DoubleAdder iterationsSaved = new DoubleAdder();
+
+    public void recordPrefetch(int neighbors, int llmCalls) {
+        prefetchEvaluations.increment();
+        prefetchLlmCalls.add(llmCalls);
+        prefetchedNeighbors.add(neighbors);
+        iterationsSaved.add(Math.max(0.0, toolLoopBaseline() - llmCalls));
+    }
+
+    public void recordToolLoop(int llmCalls) {
+        toolLoopEvaluations.increment();
+        toolLoopLlmCalls.add(llmCalls);
+    }
+
+    public Stats stats() {
+        return new Stats(prefetchEvaluations.sum(), prefetchLlmCalls.sum(), prefetchedNeighbors.sum(),
+                toolLoopEvaluations.sum(), toolLoopLlmCalls.sum(), Math.round(iterationsSaved.sum()));
+    }
+
+    private double toolLoopBaseline() {
+        long evaluations = toolLoopEvaluations.sum();
+        return evaluations == 0 ? DEFAULT_TOOL_LOOP_CALLS : (double) toolLoopLlmCalls.sum() / evaluations;
+    }
+
+    public record Stats(
+            long prefetchEvaluations,
+            long prefetchLlmCalls,
+            long prefetchedNeighbors,
+            long toolLoopEvaluations,
+            long toolLoopLlmCalls,
+            long iterationsSaved) {
+    }
+}
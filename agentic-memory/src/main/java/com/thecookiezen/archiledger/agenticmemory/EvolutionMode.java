@@ -0,0 +1,18 @@
+package com.thecookiezen.archiledger.agenticmemory;
+
+/**
+ * How {@link AgenticMemoryAgent} finds the neighbors of a new note before deciding on its evolution.
+ */
+public enum EvolutionMode {
+
+    /**
+     * Runs the {@code neighborsK} similarity search up front and inlines the neighbors into the prompt, so most
+     * evaluations finish in a single LLM call. The search tools stay available for follow-up lookups.
+     */
+    PREFETCH,
+
+    /**
+     * Lets the LLM discover neighbors itself through search tool calls, one round trip per iteration.
+     */
+    TOOL_LOOP
+}
@@ -0,0 +1,25 @@
+package com.thecookiezen.archiledger.agenticmemory;
+
+import java.util.List;
+
+/**
+ * Snapshot of the deferred evolution queue. {@code coalesced} counts jobs that joined the group of a job
+ * already working on an overlapping neighborhood instead of running on their own.
+ */
+public record EvolutionStatus(
+        WriteMode writeMode,
+        int workers,
+        int pending,
+        int running,
+        long completed,
+        long failed,
+        long coalesced,
+        List<Job> jobs) {
+
+    public enum State {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+
+    public record Job(String noteId, State state, String submittedAt, String finishedAt, boolean coalesced, String error) {
+    }
+}
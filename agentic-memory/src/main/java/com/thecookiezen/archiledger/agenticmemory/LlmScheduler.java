@@ -0,0 +1,236 @@
+package com.thecookiezen.archiledger.agenticmemory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for the agent's LLM calls.
+ * <p>
+ * At most {@code maxInFlight} calls run at once; further calls wait in a queue ordered by {@link Priority} and
+ * then arrival, so interactive writes overtake background evolution. A call that waits longer than
+ * {@code queueTimeout} fails without reaching the model. A running call that exceeds {@code callTimeout} is
+ * interrupted and fails. A call holds its slot for the whole structured-output request, including tool-loop
+ * round trips. Queue wait times are recorded per priority and latencies per action.
+ */
+@Component
+public class LlmScheduler implements AutoCloseable {
+
+    public enum Priority {
+        INTERACTIVE, BACKGROUND
+    }
+
+    private final int maxInFlight;
+    private final Duration queueTimeout;
+    private final Duration callTimeout;
+    private final PriorityQueue<Waiter> waiters = new PriorityQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Priority, Timer> queueWaits = new ConcurrentHashMap<>();
+    private final Map<String, Timer> actions = new ConcurrentHashMap<>();
+    private final LongAdder queueTimeouts = new LongAdder();
+    private final LongAdder callTimeouts = new LongAdder();
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("agentic-memory-llm-watchdog").daemon().factory());
+    private int inFlight;
+
+    public LlmScheduler(
+            @Value("${agenticmemory.llm.max-in-flight:4}") int maxInFlight,
+            @Value("${agenticmemory.llm.queue-timeout-ms:60000}") long queueTimeoutMs,
+            @Value("${agenticmemory.llm.call-timeout-ms:300000}") long callTimeoutMs) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("agenticmemory.llm.max-in-flight must be at least 1");
+        }
+        this.maxInFlight = maxInFlight;
+        this.queueTimeout = Duration.ofMillis(queueTimeoutMs);
+        this.callTimeout = Duration.ofMillis(callTimeoutMs);
+    }
+
+    /**
+     * Runs {@code call} on the calling thread once a slot is free and returns its result.
+     *
+     * @throws IllegalStateException if the call waited longer than the queue timeout or ran longer than the
+     *                               call timeout
+     */
+    public <T> T call(Priority priority, String action, Supplier<T> call) {
+        long queued = System.nanoTime();
+        acquire(priority);
+        long started = System.nanoTime();
+        queueWaits.computeIfAbsent(priority, p -> new Timer()).record(started - queued, false);
+
+        Deadline deadline = new Deadline(Thread.currentThread());
+        ScheduledFuture<?> expiry = watchdog.schedule(deadline::expire, callTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        boolean failed = true;
+        try {
+            T result = call.get();
+            failed = false;
+            return result;
+        } catch (RuntimeException e) {
+            if (deadline.finish()) {
+                callTimeouts.increment();
+                throw new IllegalStateException("LLM call of " + action + " exceeded " + callTimeout.toMillis() + " ms", e);
+            }
+            throw e;
+        } finally {
+            expiry.cancel(false);
+            deadline.finish();
+            actions.computeIfAbsent(action, a -> new Timer()).record(System.nanoTime() - started, failed);
+            release();
+        }
+    }
+
+    private void acquire(Priority priority) {
+        Waiter waiter;
+        synchronized (this) {
+            if (inFlight < maxInFlight && waiters.isEmpty()) {
+                inFlight++;
+                return;
+            }
+            waiter = new Waiter(priority, sequence.getAndIncrement());
+            waiters.add(waiter);
+        }
+        boolean granted;
+        try {
+            granted = waiter.granted.await(queueTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            if (!abandon(waiter)) {
+                release();
+            }
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an LLM call slot", e);
+        }
+        if (!granted && abandon(waiter)) {
+            queueTimeouts.increment();
+            throw new IllegalStateException("No LLM call slot became free within " + queueTimeout.toMillis() + " ms");
+        }
+    }
+
+    /**
+     * Removes a waiter that gave up. Returns false when it was granted a slot in the meantime.
+     */
+    private synchronized boolean abandon(Waiter waiter) {
+        return waiters.remove(waiter);
+    }
+
+    private synchronized void release() {
+        Waiter next = waiters.poll();
+        if (next != null) {
+            next.granted.countDown();
+        } else {
+            inFlight--;
+        }
+    }
+
+    public Stats stats() {
+        int running;
+        int queued;
+        synchronized (this) {
+            running = inFlight;
+            queued = waiters.size();
+        }
+        List<TimerStats> waits = new ArrayList<>();
+        queueWaits.forEach((priority, timer) -> waits.add(timer.stats(priority.name())));
+        List<TimerStats> latencies = new ArrayList<>();
+        actions.forEach((action, timer) -> latencies.add(timer.stats(action)));
+        return new Stats(maxInFlight, running, queued, queueTimeouts.sum(), callTimeouts.sum(), waits, latencies);
+    }
+
+    @Override
+    public void close() {
+        watchdog.shutdownNow();
+    }
+
+    public record Stats(
+            int maxInFlight,
+            int inFlight,
+            int queued,
+            long queueTimeouts,
+            long callTimeouts,
+            List<TimerStats> queueWaitByPriority,
+            List<TimerStats> latencyByAction) {
+    }
+
+    public record TimerStats(String name, long count, long failures, double meanMs, double maxMs) {
+    }
+
+    private record Waiter(Priority priority, long sequence, CountDownLatch granted) implements Comparable<Waiter> {
+
+        Waiter(Priority priority, long sequence) {
+            this(priority, sequence, new CountDownLatch(1));
+        }
+
+        @Override
+        public int compareTo(Waiter other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * Interrupts the calling thread when the call timeout expires, unless the call finished first.
+     */
+    private static final class Deadline {
+        private final Thread caller;
+        private boolean finished;
+        private boolean expired;
+
+        Deadline(Thread caller) {
+            this.caller = caller;
+        }
+
+        synchronized void expire() {
+            if (!finished) {
+                expired = true;
+                caller.interrupt();
+            }
+        }
+
+        /**
+         * Marks the call finished and clears the interrupt raised by an expiry. Returns whether it expired.
+         */
+        synchronized boolean finish() {
+            if (!finished) {
+                finished = true;
+                if (expired) {
+                    Thread.interrupted();
+                }
+            }
+            return expired;
+        }
+    }
+
+    static final class Timer {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        void record(long nanos, boolean failed) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            if (failed) {
+                failures.increment();
+            }
+        }
+
+        TimerStats stats(String name) {
+            long n = count.sum();
+            return new TimerStats(name, n, failures.sum(), n == 0 ? 0.0 : totalNanos.sum() / 1e6 / n, maxNanos.get() / 1e6);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.thecookiezen.archiledger.agenticmemory;
+
+/**
+ * When {@code agentic_memory_write} stores a note relative to its analysis and evolution.
+ */
+public enum WriteMode {
+
+    /**
+     * Analyzes, evolves and stores the note before returning.
+     */
+    SYNC,
+
+    /**
+     * Analyzes and stores the note before returning; links, tag and neighbor updates follow in the background.
+     */
+    DEFERRED,
+
+    /**
+     * Stores the raw content before returning; analysis and evolution follow in the background.
+     */
+    RAW
+}
@@ -0,0 +1,15 @@
+package com.thecookiezen.archiledger.agenticmemory.domain;
+
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.NotePatch;
+
+import java.util.List;
+
+/**
+ * The evolved state of a note together with the updates of its neighbors, ready to be written.
+ */
+public record EvolutionPlan(MemoryNote note, List<NotePatch> neighborPatches) {
+    public EvolutionPlan {
+        neighborPatches = neighborPatches != null ? List.copyOf(neighborPatches) : List.of();
+    }
+}
@@ -0,0 +1,15 @@
+package com.thecookiezen.archiledger.agenticmemory.domain;
+
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+
+/**
+ * A stored note whose evolution has been deferred. {@code analyzed} is false when the note was stored with raw
+ * content only and still needs keywords, context and tags. {@code merged} is true when the note was merged into
+ * an existing duplicate on store; {@code note} is then the existing note, which has no evolution to run.
+ */
+public record EvolutionRequest(MemoryNote note, boolean analyzed, boolean merged) {
+
+    public EvolutionRequest(MemoryNote note, boolean analyzed) {
+        this(note, analyzed, false);
+    }
+}
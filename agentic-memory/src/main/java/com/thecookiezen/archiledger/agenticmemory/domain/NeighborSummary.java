@@ -0,0 +1,27 @@
+package com.thecookiezen.archiledger.agenticmemory.domain;
+
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.SimilarityResult;
+
+import java.util.List;
+
+/**
+ * Compact view of a candidate neighbor inlined into the evolution prompt.
+ */
+public record NeighborSummary(
+    String id,
+    String content,
+    String context,
+    List<String> tags,
+    double score
+) {
+    static final int MAX_CONTENT_LENGTH = 300;
+
+    public static NeighborSummary of(SimilarityResult<MemoryNote> result) {
+        MemoryNote note = result.item();
+        String content = note.content().length() > MAX_CONTENT_LENGTH
+            ? note.content().substring(0, MAX_CONTENT_LENGTH) + "..."
+            : note.content();
+        return new NeighborSummary(note.id().value(), content, note.context() != null ? note.context() : "", note.tags(), result.score());
+    }
+}
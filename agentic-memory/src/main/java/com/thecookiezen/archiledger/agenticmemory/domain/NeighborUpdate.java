@@ -1,5 +1,8 @@
 package com.thecookiezen.archiledger.agenticmemory.domain;
 
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.NotePatch;
+
 import java.util.List;
 
 public record NeighborUpdate(
@@ -11,4 +14,12 @@ public record NeighborUpdate(
         newTags = newTags != null ? List.copyOf(newTags) : List.of();
         newContext = newContext != null ? newContext : "";
     }
+
+    /**
+     * Blank context and empty tags mean "unchanged" and leave the neighbor's current values in place.
+     */
+    public NotePatch toPatch() {
+        return new NotePatch(new MemoryNoteId(noteId), newContext.isBlank() ? null : newContext,
+            newTags.isEmpty() ? null : newTags);
+    }
 }
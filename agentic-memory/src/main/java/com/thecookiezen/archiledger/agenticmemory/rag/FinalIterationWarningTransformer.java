@@ -15,8 +15,10 @@ import java.util.List;
  * This prevents runaway tool calls by forcing the LLM to return its best answer on the
  * final allowed iteration. Configure the threshold via
  * {@link com.thecookiezen.archiledger.agenticmemory.AgenticMemoryProperties#maxToolIterations()}.
+ * As a {@link ToolLoopMeter} the transformer also measures the tool loop and records whether the warning was
+ * injected; use one instance per tool loop to read those values.
  */
-public class FinalIterationWarningTransformer implements ToolLoopTransformer {
+public class FinalIterationWarningTransformer extends ToolLoopMeter {
 
     private static final String DEFAULT_WARNING =
             "WARNING: This is your final iteration. You MUST NOT call any more tools. " +
@@ -24,6 +26,7 @@ public class FinalIterationWarningTransformer implements ToolLoopTransformer {
 
     private final int maxIterations;
     private final String warningMessage;
+    private volatile boolean warned;
 
     public FinalIterationWarningTransformer(int maxIterations) {
         this(maxIterations, DEFAULT_WARNING);
@@ -36,12 +39,21 @@ public class FinalIterationWarningTransformer implements ToolLoopTransformer {
 
     @Override
     public List<Message> transformBeforeLlmCall(BeforeLlmCallContext context) {
+        List<Message> history = super.transformBeforeLlmCall(context);
         if (context.getIteration() < maxIterations) {
-            return context.getHistory();
+            return history;
         }
 
-        List<Message> modified = new ArrayList<>(context.getHistory());
+        warned = true;
+        List<Message> modified = new ArrayList<>(history);
         modified.add(new SystemMessage(warningMessage));
         return modified;
     }
+
+    /**
+     * Whether the tool loop reached the final iteration and was told to stop calling tools.
+     */
+    public boolean warned() {
+        return warned;
+    }
 }
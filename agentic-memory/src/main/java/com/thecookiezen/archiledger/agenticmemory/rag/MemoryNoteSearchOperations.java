@@ -6,7 +6,9 @@ import com.embabel.agent.rag.service.ResultExpander;
 import com.embabel.agent.rag.service.VectorSearch;
 import com.embabel.common.core.types.SimilarityResult;
 import com.embabel.common.core.types.TextSimilaritySearchRequest;
+import com.thecookiezen.archiledger.agenticmemory.AgentMetrics;
 import com.thecookiezen.archiledger.application.service.MemoryNoteService;
+import com.thecookiezen.archiledger.domain.model.LinkDirection;
 import com.thecookiezen.archiledger.domain.model.MemoryNote;
 import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
 import org.slf4j.Logger;
@@ -21,10 +23,14 @@ public class MemoryNoteSearchOperations implements VectorSearch, ResultExpander
 
     private static final Logger logger = LoggerFactory.getLogger(MemoryNoteSearchOperations.class);
 
+    private static final int ZOOM_OUT_MAX_HOPS = 3;
+
     private final MemoryNoteService memoryNoteService;
+    private final AgentMetrics agentMetrics;
 
-    public MemoryNoteSearchOperations(MemoryNoteService memoryNoteService) {
+    public MemoryNoteSearchOperations(MemoryNoteService memoryNoteService, AgentMetrics agentMetrics) {
         this.memoryNoteService = memoryNoteService;
+        this.agentMetrics = agentMetrics;
     }
 
     @Override
@@ -41,6 +47,7 @@ public class MemoryNoteSearchOperations implements VectorSearch, ResultExpander
             return List.of();
         }
 
+        agentMetrics.recordSearch();
         return memoryNoteService.similaritySearch(request.getQuery(), request.getTopK(), request.getSimilarityThreshold(), 0)
             .stream()
             .map(result -> {
@@ -52,35 +59,23 @@ public class MemoryNoteSearchOperations implements VectorSearch, ResultExpander
 
     @Override
     public List<ContentElement> expandResult(String id, Method method, int elementsToAdd) {
-        if (id == null || id.isBlank()) {
+        if (id == null || id.isBlank() || elementsToAdd <= 0) {
             return List.of();
         }
 
         MemoryNoteId noteId = new MemoryNoteId(id);
-        
-        return switch (method) {
-            case SEQUENCE -> expandByLinks(noteId, elementsToAdd);
-            case ZOOM_OUT -> expandUpward(noteId, elementsToAdd);
+        agentMetrics.recordSearch();
+
+        List<MemoryNote> expanded = switch (method) {
+            // The nearest linked notes in either direction; every hop adds at least one note, so elementsToAdd
+            // hops are enough to fill the result whenever enough notes are connected.
+            case SEQUENCE -> memoryNoteService.expandNotes(noteId, LinkDirection.BOTH, elementsToAdd, elementsToAdd);
+            case ZOOM_OUT -> memoryNoteService.expandNotes(noteId, LinkDirection.OUTGOING, ZOOM_OUT_MAX_HOPS, elementsToAdd);
         };
-    }
 
-    private List<ContentElement> expandByLinks(MemoryNoteId noteId, int maxElements) {
-        List<MemoryNote> linkedNotes = memoryNoteService.getNotesUpward(noteId, 1, maxElements);
-        
-        logger.debug("Expanding note {} found {} linked notes", noteId.value(), linkedNotes.size());
-        
-        return linkedNotes.stream()
-            .map(MemoryNoteRetrievable::new)
-            .collect(Collectors.toList());
-    }
+        logger.debug("Expanding note {} by {} found {} notes", noteId.value(), method, expanded.size());
 
-    private List<ContentElement> expandUpward(MemoryNoteId noteId, int maxElements) {
-        int maxHops = 3;
-        List<MemoryNote> upwardNotes = memoryNoteService.getNotesUpward(noteId, maxHops, maxElements);
-        
-        logger.debug("Expanding note {} upward found {} notes", noteId.value(), upwardNotes.size());
-        
-        return upwardNotes.stream()
+        return expanded.stream()
             .map(MemoryNoteRetrievable::new)
             .collect(Collectors.toList());
     }
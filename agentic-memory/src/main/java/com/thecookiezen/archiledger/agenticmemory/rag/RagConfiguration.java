@@ -1,5 +1,6 @@
 package com.thecookiezen.archiledger.agenticmemory.rag;
 
+import com.thecookiezen.archiledger.agenticmemory.AgentMetrics;
 import com.thecookiezen.archiledger.application.service.MemoryNoteService;
 
 import org.springframework.context.annotation.Bean;
@@ -9,7 +10,7 @@ import org.springframework.context.annotation.Configuration;
 class RagConfiguration {
 
     @Bean
-    MemoryNoteSearchOperations archiledgerSearchOperations(MemoryNoteService memoryService) {
-        return new MemoryNoteSearchOperations(memoryService);
+    MemoryNoteSearchOperations archiledgerSearchOperations(MemoryNoteService memoryService, AgentMetrics agentMetrics) {
+        return new MemoryNoteSearchOperations(memoryService, agentMetrics);
     }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.thecookiezen.archiledger.agenticmemory.rag;
+
+import com.embabel.agent.api.tool.callback.BeforeLlmCallContext;
+import com.embabel.agent.api.tool.callback.ToolLoopTransformer;
+import com.embabel.chat.Message;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link ToolLoopTransformer} that leaves the history untouched and measures the tool loop it is attached to:
+ * the number of LLM calls and the characters of the messages sent with each of them. Use one instance per tool
+ * loop to read its counts.
+ */
+public class ToolLoopMeter implements ToolLoopTransformer {
+
+    private final AtomicInteger llmCalls = new AtomicInteger();
+    private final AtomicLong promptChars = new AtomicLong();
+
+    @Override
+    public List<Message> transformBeforeLlmCall(BeforeLlmCallContext context) {
+        llmCalls.incrementAndGet();
+        long chars = 0;
+        for (Message message : context.getHistory()) {
+            String content = message.getContent();
+            chars += content != null ? content.length() : 0;
+        }
+        promptChars.addAndGet(chars);
+        return context.getHistory();
+    }
+
+    public int llmCalls() {
+        return llmCalls.get();
+    }
+
+    /**
+     * Characters of the prompts of all LLM calls, counting the whole history resent with every call.
+     */
+    public long promptChars() {
+        return promptChars.get();
+    }
+}
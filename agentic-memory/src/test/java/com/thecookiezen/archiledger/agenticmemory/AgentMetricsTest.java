@@ -0,0 +1,89 @@
+package com.thecookiezen.archiledger.agenticmemory;
+
+import com.embabel.agent.api.tool.callback.BeforeLlmCallContext;
+import com.embabel.chat.Message;
+import com.embabel.chat.SystemMessage;
+import com.thecookiezen.archiledger.agenticmemory.AgentMetrics.Searches;
+import com.thecookiezen.archiledger.agenticmemory.AgentMetrics.Span;
+import com.thecookiezen.archiledger.agenticmemory.domain.NoteAnalysis;
+import com.thecookiezen.archiledger.agenticmemory.rag.FinalIterationWarningTransformer;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AgentMetricsTest {
+
+    private final AgentMetrics metrics = new AgentMetrics(3, true);
+
+    @Test
+    void spansRecordLatencyAndFailures() {
+        try (Span span = metrics.span("storeMemory").note(new MemoryNoteId("a")).endsTrace()) {
+            span.complete("stored");
+        }
+        assertThrows(IllegalStateException.class, () -> {
+            try (Span ignored = metrics.span("storeMemory")) {
+                throw new IllegalStateException("store unavailable");
+            }
+        });
+
+        var latency = metrics.stats().latencyByAction().getFirst();
+        assertEquals("storeMemory", latency.name());
+        assertEquals(2, latency.count());
+        assertEquals(1, latency.failures());
+    }
+
+    @Test
+    void toolIterationsAreBucketedWithOverflow() {
+        metrics.recordEvaluation(loop(1));
+        metrics.recordEvaluation(loop(3));
+        metrics.recordEvaluation(loop(7));
+
+        var stats = metrics.stats();
+        assertEquals(Map.of("1", 1L, "2", 0L, "3", 1L, "4+", 1L), stats.toolIterations());
+        assertEquals(2, stats.finalIterationWarnings());
+        assertEquals(3, stats.evolutionEvaluations());
+    }
+
+    @Test
+    void searchesCountOnlyWhileTracked() {
+        metrics.recordSearch();
+        try (Searches searches = metrics.trackSearches()) {
+            metrics.recordSearch();
+            metrics.recordSearch();
+            assertEquals(2, searches.count());
+        }
+        metrics.recordSearch();
+        metrics.recordEvaluation(loop(1));
+
+        var stats = metrics.stats();
+        assertEquals(2, stats.ragSearches());
+        assertEquals(2.0, stats.ragSearchesPerWrite());
+    }
+
+    @Test
+    void llmCallSizesArePerAction() {
+        var meter = loop(2);
+
+        metrics.recordLlmCall("analyzeContent", meter, new NoteAnalysis(List.of("k"), "ctx", List.of("t")));
+
+        var sizes = metrics.stats().llmCallSizes().getFirst();
+        assertEquals("analyzeContent", sizes.action());
+        assertEquals(1, sizes.calls());
+        assertEquals(2.0 * "prompt".length(), sizes.meanPromptChars());
+        assertTrue(sizes.meanResponseChars() > 0);
+    }
+
+    private static FinalIterationWarningTransformer loop(int llmCalls) {
+        var transformer = new FinalIterationWarningTransformer(3);
+        List<Message> history = List.of(new SystemMessage("prompt"));
+        for (int i = 1; i <= llmCalls; i++) {
+            transformer.transformBeforeLlmCall(new BeforeLlmCallContext(history, i, List.of(), null));
+        }
+        return transformer;
+    }
+}
@@ -0,0 +1,134 @@
+package com.thecookiezen.archiledger.agenticmemory;
+
+import com.thecookiezen.archiledger.agenticmemory.domain.NoteAnalysis;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalysisCacheTest {
+
+    @TempDir
+    Path dir;
+
+    private final AtomicInteger llmCalls = new AtomicInteger();
+
+    private Supplier<NoteAnalysis> analysis(String context) {
+        return () -> {
+            llmCalls.incrementAndGet();
+            return new NoteAnalysis(List.of("k"), context, List.of("t"));
+        };
+    }
+
+    @Test
+    void trivialVariantsOfContentShareAnEntry() {
+        AnalysisCache cache = new AnalysisCache(true, 10, "model:v1", null);
+
+        cache.computeIfAbsent("Use LadybugDB  for storage", analysis("first"));
+        NoteAnalysis repeated = cache.computeIfAbsent("  use ladybugdb\nfor STORAGE ", analysis("second"));
+
+        assertEquals("first", repeated.context());
+        assertEquals(1, llmCalls.get());
+        assertEquals(1, cache.stats().hits());
+        assertEquals(0.5, cache.stats().hitRatio());
+    }
+
+    @Test
+    void modelOrPromptChangeMissesTheCache() {
+        Path file = dir.resolve("analysis-cache.jsonl");
+        try (AnalysisCache first = new AnalysisCache(true, 10, "model:v1", file)) {
+            first.computeIfAbsent("content", analysis("v1"));
+        }
+
+        NoteAnalysis result = new AnalysisCache(true, 10, "model:v2", file).computeIfAbsent("content", analysis("v2"));
+
+        assertEquals("v2", result.context());
+        assertEquals(2, llmCalls.get());
+    }
+
+    @Test
+    void entriesSurviveRestart() {
+        Path file = dir.resolve("analysis-cache.jsonl");
+        try (AnalysisCache first = new AnalysisCache(true, 10, "model:v1", file)) {
+            first.computeIfAbsent("content", analysis("stored"));
+        }
+
+        AnalysisCache reloaded = new AnalysisCache(true, 10, "model:v1", file);
+
+        assertEquals("stored", reloaded.computeIfAbsent("content", analysis("fresh")).context());
+        assertEquals(1, llmCalls.get());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedAndCompactsFile() throws Exception {
+        Path file = dir.resolve("analysis-cache.jsonl");
+        AnalysisCache cache = new AnalysisCache(true, 2, "model:v1", file);
+        for (int i = 0; i < 10; i++) {
+            cache.computeIfAbsent("content " + i, analysis("c" + i));
+        }
+        cache.close();
+
+        assertEquals(2, cache.stats().entries());
+        assertEquals(8, cache.stats().evictions());
+        assertTrue(Files.readAllLines(file).size() <= 4);
+        AnalysisCache reloaded = new AnalysisCache(true, 2, "model:v1", file);
+        assertEquals("c9", reloaded.computeIfAbsent("content 9", analysis("fresh")).context());
+    }
+
+    @Test
+    void concurrentMissesShareOneAnalysis() throws Exception {
+        AnalysisCache cache = new AnalysisCache(true, 10, "model:v1", null);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<NoteAnalysis> slow = () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return analysis("shared").get();
+        };
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<NoteAnalysis> first = callers.submit(() -> cache.computeIfAbsent("content", slow));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            List<Future<NoteAnalysis>> others = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                others.add(callers.submit(() -> cache.computeIfAbsent("content", analysis("duplicate"))));
+            }
+            release.countDown();
+
+            assertEquals("shared", first.get(5, TimeUnit.SECONDS).context());
+            for (Future<NoteAnalysis> other : others) {
+                assertEquals("shared", other.get(5, TimeUnit.SECONDS).context());
+            }
+        }
+        assertEquals(1, llmCalls.get());
+        assertEquals(1, cache.stats().misses());
+    }
+
+    @Test
+    void failedAnalysisIsNotCachedAndCanBeRetried() {
+        AnalysisCache cache = new AnalysisCache(true, 10, "model:v1", null);
+
+        assertThrows(IllegalStateException.class, () -> cache.computeIfAbsent("content", () -> {
+            throw new IllegalStateException("LLM unavailable");
+        }));
+
+        assertEquals("retried", cache.computeIfAbsent("content", analysis("retried")).context());
+    }
+}
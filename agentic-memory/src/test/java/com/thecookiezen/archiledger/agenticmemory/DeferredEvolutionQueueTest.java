@@ -0,0 +1,230 @@
+package com.thecookiezen.archiledger.agenticmemory;
+
+import com.thecookiezen.archiledger.agenticmemory.domain.EvolutionPlan;
+import com.thecookiezen.archiledger.agenticmemory.domain.EvolutionRequest;
+import com.thecookiezen.archiledger.agenticmemory.rag.MemoryNoteSearchOperations;
+import com.thecookiezen.archiledger.application.service.MemoryNoteService;
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.NoteLink;
+import com.thecookiezen.archiledger.domain.model.NotePatch;
+import com.thecookiezen.archiledger.domain.model.SimilarityResult;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class DeferredEvolutionQueueTest {
+
+    private final MemoryNoteService service = mock(MemoryNoteService.class);
+    private DeferredEvolutionQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        when(service.embed(any())).thenAnswer(inv -> inv.<MemoryNote>getArgument(0).withEmbedding(new float[] { 1.0f }));
+        when(service.similaritySearch(any(float[].class), anyInt(), anyDouble(), anyDouble())).thenReturn(List.of());
+        when(service.updateNote(any(), any(), anyList())).thenAnswer(inv -> {
+            UnaryOperator<MemoryNote> change = inv.getArgument(1);
+            MemoryNoteId id = inv.getArgument(0);
+            return Optional.of(change.apply(note(id.value())));
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (queue != null) {
+            queue.close();
+        }
+    }
+
+    private static MemoryNote note(String id) {
+        return new MemoryNote(new MemoryNoteId(id), "content " + id, List.of(), "", List.of(), List.of(),
+                "2026-03-04T16:00:00Z", 3, null);
+    }
+
+    private static EvolutionPlan evolve(EvolutionRequest request) {
+        MemoryNote note = request.note();
+        return new EvolutionPlan(note.withTags(List.of("evolved")).withLinks(List.of(new NoteLink("n1", "related", "shared topic"))),
+                List.of(new NotePatch(new MemoryNoteId("n1"), null, List.of("neighbor"))));
+    }
+
+    private DeferredEvolutionQueue queue(Function<EvolutionRequest, EvolutionPlan> planner, int workers) {
+        return queue(planner, workers, 10);
+    }
+
+    private DeferredEvolutionQueue queue(Function<EvolutionRequest, EvolutionPlan> planner, int workers, int capacity) {
+        return new DeferredEvolutionQueue(planner, service, WriteMode.DEFERRED, 5, workers, capacity);
+    }
+
+    @Test
+    void appliesPlanToStoredNoteWithoutTouchingRetrievalCount() throws InterruptedException {
+        queue = queue(DeferredEvolutionQueueTest::evolve, 1);
+
+        queue.submit(new EvolutionRequest(note("a"), true));
+
+        assertTrue(queue.awaitIdle(Duration.ofSeconds(5)));
+        verify(service).updateNote(eq(new MemoryNoteId("a")), argThat(change -> {
+            MemoryNote updated = change.apply(note("a"));
+            return updated.tags().equals(List.of("evolved")) && updated.links().size() == 1 && updated.retrievalCount() == 3;
+        }), eq(List.of(new NotePatch(new MemoryNoteId("n1"), null, List.of("neighbor")))));
+        EvolutionStatus status = queue.status("a");
+        assertEquals(1, status.completed());
+        assertEquals(EvolutionStatus.State.COMPLETED, status.jobs().getFirst().state());
+    }
+
+    @Test
+    void requestMergedIntoExistingNoteIsNotQueued() throws InterruptedException {
+        queue = queue(request -> fail("merged note must not be evolved"), 1);
+
+        queue.submit(new EvolutionRequest(note("existing"), true, true));
+
+        assertTrue(queue.awaitIdle(Duration.ofSeconds(5)));
+        assertTrue(queue.status("existing").jobs().isEmpty());
+        verify(service, never()).updateNote(any(), any(), any());
+    }
+
+    @Test
+    void deferredWriteEmbedsNoteOnce() throws InterruptedException {
+        AtomicInteger embeddings = new AtomicInteger();
+        when(service.embed(any())).thenAnswer(inv -> {
+            MemoryNote note = inv.getArgument(0);
+            if (note.embedding() != null) {
+                return note;
+            }
+            embeddings.incrementAndGet();
+            return note.withEmbedding(new float[] { 1.0f });
+        });
+        when(service.createNote(any(MemoryNote.class))).thenAnswer(inv -> inv.<MemoryNote>getArgument(0).withEmbedding(null));
+        AgenticMemoryAgent agent = new AgenticMemoryAgent(mock(AgenticMemoryProperties.class), service,
+                mock(MemoryNoteSearchOperations.class), mock(EvolutionMetrics.class), mock(LlmScheduler.class),
+                mock(AnalysisCache.class), new AgentMetrics(3, false));
+        queue = queue(request -> {
+            service.embed(request.note());
+            return evolve(request);
+        }, 1);
+
+        queue.submit(agent.storeForEvolution(service.embed(note("a"))));
+
+        assertTrue(queue.awaitIdle(Duration.ofSeconds(5)));
+        assertEquals(1, queue.status("a").completed());
+        assertEquals(1, embeddings.get());
+    }
+
+    @Test
+    void rawWritesAreStoredBeforeAnalysis() throws InterruptedException {
+        when(service.createNote(any(MemoryNote.class))).thenAnswer(inv -> inv.getArgument(0));
+        CountDownLatch release = new CountDownLatch(1);
+        queue = queue(request -> {
+            assertFalse(request.analyzed());
+            await(release);
+            return evolve(request);
+        }, 1);
+
+        MemoryNote stored = queue.storeRaw("raw content");
+
+        assertEquals("raw content", stored.content());
+        verify(service).createNote(argThat(note -> note.embedding() != null));
+        assertNotEquals(EvolutionStatus.State.COMPLETED, queue.status(stored.id().value()).jobs().getFirst().state());
+        release.countDown();
+        assertTrue(queue.awaitIdle(Duration.ofSeconds(5)));
+        assertEquals(1, queue.status(null).completed());
+    }
+
+    @Test
+    void jobsWithOverlappingNeighborhoodsAreCoalesced() throws InterruptedException {
+        when(service.similaritySearch(any(float[].class), anyInt(), anyDouble(), anyDouble()))
+                .thenReturn(List.of(new SimilarityResult<>(note("shared"), 0.9)));
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        queue = queue(request -> {
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            firstStarted.countDown();
+            await(release);
+            concurrent.decrementAndGet();
+            return evolve(request);
+        }, 4);
+
+        queue.submit(new EvolutionRequest(note("a"), true));
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        queue.submit(new EvolutionRequest(note("b"), true));
+        queue.submit(new EvolutionRequest(note("c"), true));
+        Thread.sleep(200);
+        release.countDown();
+
+        assertTrue(queue.awaitIdle(Duration.ofSeconds(5)));
+        EvolutionStatus status = queue.status(null);
+        assertEquals(3, status.completed());
+        assertEquals(2, status.coalesced());
+        assertEquals(1, maxConcurrent.get());
+    }
+
+    @Test
+    void submitWaitsForRoomWhenQueueIsFullInsteadOfEvolvingOnCallerThread() throws Exception {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Set<String> plannerThreads = ConcurrentHashMap.newKeySet();
+        queue = queue(request -> {
+            plannerThreads.add(Thread.currentThread().getName());
+            firstStarted.countDown();
+            await(release);
+            return evolve(request);
+        }, 1, 1);
+
+        queue.submit(new EvolutionRequest(note("a"), true));
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        queue.submit(new EvolutionRequest(note("b"), true));
+        CompletableFuture<Void> blocked = CompletableFuture.runAsync(() -> queue.submit(new EvolutionRequest(note("c"), true)));
+        Thread.sleep(200);
+        assertFalse(blocked.isDone());
+
+        release.countDown();
+        blocked.get(5, TimeUnit.SECONDS);
+        assertTrue(queue.awaitIdle(Duration.ofSeconds(5)));
+        assertEquals(3, queue.status(null).completed());
+        assertTrue(plannerThreads.stream().allMatch(name -> name.startsWith("agentic-memory-evolution-")));
+    }
+
+    @Test
+    void failedEvolutionIsReported() throws InterruptedException {
+        queue = queue(request -> {
+            throw new IllegalStateException("LLM unavailable");
+        }, 1);
+
+        queue.submit(new EvolutionRequest(note("a"), true));
+
+        assertTrue(queue.awaitIdle(Duration.ofSeconds(5)));
+        EvolutionStatus.Job job = queue.status("a").jobs().getFirst();
+        assertEquals(EvolutionStatus.State.FAILED, job.state());
+        assertEquals("LLM unavailable", job.error());
+        verify(service, never()).updateNote(any(), any(), anyList());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.thecookiezen.archiledger.agenticmemory;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EvolutionMetricsTest {
+
+    @Test
+    void prefetchSavesAgainstDefaultBaseline() {
+        var metrics = new EvolutionMetrics();
+
+        metrics.recordPrefetch(5, 1);
+        metrics.recordPrefetch(5, 1);
+
+        var stats = metrics.stats();
+        assertEquals(2, stats.prefetchEvaluations());
+        assertEquals(10, stats.prefetchedNeighbors());
+        assertEquals(2, stats.iterationsSaved());
+    }
+
+    @Test
+    void prefetchSavesAgainstObservedToolLoopAverage() {
+        var metrics = new EvolutionMetrics();
+        metrics.recordToolLoop(3);
+        metrics.recordToolLoop(5);
+
+        metrics.recordPrefetch(5, 1);
+        metrics.recordPrefetch(5, 6);
+
+        var stats = metrics.stats();
+        assertEquals(8, stats.toolLoopLlmCalls());
+        assertEquals(7, stats.prefetchLlmCalls());
+        assertEquals(3, stats.iterationsSaved());
+    }
+}
@@ -0,0 +1,146 @@
+package com.thecookiezen.archiledger.agenticmemory;
+
+import com.thecookiezen.archiledger.agenticmemory.LlmScheduler.Priority;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LlmSchedulerTest {
+
+    private LlmScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        scheduler.close();
+    }
+
+    @Test
+    void limitsCallsInFlight() throws Exception {
+        scheduler = new LlmScheduler(2, 5000, 5000);
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<String>> calls = new CopyOnWriteArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                calls.add(CompletableFuture.supplyAsync(() -> scheduler.call(Priority.INTERACTIVE, "analyzeContent", () -> {
+                    maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                    sleep(20);
+                    concurrent.decrementAndGet();
+                    return "ok";
+                }), callers));
+            }
+            for (CompletableFuture<String> call : calls) {
+                assertEquals("ok", call.get(5, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(2, maxConcurrent.get());
+        LlmScheduler.Stats stats = scheduler.stats();
+        assertEquals(0, stats.inFlight());
+        assertEquals(10, stats.latencyByAction().getFirst().count());
+    }
+
+    @Test
+    void interactiveCallsOvertakeQueuedBackgroundCalls() throws Exception {
+        scheduler = new LlmScheduler(1, 5000, 5000);
+        CountDownLatch busy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<?> blocking = CompletableFuture.runAsync(() -> scheduler.call(Priority.BACKGROUND, "evaluateEvolution", () -> {
+                busy.countDown();
+                await(release);
+                return null;
+            }), callers);
+            assertTrue(busy.await(5, TimeUnit.SECONDS));
+
+            CompletableFuture<?> background = CompletableFuture.runAsync(
+                    () -> scheduler.call(Priority.BACKGROUND, "evaluateEvolution", () -> order.add("background")), callers);
+            waitForQueued(1);
+            CompletableFuture<?> interactive = CompletableFuture.runAsync(
+                    () -> scheduler.call(Priority.INTERACTIVE, "analyzeContent", () -> order.add("interactive")), callers);
+            waitForQueued(2);
+            release.countDown();
+
+            CompletableFuture.allOf(blocking, background, interactive).get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(List.of("interactive", "background"), order);
+    }
+
+    @Test
+    void callsWaitingTooLongFailWithoutRunning() throws Exception {
+        scheduler = new LlmScheduler(1, 50, 5000);
+        CountDownLatch busy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<?> blocking = CompletableFuture.runAsync(() -> scheduler.call(Priority.INTERACTIVE, "analyzeContent", () -> {
+                busy.countDown();
+                await(release);
+                return null;
+            }), callers);
+            assertTrue(busy.await(5, TimeUnit.SECONDS));
+
+            AtomicInteger ran = new AtomicInteger();
+            assertThrows(IllegalStateException.class,
+                    () -> scheduler.call(Priority.BACKGROUND, "evaluateEvolution", ran::incrementAndGet));
+            assertEquals(0, ran.get());
+            release.countDown();
+            blocking.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(1, scheduler.stats().queueTimeouts());
+        assertEquals("ok", scheduler.call(Priority.BACKGROUND, "evaluateEvolution", () -> "ok"));
+    }
+
+    @Test
+    void callsRunningTooLongAreInterrupted() {
+        scheduler = new LlmScheduler(1, 5000, 50);
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+                () -> scheduler.call(Priority.INTERACTIVE, "analyzeContent", () -> {
+                    try {
+                        Thread.sleep(5000);
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException("model call interrupted", e);
+                    }
+                    return null;
+                }));
+
+        assertTrue(failure.getMessage().contains("analyzeContent"));
+        assertFalse(Thread.currentThread().isInterrupted());
+        assertEquals(1, scheduler.stats().callTimeouts());
+        assertEquals("ok", scheduler.call(Priority.INTERACTIVE, "analyzeContent", () -> "ok"));
+    }
+
+    private void waitForQueued(int queued) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (scheduler.stats().queued() < queued && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -60,4 +60,26 @@ class FinalIterationWarningTransformerTest {
             assertEquals(baseHistory, result, "Should not modify at iteration " + i);
         }
     }
+
+    @Test
+    void shouldCountLlmCalls() {
+        var transformer = new FinalIterationWarningTransformer(5);
+
+        transformer.transformBeforeLlmCall(new BeforeLlmCallContext(baseHistory, 0, List.of(), null));
+        transformer.transformBeforeLlmCall(new BeforeLlmCallContext(baseHistory, 1, List.of(), null));
+
+        assertEquals(2, transformer.llmCalls());
+    }
+
+    @Test
+    void shouldMeasurePromptsAndRecordWarning() {
+        var transformer = new FinalIterationWarningTransformer(2);
+
+        transformer.transformBeforeLlmCall(new BeforeLlmCallContext(baseHistory, 1, List.of(), null));
+        assertFalse(transformer.warned());
+        transformer.transformBeforeLlmCall(new BeforeLlmCallContext(baseHistory, 2, List.of(), null));
+
+        assertTrue(transformer.warned());
+        assertEquals(2L * "You are a helpful assistant.".length(), transformer.promptChars());
+    }
 }
@@ -0,0 +1,28 @@
+package com.thecookiezen.archiledger.application.cache;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cache key made of a read operation name and its normalized parameters. Free-text parameters are
+ * trimmed and whitespace-collapsed so trivially different spellings of the same query share an entry.
+ * The optional scope (the memory namespace) lets writes invalidate only the entries they can affect.
+ */
+public record QueryKey(String scope, String operation, List<Object> parameters) {
+
+    public static QueryKey of(String operation, Object... parameters) {
+        Object[] normalized = new Object[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            normalized[i] = parameters[i] instanceof String text ? normalize(text) : parameters[i];
+        }
+        return new QueryKey(null, operation, Arrays.asList(normalized));
+    }
+
+    public QueryKey withScope(String newScope) {
+        return new QueryKey(newScope, operation, parameters);
+    }
+
+    private static String normalize(String text) {
+        return text.strip().replaceAll("\\s+", " ");
+    }
+}
@@ -0,0 +1,140 @@
+package com.thecookiezen.archiledger.application.cache;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.thecookiezen.archiledger.domain.model.CacheStats;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded LRU cache for read query results, guarded by write epochs.
+ * <p>
+ * Every write bumps the epoch. Writes confined to one scope call {@link #invalidate(String)}, which drops
+ * only the entries of that scope; {@link #invalidateAll()} drops everything. A result whose load overlapped
+ * a write to its scope is returned to its caller but never cached, so stale results are never served.
+ * Retrieval counter increments are not treated as writes, so counts inside cached results may lag.
+ * <p>
+ * Memory is bounded by a total weight: a collection or map result weighs its size, anything else weighs one.
+ */
+@Component
+public class QueryResultCache {
+
+    private final boolean enabled;
+    private final long maxWeight;
+    private final AtomicLong epoch = new AtomicLong();
+    private final LinkedHashMap<QueryKey, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final Map<String, Long> scopeInvalidations = new HashMap<>();
+    private long globalInvalidation;
+    private long weight;
+
+    public QueryResultCache(
+            @Value("${archiledger.cache.query.enabled:true}") boolean enabled,
+            @Value("${archiledger.cache.query.max-weight:10000}") long maxWeight) {
+        this.enabled = enabled;
+        this.maxWeight = maxWeight;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(QueryKey key, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        long loadEpoch = epoch.get();
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                hits.increment();
+                return (T) entry.value();
+            }
+        }
+
+        misses.increment();
+        T value = loader.get();
+        put(key, value, loadEpoch);
+        return value;
+    }
+
+    public synchronized void invalidate(String scope) {
+        scopeInvalidations.put(scope, epoch.incrementAndGet());
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (Objects.equals(entry.scope(), scope)) {
+                iterator.remove();
+                weight -= entry.weight();
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        globalInvalidation = epoch.incrementAndGet();
+        scopeInvalidations.clear();
+        entries.clear();
+        weight = 0;
+    }
+
+    public long epoch() {
+        return epoch.get();
+    }
+
+    /**
+     * Epoch of the last write that affected {@code scope}.
+     */
+    public synchronized long epoch(String scope) {
+        return Math.max(globalInvalidation, scopeInvalidations.getOrDefault(scope, 0L));
+    }
+
+    public synchronized CacheStats stats() {
+        return CacheStats.of(hits.sum(), misses.sum(), evictions.sum(), entries.size(), weight, maxWeight);
+    }
+
+    private synchronized void put(QueryKey key, Object value, long loadEpoch) {
+        if (epoch(key.scope()) > loadEpoch) {
+            return;
+        }
+        long entryWeight = weigh(value);
+        if (entryWeight > maxWeight) {
+            return;
+        }
+
+        Entry previous = entries.put(key, new Entry(value, key.scope(), entryWeight));
+        if (previous != null) {
+            weight -= previous.weight();
+        }
+        weight += entryWeight;
+
+        Iterator<Map.Entry<QueryKey, Entry>> eldest = entries.entrySet().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            Entry evicted = eldest.next().getValue();
+            eldest.remove();
+            weight -= evicted.weight();
+            evictions.increment();
+        }
+    }
+
+    private static long weigh(Object value) {
+        if (value instanceof Collection<?> collection) {
+            return Math.max(1, collection.size());
+        }
+        if (value instanceof Map<?, ?> map) {
+            return Math.max(1, map.size());
+        }
+        return 1;
+    }
+
+    private record Entry(Object value, String scope, long weight) {
+    }
+}
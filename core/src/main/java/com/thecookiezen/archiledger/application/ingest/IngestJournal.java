@@ -0,0 +1,114 @@
+package com.thecookiezen.archiledger.application.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.NoteLink;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Write-ahead journal of acknowledged but not yet persisted ingest submissions. Every submission is written
+ * and synced to its own file before it is acknowledged, and the file is deleted once all of its notes were
+ * written to the store, so the files left after a crash are exactly the submissions to replay.
+ */
+class IngestJournal {
+
+    private static final String SUFFIX = ".json";
+
+    private final Path directory;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    IngestJournal(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create ingest journal directory " + directory, e);
+        }
+    }
+
+    void append(long sequence, List<MemoryNote> notes) {
+        Path target = file(sequence);
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        try {
+            byte[] bytes = mapper.writeValueAsBytes(notes.stream().map(JournalNote::of).toList());
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to journal ingest submission " + sequence, e);
+        }
+    }
+
+    void remove(long sequence) {
+        try {
+            Files.deleteIfExists(file(sequence));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to remove ingest submission " + sequence + " from the journal", e);
+        }
+    }
+
+    /**
+     * Submissions left in the journal, oldest first.
+     */
+    List<Submission> recover() {
+        List<Submission> submissions = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> journaled = files.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+            for (Path path : journaled) {
+                String name = path.getFileName().toString();
+                long sequence = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+                JournalNote[] notes = mapper.readValue(path.toFile(), JournalNote[].class);
+                submissions.add(new Submission(sequence, Stream.of(notes).map(JournalNote::toDomain).toList()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read ingest journal " + directory, e);
+        }
+        return submissions;
+    }
+
+    private Path file(long sequence) {
+        return directory.resolve("%020d%s".formatted(sequence, SUFFIX));
+    }
+
+    record Submission(long sequence, List<MemoryNote> notes) {
+    }
+
+    record JournalLink(String target, String relationType, String context) {
+    }
+
+    record JournalNote(String id, String content, List<String> keywords, String context, List<String> tags,
+            List<JournalLink> links, String timestamp, int retrievalCount, String namespace) {
+
+        static JournalNote of(MemoryNote note) {
+            return new JournalNote(note.id().value(), note.content(), note.keywords(), note.context(), note.tags(),
+                    note.links().stream()
+                            .map(link -> new JournalLink(link.target().value(), link.relationType(), link.context()))
+                            .toList(),
+                    note.timestamp(), note.retrievalCount(), note.namespace());
+        }
+
+        MemoryNote toDomain() {
+            return new MemoryNote(new MemoryNoteId(id), content, keywords, context, tags,
+                    links.stream().map(link -> new NoteLink(link.target(), link.relationType(), link.context())).toList(),
+                    timestamp, retrievalCount, null, namespace);
+        }
+    }
+}
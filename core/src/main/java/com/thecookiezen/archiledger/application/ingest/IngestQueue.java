@@ -0,0 +1,311 @@
+package com.thecookiezen.archiledger.application.ingest;
+
+import com.thecookiezen.archiledger.application.service.MemoryNoteService;
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optional asynchronous ingest path for note creation.
+ * <p>
+ * When enabled, {@link #submit(MemoryNoteService, List)} validates the notes, including their ids and link
+ * targets against the stored notes, records them in the journal and returns immediately; background workers then
+ * embed and persist them in micro-batches per namespace. A submission is never split across batches and its notes
+ * are persisted in order, so a note's links to earlier notes of the same submission resolve. The
+ * queue holds at most {@code capacity} unpersisted notes: submissions wait up to {@code enqueueTimeout} for
+ * room and are rejected with an {@link IllegalStateException} after that. With a journal directory configured,
+ * submissions that were acknowledged but not persisted before a crash are replayed on the next start.
+ * When disabled, submissions are persisted synchronously.
+ */
+@Component
+public class IngestQueue implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestQueue.class);
+
+    private static final int MAX_RECENT_FAILURES = 100;
+
+    private final MemoryNoteService memoryNoteService;
+    private final boolean async;
+    private final int capacity;
+    private final int batchSize;
+    private final Duration enqueueTimeout;
+    private final IngestJournal journal;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Semaphore permits;
+    private final Map<Long, AtomicInteger> unpersistedPerSubmission = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final Deque<IngestStatus.Failure> recentFailures = new ArrayDeque<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    public IngestQueue(
+            MemoryNoteService memoryNoteService,
+            @Value("${archiledger.ingest.async.enabled:false}") boolean async,
+            @Value("${archiledger.ingest.capacity:10000}") int capacity,
+            @Value("${archiledger.ingest.workers:2}") int workerCount,
+            @Value("${archiledger.ingest.batch-size:32}") int batchSize,
+            @Value("${archiledger.ingest.enqueue-timeout-ms:2000}") long enqueueTimeoutMs,
+            @Value("${archiledger.ingest.journal-dir:}") String journalDir) {
+        if (capacity < 1 || workerCount < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("archiledger.ingest capacity, workers and batch-size must be at least 1");
+        }
+        this.memoryNoteService = memoryNoteService;
+        this.async = async;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.enqueueTimeout = Duration.ofMillis(enqueueTimeoutMs);
+        this.permits = new Semaphore(capacity);
+        this.journal = async && journalDir != null && !journalDir.isBlank() ? new IngestJournal(Path.of(journalDir)) : null;
+        if (async) {
+            recover();
+            for (int i = 0; i < workerCount; i++) {
+                Thread worker = Thread.ofPlatform().name("ingest-worker-" + i).daemon().start(this::work);
+                workers.add(worker);
+            }
+        }
+    }
+
+    public boolean async() {
+        return async;
+    }
+
+    /**
+     * Accepts {@code notes} for creation in the namespace of {@code service}. In async mode the returned notes
+     * are the validated submissions, not yet persisted; otherwise they are the created notes.
+     */
+    public List<MemoryNote> submit(MemoryNoteService service, List<MemoryNote> notes) {
+        if (!async) {
+            return service.createNotes(notes);
+        }
+        if (notes.isEmpty()) {
+            return List.of();
+        }
+        if (notes.size() > capacity) {
+            throw new IllegalArgumentException("Cannot submit " + notes.size() + " notes at once, the ingest queue holds " + capacity);
+        }
+        List<MemoryNote> scoped = notes.stream().map(note -> note.withNamespace(service.namespace())).toList();
+        service.validateNewNotes(scoped);
+        if (!tryAcquire(scoped.size())) {
+            rejected.increment();
+            throw new IllegalStateException("Ingest queue is full (" + capacity + " notes pending), retry later");
+        }
+        long submission = sequence.incrementAndGet();
+        try {
+            if (journal != null) {
+                journal.append(submission, scoped);
+            }
+        } catch (RuntimeException e) {
+            permits.release(scoped.size());
+            throw e;
+        }
+        enqueue(submission, scoped, scoped.size());
+        accepted.add(scoped.size());
+        return scoped;
+    }
+
+    /**
+     * Waits until every note acknowledged so far is persisted or failed.
+     *
+     * @return whether the queue drained within {@code timeout}
+     */
+    public boolean flush(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (pending) {
+            while (pending.get() > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(pending, remaining);
+            }
+        }
+        return true;
+    }
+
+    public IngestStatus status() {
+        List<IngestStatus.Failure> failures;
+        synchronized (recentFailures) {
+            failures = List.copyOf(recentFailures);
+        }
+        return new IngestStatus(async, pending.get(), capacity, accepted.sum(), completed.sum(), failed.sum(),
+                rejected.sum(), failures);
+    }
+
+    private boolean tryAcquire(int notes) {
+        try {
+            return permits.tryAcquire(notes, enqueueTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void enqueue(long submission, List<MemoryNote> notes, int heldPermits) {
+        unpersistedPerSubmission.put(submission, new AtomicInteger(notes.size()));
+        pending.addAndGet(notes.size());
+        queue.add(new Pending(submission, notes, heldPermits));
+    }
+
+    /**
+     * Replays journaled submissions. They were accepted before the restart, so they are queued even when they
+     * exceed the capacity; new submissions wait until they are persisted.
+     */
+    private void recover() {
+        if (journal == null) {
+            return;
+        }
+        for (IngestJournal.Submission submission : journal.recover()) {
+            sequence.accumulateAndGet(submission.sequence(), Math::max);
+            int held = Math.min(submission.notes().size(), permits.availablePermits());
+            permits.acquireUninterruptibly(held);
+            enqueue(submission.sequence(), submission.notes(), held);
+            accepted.add(submission.notes().size());
+        }
+        if (pending.get() > 0) {
+            logger.info("Recovered {} unpersisted notes from the ingest journal", pending.get());
+        }
+    }
+
+    /**
+     * Takes whole submissions until the batch holds at least {@code batchSize} notes, so a single large
+     * submission may exceed it.
+     */
+    private void work() {
+        List<Pending> batch = new ArrayList<>();
+        while (running) {
+            try {
+                Pending next = queue.poll(200, TimeUnit.MILLISECONDS);
+                int notes = 0;
+                while (next != null) {
+                    batch.add(next);
+                    notes += next.notes().size();
+                    next = notes < batchSize ? queue.poll() : null;
+                }
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                persist(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void persist(List<Pending> batch) {
+        Map<String, List<Pending>> byNamespace = new LinkedHashMap<>();
+        for (Pending submission : batch) {
+            byNamespace.computeIfAbsent(submission.namespace(), ns -> new ArrayList<>()).add(submission);
+        }
+        byNamespace.forEach((namespace, submissions) -> {
+            MemoryNoteService service = memoryNoteService.inNamespace(namespace);
+            List<MemoryNote> notes = submissions.stream().flatMap(submission -> submission.notes().stream()).toList();
+            try {
+                service.createNotes(notes);
+                for (Pending submission : submissions) {
+                    for (int i = 0; i < submission.notes().size(); i++) {
+                        done(submission, i, null);
+                    }
+                }
+            } catch (RuntimeException batchFailure) {
+                logger.warn("Ingest batch of {} notes in namespace '{}' failed, retrying one by one", notes.size(), namespace, batchFailure);
+                for (Pending submission : submissions) {
+                    for (int i = 0; i < submission.notes().size(); i++) {
+                        MemoryNote note = submission.notes().get(i);
+                        try {
+                            service.createNote(note);
+                            done(submission, i, null);
+                        } catch (RuntimeException e) {
+                            logger.error("Failed to ingest note {} in namespace '{}'", note.id().value(), namespace, e);
+                            done(submission, i, e);
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    private void done(Pending submission, int index, RuntimeException error) {
+        MemoryNote note = submission.notes().get(index);
+        if (error == null) {
+            completed.increment();
+        } else {
+            failed.increment();
+            synchronized (recentFailures) {
+                if (recentFailures.size() == MAX_RECENT_FAILURES) {
+                    recentFailures.removeFirst();
+                }
+                recentFailures.addLast(new IngestStatus.Failure(note.id().value(), note.namespace(),
+                        String.valueOf(error.getMessage())));
+            }
+        }
+        AtomicInteger unpersisted = unpersistedPerSubmission.get(submission.sequence());
+        if (unpersisted != null && unpersisted.decrementAndGet() == 0) {
+            unpersistedPerSubmission.remove(submission.sequence());
+            if (journal != null) {
+                journal.remove(submission.sequence());
+            }
+        }
+        if (index < submission.heldPermits()) {
+            permits.release();
+        }
+        synchronized (pending) {
+            if (pending.decrementAndGet() == 0) {
+                pending.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Stops the workers. With a journal, notes still queued are replayed on the next start; without one, the
+     * queue is drained first.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        if (async && journal == null && !flush(Duration.ofSeconds(30))) {
+            logger.warn("Shutting down with {} unpersisted notes in the ingest queue", pending.get());
+        }
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(Duration.ofSeconds(30));
+        }
+    }
+
+    /**
+     * A queued submission. Its first {@code heldPermits} notes hold a queue permit each; replayed submissions
+     * may hold fewer than they have notes.
+     */
+    private record Pending(long sequence, List<MemoryNote> notes, int heldPermits) {
+
+        String namespace() {
+            return notes.getFirst().namespace();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.thecookiezen.archiledger.application.ingest;
+
+import java.util.List;
+
+/**
+ * Snapshot of the ingest queue. {@code pending} counts notes that were acknowledged but are not persisted yet,
+ * including the ones a worker is currently writing.
+ */
+public record IngestStatus(
+        boolean async,
+        int pending,
+        int capacity,
+        long accepted,
+        long completed,
+        long failed,
+        long rejected,
+        List<Failure> recentFailures) {
+
+    public record Failure(String noteId, String namespace, String error) {
+    }
+}
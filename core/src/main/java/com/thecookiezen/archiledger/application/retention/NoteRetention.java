@@ -0,0 +1,164 @@
+package com.thecookiezen.archiledger.application.retention;
+
+import com.thecookiezen.archiledger.application.service.MemoryNoteService;
+import com.thecookiezen.archiledger.domain.model.RetentionPolicy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Background archival of cold notes.
+ * <p>
+ * When enabled, a daemon thread runs every {@code interval} and archives, namespace by namespace, the notes
+ * matching the {@link RetentionPolicy} in batches of {@code batchSize} until none are left. Archived notes leave
+ * the live graph and its vector index, so the cost of searches follows the notes still in use; reading an
+ * archived note by id restores it. Runs never overlap.
+ */
+@Component
+public class NoteRetention implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(NoteRetention.class);
+
+    private final MemoryNoteService memoryNoteService;
+    private final boolean enabled;
+    private final RetentionPolicy policy;
+    private final int batchSize;
+    private final ScheduledExecutorService scheduler;
+    private final ReentrantLock running = new ReentrantLock();
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder archived = new LongAdder();
+    private volatile Instant lastRunAt;
+    private volatile int lastRunArchived;
+    private volatile String lastError;
+    private volatile boolean closed;
+
+    public NoteRetention(
+            MemoryNoteService memoryNoteService,
+            @Value("${archiledger.retention.enabled:false}") boolean enabled,
+            @Value("${archiledger.retention.max-age-days:90}") long maxAgeDays,
+            @Value("${archiledger.retention.max-retrieval-count:0}") int maxRetrievalCount,
+            @Value("${archiledger.retention.keep-tags:}") String keepTags,
+            @Value("${archiledger.retention.batch-size:500}") int batchSize,
+            @Value("${archiledger.retention.interval-minutes:60}") long intervalMinutes) {
+        this(memoryNoteService, enabled, new RetentionPolicy(Duration.ofDays(maxAgeDays), maxRetrievalCount, tags(keepTags)),
+                batchSize, Duration.ofMinutes(intervalMinutes));
+    }
+
+    NoteRetention(MemoryNoteService memoryNoteService, boolean enabled, RetentionPolicy policy, int batchSize,
+            Duration interval) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("archiledger.retention.batch-size must be at least 1");
+        }
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("archiledger.retention.interval-minutes must be at least 1");
+        }
+        this.memoryNoteService = memoryNoteService;
+        this.enabled = enabled;
+        this.policy = policy;
+        this.batchSize = batchSize;
+        if (enabled) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("note-retention").daemon().factory());
+            scheduler.scheduleWithFixedDelay(this::runScheduled, interval.toMillis(), interval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * Archives every note matching the policy now, waiting for a scheduled run in progress to finish first.
+     *
+     * @throws IllegalStateException if retention is disabled
+     */
+    public RetentionStatus run() {
+        if (!enabled) {
+            throw new IllegalStateException("Note retention is disabled, set archiledger.retention.enabled to enable it");
+        }
+        running.lock();
+        try {
+            int total = 0;
+            String error = null;
+            for (String namespace : memoryNoteService.getNamespaces()) {
+                if (closed) {
+                    break;
+                }
+                try {
+                    total += archiveNamespace(memoryNoteService.inNamespace(namespace));
+                } catch (RuntimeException e) {
+                    logger.warn("Retention of namespace '{}' failed", namespace, e);
+                    error = namespace + ": " + e.getMessage();
+                }
+            }
+            runs.increment();
+            archived.add(total);
+            lastRunAt = Instant.now();
+            lastRunArchived = total;
+            lastError = error;
+            if (total > 0) {
+                logger.info("Retention archived {} notes", total);
+            }
+            return status();
+        } finally {
+            running.unlock();
+        }
+    }
+
+    public RetentionStatus status() {
+        Instant lastRun = lastRunAt;
+        return new RetentionStatus(enabled, policy.maxAge().toDays(), policy.maxRetrievalCount(), policy.keepTags(),
+                runs.sum(), archived.sum(), lastRun != null ? lastRun.toString() : null, lastRunArchived, lastError);
+    }
+
+    private int archiveNamespace(MemoryNoteService service) {
+        int total = 0;
+        int batch;
+        do {
+            batch = service.archiveNotes(policy, batchSize);
+            total += batch;
+        } while (batch == batchSize && !closed);
+        return total;
+    }
+
+    private void runScheduled() {
+        try {
+            run();
+        } catch (RuntimeException e) {
+            logger.warn("Scheduled retention run failed", e);
+        }
+    }
+
+    private static Set<String> tags(String keepTags) {
+        return Arrays.stream(keepTags.split(","))
+                .map(String::strip)
+                .filter(tag -> !tag.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Stops the schedule. A run in progress finishes its current batch.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        closed = true;
+        if (scheduler != null) {
+            scheduler.shutdown();
+            if (!scheduler.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warn("Retention run did not finish within 30 seconds of shutdown");
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.thecookiezen.archiledger.application.retention;
+
+import java.util.Set;
+
+/**
+ * Snapshot of note retention: the policy, how many notes all runs archived, and the outcome of the last run.
+ * {@code lastRunAt} is an ISO-8601 instant, or {@code null} before the first run.
+ */
+public record RetentionStatus(
+        boolean enabled,
+        long maxAgeDays,
+        int maxRetrievalCount,
+        Set<String> keepTags,
+        long runs,
+        long archived,
+        String lastRunAt,
+        int lastRunArchived,
+        String lastError) {
+}
@@ -1,45 +1,196 @@
 package com.thecookiezen.archiledger.application.service;
 
+import com.thecookiezen.archiledger.domain.model.CacheStats;
+import com.thecookiezen.archiledger.domain.model.CompressionStats;
+import com.thecookiezen.archiledger.domain.model.DedupStats;
 import com.thecookiezen.archiledger.domain.model.LinkDefinition;
+import com.thecookiezen.archiledger.domain.model.LinkDirection;
+import com.thecookiezen.archiledger.domain.model.LockStats;
 import com.thecookiezen.archiledger.domain.model.MemoryNote;
 import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.NotePatch;
+import com.thecookiezen.archiledger.domain.model.RetentionPolicy;
 import com.thecookiezen.archiledger.domain.model.SimilarityResult;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.UnaryOperator;
 
 public interface MemoryNoteService {
+    /**
+     * The memory namespace this service operates on. All reads, writes and similarity searches are
+     * confined to it.
+     */
+    String namespace();
+
+    /**
+     * Returns a service bound to {@code namespace}, sharing this service's storage and caches.
+     */
+    MemoryNoteService inNamespace(String namespace);
+
+    /**
+     * Stores {@code note}. A note that already carries an embedding is stored with it; otherwise its content is
+     * embedded first. The same applies to the other create methods.
+     * <p>
+     * With {@code archiledger.dedup.enabled}, a note whose embedding is nearly identical to a stored note's is
+     * merged into that note instead of being inserted, and the merged note is returned under the stored id.
+     */
     MemoryNote createNote(MemoryNote note);
 
+    /**
+     * Creates {@code note} and applies {@code neighborPatches} to existing notes in the same batched write.
+     * Only the new note is embedded; patched notes keep their content, embedding and retrieval count.
+     * Patches of notes that do not exist are skipped.
+     */
+    MemoryNote createNote(MemoryNote note, List<NotePatch> neighborPatches);
+
     List<MemoryNote> createNotes(List<MemoryNote> notes);
 
+    /**
+     * Checks that {@code notes} can be created in this namespace without creating them: no id belongs to a note of
+     * another namespace, and every link targets a note of this namespace or an earlier note of {@code notes}, as
+     * {@link #createNotes(List)} saves them in order.
+     *
+     * @throws IllegalArgumentException naming the first note or link target that fails
+     */
+    void validateNewNotes(List<MemoryNote> notes);
+
+    /**
+     * Returns {@code note} carrying the embedding of its content, computing it only when the note has none. Lets
+     * a caller embed a note once and use the embedding for both neighbor search and storage.
+     */
+    MemoryNote embed(MemoryNote note);
+
+    /**
+     * Returns the note and counts the retrieval. An archived note is {@linkplain #restoreNote(MemoryNoteId) restored}
+     * first.
+     */
     Optional<MemoryNote> getNote(MemoryNoteId id);
 
+    /**
+     * Applies {@code change} to the current state of a note and saves the result, atomically with respect to
+     * other updates, saves and retrieval-count increments of the same note. The note is re-embedded only when
+     * its content changed, and its retrieval count is not incremented. Links of the changed note are added;
+     * existing links are kept. Returns empty when the note does not exist.
+     */
+    Optional<MemoryNote> updateNote(MemoryNoteId id, UnaryOperator<MemoryNote> change);
+
+    /**
+     * Like {@link #updateNote(MemoryNoteId, UnaryOperator)}, and applies {@code neighborPatches} in the same
+     * batched write as {@link #createNote(MemoryNote, List)} does. Nothing is patched when the note does not exist.
+     */
+    Optional<MemoryNote> updateNote(MemoryNoteId id, UnaryOperator<MemoryNote> change, List<NotePatch> neighborPatches);
+
     List<MemoryNote> getAllNotes();
 
     void deleteNote(MemoryNoteId id);
 
     void deleteNotes(List<MemoryNoteId> ids);
 
+    /**
+     * Archives up to {@code limit} notes matching {@code policy}, oldest first. Archived notes leave the live
+     * graph and its vector index, so no query finds them until they are restored.
+     *
+     * @return the number of archived notes
+     */
+    int archiveNotes(RetentionPolicy policy, int limit);
+
+    /**
+     * Moves an archived note back into the live graph, re-embedding its content and restoring its links to live
+     * notes. Restoring counts as a retrieval. Returns empty when no archived note has this id.
+     */
+    Optional<MemoryNote> restoreNote(MemoryNoteId id);
+
     void addLink(LinkDefinition link);
 
     void removeLink(MemoryNoteId from, MemoryNoteId to, String relationType);
 
     List<MemoryNote> getNotesByTag(String tag);
 
+    /**
+     * Up to {@code limit} notes whose timestamp lies in [{@code from}, {@code to}), newest first, only those
+     * tagged {@code tag} unless it is {@code null}.
+     */
+    List<MemoryNote> getNotesInTimeRange(Instant from, Instant to, String tag, int limit);
+
+    /**
+     * The {@code limit} newest notes, only those tagged {@code tag} unless it is {@code null}.
+     */
+    List<MemoryNote> getRecentNotes(String tag, int limit);
+
     List<MemoryNote> getLinkedNotes(MemoryNoteId noteId);
 
     List<MemoryNote> getLinkedNotes(MemoryNoteId noteId, String relationType, int limit);
 
     List<MemoryNote> getNotesUpward(MemoryNoteId noteId, int maxHops, int limit);
 
+    /**
+     * Notes reachable from {@code noteId} over links in {@code direction}, nearest first, visiting every note once.
+     */
+    List<MemoryNote> expandNotes(MemoryNoteId noteId, LinkDirection direction, int maxHops, int limit);
+
     Set<String> getAllTags();
 
+    /**
+     * Number of notes carrying each tag in this namespace, most used tags first.
+     */
+    Map<String, Long> getTagStatistics();
+
+    Set<String> getNamespaces();
+
     Map<String, Object> readGraph();
 
     List<SimilarityResult<MemoryNote>> similaritySearch(String query);
 
     List<SimilarityResult<MemoryNote>> similaritySearch(String query, int topK, double threshold, double temperature);
+
+    /**
+     * Similarity search favoring recent notes. The scores of the nearest notes are multiplied by
+     * {@code 0.5^(age / recencyHalfLife)}, so a note loses half its score per half-life, and the best
+     * {@code topK} of them are returned. Notes without a readable timestamp are not decayed.
+     */
+    List<SimilarityResult<MemoryNote>> similaritySearch(String query, int topK, double threshold, double temperature,
+            Duration recencyHalfLife);
+
+    /**
+     * Similarity search with an embedding the caller already has, such as the one carried by a note. Results are
+     * not cached.
+     */
+    List<SimilarityResult<MemoryNote>> similaritySearch(float[] queryEmbedding, int topK, double threshold, double temperature);
+
+    /**
+     * Runs several similarity searches at once. All queries are embedded in a single model call and the
+     * index lookups run concurrently. The returned list holds one result list per query, in query order.
+     */
+    List<List<SimilarityResult<MemoryNote>>> similaritySearchBatch(List<String> queries, int topK, double threshold, double temperature);
+
+    /**
+     * Notes most similar to an existing note, read from its materialized nearest neighbors instead of embedding
+     * its content and querying the vector index. Empty when the note does not exist.
+     */
+    List<SimilarityResult<MemoryNote>> moreLikeThis(MemoryNoteId noteId, int limit);
+
+    /**
+     * Hit/miss counters and footprint of the read caches, keyed by cache name.
+     */
+    Map<String, CacheStats> cacheStats();
+
+    /**
+     * Index probes and merges of the near-duplicate detection of new notes, shared by all namespaces.
+     */
+    DedupStats dedupStats();
+
+    /**
+     * Acquisitions and contention of the note locks serializing updates of the same note, shared by all namespaces.
+     */
+    LockStats lockStats();
+
+    /**
+     * Bytes saved by compressing large note contents and the cost of decompressing them, shared by all namespaces.
+     */
+    CompressionStats compressionStats();
 }
@@ -1,53 +1,223 @@
 package com.thecookiezen.archiledger.application.service;
 
+import com.thecookiezen.archiledger.application.cache.QueryKey;
+import com.thecookiezen.archiledger.application.cache.QueryResultCache;
+import com.thecookiezen.archiledger.domain.model.CacheStats;
+import com.thecookiezen.archiledger.domain.model.CompressionStats;
+import com.thecookiezen.archiledger.domain.model.DedupStats;
 import com.thecookiezen.archiledger.domain.model.LinkDefinition;
+import com.thecookiezen.archiledger.domain.model.LinkDirection;
+import com.thecookiezen.archiledger.domain.model.LockStats;
 import com.thecookiezen.archiledger.domain.model.MemoryNote;
 import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.Namespaces;
+import com.thecookiezen.archiledger.domain.model.NoteLink;
+import com.thecookiezen.archiledger.domain.model.NotePatch;
+import com.thecookiezen.archiledger.domain.model.RetentionPolicy;
 import com.thecookiezen.archiledger.domain.model.SimilarityResult;
+import com.thecookiezen.archiledger.domain.model.Timestamps;
 import com.thecookiezen.archiledger.domain.repository.EmbeddingsService;
 import com.thecookiezen.archiledger.domain.repository.MemoryNoteRepository;
 
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.UnaryOperator;
 
 @Service
 class MemoryNoteServiceImpl implements MemoryNoteService {
 
+    /**
+     * Recency-decayed searches re-rank this many times {@code topK} nearest notes.
+     */
+    static final int RECENCY_CANDIDATES_FACTOR = 4;
+
     private final MemoryNoteRepository repository;
     private final EmbeddingsService embeddingsService;
+    private final QueryResultCache queryCache;
+    private final NoteLocks noteLocks;
+    private final NoteDeduplication deduplication;
+    private final String namespace;
 
-    MemoryNoteServiceImpl(MemoryNoteRepository repository, EmbeddingsService embeddingsService) {
+    MemoryNoteServiceImpl(MemoryNoteRepository repository, EmbeddingsService embeddingsService, QueryResultCache queryCache,
+            NoteLocks noteLocks, NoteDeduplication deduplication) {
         this.repository = repository;
         this.embeddingsService = embeddingsService;
+        this.queryCache = queryCache;
+        this.noteLocks = noteLocks;
+        this.deduplication = deduplication;
+        this.namespace = Namespaces.normalize(repository.namespace());
+    }
+
+    @Override
+    public String namespace() {
+        return namespace;
+    }
+
+    @Override
+    public MemoryNoteService inNamespace(String namespace) {
+        String normalized = Namespaces.normalize(namespace);
+        if (normalized.equals(this.namespace)) {
+            return this;
+        }
+        return new MemoryNoteServiceImpl(repository.inNamespace(normalized), embeddingsService, queryCache, noteLocks,
+                deduplication);
     }
 
     @Override
     public MemoryNote createNote(MemoryNote note) {
-        float[] embedding = embeddingsService.generateEmbeddings(note);
-        return repository.save(note.withEmbedding(embedding));
+        MemoryNote embedded = embed(note);
+        Optional<List<SimilarityResult<MemoryNoteId>>> neighbors = deduplication.probe(repository, embedded);
+        MemoryNote saved = mergeDuplicate(embedded, neighbors, List.of())
+                .orElseGet(() -> noteLocks.withLock(note.id(), () -> save(embedded, List.of(), neighbors)));
+        queryCache.invalidate(namespace);
+        return saved;
+    }
+
+    @Override
+    public MemoryNote createNote(MemoryNote note, List<NotePatch> neighborPatches) {
+        if (neighborPatches.isEmpty()) {
+            return createNote(note);
+        }
+        MemoryNote embedded = embed(note);
+        Optional<List<SimilarityResult<MemoryNoteId>>> neighbors = deduplication.probe(repository, embedded);
+        MemoryNote saved = mergeDuplicate(embedded, neighbors, neighborPatches)
+                .orElseGet(() -> noteLocks.withLocks(lockedIds(note.id(), neighborPatches),
+                        () -> save(embedded, neighborPatches, neighbors)));
+        queryCache.invalidate(namespace);
+        return saved;
     }
 
     @Override
     public List<MemoryNote> createNotes(List<MemoryNote> notes) {
-        List<MemoryNote> created = new ArrayList<>();
-        for (MemoryNote note : notes) {
-            created.add(createNote(note));
+        if (notes.isEmpty()) {
+            return List.of();
+        }
+        List<String> missing = notes.stream().filter(note -> !hasEmbedding(note)).map(MemoryNote::content).toList();
+        Iterator<float[]> computed = missing.isEmpty() ? Collections.emptyIterator() : embeddingsService.embedAll(missing).iterator();
+        List<MemoryNote> created = new ArrayList<>(notes.size());
+        for (MemoryNote pending : notes) {
+            MemoryNote note = hasEmbedding(pending) ? pending : pending.withEmbedding(computed.next());
+            Optional<List<SimilarityResult<MemoryNoteId>>> neighbors = deduplication.probe(repository, note);
+            created.add(mergeDuplicate(note, neighbors, List.of())
+                    .orElseGet(() -> noteLocks.withLock(note.id(), () -> save(note, List.of(), neighbors))));
         }
+        queryCache.invalidate(namespace);
         return created;
     }
 
+    @Override
+    public void validateNewNotes(List<MemoryNote> notes) {
+        Set<MemoryNoteId> submitted = new HashSet<>();
+        notes.forEach(note -> submitted.add(note.id()));
+        Set<MemoryNoteId> earlier = new HashSet<>();
+        for (MemoryNote note : notes) {
+            repository.requireWritable(note.id());
+            for (NoteLink link : note.links()) {
+                if (earlier.contains(link.target())) {
+                    continue;
+                }
+                if (submitted.contains(link.target())) {
+                    throw new IllegalArgumentException("Note " + note.id().value() + " links to " + link.target().value()
+                            + ", which must come before it in the same call");
+                }
+                if (repository.findById(link.target()).isEmpty()) {
+                    throw new IllegalArgumentException("Target note not found: " + link.target().value());
+                }
+            }
+            earlier.add(note.id());
+        }
+    }
+
+    /**
+     * Saves {@code note}, reusing the {@code neighbors} of the duplicate probe when there was one.
+     */
+    private MemoryNote save(MemoryNote note, List<NotePatch> patches,
+            Optional<List<SimilarityResult<MemoryNoteId>>> neighbors) {
+        if (neighbors.isPresent()) {
+            return repository.save(note, patches, neighbors.get());
+        }
+        return patches.isEmpty() ? repository.save(note) : repository.save(note, patches);
+    }
+
+    /**
+     * Merges {@code note} into the stored note it nearly duplicates among its probed {@code neighbors}, applying
+     * {@code neighborPatches} in the same write. Patches of the merge target are applied to it before the merge.
+     * Returns empty when deduplication is disabled, no duplicate was found or the duplicate was deleted in the
+     * meantime.
+     */
+    private Optional<MemoryNote> mergeDuplicate(MemoryNote note, Optional<List<SimilarityResult<MemoryNoteId>>> neighbors,
+            List<NotePatch> neighborPatches) {
+        return neighbors.flatMap(found -> deduplication.findDuplicate(found, note)).flatMap(targetId -> {
+            return noteLocks.withLocks(lockedIds(targetId, neighborPatches), () -> repository.findById(targetId).map(current -> {
+                MemoryNote target = current;
+                List<NotePatch> otherPatches = new ArrayList<>(neighborPatches.size());
+                for (NotePatch patch : neighborPatches) {
+                    if (patch.id().equals(targetId)) {
+                        target = patch.applyTo(target);
+                    } else {
+                        otherPatches.add(patch);
+                    }
+                }
+                MemoryNote merged = NoteDeduplication.merge(target, note);
+                MemoryNote saved = otherPatches.isEmpty() ? repository.save(merged) : repository.save(merged, otherPatches);
+                deduplication.recordMerge();
+                return saved;
+            }));
+        });
+    }
+
+    @Override
+    public MemoryNote embed(MemoryNote note) {
+        return hasEmbedding(note) ? note : note.withEmbedding(embeddingsService.generateEmbeddings(note));
+    }
+
+    private static boolean hasEmbedding(MemoryNote note) {
+        return note.embedding() != null && note.embedding().length > 0;
+    }
+
     @Override
     public Optional<MemoryNote> getNote(MemoryNoteId id) {
         Optional<MemoryNote> note = repository.findById(id);
-        note.ifPresent(n -> repository.incrementRetrievalCount(id));
+        if (note.isEmpty()) {
+            return restoreNote(id);
+        }
+        noteLocks.withLock(id, () -> repository.incrementRetrievalCount(id));
         return note;
     }
 
+    @Override
+    public Optional<MemoryNote> updateNote(MemoryNoteId id, UnaryOperator<MemoryNote> change) {
+        return updateNote(id, change, List.of());
+    }
+
+    @Override
+    public Optional<MemoryNote> updateNote(MemoryNoteId id, UnaryOperator<MemoryNote> change, List<NotePatch> neighborPatches) {
+        Optional<MemoryNote> updated = noteLocks.withLocks(lockedIds(id, neighborPatches), () -> repository.findById(id).map(current -> {
+            MemoryNote next = change.apply(current);
+            if (!next.id().equals(id)) {
+                throw new IllegalArgumentException("Update of note " + id.value() + " cannot change its id");
+            }
+            if (next.embedding() == null && !next.content().equals(current.content())) {
+                next = next.withEmbedding(embeddingsService.generateEmbeddings(next));
+            }
+            return neighborPatches.isEmpty() ? repository.save(next) : repository.save(next, neighborPatches);
+        }));
+        updated.ifPresent(note -> queryCache.invalidate(namespace));
+        return updated;
+    }
+
     @Override
     public List<MemoryNote> getAllNotes() {
         return repository.findAll();
@@ -56,6 +226,7 @@ class MemoryNoteServiceImpl implements MemoryNoteService {
     @Override
     public void deleteNote(MemoryNoteId id) {
         repository.delete(id);
+        queryCache.invalidate(namespace);
     }
 
     @Override
@@ -65,39 +236,98 @@ class MemoryNoteServiceImpl implements MemoryNoteService {
         }
     }
 
+    /**
+     * Candidates are re-checked under their locks, so a note retrieved since it was selected is kept.
+     */
+    @Override
+    public int archiveNotes(RetentionPolicy policy, int limit) {
+        List<MemoryNoteId> candidates = repository.findArchivable(policy.createdBefore(Instant.now()),
+                policy.maxRetrievalCount(), policy.keepTags(), limit);
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        int archived = noteLocks.withLocks(candidates, () -> repository.archive(candidates.stream()
+                .filter(id -> repository.findById(id)
+                        .filter(note -> note.retrievalCount() <= policy.maxRetrievalCount())
+                        .isPresent())
+                .toList()));
+        queryCache.invalidate(namespace);
+        return archived;
+    }
+
+    @Override
+    public Optional<MemoryNote> restoreNote(MemoryNoteId id) {
+        Optional<MemoryNote> restored = noteLocks.withLock(id, () -> repository.findArchived(id).map(archived -> {
+            MemoryNote note = archived.note().withRetrievalCount(archived.note().retrievalCount() + 1);
+            return repository.restore(archived.withNote(note.withEmbedding(embeddingsService.generateEmbeddings(note))));
+        }));
+        restored.ifPresent(note -> queryCache.invalidate(namespace));
+        return restored;
+    }
+
     @Override
     public void addLink(LinkDefinition link) {
         repository.addLink(link);
+        queryCache.invalidate(namespace);
     }
 
     @Override
     public void removeLink(MemoryNoteId from, MemoryNoteId to, String relationType) {
         repository.removeLink(from, to, relationType);
+        queryCache.invalidate(namespace);
     }
 
     @Override
     public List<MemoryNote> getNotesByTag(String tag) {
-        return repository.findByTag(tag);
+        return queryCache.get(key("notesByTag", tag), () -> repository.findByTag(tag));
+    }
+
+    @Override
+    public List<MemoryNote> getNotesInTimeRange(Instant from, Instant to, String tag, int limit) {
+        return queryCache.get(key("timeRange", from, to, tag, limit), () -> repository.findByTimeRange(from, to, tag, limit));
+    }
+
+    @Override
+    public List<MemoryNote> getRecentNotes(String tag, int limit) {
+        return queryCache.get(key("recent", tag, limit), () -> repository.findRecent(tag, limit));
     }
 
     @Override
     public List<MemoryNote> getLinkedNotes(MemoryNoteId noteId) {
-        return repository.findLinkedNotes(noteId);
+        return queryCache.get(key("linkedNotes", noteId), () -> repository.findLinkedNotes(noteId));
     }
 
     @Override
     public List<MemoryNote> getLinkedNotes(MemoryNoteId noteId, String relationType, int limit) {
-        return repository.findLinkedNotes(noteId, relationType, limit);
+        return queryCache.get(key("linkedNotesByType", noteId, relationType, limit),
+                () -> repository.findLinkedNotes(noteId, relationType, limit));
     }
 
     @Override
     public List<MemoryNote> getNotesUpward(MemoryNoteId noteId, int maxHops, int limit) {
-        return repository.findNotesUpward(noteId, maxHops, limit);
+        return queryCache.get(key("notesUpward", noteId, maxHops, limit),
+                () -> repository.findNotesUpward(noteId, maxHops, limit));
+    }
+
+    @Override
+    public List<MemoryNote> expandNotes(MemoryNoteId noteId, LinkDirection direction, int maxHops, int limit) {
+        return queryCache.get(key("expand", noteId, direction, maxHops, limit),
+                () -> repository.expand(noteId, direction, maxHops, limit));
     }
 
     @Override
     public Set<String> getAllTags() {
-        return repository.findAllTags();
+        return queryCache.get(key("allTags"), repository::findAllTags);
+    }
+
+    @Override
+    public Map<String, Long> getTagStatistics() {
+        return queryCache.get(key("tagStatistics"), repository::countTags);
+    }
+
+    @Override
+    public Set<String> getNamespaces() {
+        return repository.findAllNamespaces();
     }
 
     @Override
@@ -107,13 +337,95 @@ class MemoryNoteServiceImpl implements MemoryNoteService {
 
     @Override
     public List<SimilarityResult<MemoryNote>> similaritySearch(String query) {
-        float[] queryEmbedding = embeddingsService.embed(query);
-        return repository.findSimilar(queryEmbedding, 10);
+        return queryCache.get(key("similar", query), () -> {
+            float[] queryEmbedding = embeddingsService.embed(query);
+            return repository.findSimilar(queryEmbedding, 10);
+        });
     }
 
     @Override
     public List<SimilarityResult<MemoryNote>> similaritySearch(String query, int topK, double threshold, double temperature) {
-        float[] queryEmbedding = embeddingsService.embed(query);
+        return queryCache.get(key("similar", query, topK, threshold, temperature), () -> {
+            float[] queryEmbedding = embeddingsService.embed(query);
+            return repository.findSimilar(queryEmbedding, topK, threshold, temperature);
+        });
+    }
+
+    /**
+     * The candidates come from the cached undecayed search; the decay depends on the current time and is applied
+     * on every call.
+     */
+    @Override
+    public List<SimilarityResult<MemoryNote>> similaritySearch(String query, int topK, double threshold, double temperature,
+            Duration recencyHalfLife) {
+        if (recencyHalfLife.isNegative() || recencyHalfLife.isZero()) {
+            throw new IllegalArgumentException("Recency half-life must be positive: " + recencyHalfLife);
+        }
+        Instant now = Instant.now();
+        double halfLifeMillis = recencyHalfLife.toMillis();
+        return similaritySearch(query, topK * RECENCY_CANDIDATES_FACTOR, threshold, temperature).stream()
+                .map(result -> new SimilarityResult<>(result.item(), Math.max(0.0, result.score())
+                        * recencyWeight(result.item(), now, halfLifeMillis)))
+                .sorted(Comparator.comparingDouble((SimilarityResult<MemoryNote> result) -> result.score()).reversed())
+                .limit(topK)
+                .toList();
+    }
+
+    private static double recencyWeight(MemoryNote note, Instant now, double halfLifeMillis) {
+        return Timestamps.parse(note.timestamp())
+                .map(createdAt -> Math.pow(0.5, Math.max(0L, Duration.between(createdAt, now).toMillis()) / halfLifeMillis))
+                .orElse(1.0);
+    }
+
+    @Override
+    public List<SimilarityResult<MemoryNote>> similaritySearch(float[] queryEmbedding, int topK, double threshold, double temperature) {
         return repository.findSimilar(queryEmbedding, topK, threshold, temperature);
     }
+
+    @Override
+    public List<List<SimilarityResult<MemoryNote>>> similaritySearchBatch(List<String> queries, int topK, double threshold, double temperature) {
+        if (queries.isEmpty()) {
+            return List.of();
+        }
+        List<float[]> queryEmbeddings = embeddingsService.embedAll(queries);
+        return repository.findSimilarBatch(queryEmbeddings, topK, threshold, temperature);
+    }
+
+    @Override
+    public List<SimilarityResult<MemoryNote>> moreLikeThis(MemoryNoteId noteId, int limit) {
+        return queryCache.get(key("moreLikeThis", noteId, limit), () -> repository.findMoreLikeThis(noteId, limit));
+    }
+
+    @Override
+    public Map<String, CacheStats> cacheStats() {
+        Map<String, CacheStats> stats = new LinkedHashMap<>(repository.cacheStats());
+        stats.put("query", queryCache.stats());
+        return stats;
+    }
+
+    @Override
+    public DedupStats dedupStats() {
+        return deduplication.stats();
+    }
+
+    @Override
+    public LockStats lockStats() {
+        return noteLocks.stats();
+    }
+
+    @Override
+    public CompressionStats compressionStats() {
+        return repository.compressionStats();
+    }
+
+    private static List<MemoryNoteId> lockedIds(MemoryNoteId id, List<NotePatch> patches) {
+        List<MemoryNoteId> ids = new ArrayList<>(patches.size() + 1);
+        ids.add(id);
+        patches.forEach(patch -> ids.add(patch.id()));
+        return ids;
+    }
+
+    private QueryKey key(String operation, Object... parameters) {
+        return QueryKey.of(operation, parameters).withScope(namespace);
+    }
 }
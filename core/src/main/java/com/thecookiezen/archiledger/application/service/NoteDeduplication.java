@@ -0,0 +1,98 @@
+package com.thecookiezen.archiledger.application.service;
+
+import com.thecookiezen.archiledger.domain.model.DedupStats;
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.NoteLink;
+import com.thecookiezen.archiledger.domain.model.SimilarityResult;
+import com.thecookiezen.archiledger.domain.repository.MemoryNoteRepository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optional near-duplicate detection of new notes. Before a note is inserted, the vector index is probed for its
+ * nearest notes; when the cosine similarity of the nearest reaches the threshold the new note is merged into that
+ * note instead of adding another row, embedding and index entry. Otherwise the probe's neighbors are handed to the
+ * save, which links the note to them without probing again. Disabled by default.
+ */
+@Component
+class NoteDeduplication {
+
+    private final boolean enabled;
+    private final double threshold;
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder merges = new LongAdder();
+
+    NoteDeduplication(@Value("${archiledger.dedup.enabled:false}") boolean enabled,
+            @Value("${archiledger.dedup.threshold:0.95}") double threshold) {
+        if (threshold <= 0.0 || threshold > 1.0) {
+            throw new IllegalArgumentException("archiledger.dedup.threshold must be greater than 0 and at most 1");
+        }
+        this.enabled = enabled;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Probes the vector index for the neighbors of {@code note}, which must carry its embedding. Empty when
+     * deduplication is disabled, which leaves the probe to the save.
+     */
+    Optional<List<SimilarityResult<MemoryNoteId>>> probe(MemoryNoteRepository repository, MemoryNote note) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        probes.increment();
+        return Optional.of(repository.findNeighbors(note));
+    }
+
+    /**
+     * Returns the id of the stored note {@code note} duplicates among its probed {@code neighbors}, if any. A
+     * stored note with the same id is an update, not a duplicate.
+     */
+    Optional<MemoryNoteId> findDuplicate(List<SimilarityResult<MemoryNoteId>> neighbors, MemoryNote note) {
+        return neighbors.stream()
+                .findFirst()
+                .filter(nearest -> nearest.score() >= threshold)
+                .map(SimilarityResult::item)
+                .filter(id -> !id.equals(note.id()));
+    }
+
+    /**
+     * Merges {@code duplicate} into {@code existing}: keywords, tags and links are united, the retrieval count
+     * is bumped and content, context and timestamp of the existing note are kept. The merged note carries no
+     * embedding, so saving it leaves the existing vector in place.
+     */
+    static MemoryNote merge(MemoryNote existing, MemoryNote duplicate) {
+        List<NoteLink> links = new ArrayList<>(existing.links());
+        for (NoteLink link : duplicate.links()) {
+            if (!link.target().equals(existing.id()) && !links.contains(link)) {
+                links.add(link);
+            }
+        }
+        String context = existing.context() == null || existing.context().isBlank() ? duplicate.context() : existing.context();
+        return new MemoryNote(existing.id(), existing.content(), union(existing.keywords(), duplicate.keywords()), context,
+                union(existing.tags(), duplicate.tags()), links, existing.timestamp(), existing.retrievalCount() + 1, null,
+                existing.namespace());
+    }
+
+    void recordMerge() {
+        merges.increment();
+    }
+
+    DedupStats stats() {
+        return DedupStats.of(enabled, threshold, probes.sum(), merges.sum());
+    }
+
+    private static List<String> union(List<String> first, List<String> second) {
+        Set<String> values = new LinkedHashSet<>(first);
+        values.addAll(second);
+        return List.copyOf(values);
+    }
+}
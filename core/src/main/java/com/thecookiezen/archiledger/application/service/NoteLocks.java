@@ -0,0 +1,102 @@
+package com.thecookiezen.archiledger.application.service;
+
+import com.thecookiezen.archiledger.domain.model.LockStats;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped locks guarding read-modify-write cycles on single notes. Every note id maps to one of a fixed
+ * number of reentrant locks, so updates of the same note are serialized while updates of different notes
+ * rarely wait for each other. Locks are held on the calling thread only. Actions spanning several notes take
+ * their stripes in index order, so they cannot deadlock with each other.
+ */
+@Component
+class NoteLocks {
+
+    private final ReentrantLock[] stripes;
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+
+    NoteLocks(@Value("${archiledger.note-locks.stripes:256}") int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("archiledger.note-locks.stripes must be at least 1");
+        }
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    <T> T withLock(MemoryNoteId id, Supplier<T> action) {
+        ReentrantLock lock = stripes[stripeOf(id)];
+        acquire(lock);
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    <T> T withLocks(Collection<MemoryNoteId> ids, Supplier<T> action) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (MemoryNoteId id : ids) {
+            indexes.add(stripeOf(id));
+        }
+        Deque<ReentrantLock> held = new ArrayDeque<>(indexes.size());
+        try {
+            for (int index : indexes) {
+                acquire(stripes[index]);
+                held.push(stripes[index]);
+            }
+            return action.get();
+        } finally {
+            while (!held.isEmpty()) {
+                held.pop().unlock();
+            }
+        }
+    }
+
+    void withLock(MemoryNoteId id, Runnable action) {
+        withLock(id, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private int stripeOf(MemoryNoteId id) {
+        return Math.floorMod(id.value().hashCode(), stripes.length);
+    }
+
+    private void acquire(ReentrantLock lock) {
+        acquisitions.increment();
+        if (!lock.tryLock()) {
+            contended.increment();
+            lock.lock();
+        }
+    }
+
+    long acquisitions() {
+        return acquisitions.sum();
+    }
+
+    /**
+     * Acquisitions that had to wait for another holder of the same stripe.
+     */
+    long contended() {
+        return contended.sum();
+    }
+
+    LockStats stats() {
+        return LockStats.of(stripes.length, acquisitions(), contended());
+    }
+}
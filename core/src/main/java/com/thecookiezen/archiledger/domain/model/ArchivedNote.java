@@ -0,0 +1,44 @@
+package com.thecookiezen.archiledger.domain.model;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A note moved out of the live graph by retention. It keeps the note without its embedding, which is recomputed
+ * when the note is restored, and the links other notes had to it.
+ */
+public record ArchivedNote(MemoryNote note, List<LinkDefinition> incomingLinks, Instant archivedAt) {
+
+    public ArchivedNote {
+        if (note == null) {
+            throw new IllegalArgumentException("ArchivedNote note cannot be null");
+        }
+        if (archivedAt == null) {
+            throw new IllegalArgumentException("ArchivedNote archivedAt cannot be null");
+        }
+        incomingLinks = (incomingLinks != null) ? List.copyOf(incomingLinks) : List.of();
+    }
+
+    public ArchivedNote withNote(MemoryNote newNote) {
+        return new ArchivedNote(newNote, incomingLinks, archivedAt);
+    }
+
+    public ArchivedNote withIncomingLink(LinkDefinition link) {
+        if (incomingLinks.contains(link)) {
+            return this;
+        }
+        List<LinkDefinition> links = new ArrayList<>(incomingLinks);
+        links.add(link);
+        return new ArchivedNote(note, links, archivedAt);
+    }
+
+    public ArchivedNote withOutgoingLink(NoteLink link) {
+        if (note.links().contains(link)) {
+            return this;
+        }
+        List<NoteLink> links = new ArrayList<>(note.links());
+        links.add(link);
+        return withNote(note.withLinks(links));
+    }
+}
@@ -0,0 +1,17 @@
+package com.thecookiezen.archiledger.domain.model;
+
+public record CacheStats(
+        long hits,
+        long misses,
+        double hitRatio,
+        long evictions,
+        long entries,
+        long weight,
+        long maxWeight) {
+
+    public static CacheStats of(long hits, long misses, long evictions, long entries, long weight, long maxWeight) {
+        long requests = hits + misses;
+        double hitRatio = requests == 0 ? 0.0 : (double) hits / requests;
+        return new CacheStats(hits, misses, hitRatio, evictions, entries, weight, maxWeight);
+    }
+}
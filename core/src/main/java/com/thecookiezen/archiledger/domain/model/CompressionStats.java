@@ -0,0 +1,25 @@
+package com.thecookiezen.archiledger.domain.model;
+
+/**
+ * Counters of note content compression. {@code rawBytes} and {@code storedBytes} cover the content written
+ * compressed since startup, as UTF-8 before and as stored after compression; {@code decompressions} counts the
+ * compressed contents read back into notes.
+ */
+public record CompressionStats(
+        boolean enabled,
+        int minBytes,
+        long compressedWrites,
+        long rawBytes,
+        long storedBytes,
+        double ratio,
+        long decompressions,
+        double meanDecompressMicros) {
+
+    public static CompressionStats of(boolean enabled, int minBytes, long compressedWrites, long rawBytes,
+            long storedBytes, long decompressions, long decompressNanos) {
+        double ratio = rawBytes == 0 ? 0.0 : (double) storedBytes / rawBytes;
+        double meanMicros = decompressions == 0 ? 0.0 : decompressNanos / 1_000.0 / decompressions;
+        return new CompressionStats(enabled, minBytes, compressedWrites, rawBytes, storedBytes, ratio, decompressions,
+                meanMicros);
+    }
+}
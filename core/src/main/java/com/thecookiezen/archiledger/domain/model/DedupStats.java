@@ -0,0 +1,18 @@
+package com.thecookiezen.archiledger.domain.model;
+
+/**
+ * Counters of the near-duplicate detection of new notes. {@code probes} counts the vector index lookups of
+ * created notes and {@code merges} the notes merged into an existing one instead of being inserted.
+ */
+public record DedupStats(
+        boolean enabled,
+        double threshold,
+        long probes,
+        long merges,
+        double mergeRate) {
+
+    public static DedupStats of(boolean enabled, double threshold, long probes, long merges) {
+        double mergeRate = probes == 0 ? 0.0 : (double) merges / probes;
+        return new DedupStats(enabled, threshold, probes, merges, mergeRate);
+    }
+}
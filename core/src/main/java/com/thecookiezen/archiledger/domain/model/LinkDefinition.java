@@ -1,6 +1,6 @@
 package com.thecookiezen.archiledger.domain.model;
 
-public record LinkDefinition(MemoryNoteId source, MemoryNoteId target, String relationType, String context) {
+public record LinkDefinition(MemoryNoteId source, MemoryNoteId target, String relationType, String context, String namespace) {
     public LinkDefinition {
         if (source == null) {
             throw new IllegalArgumentException("LinkDefinition source cannot be null");
@@ -14,12 +14,21 @@ public record LinkDefinition(MemoryNoteId source, MemoryNoteId target, String re
         if (context == null || context.isBlank()) {
             throw new IllegalArgumentException("LinkDefinition context cannot be null or blank");
         }
+        namespace = Namespaces.normalize(namespace);
+    }
+
+    public LinkDefinition(MemoryNoteId source, MemoryNoteId target, String relationType, String context) {
+        this(source, target, relationType, context, Namespaces.DEFAULT);
     }
 
     public LinkDefinition(String source, String target, String relationType, String context) {
         this(new MemoryNoteId(source), new MemoryNoteId(target), relationType, context);
     }
 
+    public LinkDefinition withNamespace(String newNamespace) {
+        return new LinkDefinition(source, target, relationType, context, newNamespace);
+    }
+
     public NoteLink toNoteLink() {
         return new NoteLink(target, relationType, context);
     }
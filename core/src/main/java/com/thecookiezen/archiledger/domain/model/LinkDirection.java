@@ -0,0 +1,10 @@
+package com.thecookiezen.archiledger.domain.model;
+
+/**
+ * Which links of a note a graph expansion follows: the ones it points to, the ones pointing to it, or both.
+ */
+public enum LinkDirection {
+    OUTGOING,
+    INCOMING,
+    BOTH
+}
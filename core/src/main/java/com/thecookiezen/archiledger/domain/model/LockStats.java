@@ -0,0 +1,17 @@
+package com.thecookiezen.archiledger.domain.model;
+
+/**
+ * Counters of the striped note locks. {@code acquisitions} counts the stripes taken by note updates and
+ * {@code contended} the acquisitions that had to wait for another holder of the same stripe.
+ */
+public record LockStats(
+        int stripes,
+        long acquisitions,
+        long contended,
+        double contentionRate) {
+
+    public static LockStats of(int stripes, long acquisitions, long contended) {
+        double contentionRate = acquisitions == 0 ? 0.0 : (double) contended / acquisitions;
+        return new LockStats(stripes, acquisitions, contended, contentionRate);
+    }
+}
@@ -11,7 +11,8 @@ public record MemoryNote(
         List<NoteLink> links,
         String timestamp,
         int retrievalCount,
-        float[] embedding) {
+        float[] embedding,
+        String namespace) {
 
     public MemoryNote {
         if (id == null) {
@@ -29,17 +30,35 @@ public record MemoryNote(
         if (retrievalCount < 0) {
             throw new IllegalArgumentException("MemoryNote retrievalCount cannot be negative");
         }
+        namespace = Namespaces.normalize(namespace);
+    }
+
+    public MemoryNote(MemoryNoteId id, String content, List<String> keywords, String context, List<String> tags,
+            List<NoteLink> links, String timestamp, int retrievalCount, float[] embedding) {
+        this(id, content, keywords, context, tags, links, timestamp, retrievalCount, embedding, Namespaces.DEFAULT);
     }
 
     public MemoryNote withRetrievalCount(int newCount) {
-        return new MemoryNote(id, content, keywords, context, tags, links, timestamp, newCount, embedding);
+        return new MemoryNote(id, content, keywords, context, tags, links, timestamp, newCount, embedding, namespace);
+    }
+
+    public MemoryNote withContext(String newContext) {
+        return new MemoryNote(id, content, keywords, newContext, tags, links, timestamp, retrievalCount, embedding, namespace);
+    }
+
+    public MemoryNote withTags(List<String> newTags) {
+        return new MemoryNote(id, content, keywords, context, newTags, links, timestamp, retrievalCount, embedding, namespace);
     }
 
     public MemoryNote withLinks(List<NoteLink> newLinks) {
-        return new MemoryNote(id, content, keywords, context, tags, newLinks, timestamp, retrievalCount, embedding);
+        return new MemoryNote(id, content, keywords, context, tags, newLinks, timestamp, retrievalCount, embedding, namespace);
     }
 
     public MemoryNote withEmbedding(float[] embedding) {
-        return new MemoryNote(id, content, keywords, context, tags, links, timestamp, retrievalCount, embedding);
+        return new MemoryNote(id, content, keywords, context, tags, links, timestamp, retrievalCount, embedding, namespace);
+    }
+
+    public MemoryNote withNamespace(String newNamespace) {
+        return new MemoryNote(id, content, keywords, context, tags, links, timestamp, retrievalCount, embedding, newNamespace);
     }
 }
@@ -0,0 +1,36 @@
+package com.thecookiezen.archiledger.domain.model;
+
+import java.util.regex.Pattern;
+
+/**
+ * Memory namespaces partition notes, links and their vector indexes per project or tenant.
+ * Namespace names are also used to derive storage table names, so they are restricted to
+ * lowercase letters, digits and underscores.
+ */
+public final class Namespaces {
+
+    public static final String DEFAULT = "default";
+
+    private static final Pattern VALID_NAME = Pattern.compile("[a-z0-9_]{1,64}");
+
+    private Namespaces() {
+    }
+
+    /**
+     * Returns the validated namespace name, or {@link #DEFAULT} when none is given.
+     */
+    public static String normalize(String namespace) {
+        if (namespace == null || namespace.isBlank()) {
+            return DEFAULT;
+        }
+        if (!VALID_NAME.matcher(namespace).matches()) {
+            throw new IllegalArgumentException(
+                    "Namespace must be 1-64 lowercase letters, digits or underscores: " + namespace);
+        }
+        return namespace;
+    }
+
+    public static boolean isDefault(String namespace) {
+        return DEFAULT.equals(namespace);
+    }
+}
@@ -0,0 +1,21 @@
+package com.thecookiezen.archiledger.domain.model;
+
+import java.util.List;
+
+/**
+ * Partial update of an existing note. A {@code null} context or tag list leaves that field unchanged; content,
+ * embedding, links and retrieval count are never touched.
+ */
+public record NotePatch(MemoryNoteId id, String context, List<String> tags) {
+    public NotePatch {
+        if (id == null) {
+            throw new IllegalArgumentException("NotePatch id cannot be null");
+        }
+        tags = tags != null ? List.copyOf(tags) : null;
+    }
+
+    public MemoryNote applyTo(MemoryNote note) {
+        MemoryNote patched = context != null ? note.withContext(context) : note;
+        return tags != null ? patched.withTags(tags) : patched;
+    }
+}
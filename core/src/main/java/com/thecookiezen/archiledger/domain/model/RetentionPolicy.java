@@ -0,0 +1,27 @@
+package com.thecookiezen.archiledger.domain.model;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Which notes retention archives: notes created more than {@code maxAge} ago that were retrieved at most
+ * {@code maxRetrievalCount} times and carry none of the {@code keepTags}. Notes without a readable timestamp
+ * are never archived.
+ */
+public record RetentionPolicy(Duration maxAge, int maxRetrievalCount, Set<String> keepTags) {
+
+    public RetentionPolicy {
+        if (maxAge == null || maxAge.isNegative() || maxAge.isZero()) {
+            throw new IllegalArgumentException("RetentionPolicy maxAge must be positive");
+        }
+        if (maxRetrievalCount < 0) {
+            throw new IllegalArgumentException("RetentionPolicy maxRetrievalCount cannot be negative");
+        }
+        keepTags = (keepTags != null) ? Set.copyOf(keepTags) : Set.of();
+    }
+
+    public Instant createdBefore(Instant now) {
+        return now.minus(maxAge);
+    }
+}
@@ -0,0 +1,49 @@
+package com.thecookiezen.archiledger.domain.model;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.Optional;
+
+/**
+ * Note timestamps are free-form strings, normally ISO-8601 instants. This class reads them as points in time
+ * for time-range queries and recency ordering. Local date-times and dates are taken as UTC.
+ */
+public final class Timestamps {
+
+    /**
+     * Orders notes newest first; notes without a readable timestamp come last, then ties are broken by id.
+     */
+    public static final Comparator<MemoryNote> NEWEST_FIRST = Comparator
+            .comparing((MemoryNote note) -> parse(note.timestamp()).orElse(Instant.MIN), Comparator.reverseOrder())
+            .thenComparing(note -> note.id().value());
+
+    private Timestamps() {
+    }
+
+    public static Optional<Instant> parse(String timestamp) {
+        if (timestamp == null || timestamp.isBlank()) {
+            return Optional.empty();
+        }
+        String text = timestamp.strip();
+        try {
+            return Optional.of(OffsetDateTime.parse(text).toInstant());
+        } catch (DateTimeParseException notOffset) {
+            // try the next format
+        }
+        try {
+            return Optional.of(LocalDateTime.parse(text).toInstant(ZoneOffset.UTC));
+        } catch (DateTimeParseException notLocal) {
+            // try the next format
+        }
+        try {
+            return Optional.of(LocalDate.parse(text).atStartOfDay().toInstant(ZoneOffset.UTC));
+        } catch (DateTimeParseException notDate) {
+            return Optional.empty();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.thecookiezen.archiledger.domain.repository;
 
+import java.util.List;
+
 import com.thecookiezen.archiledger.domain.model.MemoryNote;
 
 public interface EmbeddingsService {
@@ -7,4 +9,6 @@ public interface EmbeddingsService {
     float[] generateEmbeddings(MemoryNote note);
 
     float[] embed(String text);
+
+    List<float[]> embedAll(List<String> texts);
 }
\ No newline at end of file
@@ -1,23 +1,63 @@
 package com.thecookiezen.archiledger.domain.repository;
 
+import com.thecookiezen.archiledger.domain.model.ArchivedNote;
+import com.thecookiezen.archiledger.domain.model.CacheStats;
+import com.thecookiezen.archiledger.domain.model.CompressionStats;
 import com.thecookiezen.archiledger.domain.model.LinkDefinition;
+import com.thecookiezen.archiledger.domain.model.LinkDirection;
 import com.thecookiezen.archiledger.domain.model.MemoryNote;
 import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
 import com.thecookiezen.archiledger.domain.model.NoteLink;
+import com.thecookiezen.archiledger.domain.model.NotePatch;
 import com.thecookiezen.archiledger.domain.model.SimilarityResult;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 public interface MemoryNoteRepository {
+    String namespace();
+
+    MemoryNoteRepository inNamespace(String namespace);
+
     MemoryNote save(MemoryNote note);
 
+    /**
+     * Saves {@code note} and applies {@code patches} to other notes of this namespace in the same write.
+     * Patches of notes that do not exist are skipped.
+     */
+    MemoryNote save(MemoryNote note, List<NotePatch> patches);
+
+    /**
+     * Same as {@link #save(MemoryNote, List)} with the result of {@link #findNeighbors(MemoryNote)} for the note,
+     * which spares the save its own vector index probe.
+     */
+    MemoryNote save(MemoryNote note, List<NotePatch> patches, List<SimilarityResult<MemoryNoteId>> neighbors);
+
+    /**
+     * Ids of the notes nearest to the embedding of {@code note} in this namespace, best first and scored like
+     * {@link #findSimilar(float[], int, double, double)} with temperature 0, from one vector index probe. Enough
+     * are returned for the note's similar-note list, and the note itself when it is stored already. Empty when
+     * the note carries no embedding.
+     */
+    List<SimilarityResult<MemoryNoteId>> findNeighbors(MemoryNote note);
+
     Optional<MemoryNote> findById(MemoryNoteId id);
 
+    /**
+     * Checks that a note with {@code id} can be saved in this namespace.
+     *
+     * @throws IllegalArgumentException if the id belongs to a note of another namespace
+     */
+    void requireWritable(MemoryNoteId id);
+
     List<MemoryNote> findAll();
 
+    /**
+     * Deletes the note, or its archived copy when it is archived.
+     */
     void delete(MemoryNoteId id);
 
     void addLink(LinkDefinition link);
@@ -28,14 +68,41 @@ public interface MemoryNoteRepository {
 
     List<MemoryNote> findByTag(String tag);
 
+    /**
+     * Up to {@code limit} notes of this namespace whose timestamp lies in [{@code from}, {@code to}), newest
+     * first, only those tagged {@code tag} unless it is {@code null}. Notes without a readable timestamp are
+     * never returned.
+     */
+    List<MemoryNote> findByTimeRange(Instant from, Instant to, String tag, int limit);
+
+    /**
+     * The {@code limit} newest notes of this namespace, only those tagged {@code tag} unless it is {@code null}.
+     */
+    List<MemoryNote> findRecent(String tag, int limit);
+
     List<MemoryNote> findLinkedNotes(MemoryNoteId noteId);
 
     List<MemoryNote> findLinkedNotes(MemoryNoteId noteId, String relationType, int limit);
 
+    /**
+     * Same as {@link #expand} over outgoing links.
+     */
     List<MemoryNote> findNotesUpward(MemoryNoteId noteId, int maxHops, int limit);
 
+    /**
+     * Breadth-first expansion from {@code noteId} over links in {@code direction}. Every note is visited once,
+     * so the cost grows with the notes reached rather than with the paths between them. Returns up to
+     * {@code limit} notes of this namespace within {@code maxHops}, ordered by hop distance and then by id,
+     * without the start note.
+     */
+    List<MemoryNote> expand(MemoryNoteId noteId, LinkDirection direction, int maxHops, int limit);
+
     Set<String> findAllTags();
 
+    Map<String, Long> countTags();
+
+    Set<String> findAllNamespaces();
+
     Map<String, Object> getGraph();
 
     void incrementRetrievalCount(MemoryNoteId id);
@@ -43,4 +110,43 @@ public interface MemoryNoteRepository {
     List<SimilarityResult<MemoryNote>> findSimilar(float[] queryEmbedding, int topK);
 
     List<SimilarityResult<MemoryNote>> findSimilar(float[] queryEmbedding, int topK, double threshold, double temperature);
+
+    List<List<SimilarityResult<MemoryNote>>> findSimilarBatch(List<float[]> queryEmbeddings, int topK, double threshold, double temperature);
+
+    /**
+     * Up to {@code limit} notes of this namespace most similar to {@code noteId}, best first, scored like
+     * {@link #findSimilar(float[], int)}. Uses the note's stored embedding, so nothing is embedded. Returns an
+     * empty list when the note does not exist or has no embedding.
+     */
+    List<SimilarityResult<MemoryNote>> findMoreLikeThis(MemoryNoteId noteId, int limit);
+
+    /**
+     * Ids of up to {@code limit} notes created before {@code createdBefore}, retrieved at most
+     * {@code maxRetrievalCount} times and carrying none of {@code keepTags}, oldest first.
+     */
+    List<MemoryNoteId> findArchivable(Instant createdBefore, int maxRetrievalCount, Set<String> keepTags, int limit);
+
+    /**
+     * Moves notes out of the live graph into the archive, together with their links. Archived notes are not
+     * found by any query until they are {@linkplain #restore(ArchivedNote) restored}. Ids of notes that do not
+     * exist are skipped.
+     *
+     * @return the number of archived notes
+     */
+    int archive(List<MemoryNoteId> ids);
+
+    Optional<ArchivedNote> findArchived(MemoryNoteId id);
+
+    /**
+     * Moves an archived note back into the live graph. {@code archived} is what {@link #findArchived(MemoryNoteId)}
+     * returned, with the note carrying its embedding again. Links to and from notes that are archived themselves
+     * are kept in their archived copies and come back with them.
+     *
+     * @throws IllegalArgumentException if a live note with the same id exists
+     */
+    MemoryNote restore(ArchivedNote archived);
+
+    Map<String, CacheStats> cacheStats();
+
+    CompressionStats compressionStats();
 }
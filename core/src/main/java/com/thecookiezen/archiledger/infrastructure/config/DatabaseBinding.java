@@ -0,0 +1,68 @@
+package com.thecookiezen.archiledger.infrastructure.config;
+
+import com.ladybugdb.Database;
+import com.thecookiezen.ladybugdb.spring.connection.LadybugDBConnectionFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Supplier;
+
+/**
+ * Binds the current thread to a database other than the primary one. {@link RoutingConnectionFactory}
+ * serves connections of the innermost binding, so everything built on the shared template follows it.
+ */
+public class DatabaseBinding {
+
+    private final ThreadLocal<Deque<Scope>> bound = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public <T> T call(Database database, LadybugDBConnectionFactory connectionFactory, Supplier<T> action) {
+        return call(new Scope(database, connectionFactory), action);
+    }
+
+    /**
+     * Wraps {@code action} so that it runs bound to the current thread's database when executed on another
+     * thread, for example by an executor.
+     */
+    public <T> Supplier<T> capture(Supplier<T> action) {
+        Scope scope = scope();
+        return () -> call(scope, action);
+    }
+
+    /**
+     * The database the current thread is bound to, {@link Scope#PRIMARY} when unbound. Scopes are equal when
+     * they target the same database.
+     */
+    public Scope scope() {
+        Scope scope = bound.get().peek();
+        return scope != null ? scope : Scope.PRIMARY;
+    }
+
+    public Database database() {
+        return scope().database();
+    }
+
+    public LadybugDBConnectionFactory connectionFactory() {
+        return scope().connectionFactory();
+    }
+
+    /**
+     * Runs {@code action} bound to {@code scope}.
+     */
+    public <T> T call(Scope scope, Supplier<T> action) {
+        Deque<Scope> stack = bound.get();
+        stack.push(scope);
+        try {
+            return action.get();
+        } finally {
+            stack.pop();
+            if (stack.isEmpty()) {
+                bound.remove();
+            }
+        }
+    }
+
+    public record Scope(Database database, LadybugDBConnectionFactory connectionFactory) {
+
+        public static final Scope PRIMARY = new Scope(null, null);
+    }
+}
@@ -3,10 +3,21 @@ package com.thecookiezen.archiledger.infrastructure.config;
 import com.ladybugdb.Connection;
 import com.ladybugdb.Database;
 import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.Namespaces;
+import com.thecookiezen.archiledger.domain.repository.MemoryNoteRepository;
+import com.thecookiezen.archiledger.infrastructure.embeddings.LadybugVectorExtensionInitializer;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.GroupCommitWriter;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.LadybugMemoryNoteRepository;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.MemoryNoteDbRepository;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.ShardedMemoryNoteRepository;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.CountProjection;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.EmbeddingProjection;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.ImportRowProjection;
 import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.LadybugMemoryNote;
 import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.LadybugNoteLink;
 import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.LinkProjection;
 import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.SimilarityResultProjection;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.TagCountProjection;
 import com.thecookiezen.ladybugdb.spring.config.EnableLadybugDBRepositories;
 import com.thecookiezen.ladybugdb.spring.connection.LadybugDBConnectionFactory;
 import com.thecookiezen.ladybugdb.spring.connection.PooledConnectionFactory;
@@ -19,14 +30,17 @@ import com.thecookiezen.ladybugdb.spring.transaction.LadybugDBTransactionManager
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
@@ -37,6 +51,13 @@ public class LadybugDBConfig {
 
     private static final Logger logger = LoggerFactory.getLogger(LadybugDBConfig.class);
 
+    /**
+     * ISO-8601 timestamps LadybugDB can cast to {@code TIMESTAMP}, used to fill {@code createdAt} of notes
+     * written before the column existed. Other timestamps leave it empty.
+     */
+    private static final String ISO_TIMESTAMP =
+            "^[0-9]{4}-[0-9]{2}-[0-9]{2}([T ][0-9]{2}:[0-9]{2}(:[0-9]{2}([.][0-9]+)?)?)?([Zz]|[+-][0-9]{2}(:?[0-9]{2})?)?$";
+
     @Value("${ladybugdb.pool.max-total:10}")
     private int poolMaxTotal;
 
@@ -55,6 +76,24 @@ public class LadybugDBConfig {
     @Value("${ladybugdb.extension-dir:}")
     private String extensionDir;
 
+    @Value("${ladybugdb.databases.enabled:false}")
+    private boolean databasesEnabled;
+
+    @Value("${ladybugdb.databases.root:}")
+    private String databasesRoot;
+
+    @Value("${ladybugdb.databases.max-open:32}")
+    private int databasesMaxOpen;
+
+    @Value("${ladybugdb.databases.idle-timeout-seconds:600}")
+    private long databasesIdleTimeoutSeconds;
+
+    @Value("${ladybugdb.shards.count:1}")
+    private int shardCount;
+
+    @Value("${ladybugdb.shards.root:}")
+    private String shardsRoot;
+
     @Bean(destroyMethod = "close")
     public Database database() {
         Database db;
@@ -73,6 +112,7 @@ public class LadybugDBConfig {
                 logger.info("Loaded existing LadybugDB database from: {}", dataDirPath.toAbsolutePath());
             }
         }
+        migrateSchema(db);
 
         return db;
     }
@@ -80,7 +120,7 @@ public class LadybugDBConfig {
     private void initializeSchema(Database db) {
         try (Connection conn = new Connection(db)) {
             try (var r1 = conn.query(
-                    "CREATE NODE TABLE IF NOT EXISTS MemoryNote(id STRING PRIMARY KEY, content STRING, keywords STRING[], context STRING, tags STRING[], timestamp STRING, retrievalCount INT64)")) {
+                    "CREATE NODE TABLE IF NOT EXISTS MemoryNote(id STRING PRIMARY KEY, content STRING, keywords STRING[], context STRING, tags STRING[], timestamp STRING, retrievalCount INT64, namespace STRING)")) {
                 if (!r1.isSuccess()) {
                     throw new RuntimeException("Failed to create MemoryNote table: " + r1.getErrorMessage());
                 }
@@ -114,9 +154,120 @@ public class LadybugDBConfig {
         }
     }
 
+    /**
+     * Brings databases created by earlier versions up to the current schema. Every step is idempotent,
+     * so this runs on each startup.
+     */
+    private void migrateSchema(Database db) {
+        try (Connection conn = new Connection(db)) {
+            executeSchemaQuery(conn,
+                    "ALTER TABLE MemoryNote ADD IF NOT EXISTS namespace STRING DEFAULT '%s'".formatted(Namespaces.DEFAULT),
+                    "Failed to add namespace column to MemoryNote");
+            executeSchemaQuery(conn,
+                    "CREATE NODE TABLE IF NOT EXISTS Namespace(name STRING PRIMARY KEY)",
+                    "Failed to create Namespace table");
+            executeSchemaQuery(conn,
+                    "CREATE REL TABLE IF NOT EXISTS IN_NAMESPACE(FROM MemoryNote TO Namespace)",
+                    "Failed to create IN_NAMESPACE table");
+            executeSchemaQuery(conn,
+                    "MERGE (:Namespace {name: '%s'})".formatted(Namespaces.DEFAULT),
+                    "Failed to create default namespace");
+            executeSchemaQuery(conn,
+                    "CREATE NODE TABLE IF NOT EXISTS RemoteNote(id STRING PRIMARY KEY)",
+                    "Failed to create RemoteNote table");
+            executeSchemaQuery(conn,
+                    "CREATE REL TABLE IF NOT EXISTS LINKED_TO_REMOTE(FROM MemoryNote TO RemoteNote, relationType STRING, context STRING)",
+                    "Failed to create LINKED_TO_REMOTE table");
+            executeSchemaQuery(conn,
+                    "CREATE REL TABLE IF NOT EXISTS LINKED_FROM_REMOTE(FROM RemoteNote TO MemoryNote, relationType STRING, context STRING)",
+                    "Failed to create LINKED_FROM_REMOTE table");
+            executeSchemaQuery(conn,
+                    "CREATE REL TABLE IF NOT EXISTS SIMILAR_TO(FROM MemoryNote TO MemoryNote, score DOUBLE)",
+                    "Failed to create SIMILAR_TO table");
+            executeSchemaQuery(conn,
+                    "ALTER TABLE MemoryNote ADD IF NOT EXISTS similarStale BOOLEAN DEFAULT true",
+                    "Failed to add similarStale column to MemoryNote");
+            executeSchemaQuery(conn,
+                    "ALTER TABLE MemoryNote ADD IF NOT EXISTS createdAt TIMESTAMP",
+                    "Failed to add createdAt column to MemoryNote");
+            executeSchemaQuery(conn, """
+                    MATCH (n:MemoryNote)
+                    WHERE n.createdAt IS NULL AND regexp_matches(n.timestamp, '%s')
+                    SET n.createdAt = CAST(regexp_replace(n.timestamp, '[Zz]$', '') AS TIMESTAMP)
+                    """.formatted(ISO_TIMESTAMP),
+                    "Failed to fill the createdAt column of MemoryNote");
+            executeSchemaQuery(conn,
+                    "CREATE NODE TABLE IF NOT EXISTS ArchivedNote(id STRING PRIMARY KEY, namespace STRING, data STRING)",
+                    "Failed to create ArchivedNote table");
+            executeSchemaQuery(conn, """
+                    MATCH (n:MemoryNote), (ns:Namespace {name: '%s'})
+                    WHERE NOT EXISTS { MATCH (n)-[:IN_NAMESPACE]->(:Namespace) }
+                    CREATE (n)-[:IN_NAMESPACE]->(ns)
+                    """.formatted(Namespaces.DEFAULT),
+                    "Failed to assign notes to the default namespace");
+            logger.info("Namespace schema ready");
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Schema migration failed", e);
+        }
+    }
+
+    private void executeSchemaQuery(Connection conn, String cypher, String errorMessage) {
+        try (var result = conn.query(cypher)) {
+            if (!result.isSuccess()) {
+                throw new RuntimeException(errorMessage + ": " + result.getErrorMessage());
+            }
+        }
+    }
+
+    @Bean
+    public DatabaseBinding databaseBinding() {
+        return new DatabaseBinding();
+    }
+
+    @Bean(destroyMethod = "close")
+    public LadybugDatabaseRegistry databaseRegistry(DatabaseBinding binding,
+            ObjectProvider<LadybugVectorExtensionInitializer> vectorInitializer) {
+        return new LadybugDatabaseRegistry(databasesEnabled, databasesRoot, databasesMaxOpen,
+                Duration.ofSeconds(databasesIdleTimeoutSeconds), binding,
+                path -> openSecondaryDatabase(path, vectorInitializer),
+                db -> new PooledConnectionFactory(db, extensionDir));
+    }
+
+    @Bean(destroyMethod = "close")
+    public LadybugShards shards(DatabaseBinding binding, ObjectProvider<LadybugVectorExtensionInitializer> vectorInitializer) {
+        return new LadybugShards(shardCount, shardsRoot, binding,
+                path -> openSecondaryDatabase(path, vectorInitializer),
+                db -> new PooledConnectionFactory(db, extensionDir));
+    }
+
+    private Database openSecondaryDatabase(Path path, ObjectProvider<LadybugVectorExtensionInitializer> vectorInitializer) {
+        Database db = new Database(path.toString());
+        initializeSchema(db);
+        migrateSchema(db);
+        vectorInitializer.ifAvailable(initializer -> initializer.initializeDatabase(db));
+        return db;
+    }
+
     @Bean(destroyMethod = "close")
-    public LadybugDBConnectionFactory connectionFactory(Database database) {
-        return new PooledConnectionFactory(database, extensionDir);
+    public LadybugDBConnectionFactory connectionFactory(Database database, DatabaseBinding binding) {
+        return new RoutingConnectionFactory(new PooledConnectionFactory(database, extensionDir), binding);
+    }
+
+    /**
+     * The repository used by the application: the default-namespace repository itself, or a sharded view over
+     * it when {@code ladybugdb.shards.count} is greater than 1.
+     */
+    @Bean
+    @Primary
+    public MemoryNoteRepository memoryNoteRepository(LadybugMemoryNoteRepository repository, LadybugShards shards,
+            MemoryNoteDbRepository dbRepository, GroupCommitWriter writer) {
+        if (shards.count() == 1) {
+            return repository;
+        }
+        logger.info("Default namespace is sharded across {} LadybugDB databases", shards.count());
+        return new ShardedMemoryNoteRepository(repository, dbRepository, shards, writer);
     }
 
     @Bean
@@ -137,6 +288,10 @@ public class LadybugDBConfig {
         registry.registerDescriptor(LinkProjection.class, linkProjectionReader(), entity -> Map.of());
         registry.registerDescriptor(SimilarityResultProjection.class, similarityResultProjectionReader(memoryNoteReader()), entity -> Map.of());
         registry.registerDescriptor(MemoryNoteId.class, memoryNoteIdReader(), entity -> Map.of());
+        registry.registerDescriptor(TagCountProjection.class, tagCountProjectionReader(), entity -> Map.of());
+        registry.registerDescriptor(ImportRowProjection.class, importRowProjectionReader(), entity -> Map.of());
+        registry.registerDescriptor(CountProjection.class, countProjectionReader(), entity -> Map.of());
+        registry.registerDescriptor(EmbeddingProjection.class, embeddingProjectionReader(), entity -> Map.of());
         return registry;
     }
 
@@ -159,6 +314,8 @@ public class LadybugDBConfig {
             note.setTimestamp(ValueMappers.asString(node.get("timestamp")));
             Integer retrievalCount = ValueMappers.asInteger(node.get("retrievalCount"));
             note.setRetrievalCount(retrievalCount != null ? retrievalCount : 0);
+            String namespace = ValueMappers.asString(node.get("namespace"));
+            note.setNamespace(namespace != null ? namespace : Namespaces.DEFAULT);
             return note;
         };
     }
@@ -172,6 +329,7 @@ public class LadybugDBConfig {
             props.put("tags", note.getTags());
             props.put("timestamp", note.getTimestamp());
             props.put("retrievalCount", note.getRetrievalCount());
+            props.put("namespace", note.getNamespace());
             return props;
         };
     }
@@ -213,6 +371,49 @@ public class LadybugDBConfig {
                 ValueMappers.asString(row.getValue("context")));
     }
 
+    private RowMapper<TagCountProjection> tagCountProjectionReader() {
+        return row -> {
+            Long count = ValueMappers.asLong(row.getValue("count"));
+            return new TagCountProjection(ValueMappers.asString(row.getValue("tag")), count != null ? count : 0L);
+        };
+    }
+
+    private RowMapper<CountProjection> countProjectionReader() {
+        return row -> {
+            Long count = ValueMappers.asLong(row.getValue("count"));
+            return new CountProjection(count != null ? count : 0L);
+        };
+    }
+
+    /**
+     * Reads an embedding returned cast to a string, {@code [0.1,0.2,...]}.
+     */
+    private RowMapper<EmbeddingProjection> embeddingProjectionReader() {
+        return row -> {
+            String text = ValueMappers.asString(row.getValue("embedding"));
+            String values = text == null ? "" : text.strip().replaceAll("^\\[|\\]$", "").strip();
+            if (values.isEmpty()) {
+                return new EmbeddingProjection(new float[0]);
+            }
+            String[] parts = values.split(",");
+            float[] embedding = new float[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                embedding[i] = Float.parseFloat(parts[i].strip());
+            }
+            return new EmbeddingProjection(embedding);
+        };
+    }
+
+    private RowMapper<ImportRowProjection> importRowProjectionReader() {
+        return row -> new ImportRowProjection(
+                ValueMappers.asString(row.getValue("id")),
+                ValueMappers.asString(row.getValue("content")),
+                ValueMappers.asStringList(row.getValue("keywords")),
+                ValueMappers.asString(row.getValue("context")),
+                ValueMappers.asStringList(row.getValue("tags")),
+                ValueMappers.asString(row.getValue("timestamp")));
+    }
+
     private RowMapper<SimilarityResultProjection> similarityResultProjectionReader(RowMapper<LadybugMemoryNote> noteReader) {
         return row -> {
             LadybugMemoryNote note = noteReader.mapRow(row);
@@ -0,0 +1,285 @@
+package com.thecookiezen.archiledger.infrastructure.config;
+
+import com.ladybugdb.Database;
+import com.thecookiezen.archiledger.domain.model.CacheStats;
+import com.thecookiezen.archiledger.domain.model.Namespaces;
+import com.thecookiezen.ladybugdb.spring.connection.LadybugDBConnectionFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Opens one LadybugDB database per namespace on first use and closes idle ones again.
+ * <p>
+ * Each non-default namespace lives in its own database directory under {@code root}. A database is opened,
+ * migrated and given its vector index lazily when a call is routed to it with {@link #call(String, Supplier)},
+ * and the calling thread is bound to it through {@link DatabaseBinding}. Opening runs outside the registry lock:
+ * concurrent calls for the same namespace wait on its opening future, calls for other namespaces proceed.
+ * At most {@code maxOpen} databases stay open: the least recently used ones without running calls are closed
+ * first, and any database unused for longer than {@code idleTimeout} is closed as well, by a reaper thread when
+ * no calls arrive. The default namespace always uses the primary database.
+ */
+public class LadybugDatabaseRegistry implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LadybugDatabaseRegistry.class);
+
+    private final boolean enabled;
+    private final Path root;
+    private final int maxOpen;
+    private final long idleTimeoutNanos;
+    private final Function<Path, Database> databaseOpener;
+    private final Function<Database, LadybugDBConnectionFactory> connectionFactoryCreator;
+    private final LinkedHashMap<String, Handle> handles = new LinkedHashMap<>(16, 0.75f, true);
+    private final DatabaseBinding binding;
+    private final LongAdder reuses = new LongAdder();
+    private final LongAdder opens = new LongAdder();
+    private final LongAdder closes = new LongAdder();
+    private final ScheduledExecutorService reaper;
+
+    public LadybugDatabaseRegistry(boolean enabled, String root, int maxOpen, Duration idleTimeout,
+            DatabaseBinding binding, Function<Path, Database> databaseOpener,
+            Function<Database, LadybugDBConnectionFactory> connectionFactoryCreator) {
+        if (enabled && (root == null || root.isBlank())) {
+            throw new IllegalStateException("ladybugdb.databases.root must be set when ladybugdb.databases.enabled is true");
+        }
+        if (maxOpen < 1) {
+            throw new IllegalArgumentException("ladybugdb.databases.max-open must be at least 1");
+        }
+        this.enabled = enabled;
+        this.root = enabled ? Path.of(root) : null;
+        this.maxOpen = maxOpen;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.binding = binding;
+        this.databaseOpener = databaseOpener;
+        this.connectionFactoryCreator = connectionFactoryCreator;
+        if (enabled) {
+            long periodMillis = Math.max(1000, idleTimeout.toMillis() / 2);
+            this.reaper = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("ladybugdb-database-reaper").daemon().factory());
+            this.reaper.scheduleWithFixedDelay(this::reapIdle, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.reaper = null;
+        }
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether calls for {@code namespace} are served by a database of their own.
+     */
+    public boolean routes(String namespace) {
+        return enabled && !Namespaces.isDefault(namespace);
+    }
+
+    /**
+     * Runs {@code action} against the database of {@code namespace}, opening it if needed. The database
+     * cannot be closed while the action runs. Calls for namespaces that are not routed run unchanged.
+     */
+    public <T> T call(String namespace, Supplier<T> action) {
+        if (!routes(namespace)) {
+            return action.get();
+        }
+        Handle handle = acquire(namespace);
+        try {
+            return binding.call(handle.database(), handle.connectionFactory(), action);
+        } finally {
+            release(handle);
+        }
+    }
+
+    public void run(String namespace, Runnable action) {
+        call(namespace, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Namespaces that have a database directory, whether or not it is currently open.
+     */
+    public Set<String> storedNamespaces() {
+        if (!enabled || !Files.isDirectory(root)) {
+            return Set.of();
+        }
+        try (Stream<Path> children = Files.list(root)) {
+            return children.filter(Files::isDirectory)
+                    .map(path -> path.getFileName().toString())
+                    .collect(Collectors.toUnmodifiableSet());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list databases in " + root, e);
+        }
+    }
+
+    /**
+     * Open databases reported as a cache: hits are calls served by an open database, misses are opens.
+     */
+    public synchronized CacheStats stats() {
+        return CacheStats.of(reuses.sum(), opens.sum(), closes.sum(), handles.size(), handles.size(), maxOpen);
+    }
+
+    private Handle acquire(String namespace) {
+        Handle handle;
+        boolean opener = false;
+        synchronized (this) {
+            handle = handles.get(namespace);
+            if (handle == null) {
+                handle = new Handle(namespace);
+                handles.put(namespace, handle);
+                opener = true;
+            } else if (handle.opening.isDone()) {
+                reuses.increment();
+            }
+            handle.leases++;
+        }
+        if (opener) {
+            open(handle);
+        } else {
+            awaitOpen(handle);
+        }
+        closeAll(collectIdle());
+        return handle;
+    }
+
+    private void open(Handle handle) {
+        Path path = root.resolve(Namespaces.normalize(handle.namespace()));
+        logger.info("Opening LadybugDB database for namespace '{}' at {}", handle.namespace(), path.toAbsolutePath());
+        try {
+            Database database = databaseOpener.apply(path);
+            handle.database = database;
+            handle.connectionFactory = connectionFactoryCreator.apply(database);
+            opens.increment();
+            handle.opening.complete(null);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                handles.remove(handle.namespace(), handle);
+            }
+            handle.opening.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void awaitOpen(Handle handle) {
+        try {
+            handle.opening.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private void release(Handle handle) {
+        synchronized (this) {
+            handle.leases--;
+            handle.lastUsed = System.nanoTime();
+        }
+        closeAll(collectIdle());
+    }
+
+    private void reapIdle() {
+        try {
+            closeAll(collectIdle());
+        } catch (RuntimeException e) {
+            logger.warn("Failed to close idle LadybugDB databases", e);
+        }
+    }
+
+    /**
+     * Removes the databases to close from the registry; closing them happens outside the lock.
+     */
+    private synchronized List<Handle> collectIdle() {
+        long now = System.nanoTime();
+        List<Handle> idle = new ArrayList<>();
+        Iterator<Handle> eldest = handles.values().iterator();
+        while (eldest.hasNext()) {
+            Handle handle = eldest.next();
+            if (handle.leases > 0) {
+                continue;
+            }
+            boolean overBudget = handles.size() > maxOpen;
+            boolean expired = now - handle.lastUsed > idleTimeoutNanos;
+            if (overBudget || expired) {
+                eldest.remove();
+                idle.add(handle);
+            }
+        }
+        return idle;
+    }
+
+    private void closeAll(List<Handle> idle) {
+        idle.forEach(this::close);
+    }
+
+    private void close(Handle handle) {
+        if (!handle.opening.isDone() || handle.opening.isCompletedExceptionally()) {
+            return;
+        }
+        logger.info("Closing idle LadybugDB database for namespace '{}'", handle.namespace());
+        closes.increment();
+        try {
+            handle.connectionFactory().close();
+        } catch (Exception e) {
+            logger.warn("Failed to close connections of namespace '{}'", handle.namespace(), e);
+        }
+        handle.database().close();
+    }
+
+    @Override
+    public void close() {
+        if (reaper != null) {
+            reaper.shutdownNow();
+        }
+        List<Handle> open;
+        synchronized (this) {
+            open = List.copyOf(handles.values());
+            handles.clear();
+        }
+        open.forEach(this::close);
+    }
+
+    private static final class Handle {
+        private final String namespace;
+        private final CompletableFuture<Void> opening = new CompletableFuture<>();
+        private volatile Database database;
+        private volatile LadybugDBConnectionFactory connectionFactory;
+        private int leases;
+        private long lastUsed = System.nanoTime();
+
+        private Handle(String namespace) {
+            this.namespace = namespace;
+        }
+
+        String namespace() {
+            return namespace;
+        }
+
+        Database database() {
+            return database;
+        }
+
+        LadybugDBConnectionFactory connectionFactory() {
+            return connectionFactory;
+        }
+    }
+}
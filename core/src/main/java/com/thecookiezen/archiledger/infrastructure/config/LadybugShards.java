@@ -0,0 +1,87 @@
+package com.thecookiezen.archiledger.infrastructure.config;
+
+import com.ladybugdb.Database;
+import com.thecookiezen.ladybugdb.spring.connection.LadybugDBConnectionFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Fixed set of LadybugDB databases that the default namespace is hash-partitioned across. Shard 0 is the
+ * primary database; shards 1..N-1 are opened at startup under {@code root} and stay open. Notes are assigned
+ * to shards by their id, so every note has exactly one home shard.
+ */
+public class LadybugShards implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LadybugShards.class);
+
+    private final DatabaseBinding binding;
+    private final List<Shard> shards = new ArrayList<>();
+
+    public LadybugShards(int count, String root, DatabaseBinding binding, Function<Path, Database> databaseOpener,
+            Function<Database, LadybugDBConnectionFactory> connectionFactoryCreator) {
+        if (count < 1) {
+            throw new IllegalArgumentException("ladybugdb.shards.count must be at least 1");
+        }
+        if (count > 1 && (root == null || root.isBlank())) {
+            throw new IllegalStateException("ladybugdb.shards.root must be set when ladybugdb.shards.count is greater than 1");
+        }
+        this.binding = binding;
+        shards.add(null);
+        for (int i = 1; i < count; i++) {
+            Path path = Path.of(root).resolve("shard-" + i);
+            logger.info("Opening LadybugDB shard {} at {}", i, path.toAbsolutePath());
+            Database database = databaseOpener.apply(path);
+            shards.add(new Shard(database, connectionFactoryCreator.apply(database)));
+        }
+    }
+
+    public int count() {
+        return shards.size();
+    }
+
+    public int shardOf(String noteId) {
+        return Math.floorMod(noteId.hashCode(), shards.size());
+    }
+
+    /**
+     * Runs {@code action} against shard {@code index}.
+     */
+    public <T> T call(int index, Supplier<T> action) {
+        Shard shard = shards.get(index);
+        if (shard == null) {
+            return action.get();
+        }
+        return binding.call(shard.database(), shard.connectionFactory(), action);
+    }
+
+    public void run(int index, Runnable action) {
+        call(index, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    @Override
+    public void close() {
+        for (Shard shard : shards) {
+            if (shard != null) {
+                try {
+                    shard.connectionFactory().close();
+                } catch (Exception e) {
+                    logger.warn("Failed to close shard connections", e);
+                }
+                shard.database().close();
+            }
+        }
+    }
+
+    private record Shard(Database database, LadybugDBConnectionFactory connectionFactory) {
+    }
+}
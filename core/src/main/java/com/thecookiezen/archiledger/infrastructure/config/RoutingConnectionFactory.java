@@ -0,0 +1,40 @@
+package com.thecookiezen.archiledger.infrastructure.config;
+
+import com.ladybugdb.Connection;
+import com.thecookiezen.ladybugdb.spring.connection.LadybugDBConnectionFactory;
+
+/**
+ * Connection factory that serves connections of the database the current thread is bound to through
+ * {@link DatabaseBinding}, and of the primary database otherwise. This lets the single template and
+ * the repositories built on it work unchanged against any number of databases.
+ */
+public class RoutingConnectionFactory implements LadybugDBConnectionFactory {
+
+    private final LadybugDBConnectionFactory primary;
+    private final DatabaseBinding binding;
+
+    public RoutingConnectionFactory(LadybugDBConnectionFactory primary, DatabaseBinding binding) {
+        this.primary = primary;
+        this.binding = binding;
+    }
+
+    @Override
+    public Connection getConnection() {
+        return target().getConnection();
+    }
+
+    @Override
+    public void releaseConnection(Connection connection) {
+        target().releaseConnection(connection);
+    }
+
+    @Override
+    public void close() {
+        primary.close();
+    }
+
+    private LadybugDBConnectionFactory target() {
+        LadybugDBConnectionFactory bound = binding.connectionFactory();
+        return bound != null ? bound : primary;
+    }
+}
@@ -1,5 +1,7 @@
 package com.thecookiezen.archiledger.infrastructure.embeddings;
 
+import java.util.List;
+
 import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.stereotype.Service;
 
@@ -24,4 +26,12 @@ public class LadybugEmbeddingsService implements EmbeddingsService {
     public float[] embed(String text) {
         return embeddingModel.embed(text);
     }
+
+    @Override
+    public List<float[]> embedAll(List<String> texts) {
+        if (texts.isEmpty()) {
+            return List.of();
+        }
+        return embeddingModel.embed(texts);
+    }
 }
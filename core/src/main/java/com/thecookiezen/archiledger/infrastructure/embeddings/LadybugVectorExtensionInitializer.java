@@ -62,6 +62,44 @@ public class LadybugVectorExtensionInitializer {
         }
     }
 
+    /**
+     * Prepares a database opened after startup: loads the vector extension and creates the note embedding
+     * index if the database does not have it yet. Existing indexes are kept, so reopening is cheap.
+     */
+    public void initializeDatabase(Database other) {
+        try (Connection conn = new Connection(other)) {
+            configureExtensionDirectory(conn);
+            loadExtension(conn);
+            createIndexIfAbsent(conn, TABLE_NAME, VECTOR_INDEX_NAME);
+        }
+    }
+
+    /**
+     * Creates the HNSW index on an embedding table if it does not exist yet. Unlike {@link #recreateIndex()}
+     * an existing index is kept, so this is safe to call for every namespace on first use.
+     */
+    public void ensureIndex(String tableName, String indexName) {
+        try (Connection conn = new Connection(database)) {
+            loadExtension(conn);
+            createIndexIfAbsent(conn, tableName, indexName);
+        }
+    }
+
+    /**
+     * Drops the HNSW index of an embedding table if it exists, so rows can be bulk loaded before the index is
+     * rebuilt once with {@link #ensureIndex(String, String)}.
+     */
+    public void dropIndex(String tableName, String indexName) {
+        try (Connection conn = new Connection(database)) {
+            loadExtension(conn);
+            try (QueryResult result = conn.query("CALL DROP_VECTOR_INDEX('" + tableName + "', '" + indexName + "')")) {
+                if (result.isSuccess()) {
+                    logger.info("Dropped vector index '{}'", indexName);
+                }
+            }
+        }
+    }
+
     private void configureExtensionDirectory(Connection conn) {
         if (extensionDir != null && !extensionDir.isBlank()) {
             logger.info("Configuring LadybugDB home directory for extensions: {}", extensionDir);
@@ -88,22 +126,26 @@ public class LadybugVectorExtensionInitializer {
         } catch (Exception e) {
         }
 
+        createIndexIfAbsent(conn, TABLE_NAME, VECTOR_INDEX_NAME);
+    }
+
+    private void createIndexIfAbsent(Connection conn, String tableName, String indexName) {
         logger.info("Creating HNSW vector index '{}' on {}.{} with mu={}, ml={}, pu={}, efc={}, metric={}",
-                VECTOR_INDEX_NAME, TABLE_NAME, EMBEDDING_PROPERTY, hnswMu, hnswMl, hnswPu, hnswEfc, hnswMetric);
+                indexName, tableName, EMBEDDING_PROPERTY, hnswMu, hnswMl, hnswPu, hnswEfc, hnswMetric);
         
         String indexQuery = String.format(
                 "CALL CREATE_VECTOR_INDEX('%s', '%s', '%s', metric := '%s', mu := %d, ml := %d, pu := %.2f, efc := %d)",
-                TABLE_NAME, VECTOR_INDEX_NAME, EMBEDDING_PROPERTY, hnswMetric, hnswMu, hnswMl, hnswPu, hnswEfc);
+                tableName, indexName, EMBEDDING_PROPERTY, hnswMetric, hnswMu, hnswMl, hnswPu, hnswEfc);
         
         try (QueryResult result = conn.query(indexQuery)) {
             if (result.isSuccess()) {
-                logger.info("Vector index '{}' created successfully with HNSW parameters", VECTOR_INDEX_NAME);
+                logger.info("Vector index '{}' created successfully with HNSW parameters", indexName);
             } else {
                 String error = result.getErrorMessage();
                 if (error != null && error.contains("already exists")) {
-                    logger.info("Vector index '{}' already exists, skipping creation", VECTOR_INDEX_NAME);
+                    logger.info("Vector index '{}' already exists, skipping creation", indexName);
                 } else {
-                    logger.warn("Failed to create vector index '{}': {}", VECTOR_INDEX_NAME, error);
+                    logger.warn("Failed to create vector index '{}': {}", indexName, error);
                 }
             }
         }
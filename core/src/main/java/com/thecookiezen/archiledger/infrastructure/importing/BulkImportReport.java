@@ -0,0 +1,39 @@
+package com.thecookiezen.archiledger.infrastructure.importing;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import: the rows loaded and the time and throughput of each phase.
+ *
+ * @param skippedLinks links whose target is neither imported nor a note of the namespace
+ */
+public record BulkImportReport(String namespace, long notes, long links, long skippedLinks, List<Phase> phases) {
+
+    public BulkImportReport {
+        phases = List.copyOf(phases);
+    }
+
+    public long totalMillis() {
+        return phases.stream().mapToLong(Phase::millis).sum();
+    }
+
+    public String generateMarkdownTable() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%nBulk import into namespace '%s': %d notes, %d links, %d links skipped, %d ms%n%n",
+                namespace, notes, links, skippedLinks, totalMillis()));
+        sb.append("| Phase | Rows | Duration (ms) | Throughput (rows/sec) |\n");
+        sb.append("|-------|------|---------------|-----------------------|\n");
+        for (Phase phase : phases) {
+            sb.append(String.format("| %-20s | %-8d | %-13d | %-21.1f |%n",
+                    phase.name(), phase.rows(), phase.millis(), phase.rowsPerSecond()));
+        }
+        return sb.toString();
+    }
+
+    public record Phase(String name, long rows, long millis) {
+
+        public double rowsPerSecond() {
+            return millis == 0 ? rows * 1000.0 : rows * 1000.0 / millis;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.thecookiezen.archiledger.infrastructure.importing;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.NoteLink;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.ImportRowProjection;
+import com.thecookiezen.ladybugdb.spring.core.LadybugDBTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+/**
+ * Notes of an import file, in file order. JSONL files are streamed one object per line; CSV and Parquet files
+ * are read with LadybugDB's {@code LOAD FROM}, whose rows are held in memory. CSV files list keywords and tags
+ * separated by semicolons. Notes without an id get a random one, notes without a timestamp the import time.
+ */
+final class BulkImportSource implements Iterator<MemoryNote>, AutoCloseable {
+
+    private static final String CSV_QUERY = """
+            LOAD FROM '%s' (header=true)
+            RETURN CAST(id AS STRING) AS id, CAST(content AS STRING) AS content,
+                   list_filter(string_split(coalesce(CAST(keywords AS STRING), ''), ';'), k -> k <> '') AS keywords,
+                   CAST(context AS STRING) AS context,
+                   list_filter(string_split(coalesce(CAST(tags AS STRING), ''), ';'), t -> t <> '') AS tags,
+                   CAST(timestamp AS STRING) AS timestamp
+            """;
+
+    private static final String PARQUET_QUERY = """
+            LOAD FROM '%s'
+            RETURN CAST(id AS STRING) AS id, content, keywords, context, tags, CAST(timestamp AS STRING) AS timestamp
+            """;
+
+    private final Iterator<ImportNote> rows;
+    private final AutoCloseable resource;
+    private final String namespace;
+    private final String importedAt;
+    private long row;
+
+    private BulkImportSource(Iterator<ImportNote> rows, AutoCloseable resource, String namespace, String importedAt) {
+        this.rows = rows;
+        this.resource = resource;
+        this.namespace = namespace;
+        this.importedAt = importedAt;
+    }
+
+    static BulkImportSource open(Path source, String namespace, String importedAt, LadybugDBTemplate template) {
+        return switch (ImportFormat.of(source)) {
+            case JSONL -> {
+                try {
+                    MappingIterator<ImportNote> rows = new ObjectMapper().readerFor(ImportNote.class)
+                            .readValues(source.toFile());
+                    yield new BulkImportSource(rows, rows, namespace, importedAt);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to open import file " + source, e);
+                }
+            }
+            case CSV -> loaded(template, CSV_QUERY.formatted(literal(source)), namespace, importedAt);
+            case PARQUET -> loaded(template, PARQUET_QUERY.formatted(literal(source)), namespace, importedAt);
+        };
+    }
+
+    private static BulkImportSource loaded(LadybugDBTemplate template, String query, String namespace,
+            String importedAt) {
+        List<ImportNote> rows = template.query(query, Map.of(), ImportRowProjection.class).stream()
+                .map(ImportNote::of)
+                .toList();
+        return new BulkImportSource(rows.iterator(), () -> {
+        }, namespace, importedAt);
+    }
+
+    /**
+     * {@code value} escaped for use inside a single-quoted Cypher string.
+     */
+    static String literal(Object value) {
+        return value.toString().replace("\\", "\\\\").replace("'", "\\'");
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            return rows.hasNext();
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Import row " + (row + 1) + " is malformed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public MemoryNote next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ImportNote note;
+        try {
+            note = rows.next();
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Import row " + (row + 1) + " is malformed: " + e.getMessage(), e);
+        }
+        row++;
+        if (note.content() == null || note.content().isBlank()) {
+            throw new IllegalArgumentException("Import row " + row + " has no content");
+        }
+        String id = note.id() == null || note.id().isBlank() ? UUID.randomUUID().toString() : note.id();
+        List<NoteLink> links = note.links() == null ? List.of() : note.links().stream()
+                .map(link -> new NoteLink(link.target(), link.relationType(), link.context()))
+                .toList();
+        String timestamp = note.timestamp() == null || note.timestamp().isBlank() ? importedAt : note.timestamp();
+        int retrievalCount = note.retrievalCount() == null ? 0 : note.retrievalCount();
+        return new MemoryNote(new MemoryNoteId(id), note.content(), note.keywords(), note.context(), note.tags(),
+                links, timestamp, retrievalCount, null, namespace);
+    }
+
+    @Override
+    public void close() {
+        try {
+            resource.close();
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to close import file", e);
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record ImportNote(String id, String content, List<String> keywords, String context, List<String> tags,
+            List<ImportLink> links, String timestamp, Integer retrievalCount) {
+
+        static ImportNote of(ImportRowProjection row) {
+            return new ImportNote(row.id(), row.content(), row.keywords(), row.context(), row.tags(), null,
+                    row.timestamp(), null);
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record ImportLink(String target, String relationType, String context) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.thecookiezen.archiledger.infrastructure.importing;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Source file formats of a bulk import, told apart by file extension.
+ */
+enum ImportFormat {
+    JSONL,
+    CSV,
+    PARQUET;
+
+    static ImportFormat of(Path source) {
+        String name = source.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".json")) {
+            return JSONL;
+        }
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".parquet")) {
+            return PARQUET;
+        }
+        throw new IllegalArgumentException("Unsupported import file " + source
+                + ": expected a .jsonl, .ndjson, .csv or .parquet file");
+    }
+}
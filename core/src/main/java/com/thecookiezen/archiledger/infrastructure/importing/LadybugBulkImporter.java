@@ -0,0 +1,487 @@
+package com.thecookiezen.archiledger.infrastructure.importing;
+
+import com.ladybugdb.Connection;
+import com.ladybugdb.Database;
+import com.thecookiezen.archiledger.application.cache.QueryResultCache;
+import com.thecookiezen.archiledger.domain.model.LinkDefinition;
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.Namespaces;
+import com.thecookiezen.archiledger.domain.model.NoteLink;
+import com.thecookiezen.archiledger.domain.model.Timestamps;
+import com.thecookiezen.archiledger.domain.repository.EmbeddingsService;
+import com.thecookiezen.archiledger.infrastructure.config.LadybugDatabaseRegistry;
+import com.thecookiezen.archiledger.infrastructure.config.LadybugShards;
+import com.thecookiezen.archiledger.infrastructure.embeddings.LadybugVectorExtensionInitializer;
+import com.thecookiezen.archiledger.infrastructure.importing.BulkImportReport.Phase;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.ContentCompression;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.MemoryNoteCache;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.NamespaceSchemaManager;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.NamespaceSchemaManager.EmbeddingTable;
+import com.thecookiezen.ladybugdb.spring.core.LadybugDBTemplate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Loads a corpus of notes into a namespace of the primary database without going through the write path.
+ * <p>
+ * Notes are read from a JSONL, CSV or Parquet file and embedded in batches of {@code archiledger.import.batch-size}
+ * on {@code archiledger.import.threads} threads. Notes, embeddings and links are staged as CSV files and loaded
+ * with one {@code COPY FROM} per table; the namespace's vector index is dropped before and built once after the
+ * embeddings are loaded, whether or not the load succeeded. If a {@code COPY} fails, the rows the earlier ones
+ * loaded are deleted again, so the import can simply be retried. Cached notes and the namespace's cached query
+ * results are dropped after the load. Imported notes build their related-note edges
+ * on first use, like notes stored before that feature existed.
+ * <p>
+ * Note ids must be new, also among archived notes. Links may point to imported notes or to notes of the
+ * namespace; others are skipped.
+ * Imports bypass the write pipeline and the vector index is unavailable while they run, so they are meant for
+ * a server that does not serve requests yet. Namespaces stored in databases of their own and a sharded default
+ * namespace are not supported.
+ */
+@Component
+public class LadybugBulkImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LadybugBulkImporter.class);
+
+    static final String LIST_SEPARATOR = "\u001F";
+
+    private static final DateTimeFormatter TIMESTAMP_LITERAL =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS").withZone(ZoneOffset.UTC);
+
+    private static final String CSV_OPTIONS = "(header=true, parallel=false, quote='\"', escape='\"')";
+
+    private static final String COPY_NOTES = """
+            COPY MemoryNote FROM (
+                LOAD WITH HEADERS (id STRING, content STRING, keywords STRING, context STRING, tags STRING,
+                                   timestamp STRING, retrievalCount INT64, createdAt STRING)
+                FROM '%1$s' %2$s
+                RETURN id, content, %3$s, context, %4$s, timestamp, retrievalCount, '%5$s', true,
+                       CASE WHEN createdAt IS NULL OR createdAt = '' THEN NULL ELSE CAST(createdAt AS TIMESTAMP) END)
+            """;
+
+    private static final String COPY_NAMESPACES = """
+            COPY IN_NAMESPACE FROM (
+                LOAD WITH HEADERS (id STRING, content STRING, keywords STRING, context STRING, tags STRING,
+                                   timestamp STRING, retrievalCount INT64, createdAt STRING)
+                FROM '%1$s' %2$s
+                RETURN id, '%3$s')
+            """;
+
+    private static final String COPY_EMBEDDINGS = """
+            COPY %1$s FROM (
+                LOAD WITH HEADERS (noteId STRING, embedding FLOAT[%2$d]) FROM '%3$s' (header=true)
+                RETURN noteId, embedding)
+            """;
+
+    private static final String COPY_HAS_EMBEDDING = """
+            COPY HAS_EMBEDDING FROM (
+                LOAD WITH HEADERS (noteId STRING, embedding FLOAT[%1$d]) FROM '%2$s' (header=true)
+                RETURN noteId, noteId)
+            """;
+
+    private static final String TAKEN_IDS = """
+            UNWIND $ids AS id
+            OPTIONAL MATCH (n:MemoryNote {id: id})
+            OPTIONAL MATCH (a:ArchivedNote {id: id})
+            WITH id, n, a WHERE n IS NOT NULL OR a IS NOT NULL
+            RETURN id
+            """;
+
+    private static final String NAMESPACE_NOTE_IDS = """
+            UNWIND $ids AS id
+            MATCH (n:MemoryNote {id: id})
+            WHERE n.namespace = $namespace
+            RETURN n.id AS id
+            """;
+
+    private static final String DELETE_NOTES =
+            "UNWIND $ids AS id MATCH (n:MemoryNote {id: id}) WITH n, n.id AS id DETACH DELETE n RETURN id";
+
+    private static final String DELETE_EMBEDDINGS =
+            "UNWIND $ids AS id MATCH (e:%s {noteId: id}) WITH e, e.noteId AS id DETACH DELETE e RETURN id";
+
+    private static final String COPY_LINKS = """
+            COPY LINKED_TO FROM (
+                LOAD WITH HEADERS (fromId STRING, toId STRING, name STRING, relationType STRING, context STRING)
+                FROM '%1$s' %2$s
+                RETURN fromId, toId, name, relationType, context)
+            """;
+
+    private final Database database;
+    private final LadybugDBTemplate template;
+    private final EmbeddingsService embeddingsService;
+    private final NamespaceSchemaManager schemaManager;
+    private final LadybugDatabaseRegistry databases;
+    private final LadybugShards shards;
+    private final MemoryNoteCache noteCache;
+    private final QueryResultCache queryCache;
+    private final ContentCompression compression;
+    private final ObjectProvider<LadybugVectorExtensionInitializer> vectorInitializer;
+    private final int embeddingDimensions;
+    private final int batchSize;
+    private final int threads;
+    private final String stagingDir;
+
+    public LadybugBulkImporter(Database database, LadybugDBTemplate template, EmbeddingsService embeddingsService,
+            NamespaceSchemaManager schemaManager, LadybugDatabaseRegistry databases, LadybugShards shards,
+            MemoryNoteCache noteCache, QueryResultCache queryCache, ContentCompression compression,
+            ObjectProvider<LadybugVectorExtensionInitializer> vectorInitializer,
+            @Value("${ladybugdb.embeddingDimensions:384}") int embeddingDimensions,
+            @Value("${archiledger.import.batch-size:256}") int batchSize,
+            @Value("${archiledger.import.threads:4}") int threads,
+            @Value("${archiledger.import.staging-dir:}") String stagingDir) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("archiledger.import.batch-size must be at least 1");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("archiledger.import.threads must be at least 1");
+        }
+        this.database = database;
+        this.template = template;
+        this.embeddingsService = embeddingsService;
+        this.schemaManager = schemaManager;
+        this.databases = databases;
+        this.shards = shards;
+        this.noteCache = noteCache;
+        this.queryCache = queryCache;
+        this.compression = compression;
+        this.vectorInitializer = vectorInitializer;
+        this.embeddingDimensions = embeddingDimensions;
+        this.batchSize = batchSize;
+        this.threads = threads;
+        this.stagingDir = stagingDir;
+    }
+
+    /**
+     * Imports all notes of {@code source} into {@code namespace}.
+     *
+     * @throws IllegalArgumentException if the file cannot be imported, an id is taken or appears twice
+     * @throws IllegalStateException if loading the staged rows fails; nothing of the file is imported then
+     */
+    public BulkImportReport importFile(Path source, String namespace) {
+        String target = Namespaces.normalize(namespace);
+        if (databases.routes(target)) {
+            throw new IllegalArgumentException("Namespace '" + target
+                    + "' is stored in a database of its own, which bulk import does not support");
+        }
+        if (Namespaces.isDefault(target) && shards.count() > 1) {
+            throw new IllegalStateException("Bulk import does not support a sharded default namespace");
+        }
+        if (!Files.isRegularFile(source)) {
+            throw new IllegalArgumentException("Import file not found: " + source);
+        }
+        logger.info("Importing {} into namespace '{}'", source, target);
+        Path staging = createStagingDirectory();
+        try {
+            List<Phase> phases = new ArrayList<>();
+            Staged staged = stage(source, target, staging, phases);
+            if (staged.notes() > 0) {
+                try {
+                    load(staged, target, phases);
+                } finally {
+                    noteCache.clear();
+                    queryCache.invalidate(target);
+                }
+            }
+            BulkImportReport report = new BulkImportReport(target, staged.notes(), staged.links(),
+                    staged.skippedLinks(), phases);
+            logger.info("Imported {} notes and {} links into namespace '{}' in {} ms", report.notes(),
+                    report.links(), target, report.totalMillis());
+            return report;
+        } finally {
+            deleteStaging(staging);
+        }
+    }
+
+    /**
+     * Reads, embeds and stages all notes. Embedding batches run concurrently with reading and staging; the
+     * embed phase is the time the pipeline waited for them.
+     */
+    private Staged stage(Path source, String namespace, Path staging, List<Phase> phases) {
+        long started = System.nanoTime();
+        long readNanos = 0;
+        long stageNanos = 0;
+        Set<String> ids = new LinkedHashSet<>();
+        List<LinkDefinition> links = new ArrayList<>();
+        Path notesPath = staging.resolve("notes.csv");
+        Path embeddingsPath = staging.resolve("embeddings.csv");
+        long notes;
+        try (BulkImportSource rows = BulkImportSource.open(source, namespace, Instant.now().toString(), template);
+                StagingFile noteFile = new StagingFile(notesPath, "id", "content", "keywords", "context", "tags",
+                        "timestamp", "retrievalCount", "createdAt");
+                StagingFile embeddingFile = new StagingFile(embeddingsPath, "noteId", "embedding");
+                ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            Deque<Future<Embedded>> pending = new ArrayDeque<>();
+            while (true) {
+                long readStarted = System.nanoTime();
+                List<MemoryNote> batch = nextBatch(rows, ids);
+                readNanos += System.nanoTime() - readStarted;
+                if (batch.isEmpty()) {
+                    break;
+                }
+                pending.add(executor.submit(() -> embed(batch)));
+                if (pending.size() > threads) {
+                    stageNanos += write(await(pending.poll()), noteFile, embeddingFile, links);
+                }
+            }
+            while (!pending.isEmpty()) {
+                stageNanos += write(await(pending.poll()), noteFile, embeddingFile, links);
+            }
+            notes = noteFile.rows();
+        }
+        long totalNanos = System.nanoTime() - started;
+        phases.add(phase("read", notes, readNanos));
+        phases.add(phase("embed", notes, Math.max(0, totalNanos - readNanos - stageNanos)));
+
+        long linksStarted = System.nanoTime();
+        Path linksPath = staging.resolve("links.csv");
+        long skipped;
+        long staged;
+        try (StagingFile linkFile = new StagingFile(linksPath, "fromId", "toId", "name", "relationType", "context")) {
+            Set<String> targets = resolvableTargets(links, ids, namespace);
+            Set<List<String>> written = new HashSet<>();
+            skipped = 0;
+            for (LinkDefinition link : links) {
+                String to = link.target().value();
+                if (!targets.contains(to)) {
+                    skipped++;
+                    continue;
+                }
+                String from = link.source().value();
+                if (written.add(Stream.of(from, to, link.relationType(), String.valueOf(link.context())).toList())) {
+                    linkFile.row(from, to, from + "-" + link.relationType() + "-" + to, link.relationType(),
+                            link.context());
+                }
+            }
+            staged = linkFile.rows();
+        }
+        phases.add(phase("stage", notes + staged, stageNanos + System.nanoTime() - linksStarted));
+        if (skipped > 0) {
+            logger.warn("Skipped {} links whose target is neither imported nor stored in namespace '{}'", skipped,
+                    namespace);
+        }
+        return new Staged(notesPath, embeddingsPath, linksPath, List.copyOf(ids), staged, skipped);
+    }
+
+    private List<MemoryNote> nextBatch(BulkImportSource rows, Set<String> ids) {
+        List<MemoryNote> batch = new ArrayList<>(batchSize);
+        while (batch.size() < batchSize && rows.hasNext()) {
+            MemoryNote note = rows.next();
+            if (!ids.add(note.id().value())) {
+                throw new IllegalArgumentException("Note " + note.id().value() + " appears twice in the import file");
+            }
+            batch.add(note);
+        }
+        if (!batch.isEmpty()) {
+            List<String> batchIds = batch.stream().map(note -> note.id().value()).toList();
+            List<MemoryNoteId> taken = template.query(TAKEN_IDS, Map.of("ids", batchIds), MemoryNoteId.class);
+            if (!taken.isEmpty()) {
+                throw new IllegalArgumentException("Note " + taken.getFirst().value() + " already exists");
+            }
+        }
+        return batch;
+    }
+
+    private Embedded embed(List<MemoryNote> batch) {
+        List<float[]> embeddings = embeddingsService.embedAll(batch.stream().map(MemoryNote::content).toList());
+        if (embeddings.size() != batch.size()) {
+            throw new IllegalStateException("Embedding model returned " + embeddings.size() + " embeddings for "
+                    + batch.size() + " notes");
+        }
+        return new Embedded(batch, embeddings);
+    }
+
+    private Embedded await(Future<Embedded> batch) {
+        try {
+            return batch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Bulk import interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Failed to embed imported notes", e.getCause());
+        }
+    }
+
+    /**
+     * @return the time spent writing the staging files
+     */
+    private long write(Embedded batch, StagingFile noteFile, StagingFile embeddingFile, List<LinkDefinition> links) {
+        long started = System.nanoTime();
+        for (int i = 0; i < batch.notes().size(); i++) {
+            MemoryNote note = batch.notes().get(i);
+            String createdAt = Timestamps.parse(note.timestamp()).map(TIMESTAMP_LITERAL::format).orElse(null);
+            noteFile.row(note.id().value(), compression.encode(note.content()), list(note.keywords()),
+                    note.context(), list(note.tags()), note.timestamp(), (long) note.retrievalCount(), createdAt);
+            embeddingFile.row(note.id().value(), batch.embeddings().get(i));
+            for (NoteLink link : note.links()) {
+                links.add(new LinkDefinition(note.id(), link.target(), link.relationType(), link.context(),
+                        note.namespace()));
+            }
+        }
+        return System.nanoTime() - started;
+    }
+
+    private Set<String> resolvableTargets(List<LinkDefinition> links, Set<String> imported, String namespace) {
+        Set<String> targets = new HashSet<>(imported);
+        List<String> outside = links.stream()
+                .map(link -> link.target().value())
+                .filter(target -> !imported.contains(target))
+                .collect(Collectors.toCollection(LinkedHashSet::new))
+                .stream()
+                .toList();
+        for (int from = 0; from < outside.size(); from += batchSize) {
+            List<String> chunk = outside.subList(from, Math.min(from + batchSize, outside.size()));
+            template.query(NAMESPACE_NOTE_IDS, Map.of("namespace", namespace, "ids", chunk), MemoryNoteId.class)
+                    .forEach(id -> targets.add(id.value()));
+        }
+        return targets;
+    }
+
+    private void load(Staged staged, String namespace, List<Phase> phases) {
+        EmbeddingTable table = schemaManager.embeddingTable(namespace);
+        LadybugVectorExtensionInitializer initializer = vectorInitializer.getIfAvailable();
+        if (initializer != null) {
+            initializer.dropIndex(table.tableName(), table.indexName());
+        }
+        String keywords = listExpression("keywords");
+        String tags = listExpression("tags");
+        try (Connection conn = new Connection(database)) {
+            try {
+                execute(conn, "MERGE (:Namespace {name: '%s'})".formatted(namespace));
+                copy(conn, phases, "copy MemoryNote", staged.notes(), COPY_NOTES.formatted(
+                        BulkImportSource.literal(staged.notesPath()), CSV_OPTIONS, keywords, tags, namespace));
+                copy(conn, phases, "copy IN_NAMESPACE", staged.notes(), COPY_NAMESPACES.formatted(
+                        BulkImportSource.literal(staged.notesPath()), CSV_OPTIONS, namespace));
+                copy(conn, phases, "copy " + table.tableName(), staged.notes(), COPY_EMBEDDINGS.formatted(
+                        table.tableName(), embeddingDimensions, BulkImportSource.literal(staged.embeddingsPath())));
+                if (Namespaces.isDefault(namespace)) {
+                    copy(conn, phases, "copy HAS_EMBEDDING", staged.notes(), COPY_HAS_EMBEDDING.formatted(
+                            embeddingDimensions, BulkImportSource.literal(staged.embeddingsPath())));
+                }
+                if (staged.links() > 0) {
+                    copy(conn, phases, "copy LINKED_TO", staged.links(), COPY_LINKS.formatted(
+                            BulkImportSource.literal(staged.linksPath()), CSV_OPTIONS));
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Bulk import into namespace '{}' failed, removing the rows loaded so far", namespace);
+                removeLoaded(staged.ids(), table, e);
+                throw e;
+            }
+        } finally {
+            if (initializer != null) {
+                long started = System.nanoTime();
+                initializer.ensureIndex(table.tableName(), table.indexName());
+                phases.add(phase("vector index", staged.notes(), System.nanoTime() - started));
+            }
+        }
+    }
+
+    /**
+     * Deletes the notes and embeddings of a failed load. Deleting a note also drops its namespace, embedding
+     * and link edges.
+     */
+    private void removeLoaded(List<String> ids, EmbeddingTable table, RuntimeException failure) {
+        try {
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                List<String> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+                template.query(DELETE_EMBEDDINGS.formatted(table.tableName()), Map.of("ids", chunk), MemoryNoteId.class);
+                template.query(DELETE_NOTES, Map.of("ids", chunk), MemoryNoteId.class);
+            }
+        } catch (RuntimeException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    private void copy(Connection conn, List<Phase> phases, String name, long rows, String cypher) {
+        long started = System.nanoTime();
+        execute(conn, cypher);
+        phases.add(phase(name, rows, System.nanoTime() - started));
+    }
+
+    private void execute(Connection conn, String cypher) {
+        try (var result = conn.query(cypher)) {
+            if (!result.isSuccess()) {
+                throw new IllegalStateException("Bulk import failed: " + result.getErrorMessage());
+            }
+        }
+    }
+
+    private static String listExpression(String column) {
+        return "list_filter(string_split(coalesce(%s, ''), '%s'), x -> x <> '')".formatted(column, LIST_SEPARATOR);
+    }
+
+    private static String list(List<String> values) {
+        return values.stream()
+                .map(value -> value.replace(LIST_SEPARATOR, " "))
+                .collect(Collectors.joining(LIST_SEPARATOR));
+    }
+
+    private static Phase phase(String name, long rows, long nanos) {
+        return new Phase(name, rows, nanos / 1_000_000);
+    }
+
+    private Path createStagingDirectory() {
+        try {
+            if (stagingDir == null || stagingDir.isBlank()) {
+                return Files.createTempDirectory("archiledger-import-");
+            }
+            Path root = Path.of(stagingDir);
+            Files.createDirectories(root);
+            return Files.createTempDirectory(root, "import-");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create bulk import staging directory", e);
+        }
+    }
+
+    private static void deleteStaging(Path staging) {
+        try (Stream<Path> paths = Files.walk(staging)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to delete bulk import staging directory {}", staging, e);
+        }
+    }
+
+    private record Embedded(List<MemoryNote> notes, List<float[]> embeddings) {
+    }
+
+    private record Staged(Path notesPath, Path embeddingsPath, Path linksPath, List<String> ids, long links,
+            long skippedLinks) {
+
+        long notes() {
+            return ids.size();
+        }
+    }
+}
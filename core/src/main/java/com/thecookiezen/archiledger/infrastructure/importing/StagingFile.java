@@ -0,0 +1,86 @@
+package com.thecookiezen.archiledger.infrastructure.importing;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * CSV file staged for {@code COPY FROM}. Strings are quoted with quotes doubled, so they may hold delimiters
+ * and line breaks; {@code null} is an empty field and embeddings are written as list literals.
+ */
+final class StagingFile implements AutoCloseable {
+
+    private final Path path;
+    private final BufferedWriter out;
+    private long rows;
+
+    StagingFile(Path path, String... header) {
+        this.path = path;
+        try {
+            this.out = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+            out.write(String.join(",", header));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create staging file " + path, e);
+        }
+    }
+
+    void row(Object... fields) {
+        try {
+            for (int i = 0; i < fields.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                write(fields[i]);
+            }
+            out.write('\n');
+            rows++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write staging file " + path, e);
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long rows() {
+        return rows;
+    }
+
+    private void write(Object field) throws IOException {
+        if (field == null) {
+            return;
+        }
+        if (field instanceof Number) {
+            out.write(field.toString());
+            return;
+        }
+        if (field instanceof float[] vector) {
+            out.write("\"[");
+            for (int i = 0; i < vector.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                out.write(Float.toString(vector[i]));
+            }
+            out.write("]\"");
+            return;
+        }
+        out.write('"');
+        out.write(field.toString().replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    @Override
+    public void close() {
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to close staging file " + path, e);
+        }
+    }
+}
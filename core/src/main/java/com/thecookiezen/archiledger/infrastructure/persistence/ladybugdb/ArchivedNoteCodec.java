@@ -0,0 +1,82 @@
+package com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thecookiezen.archiledger.domain.model.ArchivedNote;
+import com.thecookiezen.archiledger.domain.model.LinkDefinition;
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.NoteLink;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serializes archived notes to the {@code data} column of {@code ArchivedNote}: gzip-compressed JSON, Base64
+ * encoded because the column is a string.
+ */
+final class ArchivedNoteCodec {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private ArchivedNoteCodec() {
+    }
+
+    static String encode(ArchivedNote archived) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            mapper.writeValue(out, ArchiveRecord.of(archived));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode archived note " + archived.note().id().value(), e);
+        }
+        return Base64.getEncoder().encodeToString(bytes.toByteArray());
+    }
+
+    static ArchivedNote decode(String data) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(data)))) {
+            return mapper.readValue(in, ArchiveRecord.class).toDomain();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode archived note", e);
+        }
+    }
+
+    record ArchiveLink(String source, String target, String relationType, String context) {
+    }
+
+    record ArchiveRecord(String id, String content, List<String> keywords, String context, List<String> tags,
+            List<ArchiveLink> links, List<ArchiveLink> incomingLinks, String timestamp, int retrievalCount,
+            String namespace, String archivedAt) {
+
+        static ArchiveRecord of(ArchivedNote archived) {
+            MemoryNote note = archived.note();
+            return new ArchiveRecord(note.id().value(), note.content(), note.keywords(), note.context(), note.tags(),
+                    note.links().stream()
+                            .map(link -> new ArchiveLink(note.id().value(), link.target().value(), link.relationType(), link.context()))
+                            .toList(),
+                    archived.incomingLinks().stream()
+                            .map(link -> new ArchiveLink(link.source().value(), link.target().value(), link.relationType(), link.context()))
+                            .toList(),
+                    note.timestamp(), note.retrievalCount(), note.namespace(), archived.archivedAt().toString());
+        }
+
+        ArchivedNote toDomain() {
+            MemoryNote note = new MemoryNote(new MemoryNoteId(id), content, keywords, context, tags,
+                    links.stream().map(link -> new NoteLink(link.target(), link.relationType(), link.context())).toList(),
+                    timestamp, retrievalCount, null, namespace);
+            return new ArchivedNote(note,
+                    incomingLinks.stream()
+                            .map(link -> new LinkDefinition(new MemoryNoteId(link.source()), new MemoryNoteId(link.target()),
+                                    link.relationType(), link.context(), namespace))
+                            .toList(),
+                    Instant.parse(archivedAt));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb;
+
+import com.thecookiezen.archiledger.domain.model.CompressionStats;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Transparent compression of the {@code content} column. When enabled, content of at least {@code minBytes}
+ * UTF-8 bytes is stored deflated and Base64 encoded behind a marker, if that is shorter. Queries then carry
+ * the compressed form, and the repository inflates it only when it builds a note that is not cached yet.
+ * <p>
+ * Stored content is recognized by its marker, so content written before compression was enabled, or after
+ * it was disabled, stays readable. Content that itself starts with the marker is always compressed, which
+ * keeps decoding unambiguous.
+ */
+@Component
+public class ContentCompression {
+
+    static final String MARKER = "\u0000deflate:";
+
+    private final boolean enabled;
+    private final int minBytes;
+    private final LongAdder compressedWrites = new LongAdder();
+    private final LongAdder rawBytes = new LongAdder();
+    private final LongAdder storedBytes = new LongAdder();
+    private final LongAdder decompressions = new LongAdder();
+    private final LongAdder decompressNanos = new LongAdder();
+
+    public ContentCompression(
+            @Value("${ladybugdb.content-compression.enabled:false}") boolean enabled,
+            @Value("${ladybugdb.content-compression.min-bytes:1024}") int minBytes) {
+        if (minBytes < 0) {
+            throw new IllegalArgumentException("ladybugdb.content-compression.min-bytes must not be negative");
+        }
+        this.enabled = enabled;
+        this.minBytes = minBytes;
+    }
+
+    /**
+     * The form of {@code content} to store.
+     */
+    public String encode(String content) {
+        if (content == null) {
+            return null;
+        }
+        boolean marked = content.startsWith(MARKER);
+        if (!marked && (!enabled || content.length() < minBytes / 3)) {
+            return content;
+        }
+        byte[] raw = content.getBytes(StandardCharsets.UTF_8);
+        if (!marked && raw.length < minBytes) {
+            return content;
+        }
+        String compressed = MARKER + Base64.getEncoder().encodeToString(deflate(raw));
+        if (!marked && compressed.length() >= content.length()) {
+            return content;
+        }
+        compressedWrites.increment();
+        rawBytes.add(raw.length);
+        storedBytes.add(compressed.length());
+        return compressed;
+    }
+
+    /**
+     * The content a stored value denotes.
+     */
+    public String decode(String stored) {
+        if (stored == null || !stored.startsWith(MARKER)) {
+            return stored;
+        }
+        long started = System.nanoTime();
+        byte[] compressed = Base64.getDecoder().decode(stored.substring(MARKER.length()));
+        String content = new String(inflate(compressed), StandardCharsets.UTF_8);
+        decompressions.increment();
+        decompressNanos.add(System.nanoTime() - started);
+        return content;
+    }
+
+    public CompressionStats stats() {
+        return CompressionStats.of(enabled, minBytes, compressedWrites.sum(), rawBytes.sum(), storedBytes.sum(),
+                decompressions.sum(), decompressNanos.sum());
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 16);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 4);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(buffer);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Compressed note content is truncated");
+                }
+                out.write(buffer, 0, inflated);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Compressed note content is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
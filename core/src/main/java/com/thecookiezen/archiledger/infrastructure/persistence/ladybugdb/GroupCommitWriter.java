@@ -0,0 +1,202 @@
+package com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb;
+
+import com.thecookiezen.archiledger.infrastructure.config.DatabaseBinding;
+import com.thecookiezen.archiledger.infrastructure.config.DatabaseBinding.Scope;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs repository mutations on a single writer thread with group commit.
+ * <p>
+ * Callers hand their write to {@link #write(Supplier)} and block until it is committed. The writer drains
+ * every pending write (up to {@code maxBatch}) per tick and runs those targeting the same database in one
+ * transaction, so concurrent callers share a commit instead of each running its own. A write may come with a
+ * {@code check} that validates its preconditions inside the shared transaction, right before the write runs;
+ * a failing check rejects only that write and leaves the rest of the group to commit. Only if a write itself
+ * fails is the shared transaction rolled back and its writes retried one transaction each, so that only the
+ * failing write reports an error. Reads do not go through the writer and keep using the connection pool
+ * concurrently.
+ */
+@Component
+public class GroupCommitWriter implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(GroupCommitWriter.class);
+
+    private final TransactionTemplate transactions;
+    private final DatabaseBinding binding;
+    private final boolean enabled;
+    private final int maxBatch;
+    private final BlockingQueue<Write<?>> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private final Object lifecycle = new Object();
+    private volatile boolean running = true;
+
+    public GroupCommitWriter(
+            PlatformTransactionManager transactionManager,
+            DatabaseBinding binding,
+            @Value("${ladybugdb.writer.group-commit.enabled:true}") boolean enabled,
+            @Value("${ladybugdb.writer.max-batch:128}") int maxBatch) {
+        if (maxBatch < 1) {
+            throw new IllegalArgumentException("ladybugdb.writer.max-batch must be at least 1");
+        }
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.binding = binding;
+        this.enabled = enabled;
+        this.maxBatch = maxBatch;
+        this.writer = enabled ? Thread.ofPlatform().name("ladybugdb-writer").daemon().start(this::run) : null;
+    }
+
+    /**
+     * Runs {@code operation} on the writer thread against the database the caller is bound to and returns its
+     * result once the enclosing transaction committed. Writes issued from within a write run inline.
+     */
+    public <T> T write(Supplier<T> operation) {
+        return write(() -> { }, operation);
+    }
+
+    /**
+     * Like {@link #write(Supplier)}, but first runs {@code check} in the same transaction. An exception from
+     * {@code check} fails this write alone, without rolling back the other writes committed with it, so
+     * {@code check} must not modify anything.
+     */
+    public <T> T write(Runnable check, Supplier<T> operation) {
+        if (!enabled || Thread.currentThread() == writer) {
+            check.run();
+            return operation.get();
+        }
+        Write<T> write = new Write<>(binding.scope(), check, operation, new CompletableFuture<>());
+        synchronized (lifecycle) {
+            if (!running) {
+                throw new IllegalStateException("LadybugDB writer is shut down");
+            }
+            queue.add(write);
+        }
+        try {
+            return write.future().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public void run(Runnable operation) {
+        write(() -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    private void run() {
+        List<Write<?>> tick = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Write<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                tick.add(first);
+                queue.drainTo(tick, maxBatch - 1);
+                Map<Scope, List<Write<?>>> byDatabase = new LinkedHashMap<>();
+                for (Write<?> write : tick) {
+                    byDatabase.computeIfAbsent(write.scope(), scope -> new ArrayList<>()).add(write);
+                }
+                byDatabase.forEach(this::commit);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                tick.clear();
+            }
+        }
+        failPending();
+    }
+
+    /**
+     * Fails the writes that will never be committed because the writer stopped.
+     */
+    private void failPending() {
+        Write<?> pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future().completeExceptionally(new IllegalStateException("LadybugDB writer is shut down"));
+        }
+    }
+
+    private void commit(Scope scope, List<Write<?>> writes) {
+        Object[] results = new Object[writes.size()];
+        RuntimeException[] rejections = new RuntimeException[writes.size()];
+        try {
+            binding.call(scope, () -> transactions.execute(status -> {
+                for (int i = 0; i < writes.size(); i++) {
+                    Write<?> write = writes.get(i);
+                    try {
+                        write.check().run();
+                    } catch (RuntimeException e) {
+                        rejections[i] = e;
+                        continue;
+                    }
+                    results[i] = write.operation().get();
+                }
+                return null;
+            }));
+        } catch (RuntimeException | Error e) {
+            if (writes.size() == 1) {
+                writes.getFirst().future().completeExceptionally(e);
+                return;
+            }
+            logger.debug("Group commit of {} writes failed, retrying them one by one", writes.size(), e);
+            for (Write<?> write : writes) {
+                commit(scope, List.of(write));
+            }
+            return;
+        }
+        for (int i = 0; i < writes.size(); i++) {
+            if (rejections[i] != null) {
+                writes.get(i).future().completeExceptionally(rejections[i]);
+            } else {
+                writes.get(i).complete(results[i]);
+            }
+        }
+    }
+
+    /**
+     * Stops accepting writes and lets the writer commit the ones already queued. Writes still queued when the
+     * writer does not finish in time are failed.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        synchronized (lifecycle) {
+            running = false;
+        }
+        if (writer != null) {
+            writer.join(Duration.ofSeconds(30));
+        }
+        failPending();
+    }
+
+    private record Write<T>(Scope scope, Runnable check, Supplier<T> operation, CompletableFuture<T> future) {
+
+        @SuppressWarnings("unchecked")
+        void complete(Object result) {
+            future.complete((T) result);
+        }
+    }
+}
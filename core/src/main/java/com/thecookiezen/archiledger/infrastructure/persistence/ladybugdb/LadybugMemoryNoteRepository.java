@@ -1,57 +1,253 @@
 package com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb;
 
+import com.thecookiezen.archiledger.domain.model.ArchivedNote;
+import com.thecookiezen.archiledger.domain.model.CacheStats;
+import com.thecookiezen.archiledger.domain.model.CompressionStats;
 import com.thecookiezen.archiledger.domain.model.LinkDefinition;
+import com.thecookiezen.archiledger.domain.model.LinkDirection;
 import com.thecookiezen.archiledger.domain.model.MemoryNote;
 import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.Namespaces;
 import com.thecookiezen.archiledger.domain.model.NoteLink;
+import com.thecookiezen.archiledger.domain.model.NotePatch;
 import com.thecookiezen.archiledger.domain.model.SimilarityResult;
+import com.thecookiezen.archiledger.domain.model.Timestamps;
 import com.thecookiezen.archiledger.domain.repository.MemoryNoteRepository;
+import com.thecookiezen.archiledger.infrastructure.config.DatabaseBinding;
+import com.thecookiezen.archiledger.infrastructure.config.LadybugDatabaseRegistry;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.NamespaceSchemaManager.EmbeddingTable;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.EmbeddingProjection;
 import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.LadybugMemoryNote;
 import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.LadybugNoteLink;
 import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.LinkProjection;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.SimilarityResultProjection;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.TagCountProjection;
 import com.thecookiezen.ladybugdb.spring.core.LadybugDBTemplate;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
+/**
+ * Memory note repository scoped to a single namespace. The Spring bean serves the default namespace;
+ * {@link #inNamespace(String)} returns lightweight views over the same storage for other namespaces, or
+ * views routed to the namespace's own database when per-namespace databases are enabled.
+ * Note ids are unique across the namespaces of one database; namespaces with a database of their own may reuse
+ * them and therefore get their own view of the note cache. Mutations run through the {@link GroupCommitWriter}
+ * and invalidate cached notes once they committed; reads run concurrently on the connection pool.
+ * <p>
+ * Each note with an embedding keeps its {@code ladybugdb.similar-notes.k} nearest notes as {@code SIMILAR_TO}
+ * edges. A new note probes the vector index once before its write, or reuses the probe of the duplicate check,
+ * links to its neighbors and is offered to their lists. Lists of notes whose neighbor was deleted or re-embedded, and of notes stored before their embedding,
+ * are marked stale and rebuilt from the stored embeddings in the background when next read.
+ * <p>
+ * Next to its timestamp string, each note stores the instant it denotes in the {@code createdAt TIMESTAMP}
+ * column, which time-range and recency queries filter and order on.
+ * <p>
+ * Archived notes live in the {@code ArchivedNote} table as compressed JSON, outside the note, embedding and link
+ * tables that queries and the vector index cover. Their links are kept in the archived copies of both ends.
+ * <p>
+ * Content is stored through {@link ContentCompression}: rows carry it as stored, and it is decompressed only
+ * when a note is built, on a miss of the note cache.
+ */
 @Repository
 public class LadybugMemoryNoteRepository implements MemoryNoteRepository {
 
+    private static final Logger logger = LoggerFactory.getLogger(LadybugMemoryNoteRepository.class);
+
     private final MemoryNoteDbRepository dbRepository;
     private final LadybugDBTemplate template;
+    private final MemoryNoteCache noteCache;
+    private final NamespaceSchemaManager schemaManager;
+    private final LadybugDatabaseRegistry databases;
+    private final DatabaseBinding binding;
+    private static final DateTimeFormatter TIMESTAMP_LITERAL =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS").withZone(ZoneOffset.UTC);
+
+    /**
+     * Runs the concurrent index lookups of batch and scatter reads. Lookups block on the connection pool,
+     * so each one gets a virtual thread.
+     */
+    static final ExecutorService LOOKUPS = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final GroupCommitWriter writer;
+    private final ContentCompression compression;
+    private final int similarNotes;
+    /** Notes whose similar-note list is being rebuilt in the background, shared by all namespace views. */
+    private final Set<String> relinking;
+    private final String namespace;
+
+    @Autowired
+    public LadybugMemoryNoteRepository(MemoryNoteDbRepository dbRepository, LadybugDBTemplate template,
+            MemoryNoteCache noteCache, NamespaceSchemaManager schemaManager, LadybugDatabaseRegistry databases,
+            DatabaseBinding binding, GroupCommitWriter writer, ContentCompression compression,
+            @Value("${ladybugdb.similar-notes.k:10}") int similarNotes) {
+        this(dbRepository, template, noteCache, schemaManager, databases, binding, writer, compression, similarNotes,
+                ConcurrentHashMap.newKeySet(), Namespaces.DEFAULT);
+    }
 
-    public LadybugMemoryNoteRepository(MemoryNoteDbRepository dbRepository, LadybugDBTemplate template) {
+    private LadybugMemoryNoteRepository(MemoryNoteDbRepository dbRepository, LadybugDBTemplate template,
+            MemoryNoteCache noteCache, NamespaceSchemaManager schemaManager, LadybugDatabaseRegistry databases,
+            DatabaseBinding binding, GroupCommitWriter writer, ContentCompression compression, int similarNotes,
+            Set<String> relinking, String namespace) {
+        if (similarNotes < 0) {
+            throw new IllegalArgumentException("ladybugdb.similar-notes.k must not be negative");
+        }
         this.dbRepository = dbRepository;
         this.template = template;
+        this.noteCache = noteCache;
+        this.schemaManager = schemaManager;
+        this.databases = databases;
+        this.binding = binding;
+        this.writer = writer;
+        this.compression = compression;
+        this.similarNotes = similarNotes;
+        this.relinking = relinking;
+        this.namespace = Namespaces.normalize(namespace);
+    }
+
+    @Override
+    public String namespace() {
+        return namespace;
+    }
+
+    @Override
+    public MemoryNoteRepository inNamespace(String namespace) {
+        String normalized = Namespaces.normalize(namespace);
+        if (normalized.equals(this.namespace)) {
+            return this;
+        }
+        boolean routed = databases.routes(normalized);
+        MemoryNoteCache cache = noteCache.forDatabase(routed ? normalized : Namespaces.DEFAULT);
+        LadybugMemoryNoteRepository scoped = new LadybugMemoryNoteRepository(
+                dbRepository, template, cache, schemaManager, databases, binding, writer, compression, similarNotes,
+                relinking, normalized);
+        return routed ? new RoutedMemoryNoteRepository(scoped, databases) : scoped;
     }
 
     @Override
     public MemoryNote save(MemoryNote note) {
-        LadybugMemoryNote ladybugNote = dbRepository.findById(note.id().value())
-                .orElse(new LadybugMemoryNote());
+        return save(note, List.of());
+    }
+
+    @Override
+    public MemoryNote save(MemoryNote note, List<NotePatch> patches) {
+        requireOwnNamespace(note.namespace(), "Note " + note.id().value());
+        List<SimilarityResult<MemoryNoteId>> neighbors = similarNotes == 0 ? List.of() : findNeighbors(note);
+        return store(note, patches, nearestNotes(neighbors, note.id()));
+    }
+
+    @Override
+    public MemoryNote save(MemoryNote note, List<NotePatch> patches, List<SimilarityResult<MemoryNoteId>> neighbors) {
+        requireOwnNamespace(note.namespace(), "Note " + note.id().value());
+        return store(note, patches, nearestNotes(neighbors, note.id()));
+    }
+
+    private MemoryNote store(MemoryNote note, List<NotePatch> patches, List<SimilarityResult<MemoryNoteId>> nearest) {
+        MemoryNote saved = writer.write(() -> requireWritable(note.id()), () -> {
+            writePatches(patches);
+            MemoryNote written = write(note);
+            if (hasEmbedding(note)) {
+                linkSimilar(note.id(), nearest);
+            }
+            return written;
+        });
+        noteCache.invalidate(note.id());
+        patches.forEach(patch -> noteCache.invalidate(patch.id()));
+        return saved;
+    }
+
+    /**
+     * Applies {@code patches} without saving a note, for callers that spread one batch over several databases.
+     */
+    void patch(List<NotePatch> patches) {
+        if (patches.isEmpty()) {
+            return;
+        }
+        writer.run(() -> writePatches(patches));
+        patches.forEach(patch -> noteCache.invalidate(patch.id()));
+    }
+
+    private void writePatches(List<NotePatch> patches) {
+        for (NotePatch patch : patches) {
+            dbRepository.findById(patch.id().value())
+                    .filter(note -> namespace.equals(note.getNamespace()))
+                    .ifPresent(note -> {
+                        if (patch.context() != null) {
+                            note.setContext(patch.context());
+                        }
+                        if (patch.tags() != null) {
+                            note.setTags(patch.tags());
+                        }
+                        dbRepository.save(note);
+                    });
+        }
+    }
+
+    @Override
+    public void requireWritable(MemoryNoteId id) {
+        dbRepository.findById(id.value())
+                .filter(existing -> !namespace.equals(existing.getNamespace()))
+                .ifPresent(existing -> {
+                    throw new IllegalArgumentException("Note " + id.value() + " already exists in namespace '"
+                            + existing.getNamespace() + "'");
+                });
+    }
+
+    private MemoryNote write(MemoryNote note) {
+        Optional<LadybugMemoryNote> existing = dbRepository.findById(note.id().value());
+        if (existing.isPresent() && !namespace.equals(existing.get().getNamespace())) {
+            throw new IllegalArgumentException("Note " + note.id().value() + " already exists in namespace '"
+                    + existing.get().getNamespace() + "'");
+        }
+        LadybugMemoryNote ladybugNote = existing.orElse(new LadybugMemoryNote());
 
         ladybugNote.setId(note.id().value());
-        ladybugNote.setContent(note.content());
+        ladybugNote.setContent(compression.encode(note.content()));
         ladybugNote.setKeywords(note.keywords());
         ladybugNote.setContext(note.context());
         ladybugNote.setTags(note.tags());
         ladybugNote.setTimestamp(note.timestamp());
         ladybugNote.setRetrievalCount(note.retrievalCount());
+        ladybugNote.setNamespace(namespace);
+        String previousTimestamp = existing.map(LadybugMemoryNote::getTimestamp).orElse(null);
         LadybugMemoryNote saved = dbRepository.save(ladybugNote);
+        if (existing.isEmpty()) {
+            dbRepository.assignNamespace(note.id().value(), namespace);
+        }
+        if (!note.timestamp().equals(previousTimestamp)) {
+            Timestamps.parse(note.timestamp()).ifPresentOrElse(
+                    createdAt -> dbRepository.setCreatedAt(note.id().value(), TIMESTAMP_LITERAL.format(createdAt)),
+                    () -> dbRepository.clearCreatedAt(note.id().value()));
+        }
 
-        if (note.embedding() != null && note.embedding().length > 0) {
-            dbRepository.deleteEmbedding(note.id().value());
-            dbRepository.saveEmbedding(note.id().value(), note.embedding());
+        if (hasEmbedding(note)) {
+            deleteEmbedding(note.id());
+            saveEmbedding(note.id(), note.embedding());
         }
 
         for (NoteLink link : note.links()) {
-            addLink(new LinkDefinition(note.id(), link.target(), link.relationType(), link.context()));
+            writeLink(new LinkDefinition(note.id(), link.target(), link.relationType(), link.context(), namespace));
         }
 
         return toDomainNote(saved, note.links());
@@ -59,27 +255,177 @@ public class LadybugMemoryNoteRepository implements MemoryNoteRepository {
 
     @Override
     public Optional<MemoryNote> findById(MemoryNoteId id) {
-        return dbRepository.findById(id.value())
-                .map(note -> toDomainNoteWithLinks(note, id.value()));
+        return Optional.ofNullable(noteCache.get(id, key -> dbRepository.findById(key.value())
+                .map(note -> hydrate(note, key.value()))
+                .orElse(null)))
+                .filter(note -> note.namespace().equals(namespace));
     }
 
     @Override
     public List<MemoryNote> findAll() {
-        return StreamSupport.stream(dbRepository.findAll().spliterator(), false)
+        return dbRepository.findAllInNamespace(namespace).stream()
                 .map(note -> toDomainNoteWithLinks(note, note.getId()))
                 .toList();
     }
 
     @Override
     public void delete(MemoryNoteId id) {
+        List<LinkProjection> incidentLinks = writer.write(() -> {
+            dbRepository.deleteArchived(namespace, id.value());
+            if (!isLive(id)) {
+                return List.<LinkProjection>of();
+            }
+            List<LinkProjection> links = dbRepository.findLinksForNote(id.value());
+            removeNote(id);
+            return links;
+        });
+        noteCache.invalidate(id);
+        for (LinkProjection link : incidentLinks) {
+            noteCache.invalidate(new MemoryNoteId(link.fromId()));
+        }
+    }
+
+    private void removeNote(MemoryNoteId id) {
+        dbRepository.markSimilarStaleOfNotesRelatedTo(id.value());
+        deleteEmbedding(id);
         dbRepository.deleteById(id.value());
     }
 
+    private boolean isLive(MemoryNoteId id) {
+        return dbRepository.findById(id.value()).filter(note -> namespace.equals(note.getNamespace())).isPresent();
+    }
+
+    @Override
+    public List<MemoryNoteId> findArchivable(Instant createdBefore, int maxRetrievalCount, Set<String> keepTags, int limit) {
+        String before = TIMESTAMP_LITERAL.format(createdBefore);
+        List<String> ids = keepTags.isEmpty()
+                ? dbRepository.findArchivable(namespace, before, maxRetrievalCount, limit)
+                : dbRepository.findArchivable(namespace, before, maxRetrievalCount, List.copyOf(keepTags), limit);
+        return ids.stream().map(MemoryNoteId::new).toList();
+    }
+
+    /**
+     * Archives all notes in one write. Links between notes of the same batch end up in the archived copy of
+     * their source, since the target's incoming links are read after the source was removed.
+     */
+    @Override
+    public int archive(List<MemoryNoteId> ids) {
+        Instant archivedAt = Instant.now();
+        List<List<LinkProjection>> archived = writer.write(() -> {
+            List<List<LinkProjection>> linksOfArchived = new ArrayList<>();
+            for (MemoryNoteId id : ids) {
+                Optional<LadybugMemoryNote> note = dbRepository.findById(id.value())
+                        .filter(candidate -> namespace.equals(candidate.getNamespace()));
+                if (note.isEmpty()) {
+                    continue;
+                }
+                List<LinkProjection> links = dbRepository.findLinksForNote(id.value());
+                List<NoteLink> outgoing = links.stream()
+                        .filter(link -> link.fromId().equals(id.value()))
+                        .map(this::toDomainLink)
+                        .toList();
+                List<LinkDefinition> incoming = links.stream()
+                        .filter(link -> link.toId().equals(id.value()) && !link.fromId().equals(id.value()))
+                        .map(link -> new LinkDefinition(new MemoryNoteId(link.fromId()), id, link.relationType(),
+                                link.context(), namespace))
+                        .toList();
+                ArchivedNote copy = new ArchivedNote(toDomainNote(note.get(), outgoing), incoming, archivedAt);
+                dbRepository.saveArchived(id.value(), namespace, ArchivedNoteCodec.encode(copy));
+                removeNote(id);
+                linksOfArchived.add(links);
+            }
+            return linksOfArchived;
+        });
+        ids.forEach(noteCache::invalidate);
+        for (List<LinkProjection> links : archived) {
+            links.forEach(link -> noteCache.invalidate(new MemoryNoteId(link.fromId())));
+        }
+        return archived.size();
+    }
+
+    @Override
+    public Optional<ArchivedNote> findArchived(MemoryNoteId id) {
+        return dbRepository.findArchivedData(namespace, id.value()).stream()
+                .findFirst()
+                .map(ArchivedNoteCodec::decode);
+    }
+
+    /**
+     * Links whose other end is archived too are added to that note's archived copy; links whose other end was
+     * deleted are dropped.
+     */
+    @Override
+    public MemoryNote restore(ArchivedNote archived) {
+        MemoryNote note = archived.note();
+        requireOwnNamespace(note.namespace(), "Note " + note.id().value());
+        List<SimilarityResult<MemoryNoteId>> nearest = nearestNotes(note);
+        List<MemoryNoteId> linkedFrom = new ArrayList<>();
+        MemoryNote restored = writer.write(() -> {
+            if (dbRepository.findById(note.id().value()).isPresent()) {
+                throw new IllegalArgumentException("Note " + note.id().value() + " already exists");
+            }
+        }, () -> {
+            List<NoteLink> liveLinks = new ArrayList<>();
+            for (NoteLink link : note.links()) {
+                if (link.target().equals(note.id()) || isLive(link.target())) {
+                    liveLinks.add(link);
+                } else {
+                    updateArchived(link.target(), target -> target.withIncomingLink(new LinkDefinition(note.id(),
+                            link.target(), link.relationType(), link.context(), namespace)));
+                }
+            }
+            MemoryNote written = write(note.withLinks(liveLinks));
+            if (hasEmbedding(note)) {
+                linkSimilar(note.id(), nearest);
+            }
+            for (LinkDefinition link : archived.incomingLinks()) {
+                if (isLive(link.source())) {
+                    if (writeLink(link.withNamespace(namespace))) {
+                        linkedFrom.add(link.source());
+                    }
+                } else {
+                    updateArchived(link.source(), source -> source.withOutgoingLink(link.toNoteLink()));
+                }
+            }
+            dbRepository.deleteArchived(namespace, note.id().value());
+            return written;
+        });
+        noteCache.invalidate(note.id());
+        linkedFrom.forEach(noteCache::invalidate);
+        return restored;
+    }
+
+    private void updateArchived(MemoryNoteId id, UnaryOperator<ArchivedNote> change) {
+        findArchived(id).ifPresent(archived ->
+                dbRepository.saveArchived(id.value(), namespace, ArchivedNoteCodec.encode(change.apply(archived))));
+    }
+
     @Override
     public void addLink(LinkDefinition link) {
+        requireOwnNamespace(link.namespace(), "Link " + link.source().value() + " -> " + link.target().value());
+        if (writer.write(() -> requireLinkEnds(link), () -> writeLink(link))) {
+            noteCache.invalidate(link.source());
+        }
+    }
+
+    private void requireLinkEnds(LinkDefinition link) {
+        if (dbRepository.findById(link.source().value()).filter(note -> namespace.equals(note.getNamespace())).isEmpty()) {
+            throw new IllegalArgumentException("Source note not found: " + link.source().value());
+        }
+        if (dbRepository.findById(link.target().value()).filter(note -> namespace.equals(note.getNamespace())).isEmpty()) {
+            throw new IllegalArgumentException("Target note not found: " + link.target().value());
+        }
+    }
+
+    /**
+     * @return whether a new link was created
+     */
+    private boolean writeLink(LinkDefinition link) {
         LadybugMemoryNote sourceNote = dbRepository.findById(link.source().value())
+                .filter(note -> namespace.equals(note.getNamespace()))
                 .orElseThrow(() -> new IllegalArgumentException("Source note not found: " + link.source().value()));
         LadybugMemoryNote targetNote = dbRepository.findById(link.target().value())
+                .filter(note -> namespace.equals(note.getNamespace()))
                 .orElseThrow(() -> new IllegalArgumentException("Target note not found: " + link.target().value()));
 
         boolean exists = dbRepository.findLinksFrom(link.source().value()).stream()
@@ -92,20 +438,28 @@ public class LadybugMemoryNoteRepository implements MemoryNoteRepository {
             LadybugNoteLink ladybugLink = new LadybugNoteLink(linkName, sourceNote, targetNote, link.relationType(), link.context());
             dbRepository.createRelation(sourceNote, targetNote, ladybugLink);
         }
+        return !exists;
     }
 
     @Override
     public void removeLink(MemoryNoteId from, MemoryNoteId to, String relationType) {
-        dbRepository.findById(from.value()).ifPresent(sourceNote -> {
-            List<LadybugNoteLink> matching = dbRepository.findRelationsBySource(sourceNote).stream()
-                    .filter(link -> link.getTargetNote().getId().equals(to.value())
-                            && link.getRelationType().equals(relationType))
-                    .toList();
-
-            for (LadybugNoteLink link : matching) {
-                dbRepository.deleteRelation(link);
-            }
-        });
+        boolean removed = writer.write(() -> dbRepository.findById(from.value())
+                .filter(note -> namespace.equals(note.getNamespace()))
+                .map(sourceNote -> {
+                    List<LadybugNoteLink> matching = dbRepository.findRelationsBySource(sourceNote).stream()
+                            .filter(link -> link.getTargetNote().getId().equals(to.value())
+                                    && link.getRelationType().equals(relationType))
+                            .toList();
+
+                    for (LadybugNoteLink link : matching) {
+                        dbRepository.deleteRelation(link);
+                    }
+                    return !matching.isEmpty();
+                })
+                .orElse(false));
+        if (removed) {
+            noteCache.invalidate(from);
+        }
     }
 
     @Override
@@ -117,54 +471,129 @@ public class LadybugMemoryNoteRepository implements MemoryNoteRepository {
 
     @Override
     public List<MemoryNote> findByTag(String tag) {
-        return dbRepository.findByTag(tag).stream()
+        return dbRepository.findByTag(namespace, tag).stream()
+                .map(note -> toDomainNoteWithLinks(note, note.getId()))
+                .toList();
+    }
+
+    @Override
+    public List<MemoryNote> findByTimeRange(Instant from, Instant to, String tag, int limit) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Time range start " + from + " is after its end " + to);
+        }
+        String start = TIMESTAMP_LITERAL.format(from);
+        String end = TIMESTAMP_LITERAL.format(to);
+        List<LadybugMemoryNote> notes = tag == null
+                ? dbRepository.findByTimeRange(namespace, start, end, limit)
+                : dbRepository.findByTimeRange(namespace, tag, start, end, limit);
+        return notes.stream()
+                .map(note -> toDomainNoteWithLinks(note, note.getId()))
+                .toList();
+    }
+
+    @Override
+    public List<MemoryNote> findRecent(String tag, int limit) {
+        List<LadybugMemoryNote> notes = tag == null
+                ? dbRepository.findRecent(namespace, limit)
+                : dbRepository.findRecent(namespace, tag, limit);
+        return notes.stream()
                 .map(note -> toDomainNoteWithLinks(note, note.getId()))
                 .toList();
     }
 
     @Override
     public List<MemoryNote> findLinkedNotes(MemoryNoteId noteId) {
-        return dbRepository.findLinkedNotes(noteId.value()).stream()
+        return dbRepository.findLinkedNotes(namespace, noteId.value()).stream()
                 .map(note -> toDomainNoteWithLinks(note, note.getId()))
                 .toList();
     }
 
     @Override
     public List<MemoryNote> findLinkedNotes(MemoryNoteId noteId, String relationType, int limit) {
-        return dbRepository.findLinkedNotes(noteId.value(), relationType, limit).stream()
+        return dbRepository.findLinkedNotes(namespace, noteId.value(), relationType, limit).stream()
             .map(note -> toDomainNoteWithLinks(note, note.getId()))
             .toList();
     }
 
     @Override
     public List<MemoryNote> findNotesUpward(MemoryNoteId noteId, int maxHops, int limit) {
-        String query = """
-            MATCH 
-                (n:MemoryNote)-[r:LINKED_TO* acyclic 1..%d]->(m:MemoryNote) 
-            WHERE
-                n.id = $noteId
-            RETURN 
-                DISTINCT m as n 
-            LIMIT
-             $limit    
-                """.formatted(maxHops);
-        return template.query(query, Map.of("noteId", noteId.value(), "limit", limit), LadybugMemoryNote.class)
-            .stream()
-            .map(note -> toDomainNoteWithLinks(note, note.getId()))
-            .toList();
+        return expand(noteId, LinkDirection.OUTGOING, maxHops, limit);
+    }
+
+    /**
+     * Level-by-level traversal that asks each expanded note for just enough neighbor ids to fill the limit and
+     * stops as soon as it is filled, so a hub note costs one bounded lookup instead of a path enumeration.
+     */
+    @Override
+    public List<MemoryNote> expand(MemoryNoteId noteId, LinkDirection direction, int maxHops, int limit) {
+        Set<String> visited = new HashSet<>();
+        visited.add(noteId.value());
+        List<String> reached = new ArrayList<>();
+        List<String> frontier = List.of(noteId.value());
+        for (int hop = 0; hop < maxHops && !frontier.isEmpty() && reached.size() < limit; hop++) {
+            List<String> next = new ArrayList<>();
+            for (String id : frontier) {
+                if (reached.size() + next.size() >= limit) {
+                    break;
+                }
+                // Neighbors visited before can take at most visited.size() of the returned ids.
+                int wanted = limit - reached.size() - next.size() + visited.size();
+                for (String neighbor : findNeighborIds(new MemoryNoteId(id), direction, wanted)) {
+                    if (reached.size() + next.size() < limit && visited.add(neighbor)) {
+                        next.add(neighbor);
+                    }
+                }
+            }
+            reached.addAll(next);
+            frontier = next;
+        }
+        List<MemoryNote> notes = new ArrayList<>(reached.size());
+        for (String id : reached) {
+            findById(new MemoryNoteId(id)).ifPresent(notes::add);
+        }
+        return notes;
+    }
+
+    /**
+     * Distinct ids of the notes of this namespace linked to {@code noteId} in {@code direction}, ordered by id.
+     */
+    List<String> findNeighborIds(MemoryNoteId noteId, LinkDirection direction, int limit) {
+        return switch (direction) {
+            case OUTGOING -> dbRepository.findOutgoingNeighborIds(namespace, noteId.value(), limit);
+            case INCOMING -> dbRepository.findIncomingNeighborIds(namespace, noteId.value(), limit);
+            case BOTH -> dbRepository.findNeighborIds(namespace, noteId.value(), limit);
+        };
     }
 
     @Override
     public Set<String> findAllTags() {
-        return dbRepository.findAllTags().stream()
+        return dbRepository.findAllTags(namespace).stream()
                 .filter(tag -> tag != null && !tag.isBlank())
                 .collect(Collectors.toSet());
     }
 
+    @Override
+    public Map<String, Long> countTags() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (TagCountProjection projection : dbRepository.countTags(namespace)) {
+            if (projection.tag() != null && !projection.tag().isBlank()) {
+                counts.put(projection.tag(), projection.count());
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public Set<String> findAllNamespaces() {
+        Set<String> namespaces = new HashSet<>(dbRepository.findAllNamespaces());
+        namespaces.addAll(databases.storedNamespaces());
+        return Set.copyOf(namespaces);
+    }
+
     @Override
     public Map<String, Object> getGraph() {
         List<MemoryNote> allNotes = findAll();
-        List<LinkProjection> allLinks = dbRepository.findAllLinks();
+        List<LinkProjection> allLinks = dbRepository.findAllLinks(namespace);
         return Map.of(
                 "notes", allNotes,
                 "links", allLinks.stream().map(this::toDomainLink).collect(Collectors.toList()));
@@ -172,10 +601,12 @@ public class LadybugMemoryNoteRepository implements MemoryNoteRepository {
 
     @Override
     public void incrementRetrievalCount(MemoryNoteId id) {
-        dbRepository.findById(id.value()).ifPresent(note -> {
+        Optional<Integer> count = writer.write(() -> dbRepository.findById(id.value()).map(note -> {
             note.setRetrievalCount(note.getRetrievalCount() + 1);
             dbRepository.save(note);
-        });
+            return note.getRetrievalCount();
+        }));
+        count.ifPresent(retrievalCount -> noteCache.update(id, cached -> cached.withRetrievalCount(retrievalCount)));
     }
 
     @Override
@@ -185,7 +616,7 @@ public class LadybugMemoryNoteRepository implements MemoryNoteRepository {
 
     @Override
     public List<SimilarityResult<MemoryNote>> findSimilar(float[] queryEmbedding, int topK, double threshold, double temperature) {
-        return dbRepository.findSimilarRaw(queryEmbedding, topK).stream()
+        return findSimilarRaw(queryEmbedding, topK).stream()
                 .map(projection -> {
                     double distance = projection.score();
                     double score = applyTemperatureScaling(distance, temperature);
@@ -197,6 +628,212 @@ public class LadybugMemoryNoteRepository implements MemoryNoteRepository {
                 .toList();
     }
 
+    @Override
+    public List<List<SimilarityResult<MemoryNote>>> findSimilarBatch(List<float[]> queryEmbeddings, int topK, double threshold, double temperature) {
+        List<CompletableFuture<List<SimilarityResultProjection>>> lookups = queryEmbeddings.stream()
+                .map(embedding -> CompletableFuture.supplyAsync(
+                        binding.capture(() -> findSimilarRaw(embedding, topK)), LOOKUPS))
+                .toList();
+        List<List<SimilarityResultProjection>> rawResults = lookups.stream().map(CompletableFuture::join).toList();
+
+        Map<String, MemoryNote> hydrated = new HashMap<>();
+        List<List<SimilarityResult<MemoryNote>>> results = new ArrayList<>(rawResults.size());
+        for (List<SimilarityResultProjection> projections : rawResults) {
+            List<SimilarityResult<MemoryNote>> queryResults = new ArrayList<>(projections.size());
+            for (SimilarityResultProjection projection : projections) {
+                double score = applyTemperatureScaling(projection.score(), temperature);
+                if (score < threshold) {
+                    continue;
+                }
+                MemoryNote note = hydrated.computeIfAbsent(projection.note().getId(),
+                        id -> toDomainNoteWithLinks(projection.note(), id));
+                queryResults.add(new SimilarityResult<>(note, score));
+            }
+            results.add(queryResults);
+        }
+        return results;
+    }
+
+    /**
+     * Up to {@code ladybugdb.similar-notes.k} results are read from the note's {@code SIMILAR_TO} edges. A stale
+     * list is rebuilt in the background and answered as it is meanwhile, or by a scan when the note has no list
+     * yet; larger requests compare the note's stored embedding with all others in the namespace.
+     */
+    @Override
+    public List<SimilarityResult<MemoryNote>> findMoreLikeThis(MemoryNoteId noteId, int limit) {
+        if (limit < 1 || findById(noteId).isEmpty()) {
+            return List.of();
+        }
+        List<SimilarityResultProjection> related;
+        if (limit <= similarNotes) {
+            related = dbRepository.findSimilarTo(noteId.value(), limit);
+            if (!dbRepository.findIdIfSimilarStale(noteId.value()).isEmpty()) {
+                relinkInBackground(noteId);
+                if (related.isEmpty()) {
+                    related = scanSimilar(noteId, limit);
+                }
+            }
+        } else {
+            related = scanSimilar(noteId, limit);
+        }
+        return related.stream()
+                .map(projection -> new SimilarityResult<>(
+                        toDomainNoteWithLinks(projection.note(), projection.note().getId()), projection.score()))
+                .toList();
+    }
+
+    /**
+     * Probes the vector index for the neighbors of a note about to be written, outside the write transaction.
+     */
+    @Override
+    public List<SimilarityResult<MemoryNoteId>> findNeighbors(MemoryNote note) {
+        if (!hasEmbedding(note)) {
+            return List.of();
+        }
+        return findSimilarRaw(note.embedding(), Math.max(similarNotes, 1) + 1).stream()
+                .map(projection -> new SimilarityResult<>(new MemoryNoteId(projection.note().getId()),
+                        applyTemperatureScaling(projection.score(), 0.0)))
+                .toList();
+    }
+
+    private List<SimilarityResult<MemoryNoteId>> nearestNotes(List<SimilarityResult<MemoryNoteId>> neighbors,
+            MemoryNoteId id) {
+        return neighbors.stream()
+                .filter(neighbor -> !neighbor.item().equals(id))
+                .limit(similarNotes)
+                .toList();
+    }
+
+    /**
+     * Replaces the {@code SIMILAR_TO} edges of a note whose embedding was written and offers the note to the
+     * lists of its neighbors, which keep their best {@code ladybugdb.similar-notes.k} edges. Lists pointing to
+     * the note's previous embedding become stale. Runs inside the write transaction.
+     */
+    private void linkSimilar(MemoryNoteId id, List<SimilarityResult<MemoryNoteId>> nearest) {
+        dbRepository.markSimilarStaleOfNotesRelatedTo(id.value());
+        dbRepository.deleteSimilarFrom(id.value());
+        dbRepository.markSimilarFresh(id.value());
+        for (SimilarityResult<MemoryNoteId> neighbor : nearest) {
+            dbRepository.saveSimilar(id.value(), neighbor.item().value(), neighbor.score());
+        }
+        for (SimilarityResult<MemoryNoteId> neighbor : nearest) {
+            dbRepository.offerSimilar(neighbor.item().value(), id.value(), neighbor.score(), similarNotes);
+            dbRepository.trimSimilar(neighbor.item().value(), similarNotes);
+        }
+    }
+
+    /**
+     * Rebuilds the stale {@code SIMILAR_TO} edges of a note on the lookup executor, at most once at a time per
+     * note. The task leases the namespace's database from the registry, so it is not closed while the rebuild
+     * runs; a shard's binding is captured from the caller.
+     */
+    private void relinkInBackground(MemoryNoteId id) {
+        String key = namespace + "/" + id.value();
+        if (!relinking.add(key)) {
+            return;
+        }
+        CompletableFuture.supplyAsync(binding.capture(() -> databases.call(namespace, () -> {
+            relinkSimilar(id);
+            return null;
+        })), LOOKUPS).whenComplete((ignored, failure) -> {
+            relinking.remove(key);
+            if (failure != null) {
+                logger.warn("Failed to rebuild the similar notes of {} in namespace '{}'", id.value(), namespace, failure);
+            }
+        });
+    }
+
+    /**
+     * Rebuilds the {@code SIMILAR_TO} edges of a note from the stored embeddings. The scan runs outside the write
+     * transaction, which only replaces the edges, and only while the list is still stale.
+     */
+    private void relinkSimilar(MemoryNoteId id) {
+        List<SimilarityResultProjection> nearest = scanSimilar(id, similarNotes);
+        writer.run(() -> {
+            if (dbRepository.findIdIfSimilarStale(id.value()).isEmpty()) {
+                return;
+            }
+            dbRepository.deleteSimilarFrom(id.value());
+            for (SimilarityResultProjection neighbor : nearest) {
+                dbRepository.saveSimilar(id.value(), neighbor.note().getId(), neighbor.score());
+            }
+            dbRepository.markSimilarFresh(id.value());
+        });
+    }
+
+    /**
+     * The stored embedding of a note, used to look for related notes in other shards.
+     */
+    Optional<float[]> findEmbedding(MemoryNoteId id) {
+        String query = "MATCH (e:%s {noteId: $noteId}) RETURN CAST(e.embedding AS STRING) AS embedding"
+                .formatted(schemaManager.embeddingTable(namespace).tableName());
+        return template.query(query, Map.of("noteId", id.value()), EmbeddingProjection.class).stream()
+                .map(EmbeddingProjection::embedding)
+                .filter(embedding -> embedding.length > 0)
+                .findFirst();
+    }
+
+    private List<SimilarityResultProjection> scanSimilar(MemoryNoteId id, int limit) {
+        String query = """
+            MATCH (a:%1$s {noteId: $noteId}), (b:%1$s)
+            WHERE b.noteId <> $noteId
+            WITH b.noteId AS neighborId, array_cosine_similarity(a.embedding, b.embedding) AS score
+            ORDER BY score DESC
+            LIMIT $limit
+            MATCH (n:MemoryNote {id: neighborId})
+            RETURN n, score
+                """.formatted(schemaManager.embeddingTable(namespace).tableName());
+        return template.query(query, Map.of("noteId", id.value(), "limit", (long) limit), SimilarityResultProjection.class);
+    }
+
+    private static boolean hasEmbedding(MemoryNote note) {
+        return note.embedding() != null && note.embedding().length > 0;
+    }
+
+    private List<SimilarityResultProjection> findSimilarRaw(float[] queryEmbedding, int topK) {
+        EmbeddingTable table = schemaManager.embeddingTable(namespace);
+        if (table.equals(NamespaceSchemaManager.DEFAULT_TABLE)) {
+            return dbRepository.findSimilarRaw(queryEmbedding, topK);
+        }
+        String query = """
+            CALL QUERY_VECTOR_INDEX('%s', '%s', $queryVector, $limit)
+            YIELD node, distance
+            MATCH (n:MemoryNote)
+            WHERE n.id = node.noteId
+            RETURN n, distance AS score
+            ORDER BY distance
+                """.formatted(table.tableName(), table.indexName());
+        return template.query(query, Map.of("queryVector", queryEmbedding, "limit", (long) topK), SimilarityResultProjection.class);
+    }
+
+    private void saveEmbedding(MemoryNoteId id, float[] embedding) {
+        EmbeddingTable table = schemaManager.embeddingTable(namespace);
+        if (table.equals(NamespaceSchemaManager.DEFAULT_TABLE)) {
+            dbRepository.saveEmbedding(id.value(), embedding);
+            return;
+        }
+        template.query("CREATE (e:%s {noteId: $noteId, embedding: $embedding}) RETURN e.noteId AS id".formatted(table.tableName()),
+                Map.of("noteId", id.value(), "embedding", embedding), MemoryNoteId.class);
+    }
+
+    private void deleteEmbedding(MemoryNoteId id) {
+        EmbeddingTable table = schemaManager.embeddingTable(namespace);
+        if (table.equals(NamespaceSchemaManager.DEFAULT_TABLE)) {
+            dbRepository.deleteEmbedding(id.value());
+            return;
+        }
+        template.query("MATCH (e:%s {noteId: $noteId}) WITH e, e.noteId AS id DELETE e RETURN id".formatted(table.tableName()),
+                Map.of("noteId", id.value()), MemoryNoteId.class);
+    }
+
+    private void requireOwnNamespace(String entityNamespace, String description) {
+        String normalized = Namespaces.normalize(entityNamespace);
+        if (!Namespaces.isDefault(normalized) && !normalized.equals(namespace)) {
+            throw new IllegalArgumentException(description + " belongs to namespace '" + normalized
+                    + "', not '" + namespace + "'");
+        }
+    }
+
     private double applyTemperatureScaling(double distance, double temperature) {
         if (temperature <= 0.0) {
             return 1.0 - distance;
@@ -207,30 +844,56 @@ public class LadybugMemoryNoteRepository implements MemoryNoteRepository {
     private MemoryNote toDomainNote(LadybugMemoryNote note, List<NoteLink> links) {
         return new MemoryNote(
                 new MemoryNoteId(note.getId()),
-                note.getContent(),
+                compression.decode(note.getContent()),
                 note.getKeywords(),
                 note.getContext(),
                 note.getTags(),
                 links,
                 note.getTimestamp(),
                 note.getRetrievalCount(),
-                null);
+                null,
+                note.getNamespace());
+    }
+
+    @Override
+    public Map<String, CacheStats> cacheStats() {
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        stats.put("notes", noteCache.stats());
+        if (databases.enabled()) {
+            stats.put("databases", databases.stats());
+        }
+        return stats;
     }
 
+    @Override
+    public CompressionStats compressionStats() {
+        return compression.stats();
+    }
+
+    /**
+     * Hydrates a note read by a list or search query. The row may predate a concurrent write, so it is served
+     * from the cache when cached but never added to it.
+     */
     private MemoryNote toDomainNoteWithLinks(LadybugMemoryNote note, String noteId) {
+        MemoryNote cached = noteCache.getIfPresent(new MemoryNoteId(noteId));
+        return cached != null ? cached : hydrate(note, noteId);
+    }
+
+    private MemoryNote hydrate(LadybugMemoryNote note, String noteId) {
         List<NoteLink> links = dbRepository.findLinksFrom(noteId).stream()
                 .map(this::toDomainLink)
                 .collect(Collectors.toList());
         return new MemoryNote(
                 new MemoryNoteId(note.getId()),
-                note.getContent(),
+                compression.decode(note.getContent()),
                 note.getKeywords(),
                 note.getContext(),
                 note.getTags(),
                 links,
                 note.getTimestamp(),
                 note.getRetrievalCount(),
-                null);
+                null,
+                note.getNamespace());
     }
 
     private NoteLink toDomainLink(LinkProjection projection) {
@@ -0,0 +1,284 @@
+package com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb;
+
+import com.thecookiezen.archiledger.domain.model.CacheStats;
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.Namespaces;
+import com.thecookiezen.archiledger.domain.model.NoteLink;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Read-through cache of hydrated {@link MemoryNote} records (including their outgoing links), keyed by database
+ * and id.
+ * <p>
+ * Memory is bounded by the estimated size of the cached notes in bytes. Entries are evicted in LRU order,
+ * except for the {@code pinned} notes with the highest retrieval counts, which stay cached as long as they
+ * remain among the most retrieved ones. The pinned set is kept incrementally as a bounded min-ordered set: a
+ * note displaces the least retrieved pinned note when it is cached or updated with a higher count. The
+ * repository invalidates entries precisely on every write. Only lookups by id fill the cache, because their loader
+ * reads the note after the load was registered; notes read by list and search queries are served from it but never
+ * added, since a write may have invalidated them between the query and the put.
+ * <p>
+ * Note ids are only unique within one database, so every per-namespace database reads and writes through its
+ * own view from {@link #forDatabase(String)}. All views share one memory budget.
+ */
+@Component
+public class MemoryNoteCache {
+
+    private static final int RECORD_OVERHEAD_BYTES = 96;
+    private static final int LINK_OVERHEAD_BYTES = 64;
+
+    private final Store store;
+    private final String database;
+
+    public MemoryNoteCache(
+            @Value("${ladybugdb.cache.notes.enabled:true}") boolean enabled,
+            @Value("${ladybugdb.cache.notes.max-weight-bytes:67108864}") long maxWeight,
+            @Value("${ladybugdb.cache.notes.pinned:100}") int pinnedCount) {
+        this(new Store(enabled, maxWeight, pinnedCount), Namespaces.DEFAULT);
+    }
+
+    private MemoryNoteCache(Store store, String database) {
+        this.store = store;
+        this.database = database;
+    }
+
+    /**
+     * A view of this cache for the database named {@code database}, or for the primary database when it is
+     * {@link Namespaces#DEFAULT}. Its entries never collide with notes of the same id in another database.
+     */
+    public MemoryNoteCache forDatabase(String database) {
+        return database.equals(this.database) ? this : new MemoryNoteCache(store, database);
+    }
+
+    /**
+     * Returns the cached note or loads it with {@code loader}. A {@code null} result means the note does not
+     * exist and is not cached. Loads that overlap an invalidation are returned but not cached.
+     */
+    public MemoryNote get(MemoryNoteId id, Function<MemoryNoteId, MemoryNote> loader) {
+        if (!store.enabled) {
+            return loader.apply(id);
+        }
+        Key key = new Key(database, id);
+        Object load = new Object();
+        synchronized (store) {
+            Entry entry = store.entries.get(key);
+            if (entry != null) {
+                store.hits.increment();
+                return entry.note();
+            }
+            store.loads.put(key, load);
+        }
+        store.misses.increment();
+        MemoryNote note = null;
+        try {
+            note = loader.apply(id);
+        } finally {
+            store.put(key, note, load);
+        }
+        return note;
+    }
+
+    /**
+     * Returns the cached note, or {@code null} when it is not cached, without loading it.
+     */
+    public MemoryNote getIfPresent(MemoryNoteId id) {
+        if (!store.enabled) {
+            return null;
+        }
+        MemoryNote note = store.peek(new Key(database, id));
+        if (note != null) {
+            store.hits.increment();
+        }
+        return note;
+    }
+
+    public void update(MemoryNoteId id, UnaryOperator<MemoryNote> change) {
+        store.update(new Key(database, id), change);
+    }
+
+    public void invalidate(MemoryNoteId id) {
+        store.invalidate(new Key(database, id));
+    }
+
+    /**
+     * Drops every cached note, in all databases.
+     */
+    public void clear() {
+        store.clear();
+    }
+
+    public CacheStats stats() {
+        return store.stats();
+    }
+
+    static long weigh(MemoryNote note) {
+        long chars = note.id().value().length() + note.content().length() + length(note.context()) + note.timestamp().length();
+        for (String keyword : note.keywords()) {
+            chars += keyword.length();
+        }
+        for (String tag : note.tags()) {
+            chars += tag.length();
+        }
+        long bytes = RECORD_OVERHEAD_BYTES + 2 * chars;
+        for (NoteLink link : note.links()) {
+            bytes += LINK_OVERHEAD_BYTES
+                    + 2L * (link.target().value().length() + link.relationType().length() + link.context().length());
+        }
+        return bytes;
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    /**
+     * State shared by all database views. Every method runs under the store's monitor.
+     */
+    private static final class Store {
+        private final boolean enabled;
+        private final long maxWeight;
+        private final int pinnedCount;
+        private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+        private final TreeSet<Pin> pinned = new TreeSet<>(Pin.ORDER);
+        private final Map<Key, Pin> pins = new HashMap<>();
+        private final Map<Key, Object> loads = new HashMap<>();
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+        private long weight;
+
+        private Store(boolean enabled, long maxWeight, int pinnedCount) {
+            this.enabled = enabled;
+            this.maxWeight = maxWeight;
+            this.pinnedCount = pinnedCount;
+        }
+
+        /**
+         * Caches a loaded note unless the load was superseded: an invalidation of the same key, or a newer load
+         * of it, removes or replaces the load token.
+         */
+        synchronized void put(Key key, MemoryNote note, Object load) {
+            if (!loads.remove(key, load) || note == null) {
+                return;
+            }
+            long noteWeight = weigh(note);
+            if (noteWeight > maxWeight) {
+                return;
+            }
+            Entry previous = entries.put(key, new Entry(note, noteWeight));
+            if (previous != null) {
+                weight -= previous.weight();
+            }
+            weight += noteWeight;
+            offerPin(key, note);
+            evictIfNeeded();
+        }
+
+        synchronized MemoryNote peek(Key key) {
+            Entry entry = entries.get(key);
+            return entry != null ? entry.note() : null;
+        }
+
+        synchronized void update(Key key, UnaryOperator<MemoryNote> change) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return;
+            }
+            MemoryNote updated = change.apply(entry.note());
+            long updatedWeight = weigh(updated);
+            entries.put(key, new Entry(updated, updatedWeight));
+            weight += updatedWeight - entry.weight();
+            offerPin(key, updated);
+            evictIfNeeded();
+        }
+
+        synchronized void invalidate(Key key) {
+            loads.remove(key);
+            unpin(key);
+            Entry removed = entries.remove(key);
+            if (removed != null) {
+                weight -= removed.weight();
+            }
+        }
+
+        synchronized void clear() {
+            loads.clear();
+            entries.clear();
+            pinned.clear();
+            pins.clear();
+            weight = 0;
+        }
+
+        synchronized CacheStats stats() {
+            return CacheStats.of(hits.sum(), misses.sum(), evictions.sum(), entries.size(), weight, maxWeight);
+        }
+
+        private void evictIfNeeded() {
+            if (weight <= maxWeight) {
+                return;
+            }
+            Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+            while (weight > maxWeight && eldest.hasNext()) {
+                Map.Entry<Key, Entry> candidate = eldest.next();
+                if (pins.containsKey(candidate.getKey())) {
+                    continue;
+                }
+                eldest.remove();
+                weight -= candidate.getValue().weight();
+                evictions.increment();
+            }
+        }
+
+        private void offerPin(Key key, MemoryNote note) {
+            if (pinnedCount <= 0) {
+                return;
+            }
+            unpin(key);
+            if (note.retrievalCount() <= 0) {
+                return;
+            }
+            Pin pin = new Pin(key, note.retrievalCount());
+            if (pinned.size() >= pinnedCount) {
+                Pin least = pinned.first();
+                if (Pin.ORDER.compare(pin, least) <= 0) {
+                    return;
+                }
+                unpin(least.key());
+            }
+            pinned.add(pin);
+            pins.put(key, pin);
+        }
+
+        private void unpin(Key key) {
+            Pin previous = pins.remove(key);
+            if (previous != null) {
+                pinned.remove(previous);
+            }
+        }
+    }
+
+    private record Key(String database, MemoryNoteId id) {
+    }
+
+    private record Entry(MemoryNote note, long weight) {
+    }
+
+    private record Pin(Key key, int retrievalCount) {
+        static final Comparator<Pin> ORDER = Comparator.comparingInt(Pin::retrievalCount)
+                .thenComparing(pin -> pin.key().database())
+                .thenComparing(pin -> pin.key().id().value());
+    }
+}
@@ -6,14 +6,51 @@ import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.L
 import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.LadybugNoteLink;
 import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.LinkProjection;
 import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.SimilarityResultProjection;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.TagCountProjection;
 import com.thecookiezen.ladybugdb.spring.annotation.Query;
 import com.thecookiezen.ladybugdb.spring.repository.NodeRepository;
 
 public interface MemoryNoteDbRepository
                 extends NodeRepository<LadybugMemoryNote, String, LadybugNoteLink, LadybugMemoryNote> {
 
-        @Query("MATCH (n:MemoryNote) WHERE list_contains(n.tags, $tag) RETURN n")
-        List<LadybugMemoryNote> findByTag(String tag);
+        @Query("MATCH (:Namespace {name: $namespace})<-[:IN_NAMESPACE]-(n:MemoryNote) WHERE list_contains(n.tags, $tag) RETURN n")
+        List<LadybugMemoryNote> findByTag(String namespace, String tag);
+
+        @Query("MATCH (:Namespace {name: $namespace})<-[:IN_NAMESPACE]-(n:MemoryNote) RETURN n")
+        List<LadybugMemoryNote> findAllInNamespace(String namespace);
+
+        @Query("MATCH (n:MemoryNote) WHERE n.namespace = $namespace AND n.createdAt >= CAST($from AS TIMESTAMP) AND n.createdAt < CAST($to AS TIMESTAMP) RETURN n ORDER BY n.createdAt DESC, n.id LIMIT $limit")
+        List<LadybugMemoryNote> findByTimeRange(String namespace, String from, String to, int limit);
+
+        @Query("MATCH (n:MemoryNote) WHERE n.namespace = $namespace AND list_contains(n.tags, $tag) AND n.createdAt >= CAST($from AS TIMESTAMP) AND n.createdAt < CAST($to AS TIMESTAMP) RETURN n ORDER BY n.createdAt DESC, n.id LIMIT $limit")
+        List<LadybugMemoryNote> findByTimeRange(String namespace, String tag, String from, String to, int limit);
+
+        @Query("MATCH (n:MemoryNote) WHERE n.namespace = $namespace AND n.createdAt IS NOT NULL RETURN n ORDER BY n.createdAt DESC, n.id LIMIT $limit")
+        List<LadybugMemoryNote> findRecent(String namespace, int limit);
+
+        @Query("MATCH (n:MemoryNote) WHERE n.namespace = $namespace AND list_contains(n.tags, $tag) AND n.createdAt IS NOT NULL RETURN n ORDER BY n.createdAt DESC, n.id LIMIT $limit")
+        List<LadybugMemoryNote> findRecent(String namespace, String tag, int limit);
+
+        @Query("MATCH (n:MemoryNote {id: $noteId}) SET n.createdAt = CAST($createdAt AS TIMESTAMP)")
+        void setCreatedAt(String noteId, String createdAt);
+
+        @Query("MATCH (n:MemoryNote {id: $noteId}) SET n.createdAt = NULL")
+        void clearCreatedAt(String noteId);
+
+        @Query("MATCH (n:MemoryNote) WHERE n.namespace = $namespace AND n.createdAt < CAST($before AS TIMESTAMP) AND n.retrievalCount <= $maxRetrievalCount RETURN n.id ORDER BY n.createdAt, n.id LIMIT $limit")
+        List<String> findArchivable(String namespace, String before, int maxRetrievalCount, int limit);
+
+        @Query("MATCH (n:MemoryNote) WHERE n.namespace = $namespace AND n.createdAt < CAST($before AS TIMESTAMP) AND n.retrievalCount <= $maxRetrievalCount AND NONE(tag IN n.tags WHERE list_contains($keepTags, tag)) RETURN n.id ORDER BY n.createdAt, n.id LIMIT $limit")
+        List<String> findArchivable(String namespace, String before, int maxRetrievalCount, List<String> keepTags, int limit);
+
+        @Query("MERGE (a:ArchivedNote {id: $noteId}) SET a.namespace = $namespace, a.data = $data")
+        void saveArchived(String noteId, String namespace, String data);
+
+        @Query("MATCH (a:ArchivedNote {id: $noteId}) WHERE a.namespace = $namespace RETURN a.data")
+        List<String> findArchivedData(String namespace, String noteId);
+
+        @Query("MATCH (a:ArchivedNote {id: $noteId}) WHERE a.namespace = $namespace DELETE a")
+        void deleteArchived(String namespace, String noteId);
 
         @Query("MATCH (source:MemoryNote)-[r:LINKED_TO]->(target:MemoryNote) WHERE source.id = $noteId OR target.id = $noteId RETURN source.id AS fromId, target.id AS toId, r.relationType AS relationType, r.context AS context")
         List<LinkProjection> findLinksForNote(String noteId);
@@ -24,22 +61,91 @@ public interface MemoryNoteDbRepository
         @Query("MATCH (source:MemoryNote)-[r:LINKED_TO]->(target:MemoryNote) WHERE r.relationType = $relationType RETURN source.id AS fromId, target.id AS toId, r.relationType AS relationType, r.context AS context")
         List<LinkProjection> findLinksByRelationType(String relationType);
 
-        @Query("MATCH (n:MemoryNote)-[r:LINKED_TO]-(m:MemoryNote) WHERE n.id = $noteId RETURN DISTINCT m AS n")
-        List<LadybugMemoryNote> findLinkedNotes(String noteId);
+        @Query("MATCH (n:MemoryNote)-[r:LINKED_TO]-(m:MemoryNote) WHERE n.id = $noteId AND m.namespace = $namespace RETURN DISTINCT m AS n")
+        List<LadybugMemoryNote> findLinkedNotes(String namespace, String noteId);
+
+        @Query("MATCH (n:MemoryNote)-[r:LINKED_TO]-(m:MemoryNote) WHERE n.id = $noteId AND m.namespace = $namespace AND r.relationType = $relationType RETURN DISTINCT m as n LIMIT $limit")
+        List<LadybugMemoryNote> findLinkedNotes(String namespace, String noteId, String relationType, int limit);
+
+        @Query("MATCH (n:MemoryNote)-[:LINKED_TO]->(m:MemoryNote) WHERE n.id = $noteId AND m.namespace = $namespace RETURN DISTINCT m.id ORDER BY m.id LIMIT $limit")
+        List<String> findOutgoingNeighborIds(String namespace, String noteId, int limit);
+
+        @Query("MATCH (n:MemoryNote)<-[:LINKED_TO]-(m:MemoryNote) WHERE n.id = $noteId AND m.namespace = $namespace RETURN DISTINCT m.id ORDER BY m.id LIMIT $limit")
+        List<String> findIncomingNeighborIds(String namespace, String noteId, int limit);
+
+        @Query("MATCH (n:MemoryNote)-[:LINKED_TO]-(m:MemoryNote) WHERE n.id = $noteId AND m.namespace = $namespace AND m.id <> $noteId RETURN DISTINCT m.id ORDER BY m.id LIMIT $limit")
+        List<String> findNeighborIds(String namespace, String noteId, int limit);
+
+        @Query("MATCH (:Namespace {name: $namespace})<-[:IN_NAMESPACE]-(n:MemoryNote) UNWIND n.tags AS tag RETURN DISTINCT tag")
+        List<String> findAllTags(String namespace);
+
+        @Query("MATCH (:Namespace {name: $namespace})<-[:IN_NAMESPACE]-(n:MemoryNote) UNWIND n.tags AS tag RETURN tag, count(*) AS count ORDER BY count DESC, tag")
+        List<TagCountProjection> countTags(String namespace);
 
-        @Query("MATCH (n:MemoryNote)-[r:LINKED_TO]-(m:MemoryNote) WHERE n.id = $noteId AND r.relationType = $relationType RETURN DISTINCT m as n LIMIT $limit")
-        List<LadybugMemoryNote> findLinkedNotes(String noteId, String relationType, int limit);
+        @Query("MATCH (:Namespace {name: $namespace})<-[:IN_NAMESPACE]-(source:MemoryNote)-[r:LINKED_TO]->(target:MemoryNote) RETURN source.id AS fromId, target.id AS toId, r.relationType AS relationType, r.context AS context")
+        List<LinkProjection> findAllLinks(String namespace);
 
-        @Query("MATCH (n:MemoryNote) UNWIND n.tags AS tag RETURN DISTINCT tag")
-        List<String> findAllTags();
+        @Query("MATCH (ns:Namespace) RETURN ns.name")
+        List<String> findAllNamespaces();
 
-        @Query("MATCH (source:MemoryNote)-[r:LINKED_TO]->(target:MemoryNote) RETURN source.id AS fromId, target.id AS toId, r.relationType AS relationType, r.context AS context")
-        List<LinkProjection> findAllLinks();
+        @Query("MATCH (n:MemoryNote {id: $noteId}) MERGE (ns:Namespace {name: $namespace}) MERGE (n)-[:IN_NAMESPACE]->(ns)")
+        void assignNamespace(String noteId, String namespace);
+
+        @Query("MATCH (n:MemoryNote {id: $noteId})-[l:LINKED_TO_REMOTE]->(r:RemoteNote) RETURN n.id AS fromId, r.id AS toId, l.relationType AS relationType, l.context AS context")
+        List<LinkProjection> findCrossShardLinksFrom(String noteId);
+
+        @Query("MATCH (r:RemoteNote)-[l:LINKED_FROM_REMOTE]->(n:MemoryNote {id: $noteId}) RETURN r.id AS fromId, n.id AS toId, l.relationType AS relationType, l.context AS context")
+        List<LinkProjection> findCrossShardLinksTo(String noteId);
+
+        @Query("MATCH (n:MemoryNote)-[l:LINKED_TO_REMOTE]->(r:RemoteNote) RETURN n.id AS fromId, r.id AS toId, l.relationType AS relationType, l.context AS context")
+        List<LinkProjection> findAllCrossShardLinks();
+
+        @Query("MATCH (n:MemoryNote {id: $fromId}) MERGE (r:RemoteNote {id: $toId}) MERGE (n)-[:LINKED_TO_REMOTE {relationType: $relationType, context: $context}]->(r)")
+        void saveOutgoingCrossShardLink(String fromId, String toId, String relationType, String context);
+
+        @Query("MATCH (n:MemoryNote {id: $toId}) MERGE (r:RemoteNote {id: $fromId}) MERGE (r)-[:LINKED_FROM_REMOTE {relationType: $relationType, context: $context}]->(n)")
+        void saveIncomingCrossShardLink(String fromId, String toId, String relationType, String context);
+
+        @Query("MATCH (:MemoryNote {id: $fromId})-[l:LINKED_TO_REMOTE {relationType: $relationType}]->(:RemoteNote {id: $toId}) DELETE l")
+        void deleteOutgoingCrossShardLinks(String fromId, String toId, String relationType);
+
+        @Query("MATCH (:RemoteNote {id: $fromId})-[l:LINKED_FROM_REMOTE {relationType: $relationType}]->(:MemoryNote {id: $toId}) DELETE l")
+        void deleteIncomingCrossShardLinks(String fromId, String toId, String relationType);
+
+        @Query("MATCH (:MemoryNote {id: $noteId})-[l:LINKED_TO_REMOTE|LINKED_FROM_REMOTE]-(:RemoteNote) DELETE l")
+        void deleteCrossShardLinksOf(String noteId);
+
+        @Query("MATCH (r:RemoteNote {id: $noteId}) DETACH DELETE r")
+        void deleteRemoteNote(String noteId);
 
         @Query(value = "CALL QUERY_VECTOR_INDEX('NoteEmbedding', 'note_embedding_idx', $queryVector, $limit) YIELD node, distance MATCH (n:MemoryNote)-[:HAS_EMBEDDING]->(node) RETURN n, distance AS score ORDER BY distance", loadExtensions = {
                         "vector" })
         List<SimilarityResultProjection> findSimilarRaw(float[] queryVector, long limit);
 
+        @Query("MATCH (s:MemoryNote {id: $noteId})-[r:SIMILAR_TO]->(n:MemoryNote) RETURN n, r.score AS score ORDER BY r.score DESC LIMIT $limit")
+        List<SimilarityResultProjection> findSimilarTo(String noteId, long limit);
+
+        @Query("MATCH (n:MemoryNote {id: $noteId}), (m:MemoryNote {id: $neighborId}) CREATE (n)-[:SIMILAR_TO {score: $score}]->(m)")
+        void saveSimilar(String noteId, String neighborId, double score);
+
+        @Query("MATCH (n:MemoryNote {id: $noteId}) WHERE NOT n.similarStale OPTIONAL MATCH (n)-[r:SIMILAR_TO]->(:MemoryNote) WITH n, count(r) AS size, min(r.score) AS worst WHERE size < $k OR worst < $score MATCH (c:MemoryNote {id: $candidateId}) WHERE NOT EXISTS { MATCH (n)-[:SIMILAR_TO]->(c) } CREATE (n)-[:SIMILAR_TO {score: $score}]->(c)")
+        void offerSimilar(String noteId, String candidateId, double score, long k);
+
+        @Query("MATCH (n:MemoryNote {id: $noteId})-[r:SIMILAR_TO]->(:MemoryNote) WITH r ORDER BY r.score DESC SKIP $k DELETE r")
+        void trimSimilar(String noteId, long k);
+
+        @Query("MATCH (n:MemoryNote {id: $noteId})-[r:SIMILAR_TO]->(:MemoryNote) DELETE r")
+        void deleteSimilarFrom(String noteId);
+
+        @Query("MATCH (m:MemoryNote)-[:SIMILAR_TO]->(:MemoryNote {id: $noteId}) SET m.similarStale = true")
+        void markSimilarStaleOfNotesRelatedTo(String noteId);
+
+        @Query("MATCH (n:MemoryNote {id: $noteId}) SET n.similarStale = false")
+        void markSimilarFresh(String noteId);
+
+        @Query("MATCH (n:MemoryNote {id: $noteId}) WHERE n.similarStale RETURN n.id")
+        List<String> findIdIfSimilarStale(String noteId);
+
         @Query("MATCH (e:NoteEmbedding {noteId: $noteId}) DETACH DELETE e")
         void deleteEmbedding(String noteId);
 
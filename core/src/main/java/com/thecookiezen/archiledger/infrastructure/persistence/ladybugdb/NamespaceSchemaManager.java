@@ -0,0 +1,75 @@
+package com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb;
+
+import com.ladybugdb.Connection;
+import com.ladybugdb.Database;
+import com.thecookiezen.archiledger.domain.model.Namespaces;
+import com.thecookiezen.archiledger.infrastructure.config.LadybugDatabaseRegistry;
+import com.thecookiezen.archiledger.infrastructure.embeddings.LadybugVectorExtensionInitializer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Provides the embedding table and vector index of each namespace. The default namespace uses the
+ * {@code NoteEmbedding} table created at startup; every other namespace gets its own table and HNSW index,
+ * created on first use, so similarity searches only scan the vectors of that namespace. Namespaces stored in a
+ * database of their own (see {@link LadybugDatabaseRegistry}) use that database's {@code NoteEmbedding} table.
+ */
+@Component
+public class NamespaceSchemaManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(NamespaceSchemaManager.class);
+
+    static final EmbeddingTable DEFAULT_TABLE = new EmbeddingTable("NoteEmbedding", "note_embedding_idx");
+
+    private final Database database;
+    private final LadybugDatabaseRegistry databases;
+    private final ObjectProvider<LadybugVectorExtensionInitializer> vectorInitializer;
+    private final int embeddingDimensions;
+    private final Map<String, EmbeddingTable> tables = new ConcurrentHashMap<>();
+
+    public NamespaceSchemaManager(
+            Database database,
+            LadybugDatabaseRegistry databases,
+            ObjectProvider<LadybugVectorExtensionInitializer> vectorInitializer,
+            @Value("${ladybugdb.embeddingDimensions:384}") int embeddingDimensions) {
+        this.database = database;
+        this.databases = databases;
+        this.vectorInitializer = vectorInitializer;
+        this.embeddingDimensions = embeddingDimensions;
+    }
+
+    public EmbeddingTable embeddingTable(String namespace) {
+        if (Namespaces.isDefault(namespace) || databases.routes(namespace)) {
+            return DEFAULT_TABLE;
+        }
+        return tables.computeIfAbsent(namespace, this::createEmbeddingTable);
+    }
+
+    private EmbeddingTable createEmbeddingTable(String namespace) {
+        EmbeddingTable table = new EmbeddingTable("NoteEmbedding_" + namespace, "note_embedding_idx_" + namespace);
+        try (Connection conn = new Connection(database)) {
+            try (var result = conn.query("CREATE NODE TABLE IF NOT EXISTS %s(noteId STRING PRIMARY KEY, embedding FLOAT[%d])"
+                    .formatted(table.tableName(), embeddingDimensions))) {
+                if (!result.isSuccess()) {
+                    throw new RuntimeException("Failed to create " + table.tableName() + " table: " + result.getErrorMessage());
+                }
+            }
+        }
+        LadybugVectorExtensionInitializer initializer = vectorInitializer.getIfAvailable();
+        if (initializer != null) {
+            initializer.ensureIndex(table.tableName(), table.indexName());
+        }
+        logger.info("Embedding table {} ready for namespace '{}'", table.tableName(), namespace);
+        return table;
+    }
+
+    public record EmbeddingTable(String tableName, String indexName) {
+    }
+}
@@ -0,0 +1,214 @@
+package com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb;
+
+import com.thecookiezen.archiledger.domain.model.ArchivedNote;
+import com.thecookiezen.archiledger.domain.model.CacheStats;
+import com.thecookiezen.archiledger.domain.model.CompressionStats;
+import com.thecookiezen.archiledger.domain.model.LinkDefinition;
+import com.thecookiezen.archiledger.domain.model.LinkDirection;
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.Namespaces;
+import com.thecookiezen.archiledger.domain.model.NoteLink;
+import com.thecookiezen.archiledger.domain.model.NotePatch;
+import com.thecookiezen.archiledger.domain.model.SimilarityResult;
+import com.thecookiezen.archiledger.domain.repository.MemoryNoteRepository;
+import com.thecookiezen.archiledger.infrastructure.config.LadybugDatabaseRegistry;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Runs every call of a namespace-scoped repository against the namespace's own database. Namespace listing
+ * and cache statistics are global and stay on the primary database.
+ */
+class RoutedMemoryNoteRepository implements MemoryNoteRepository {
+
+    private final LadybugMemoryNoteRepository delegate;
+    private final LadybugDatabaseRegistry databases;
+
+    RoutedMemoryNoteRepository(LadybugMemoryNoteRepository delegate, LadybugDatabaseRegistry databases) {
+        this.delegate = delegate;
+        this.databases = databases;
+    }
+
+    @Override
+    public String namespace() {
+        return delegate.namespace();
+    }
+
+    @Override
+    public MemoryNoteRepository inNamespace(String namespace) {
+        if (Namespaces.normalize(namespace).equals(namespace())) {
+            return this;
+        }
+        return delegate.inNamespace(namespace);
+    }
+
+    @Override
+    public MemoryNote save(MemoryNote note) {
+        return databases.call(namespace(), () -> delegate.save(note));
+    }
+
+    @Override
+    public MemoryNote save(MemoryNote note, List<NotePatch> patches) {
+        return databases.call(namespace(), () -> delegate.save(note, patches));
+    }
+
+    @Override
+    public MemoryNote save(MemoryNote note, List<NotePatch> patches, List<SimilarityResult<MemoryNoteId>> neighbors) {
+        return databases.call(namespace(), () -> delegate.save(note, patches, neighbors));
+    }
+
+    @Override
+    public List<SimilarityResult<MemoryNoteId>> findNeighbors(MemoryNote note) {
+        return databases.call(namespace(), () -> delegate.findNeighbors(note));
+    }
+
+    @Override
+    public Optional<MemoryNote> findById(MemoryNoteId id) {
+        return databases.call(namespace(), () -> delegate.findById(id));
+    }
+
+    @Override
+    public void requireWritable(MemoryNoteId id) {
+        databases.run(namespace(), () -> delegate.requireWritable(id));
+    }
+
+    @Override
+    public List<MemoryNote> findAll() {
+        return databases.call(namespace(), delegate::findAll);
+    }
+
+    @Override
+    public void delete(MemoryNoteId id) {
+        databases.run(namespace(), () -> delegate.delete(id));
+    }
+
+    @Override
+    public void addLink(LinkDefinition link) {
+        databases.run(namespace(), () -> delegate.addLink(link));
+    }
+
+    @Override
+    public void removeLink(MemoryNoteId from, MemoryNoteId to, String relationType) {
+        databases.run(namespace(), () -> delegate.removeLink(from, to, relationType));
+    }
+
+    @Override
+    public List<NoteLink> findLinksFrom(MemoryNoteId id) {
+        return databases.call(namespace(), () -> delegate.findLinksFrom(id));
+    }
+
+    @Override
+    public List<MemoryNote> findByTag(String tag) {
+        return databases.call(namespace(), () -> delegate.findByTag(tag));
+    }
+
+    @Override
+    public List<MemoryNote> findByTimeRange(Instant from, Instant to, String tag, int limit) {
+        return databases.call(namespace(), () -> delegate.findByTimeRange(from, to, tag, limit));
+    }
+
+    @Override
+    public List<MemoryNote> findRecent(String tag, int limit) {
+        return databases.call(namespace(), () -> delegate.findRecent(tag, limit));
+    }
+
+    @Override
+    public List<MemoryNote> findLinkedNotes(MemoryNoteId noteId) {
+        return databases.call(namespace(), () -> delegate.findLinkedNotes(noteId));
+    }
+
+    @Override
+    public List<MemoryNote> findLinkedNotes(MemoryNoteId noteId, String relationType, int limit) {
+        return databases.call(namespace(), () -> delegate.findLinkedNotes(noteId, relationType, limit));
+    }
+
+    @Override
+    public List<MemoryNote> findNotesUpward(MemoryNoteId noteId, int maxHops, int limit) {
+        return databases.call(namespace(), () -> delegate.findNotesUpward(noteId, maxHops, limit));
+    }
+
+    @Override
+    public List<MemoryNote> expand(MemoryNoteId noteId, LinkDirection direction, int maxHops, int limit) {
+        return databases.call(namespace(), () -> delegate.expand(noteId, direction, maxHops, limit));
+    }
+
+    @Override
+    public Set<String> findAllTags() {
+        return databases.call(namespace(), delegate::findAllTags);
+    }
+
+    @Override
+    public Map<String, Long> countTags() {
+        return databases.call(namespace(), delegate::countTags);
+    }
+
+    @Override
+    public Set<String> findAllNamespaces() {
+        return delegate.findAllNamespaces();
+    }
+
+    @Override
+    public Map<String, Object> getGraph() {
+        return databases.call(namespace(), delegate::getGraph);
+    }
+
+    @Override
+    public void incrementRetrievalCount(MemoryNoteId id) {
+        databases.run(namespace(), () -> delegate.incrementRetrievalCount(id));
+    }
+
+    @Override
+    public List<SimilarityResult<MemoryNote>> findSimilar(float[] queryEmbedding, int topK) {
+        return databases.call(namespace(), () -> delegate.findSimilar(queryEmbedding, topK));
+    }
+
+    @Override
+    public List<SimilarityResult<MemoryNote>> findSimilar(float[] queryEmbedding, int topK, double threshold, double temperature) {
+        return databases.call(namespace(), () -> delegate.findSimilar(queryEmbedding, topK, threshold, temperature));
+    }
+
+    @Override
+    public List<List<SimilarityResult<MemoryNote>>> findSimilarBatch(List<float[]> queryEmbeddings, int topK, double threshold, double temperature) {
+        return databases.call(namespace(), () -> delegate.findSimilarBatch(queryEmbeddings, topK, threshold, temperature));
+    }
+
+    @Override
+    public List<SimilarityResult<MemoryNote>> findMoreLikeThis(MemoryNoteId noteId, int limit) {
+        return databases.call(namespace(), () -> delegate.findMoreLikeThis(noteId, limit));
+    }
+
+    @Override
+    public List<MemoryNoteId> findArchivable(Instant createdBefore, int maxRetrievalCount, Set<String> keepTags, int limit) {
+        return databases.call(namespace(), () -> delegate.findArchivable(createdBefore, maxRetrievalCount, keepTags, limit));
+    }
+
+    @Override
+    public int archive(List<MemoryNoteId> ids) {
+        return databases.call(namespace(), () -> delegate.archive(ids));
+    }
+
+    @Override
+    public Optional<ArchivedNote> findArchived(MemoryNoteId id) {
+        return databases.call(namespace(), () -> delegate.findArchived(id));
+    }
+
+    @Override
+    public MemoryNote restore(ArchivedNote archived) {
+        return databases.call(namespace(), () -> delegate.restore(archived));
+    }
+
+    @Override
+    public Map<String, CacheStats> cacheStats() {
+        return delegate.cacheStats();
+    }
+
+    @Override
+    public CompressionStats compressionStats() {
+        return delegate.compressionStats();
+    }
+}
@@ -0,0 +1,605 @@
+package com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb;
+
+import com.thecookiezen.archiledger.domain.model.ArchivedNote;
+import com.thecookiezen.archiledger.domain.model.CacheStats;
+import com.thecookiezen.archiledger.domain.model.CompressionStats;
+import com.thecookiezen.archiledger.domain.model.LinkDefinition;
+import com.thecookiezen.archiledger.domain.model.LinkDirection;
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.Namespaces;
+import com.thecookiezen.archiledger.domain.model.NoteLink;
+import com.thecookiezen.archiledger.domain.model.NotePatch;
+import com.thecookiezen.archiledger.domain.model.SimilarityResult;
+import com.thecookiezen.archiledger.domain.model.Timestamps;
+import com.thecookiezen.archiledger.domain.repository.MemoryNoteRepository;
+import com.thecookiezen.archiledger.infrastructure.config.LadybugShards;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.LinkProjection;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.UnaryOperator;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Default-namespace repository hash-partitioned by note id across {@link LadybugShards}.
+ * <p>
+ * Point operations go to the note's home shard. Listing, tag and similarity queries run on all shards in
+ * parallel and merge their results, keeping the global top-k for similarity searches. Links between notes on
+ * the same shard are regular {@code LINKED_TO} edges. A link across shards is stored twice, as edges of the
+ * notes on both ends: a {@code LINKED_TO_REMOTE} edge from the source note to a {@code RemoteNote} placeholder
+ * of the target on the source's shard, and a {@code LINKED_FROM_REMOTE} edge from a placeholder of the source
+ * to the target note on the target's shard. Both directions are therefore looked up on the note's home shard
+ * by its id. Other namespaces are not sharded and are served by the primary database.
+ * <p>
+ * A note is archived on its home shard. Its cross-shard links are taken out of the graph and kept in its archived
+ * copy like local links, so restoring the note brings them back.
+ */
+public class ShardedMemoryNoteRepository implements MemoryNoteRepository {
+
+    private final LadybugMemoryNoteRepository base;
+    private final MemoryNoteDbRepository dbRepository;
+    private final LadybugShards shards;
+    private final GroupCommitWriter writer;
+
+    public ShardedMemoryNoteRepository(LadybugMemoryNoteRepository base, MemoryNoteDbRepository dbRepository,
+            LadybugShards shards, GroupCommitWriter writer) {
+        this.base = base;
+        this.dbRepository = dbRepository;
+        this.shards = shards;
+        this.writer = writer;
+    }
+
+    @Override
+    public String namespace() {
+        return base.namespace();
+    }
+
+    @Override
+    public MemoryNoteRepository inNamespace(String namespace) {
+        if (Namespaces.normalize(namespace).equals(namespace())) {
+            return this;
+        }
+        return base.inNamespace(namespace);
+    }
+
+    @Override
+    public MemoryNote save(MemoryNote note) {
+        return save(note, List.of());
+    }
+
+    /**
+     * Patches of notes on the new note's shard share its write; patches of notes on other shards are applied
+     * with one write per shard afterwards.
+     */
+    @Override
+    public MemoryNote save(MemoryNote note, List<NotePatch> patches) {
+        return save(note, patches, base::save);
+    }
+
+    /**
+     * Similar-note edges stay within a shard, so only the neighbors on the note's home shard are passed on. Every
+     * shard contributed its full neighbor list to {@link #findNeighbors(MemoryNote)}, so these are complete.
+     */
+    @Override
+    public MemoryNote save(MemoryNote note, List<NotePatch> patches, List<SimilarityResult<MemoryNoteId>> neighbors) {
+        int home = shardOf(note.id());
+        List<SimilarityResult<MemoryNoteId>> homeNeighbors = neighbors.stream()
+                .filter(neighbor -> shardOf(neighbor.item()) == home)
+                .toList();
+        return save(note, patches, (homeNote, homePatches) -> base.save(homeNote, homePatches, homeNeighbors));
+    }
+
+    private MemoryNote save(MemoryNote note, List<NotePatch> patches,
+            BiFunction<MemoryNote, List<NotePatch>, MemoryNote> saveOnHome) {
+        int home = shardOf(note.id());
+        Map<Integer, List<NotePatch>> patchesByShard = patches.stream()
+                .collect(Collectors.groupingBy(patch -> shardOf(patch.id()), LinkedHashMap::new, Collectors.toList()));
+        List<NoteLink> local = new ArrayList<>();
+        List<NoteLink> crossShard = new ArrayList<>();
+        for (NoteLink link : note.links()) {
+            (shardOf(link.target()) == home ? local : crossShard).add(link);
+        }
+        MemoryNote saved = shards.call(home,
+                () -> saveOnHome.apply(note.withLinks(local), patchesByShard.getOrDefault(home, List.of())));
+        patchesByShard.forEach((shard, shardPatches) -> {
+            if (shard != home) {
+                shards.run(shard, () -> base.patch(shardPatches));
+            }
+        });
+        for (NoteLink link : crossShard) {
+            addLink(new LinkDefinition(note.id(), link.target(), link.relationType(), link.context()));
+        }
+        return crossShard.isEmpty() ? saved : saved.withLinks(note.links());
+    }
+
+    @Override
+    public List<SimilarityResult<MemoryNoteId>> findNeighbors(MemoryNote note) {
+        return gather(shard -> base.findNeighbors(note)).stream()
+                .sorted(Comparator.comparingDouble((SimilarityResult<MemoryNoteId> result) -> result.score()).reversed())
+                .toList();
+    }
+
+    @Override
+    public Optional<MemoryNote> findById(MemoryNoteId id) {
+        int home = shardOf(id);
+        return shards.call(home, () -> base.findById(id).map(this::withCrossShardLinks));
+    }
+
+    @Override
+    public void requireWritable(MemoryNoteId id) {
+        shards.run(shardOf(id), () -> base.requireWritable(id));
+    }
+
+    @Override
+    public List<MemoryNote> findAll() {
+        return gather(shard -> base.findAll().stream().map(this::withCrossShardLinks).toList());
+    }
+
+    @Override
+    public void delete(MemoryNoteId id) {
+        dropCrossShardLinks(id);
+        shards.run(shardOf(id), () -> base.delete(id));
+    }
+
+    @Override
+    public void addLink(LinkDefinition link) {
+        int sourceShard = shardOf(link.source());
+        int targetShard = shardOf(link.target());
+        if (sourceShard == targetShard) {
+            shards.run(sourceShard, () -> base.addLink(link));
+            return;
+        }
+        if (shards.call(sourceShard, () -> base.findById(link.source())).isEmpty()) {
+            throw new IllegalArgumentException("Source note not found: " + link.source().value());
+        }
+        if (shards.call(targetShard, () -> base.findById(link.target())).isEmpty()) {
+            throw new IllegalArgumentException("Target note not found: " + link.target().value());
+        }
+        saveCrossShardLink(link);
+    }
+
+    private void saveCrossShardLink(LinkDefinition link) {
+        String from = link.source().value();
+        String to = link.target().value();
+        shards.run(shardOf(link.source()), () -> writer.run(
+                () -> dbRepository.saveOutgoingCrossShardLink(from, to, link.relationType(), link.context())));
+        shards.run(shardOf(link.target()), () -> writer.run(
+                () -> dbRepository.saveIncomingCrossShardLink(from, to, link.relationType(), link.context())));
+    }
+
+    @Override
+    public void removeLink(MemoryNoteId from, MemoryNoteId to, String relationType) {
+        int sourceShard = shardOf(from);
+        int targetShard = shardOf(to);
+        if (sourceShard == targetShard) {
+            shards.run(sourceShard, () -> base.removeLink(from, to, relationType));
+            return;
+        }
+        shards.run(sourceShard, () -> writer.run(
+                () -> dbRepository.deleteOutgoingCrossShardLinks(from.value(), to.value(), relationType)));
+        shards.run(targetShard, () -> writer.run(
+                () -> dbRepository.deleteIncomingCrossShardLinks(from.value(), to.value(), relationType)));
+    }
+
+    /**
+     * Drops the cross-shard links of a note that is about to be deleted or archived: its own edges on its home
+     * shard, and the placeholder standing for it, with every edge to or from it, on the shards of its partners.
+     *
+     * @return the dropped links, outgoing and incoming
+     */
+    private List<LinkProjection> dropCrossShardLinks(MemoryNoteId id) {
+        List<LinkProjection> dropped = shards.call(shardOf(id), () -> writer.write(() -> {
+            List<LinkProjection> links = new ArrayList<>(dbRepository.findCrossShardLinksFrom(id.value()));
+            links.addAll(dbRepository.findCrossShardLinksTo(id.value()));
+            dbRepository.deleteCrossShardLinksOf(id.value());
+            return links;
+        }));
+        Set<Integer> partnerShards = new TreeSet<>();
+        for (LinkProjection link : dropped) {
+            partnerShards.add(shards.shardOf(link.fromId().equals(id.value()) ? link.toId() : link.fromId()));
+        }
+        for (int shard : partnerShards) {
+            shards.run(shard, () -> writer.run(() -> dbRepository.deleteRemoteNote(id.value())));
+        }
+        return dropped;
+    }
+
+    @Override
+    public List<NoteLink> findLinksFrom(MemoryNoteId id) {
+        return shards.call(shardOf(id), () -> {
+            List<NoteLink> links = new ArrayList<>(base.findLinksFrom(id));
+            links.addAll(crossShardLinksFrom(id));
+            return links;
+        });
+    }
+
+    @Override
+    public List<MemoryNote> findByTag(String tag) {
+        return gather(shard -> base.findByTag(tag).stream().map(this::withCrossShardLinks).toList());
+    }
+
+    @Override
+    public List<MemoryNote> findByTimeRange(Instant from, Instant to, String tag, int limit) {
+        return newest(gather(shard -> base.findByTimeRange(from, to, tag, limit)), limit);
+    }
+
+    @Override
+    public List<MemoryNote> findRecent(String tag, int limit) {
+        return newest(gather(shard -> base.findRecent(tag, limit)), limit);
+    }
+
+    @Override
+    public List<MemoryNote> findLinkedNotes(MemoryNoteId noteId) {
+        return findLinkedNotes(noteId, null, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<MemoryNote> findLinkedNotes(MemoryNoteId noteId, String relationType, int limit) {
+        int home = shardOf(noteId);
+        List<MemoryNote> local = shards.call(home, () -> relationType == null
+                ? base.findLinkedNotes(noteId)
+                : base.findLinkedNotes(noteId, relationType, limit));
+
+        Set<String> remoteIds = new LinkedHashSet<>();
+        for (LinkProjection link : shards.call(home, () -> dbRepository.findCrossShardLinksFrom(noteId.value()))) {
+            if (relationType == null || relationType.equals(link.relationType())) {
+                remoteIds.add(link.toId());
+            }
+        }
+        for (LinkProjection link : shards.call(home, () -> dbRepository.findCrossShardLinksTo(noteId.value()))) {
+            if (relationType == null || relationType.equals(link.relationType())) {
+                remoteIds.add(link.fromId());
+            }
+        }
+
+        Map<String, MemoryNote> linked = new LinkedHashMap<>();
+        for (MemoryNote note : local) {
+            linked.put(note.id().value(), withCrossShardLinks(note));
+        }
+        for (String id : remoteIds) {
+            if (linked.size() >= limit) {
+                break;
+            }
+            findById(new MemoryNoteId(id)).ifPresent(note -> linked.putIfAbsent(id, note));
+        }
+        return linked.values().stream().limit(limit).toList();
+    }
+
+    @Override
+    public List<MemoryNote> findNotesUpward(MemoryNoteId noteId, int maxHops, int limit) {
+        return expand(noteId, LinkDirection.OUTGOING, maxHops, limit);
+    }
+
+    /**
+     * Breadth-first traversal, following cross-shard links between hops.
+     */
+    @Override
+    public List<MemoryNote> expand(MemoryNoteId noteId, LinkDirection direction, int maxHops, int limit) {
+        Set<String> visited = new HashSet<>();
+        visited.add(noteId.value());
+        List<MemoryNote> reached = new ArrayList<>();
+        List<String> frontier = List.of(noteId.value());
+        for (int hop = 0; hop < maxHops && !frontier.isEmpty() && reached.size() < limit; hop++) {
+            List<String> next = new ArrayList<>();
+            for (String id : frontier) {
+                if (reached.size() + next.size() >= limit) {
+                    break;
+                }
+                int wanted = limit - reached.size() - next.size() + visited.size();
+                for (String neighbor : neighborIds(new MemoryNoteId(id), direction, wanted)) {
+                    if (reached.size() + next.size() < limit && visited.add(neighbor)) {
+                        next.add(neighbor);
+                    }
+                }
+            }
+            for (String id : next) {
+                findById(new MemoryNoteId(id)).ifPresent(reached::add);
+            }
+            frontier = next;
+        }
+        return reached;
+    }
+
+    private List<String> neighborIds(MemoryNoteId noteId, LinkDirection direction, int limit) {
+        int home = shardOf(noteId);
+        Set<String> ids = new TreeSet<>(shards.call(home, () -> base.findNeighborIds(noteId, direction, limit)));
+        if (direction != LinkDirection.INCOMING) {
+            for (LinkProjection link : shards.call(home, () -> dbRepository.findCrossShardLinksFrom(noteId.value()))) {
+                ids.add(link.toId());
+            }
+        }
+        if (direction != LinkDirection.OUTGOING) {
+            for (LinkProjection link : shards.call(home, () -> dbRepository.findCrossShardLinksTo(noteId.value()))) {
+                ids.add(link.fromId());
+            }
+        }
+        ids.remove(noteId.value());
+        return ids.stream().limit(limit).toList();
+    }
+
+    @Override
+    public Set<String> findAllTags() {
+        Set<String> tags = new HashSet<>();
+        scatter(shard -> base.findAllTags()).forEach(tags::addAll);
+        return tags;
+    }
+
+    @Override
+    public Map<String, Long> countTags() {
+        Map<String, Long> totals = new HashMap<>();
+        for (Map<String, Long> counts : scatter(shard -> base.countTags())) {
+            counts.forEach((tag, count) -> totals.merge(tag, count, Long::sum));
+        }
+        return totals.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    @Override
+    public Set<String> findAllNamespaces() {
+        return base.findAllNamespaces();
+    }
+
+    @Override
+    public Map<String, Object> getGraph() {
+        List<Map<String, Object>> graphs = scatter(shard -> {
+            Map<String, Object> graph = new HashMap<>(base.getGraph());
+            graph.put("crossShardLinks", dbRepository.findAllCrossShardLinks());
+            return graph;
+        });
+        List<Object> notes = new ArrayList<>();
+        List<Object> links = new ArrayList<>();
+        for (Map<String, Object> graph : graphs) {
+            notes.addAll((List<?>) graph.get("notes"));
+            links.addAll((List<?>) graph.get("links"));
+            for (Object link : (List<?>) graph.get("crossShardLinks")) {
+                links.add(toDomainLink((LinkProjection) link));
+            }
+        }
+        return Map.of("notes", notes, "links", links);
+    }
+
+    @Override
+    public void incrementRetrievalCount(MemoryNoteId id) {
+        shards.run(shardOf(id), () -> base.incrementRetrievalCount(id));
+    }
+
+    @Override
+    public List<SimilarityResult<MemoryNote>> findSimilar(float[] queryEmbedding, int topK) {
+        return findSimilar(queryEmbedding, topK, 0.0, 0.0);
+    }
+
+    @Override
+    public List<SimilarityResult<MemoryNote>> findSimilar(float[] queryEmbedding, int topK, double threshold, double temperature) {
+        return mergeTopK(scatter(shard -> base.findSimilar(queryEmbedding, topK, threshold, temperature)), topK);
+    }
+
+    @Override
+    public List<List<SimilarityResult<MemoryNote>>> findSimilarBatch(List<float[]> queryEmbeddings, int topK, double threshold, double temperature) {
+        List<List<List<SimilarityResult<MemoryNote>>>> perShard =
+                scatter(shard -> base.findSimilarBatch(queryEmbeddings, topK, threshold, temperature));
+        List<List<SimilarityResult<MemoryNote>>> merged = new ArrayList<>(queryEmbeddings.size());
+        for (int query = 0; query < queryEmbeddings.size(); query++) {
+            int index = query;
+            merged.add(mergeTopK(perShard.stream().map(results -> results.get(index)).toList(), topK));
+        }
+        return merged;
+    }
+
+    /**
+     * {@code SIMILAR_TO} edges are kept per shard, so the note's home shard answers from its edges and the other
+     * shards are searched with the note's stored embedding; the results are merged by score.
+     */
+    @Override
+    public List<SimilarityResult<MemoryNote>> findMoreLikeThis(MemoryNoteId noteId, int limit) {
+        int home = shardOf(noteId);
+        List<SimilarityResult<MemoryNote>> local = shards.call(home, () -> base.findMoreLikeThis(noteId, limit));
+        Optional<float[]> embedding = shards.call(home, () -> base.findEmbedding(noteId));
+        if (embedding.isEmpty()) {
+            return local;
+        }
+        return mergeTopK(scatter(shard -> shard == home ? local : base.findSimilar(embedding.get(), limit, 0.0, 0.0)),
+                limit);
+    }
+
+    /**
+     * Oldest candidates first, by the timestamps of the notes of each shard's share.
+     */
+    @Override
+    public List<MemoryNoteId> findArchivable(Instant createdBefore, int maxRetrievalCount, Set<String> keepTags, int limit) {
+        List<MemoryNote> candidates = gather(shard -> base.findArchivable(createdBefore, maxRetrievalCount, keepTags, limit).stream()
+                .map(base::findById)
+                .flatMap(Optional::stream)
+                .toList());
+        return candidates.stream()
+                .sorted(Timestamps.NEWEST_FIRST.reversed())
+                .limit(limit)
+                .map(MemoryNote::id)
+                .toList();
+    }
+
+    /**
+     * Cross-shard links are taken out of the graph note by note, so a link between two notes of the batch ends up
+     * in one archived copy only, as local links do. They are added to the archived copies once every shard has
+     * archived its share.
+     */
+    @Override
+    public int archive(List<MemoryNoteId> ids) {
+        Map<Integer, List<MemoryNoteId>> idsByShard = ids.stream()
+                .collect(Collectors.groupingBy(this::shardOf, LinkedHashMap::new, Collectors.toList()));
+        Map<MemoryNoteId, List<LinkProjection>> crossShardLinks = new LinkedHashMap<>();
+        for (MemoryNoteId id : ids) {
+            crossShardLinks.put(id, dropCrossShardLinks(id));
+        }
+        int archived = 0;
+        for (Map.Entry<Integer, List<MemoryNoteId>> shardIds : idsByShard.entrySet()) {
+            archived += shards.call(shardIds.getKey(), () -> base.archive(shardIds.getValue()));
+        }
+        crossShardLinks.forEach((id, links) -> {
+            if (!links.isEmpty()) {
+                updateArchived(id, copy -> withCrossShardLinks(copy, id, links));
+            }
+        });
+        return archived;
+    }
+
+    private ArchivedNote withCrossShardLinks(ArchivedNote copy, MemoryNoteId id, List<LinkProjection> links) {
+        ArchivedNote updated = copy;
+        for (LinkProjection link : links) {
+            updated = link.fromId().equals(id.value())
+                    ? updated.withOutgoingLink(toDomainLink(link))
+                    : updated.withIncomingLink(new LinkDefinition(new MemoryNoteId(link.fromId()), id,
+                            link.relationType(), link.context(), namespace()));
+        }
+        return updated;
+    }
+
+    private void updateArchived(MemoryNoteId id, UnaryOperator<ArchivedNote> change) {
+        shards.run(shardOf(id), () -> writer.run(() -> base.findArchived(id).ifPresent(archived ->
+                dbRepository.saveArchived(id.value(), namespace(), ArchivedNoteCodec.encode(change.apply(archived))))));
+    }
+
+    @Override
+    public Optional<ArchivedNote> findArchived(MemoryNoteId id) {
+        return shards.call(shardOf(id), () -> base.findArchived(id));
+    }
+
+    /**
+     * The note and its local links are restored on its home shard. Its cross-shard links are restored like the
+     * base repository restores local ones: to live partners as cross-shard links, to archived partners into their
+     * archived copies.
+     */
+    @Override
+    public MemoryNote restore(ArchivedNote archived) {
+        MemoryNote note = archived.note();
+        int home = shardOf(note.id());
+        List<NoteLink> localLinks = new ArrayList<>();
+        List<NoteLink> crossShardLinks = new ArrayList<>();
+        for (NoteLink link : note.links()) {
+            (shardOf(link.target()) == home ? localLinks : crossShardLinks).add(link);
+        }
+        List<LinkDefinition> localIncoming = new ArrayList<>();
+        List<LinkDefinition> crossShardIncoming = new ArrayList<>();
+        for (LinkDefinition link : archived.incomingLinks()) {
+            (shardOf(link.source()) == home ? localIncoming : crossShardIncoming).add(link);
+        }
+        MemoryNote restored = shards.call(home, () -> base.restore(
+                new ArchivedNote(note.withLinks(localLinks), localIncoming, archived.archivedAt())));
+
+        List<NoteLink> links = new ArrayList<>(restored.links());
+        for (NoteLink link : crossShardLinks) {
+            LinkDefinition definition = new LinkDefinition(note.id(), link.target(), link.relationType(),
+                    link.context(), namespace());
+            if (isLive(link.target())) {
+                saveCrossShardLink(definition);
+                links.add(link);
+            } else {
+                updateArchived(link.target(), target -> target.withIncomingLink(definition));
+            }
+        }
+        for (LinkDefinition link : crossShardIncoming) {
+            if (isLive(link.source())) {
+                saveCrossShardLink(link);
+            } else {
+                updateArchived(link.source(), source -> source.withOutgoingLink(link.toNoteLink()));
+            }
+        }
+        return links.size() == restored.links().size() ? restored : restored.withLinks(links);
+    }
+
+    private boolean isLive(MemoryNoteId id) {
+        return shards.call(shardOf(id), () -> base.findById(id)).isPresent();
+    }
+
+    @Override
+    public Map<String, CacheStats> cacheStats() {
+        return base.cacheStats();
+    }
+
+    @Override
+    public CompressionStats compressionStats() {
+        return base.compressionStats();
+    }
+
+    private int shardOf(MemoryNoteId id) {
+        return shards.shardOf(id.value());
+    }
+
+    /**
+     * Keeps the {@code limit} newest of the per-shard results, each of which is already the shard's newest.
+     */
+    private List<MemoryNote> newest(List<MemoryNote> perShard, int limit) {
+        return perShard.stream()
+                .sorted(Timestamps.NEWEST_FIRST)
+                .limit(limit)
+                .map(this::withCrossShardLinks)
+                .toList();
+    }
+
+    private static List<SimilarityResult<MemoryNote>> mergeTopK(List<List<SimilarityResult<MemoryNote>>> perShard, int topK) {
+        return perShard.stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparingDouble((SimilarityResult<MemoryNote> result) -> result.score()).reversed())
+                .limit(topK)
+                .toList();
+    }
+
+    /**
+     * Must be called while bound to the note's home shard, where its outgoing cross-shard links live.
+     */
+    private MemoryNote withCrossShardLinks(MemoryNote note) {
+        List<NoteLink> crossShard = crossShardLinksFrom(note.id());
+        if (crossShard.isEmpty()) {
+            return note;
+        }
+        List<NoteLink> links = new ArrayList<>(note.links());
+        links.addAll(crossShard);
+        return note.withLinks(links);
+    }
+
+    private List<NoteLink> crossShardLinksFrom(MemoryNoteId id) {
+        return dbRepository.findCrossShardLinksFrom(id.value()).stream()
+                .map(this::toDomainLink)
+                .toList();
+    }
+
+    private NoteLink toDomainLink(LinkProjection projection) {
+        return new NoteLink(new MemoryNoteId(projection.toId()), projection.relationType(), projection.context());
+    }
+
+    private <T> List<T> gather(IntFunction<List<T>> perShard) {
+        List<T> all = new ArrayList<>();
+        scatter(perShard).forEach(all::addAll);
+        return all;
+    }
+
+    /**
+     * Runs {@code perShard} on every shard in parallel, on the shared lookup executor, and returns the results
+     * in shard order.
+     */
+    private <T> List<T> scatter(IntFunction<T> perShard) {
+        if (shards.count() == 1) {
+            return List.of(perShard.apply(0));
+        }
+        List<CompletableFuture<T>> results = IntStream.range(0, shards.count())
+                .mapToObj(shard -> CompletableFuture.supplyAsync(
+                        () -> shards.call(shard, () -> perShard.apply(shard)), LadybugMemoryNoteRepository.LOOKUPS))
+                .toList();
+        return results.stream().map(CompletableFuture::join).toList();
+    }
+}
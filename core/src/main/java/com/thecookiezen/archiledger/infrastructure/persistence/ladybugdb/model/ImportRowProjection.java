@@ -0,0 +1,7 @@
+package com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model;
+
+import java.util.List;
+
+public record ImportRowProjection(String id, String content, List<String> keywords, String context, List<String> tags,
+        String timestamp) {
+}
@@ -24,11 +24,13 @@ public class LadybugMemoryNote {
 
     private int retrievalCount;
 
+    private String namespace;
+
     public LadybugMemoryNote() {
     }
 
     public LadybugMemoryNote(String id, String content, List<String> keywords, String context,
-            List<String> tags, String timestamp, int retrievalCount) {
+            List<String> tags, String timestamp, int retrievalCount, String namespace) {
         this.id = id;
         this.content = content;
         this.keywords = keywords != null ? new ArrayList<>(keywords) : new ArrayList<>();
@@ -36,6 +38,7 @@ public class LadybugMemoryNote {
         this.tags = tags != null ? new ArrayList<>(tags) : new ArrayList<>();
         this.timestamp = timestamp;
         this.retrievalCount = retrievalCount;
+        this.namespace = namespace;
     }
 
     public String getId() {
@@ -93,4 +96,12 @@ public class LadybugMemoryNote {
     public void setRetrievalCount(int retrievalCount) {
         this.retrievalCount = retrievalCount;
     }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    public void setNamespace(String namespace) {
+        this.namespace = namespace;
+    }
 }
@@ -0,0 +1,441 @@
+package com.thecookiezen.archiledger.infrastructure.snapshot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ladybugdb.Connection;
+import com.ladybugdb.Database;
+import com.ladybugdb.QueryResult;
+import com.thecookiezen.archiledger.application.cache.QueryResultCache;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.Namespaces;
+import com.thecookiezen.archiledger.infrastructure.config.LadybugDatabaseRegistry;
+import com.thecookiezen.archiledger.infrastructure.config.LadybugShards;
+import com.thecookiezen.archiledger.infrastructure.embeddings.LadybugVectorExtensionInitializer;
+import com.thecookiezen.archiledger.infrastructure.importing.BulkImportReport.Phase;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.MemoryNoteCache;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.MemoryNoteDbRepository;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.NamespaceSchemaManager;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.NamespaceSchemaManager.EmbeddingTable;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.CountProjection;
+import com.thecookiezen.archiledger.infrastructure.snapshot.SnapshotManifest.Kind;
+import com.thecookiezen.archiledger.infrastructure.snapshot.SnapshotManifest.SnapshotFile;
+import com.thecookiezen.ladybugdb.spring.core.LadybugDBTemplate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Exports the primary database to a directory of Parquet files and restores such a snapshot into an empty
+ * database.
+ * <p>
+ * An export writes notes, namespaces, links, archived notes and each namespace's raw embeddings with
+ * {@code COPY TO}, all within one read-only transaction, so it sees one consistent state while writes go on.
+ * A {@code manifest.json} with the row count, size and SHA-256 checksum of every file is written last.
+ * Notes are exported as stored, so compressed content stays compressed.
+ * <p>
+ * A restore verifies the manifest and checksums first, then loads every table with one {@code COPY FROM}
+ * and builds each vector index once, without computing embeddings again. A failed restore removes what it
+ * loaded, so it can be retried. Either way, cached notes and query results are dropped. Related-note edges are not part of snapshots; restored notes rebuild them on
+ * first use. Namespaces stored in databases of their own and sharded default namespaces are not covered.
+ */
+@Component
+public class LadybugSnapshots {
+
+    private static final Logger logger = LoggerFactory.getLogger(LadybugSnapshots.class);
+
+    static final String MANIFEST = "manifest.json";
+
+    private static final Pattern VALID_NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]{0,127}");
+
+    private static final String EXPORT_NAMESPACES = "MATCH (ns:Namespace) RETURN ns.name AS name";
+
+    private static final String EXPORT_NOTES = """
+            MATCH (n:MemoryNote)
+            RETURN n.id AS id, n.content AS content, n.keywords AS keywords, n.context AS context, n.tags AS tags,
+                   n.timestamp AS timestamp, n.retrievalCount AS retrievalCount, n.namespace AS namespace,
+                   n.createdAt AS createdAt
+            """;
+
+    private static final String EXPORT_EMBEDDINGS = "MATCH (e:%s) RETURN e.noteId AS noteId, e.embedding AS embedding";
+
+    private static final String EXPORT_LINKS = """
+            MATCH (a:MemoryNote)-[r:LINKED_TO]->(b:MemoryNote)
+            RETURN a.id AS fromId, b.id AS toId, r.name AS name, r.relationType AS relationType, r.context AS context
+            """;
+
+    private static final String EXPORT_ARCHIVED = "MATCH (a:ArchivedNote) RETURN a.id AS id, a.namespace AS namespace, a.data AS data";
+
+    private static final String RESTORE_NAMESPACES =
+            "COPY Namespace FROM (LOAD FROM '%1$s' WHERE NOT list_contains(%2$s, name) RETURN name)";
+
+    private static final String RESTORE_NOTES = """
+            COPY MemoryNote FROM (
+                LOAD FROM '%s'
+                RETURN id, content, keywords, context, tags, timestamp, retrievalCount, namespace, true, createdAt)
+            """;
+
+    private static final String RESTORE_IN_NAMESPACE = "COPY IN_NAMESPACE FROM (LOAD FROM '%s' RETURN id, namespace)";
+
+    private static final String RESTORE_EMBEDDINGS = "COPY %1$s FROM (LOAD FROM '%2$s' RETURN noteId, CAST(embedding AS FLOAT[%3$d]))";
+
+    private static final String RESTORE_HAS_EMBEDDING = "COPY HAS_EMBEDDING FROM (LOAD FROM '%s' RETURN noteId, noteId)";
+
+    private static final String RESTORE_LINKS = "COPY LINKED_TO FROM (LOAD FROM '%s' RETURN fromId, toId, name, relationType, context)";
+
+    private static final String RESTORE_ARCHIVED = "COPY ArchivedNote FROM (LOAD FROM '%s' RETURN id, namespace, data)";
+
+    private static final String UNDO_NOTES = "MATCH (n:MemoryNote) DETACH DELETE n";
+
+    private static final String UNDO_EMBEDDINGS = "MATCH (e:%s) DETACH DELETE e";
+
+    private static final String UNDO_ARCHIVED = "MATCH (a:ArchivedNote) DELETE a";
+
+    private static final String UNDO_NAMESPACES = "MATCH (ns:Namespace) WHERE NOT list_contains(%s, ns.name) DETACH DELETE ns";
+
+    private final Database database;
+    private final LadybugDBTemplate template;
+    private final MemoryNoteDbRepository dbRepository;
+    private final NamespaceSchemaManager schemaManager;
+    private final LadybugDatabaseRegistry databases;
+    private final LadybugShards shards;
+    private final MemoryNoteCache noteCache;
+    private final QueryResultCache queryCache;
+    private final ObjectProvider<LadybugVectorExtensionInitializer> vectorInitializer;
+    private final int embeddingDimensions;
+    private final String snapshotDir;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    public LadybugSnapshots(Database database, LadybugDBTemplate template, MemoryNoteDbRepository dbRepository,
+            NamespaceSchemaManager schemaManager, LadybugDatabaseRegistry databases, LadybugShards shards,
+            MemoryNoteCache noteCache, QueryResultCache queryCache,
+            ObjectProvider<LadybugVectorExtensionInitializer> vectorInitializer,
+            @Value("${ladybugdb.embeddingDimensions:384}") int embeddingDimensions,
+            @Value("${archiledger.snapshot.dir:}") String snapshotDir) {
+        this.database = database;
+        this.template = template;
+        this.dbRepository = dbRepository;
+        this.schemaManager = schemaManager;
+        this.databases = databases;
+        this.shards = shards;
+        this.noteCache = noteCache;
+        this.queryCache = queryCache;
+        this.vectorInitializer = vectorInitializer;
+        this.embeddingDimensions = embeddingDimensions;
+        this.snapshotDir = snapshotDir;
+    }
+
+    /**
+     * Exports a snapshot named {@code name} into {@code archiledger.snapshot.dir}.
+     *
+     * @throws IllegalStateException if no snapshot directory is configured
+     * @throws IllegalArgumentException if the name is invalid or taken
+     */
+    public SnapshotReport export(String name) {
+        if (snapshotDir == null || snapshotDir.isBlank()) {
+            throw new IllegalStateException("Snapshots are disabled: set archiledger.snapshot.dir");
+        }
+        if (name == null || !VALID_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException(
+                    "Snapshot name must be 1-128 letters, digits, dots, dashes or underscores: " + name);
+        }
+        return export(Path.of(snapshotDir).resolve(name));
+    }
+
+    public SnapshotReport export(Path directory) {
+        requirePrimaryDatabaseOnly();
+        try {
+            if (Files.exists(directory)) {
+                throw new IllegalArgumentException("Snapshot " + directory + " already exists");
+            }
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create snapshot directory " + directory, e);
+        }
+        logger.info("Exporting snapshot to {}", directory);
+
+        List<Export> exports = new ArrayList<>();
+        List<Phase> phases = new ArrayList<>();
+        List<Long> exportNanos = new ArrayList<>();
+        try (Connection conn = new Connection(database)) {
+            execute(conn, "BEGIN TRANSACTION READ ONLY");
+            try {
+                exports.add(new Export("namespaces.parquet", Kind.NAMESPACES, null, EXPORT_NAMESPACES));
+                exports.add(new Export("notes.parquet", Kind.NOTES, null, EXPORT_NOTES));
+                for (String namespace : namespaces(conn)) {
+                    EmbeddingTable table = schemaManager.embeddingTable(namespace);
+                    exports.add(new Export("embeddings_" + namespace + ".parquet", Kind.EMBEDDINGS, namespace,
+                            EXPORT_EMBEDDINGS.formatted(table.tableName())));
+                }
+                exports.add(new Export("links.parquet", Kind.LINKS, null, EXPORT_LINKS));
+                exports.add(new Export("archived.parquet", Kind.ARCHIVED, null, EXPORT_ARCHIVED));
+                for (Export export : exports) {
+                    long started = System.nanoTime();
+                    execute(conn, "COPY (%s) TO '%s'".formatted(export.query().strip(),
+                            literal(directory.resolve(export.name()))));
+                    exportNanos.add(System.nanoTime() - started);
+                }
+                execute(conn, "COMMIT");
+            } catch (RuntimeException e) {
+                execute(conn, "ROLLBACK");
+                throw e;
+            }
+        }
+
+        long checksumStarted = System.nanoTime();
+        List<SnapshotFile> files = new ArrayList<>();
+        for (int i = 0; i < exports.size(); i++) {
+            Export export = exports.get(i);
+            Path file = directory.resolve(export.name());
+            long rows = rows(file);
+            files.add(new SnapshotFile(export.name(), export.kind(), export.namespace(), rows, size(file),
+                    sha256(file)));
+            phases.add(phase("export " + export.name(), rows, exportNanos.get(i)));
+        }
+        SnapshotManifest manifest = new SnapshotManifest(SnapshotManifest.FORMAT_VERSION, Instant.now().toString(),
+                embeddingDimensions, files);
+        writeManifest(directory, manifest);
+        phases.add(phase("checksum", files.stream().mapToLong(SnapshotFile::rows).sum(),
+                System.nanoTime() - checksumStarted));
+
+        SnapshotReport report = new SnapshotReport(directory.toString(), manifest, phases);
+        logger.info("Exported {} notes to snapshot {} in {} ms", manifest.rows(Kind.NOTES), directory,
+                report.totalMillis());
+        return report;
+    }
+
+    /**
+     * Restores the snapshot in {@code directory} into the primary database, which must not hold notes yet.
+     *
+     * @throws IllegalArgumentException if the snapshot is incomplete, corrupt or of other embedding dimensions
+     * @throws IllegalStateException if the database is not empty
+     */
+    public SnapshotReport restore(Path directory) {
+        requirePrimaryDatabaseOnly();
+        List<Phase> phases = new ArrayList<>();
+        long verifyStarted = System.nanoTime();
+        SnapshotManifest manifest = verify(directory);
+        phases.add(phase("verify", manifest.files().stream().mapToLong(SnapshotFile::rows).sum(),
+                System.nanoTime() - verifyStarted));
+        if (!template.query("MATCH (n:MemoryNote) RETURN n.id AS id LIMIT 1", Map.of(), MemoryNoteId.class).isEmpty()
+                || !template.query("MATCH (a:ArchivedNote) RETURN a.id AS id LIMIT 1", Map.of(), MemoryNoteId.class).isEmpty()) {
+            throw new IllegalStateException("Snapshots can only be restored into an empty database");
+        }
+        logger.info("Restoring snapshot {} with {} notes", directory, manifest.rows(Kind.NOTES));
+
+        String existing = listLiteral(dbRepository.findAllNamespaces());
+        LadybugVectorExtensionInitializer initializer = vectorInitializer.getIfAvailable();
+        List<EmbeddingTable> loaded = new ArrayList<>();
+        List<EmbeddingTable> indexed = new ArrayList<>();
+        try (Connection conn = new Connection(database)) {
+            for (SnapshotFile file : manifest.files()) {
+                if (file.rows() == 0) {
+                    continue;
+                }
+                String path = literal(directory.resolve(file.name()));
+                switch (file.kind()) {
+                    case NAMESPACES -> copy(conn, phases, "copy Namespace", file.rows(),
+                            RESTORE_NAMESPACES.formatted(path, existing));
+                    case NOTES -> {
+                        copy(conn, phases, "copy MemoryNote", file.rows(), RESTORE_NOTES.formatted(path));
+                        copy(conn, phases, "copy IN_NAMESPACE", file.rows(), RESTORE_IN_NAMESPACE.formatted(path));
+                    }
+                    case EMBEDDINGS -> {
+                        String namespace = Namespaces.normalize(file.namespace());
+                        EmbeddingTable table = schemaManager.embeddingTable(namespace);
+                        if (initializer != null) {
+                            initializer.dropIndex(table.tableName(), table.indexName());
+                            indexed.add(table);
+                        }
+                        loaded.add(table);
+                        copy(conn, phases, "copy " + table.tableName(), file.rows(),
+                                RESTORE_EMBEDDINGS.formatted(table.tableName(), path, embeddingDimensions));
+                        if (Namespaces.isDefault(namespace)) {
+                            copy(conn, phases, "copy HAS_EMBEDDING", file.rows(),
+                                    RESTORE_HAS_EMBEDDING.formatted(path));
+                        }
+                    }
+                    case LINKS -> copy(conn, phases, "copy LINKED_TO", file.rows(), RESTORE_LINKS.formatted(path));
+                    case ARCHIVED -> copy(conn, phases, "copy ArchivedNote", file.rows(),
+                            RESTORE_ARCHIVED.formatted(path));
+                }
+            }
+        } catch (RuntimeException e) {
+            undoRestore(loaded, existing, e);
+            throw e;
+        } finally {
+            for (EmbeddingTable table : indexed) {
+                long started = System.nanoTime();
+                initializer.ensureIndex(table.tableName(), table.indexName());
+                phases.add(phase("vector index " + table.indexName(), manifest.rows(Kind.EMBEDDINGS),
+                        System.nanoTime() - started));
+            }
+            noteCache.clear();
+            queryCache.invalidateAll();
+        }
+
+        SnapshotReport report = new SnapshotReport(directory.toString(), manifest, phases);
+        logger.info("Restored {} notes from snapshot {} in {} ms", manifest.rows(Kind.NOTES), directory,
+                report.totalMillis());
+        return report;
+    }
+
+    /**
+     * {@code COPY FROM} commits each table on its own, so a failed restore removes what the earlier copies
+     * loaded. The database held no notes before, which leaves it empty again and the restore can be retried.
+     */
+    private void undoRestore(List<EmbeddingTable> loaded, String existingNamespaces, RuntimeException failure) {
+        logger.warn("Restore failed, removing the partially restored snapshot", failure);
+        try (Connection conn = new Connection(database)) {
+            execute(conn, UNDO_NOTES);
+            for (EmbeddingTable table : loaded) {
+                execute(conn, UNDO_EMBEDDINGS.formatted(table.tableName()));
+            }
+            execute(conn, UNDO_ARCHIVED);
+            execute(conn, UNDO_NAMESPACES.formatted(existingNamespaces));
+        } catch (RuntimeException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    private SnapshotManifest verify(Path directory) {
+        Path manifestFile = directory.resolve(MANIFEST);
+        if (!Files.isRegularFile(manifestFile)) {
+            throw new IllegalArgumentException("Not a snapshot, " + MANIFEST + " is missing: " + directory);
+        }
+        SnapshotManifest manifest;
+        try {
+            manifest = mapper.readValue(manifestFile.toFile(), SnapshotManifest.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Snapshot manifest " + manifestFile + " is unreadable", e);
+        }
+        if (manifest.formatVersion() != SnapshotManifest.FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported snapshot format version " + manifest.formatVersion());
+        }
+        if (manifest.embeddingDimensions() != embeddingDimensions) {
+            throw new IllegalArgumentException("Snapshot embeddings have " + manifest.embeddingDimensions()
+                    + " dimensions, the database uses " + embeddingDimensions);
+        }
+        for (SnapshotFile file : manifest.files()) {
+            Path path = directory.resolve(file.name());
+            if (!path.getParent().equals(directory) || !Files.isRegularFile(path)) {
+                throw new IllegalArgumentException("Snapshot file " + file.name() + " is missing");
+            }
+            if (size(path) != file.bytes() || !sha256(path).equals(file.sha256())) {
+                throw new IllegalArgumentException("Snapshot file " + file.name() + " is corrupt: checksum mismatch");
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * Lists the namespaces on the export connection, so the embedding files match the transaction's state.
+     */
+    private List<String> namespaces(Connection conn) {
+        List<String> names = new ArrayList<>();
+        try (QueryResult result = conn.query(EXPORT_NAMESPACES)) {
+            if (!result.isSuccess()) {
+                throw new IllegalStateException("Snapshot query failed: " + result.getErrorMessage());
+            }
+            while (result.hasNext()) {
+                String name = result.getNext().getValue(0).getValue();
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    private void requirePrimaryDatabaseOnly() {
+        if (databases.enabled() || shards.count() > 1) {
+            throw new IllegalStateException(
+                    "Snapshots cover the primary database only and are unavailable with per-namespace databases or shards");
+        }
+    }
+
+    private long rows(Path file) {
+        return template.query("LOAD FROM '%s' RETURN count(*) AS count".formatted(literal(file)), Map.of(),
+                CountProjection.class).stream().mapToLong(CountProjection::count).sum();
+    }
+
+    private void writeManifest(Path directory, SnapshotManifest manifest) {
+        Path target = directory.resolve(MANIFEST);
+        Path temp = directory.resolve(MANIFEST + ".tmp");
+        try {
+            mapper.writerWithDefaultPrettyPrinter().writeValue(temp.toFile(), manifest);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write snapshot manifest " + target, e);
+        }
+    }
+
+    private void copy(Connection conn, List<Phase> phases, String name, long rows, String cypher) {
+        long started = System.nanoTime();
+        execute(conn, cypher);
+        phases.add(phase(name, rows, System.nanoTime() - started));
+    }
+
+    private void execute(Connection conn, String cypher) {
+        try (var result = conn.query(cypher)) {
+            if (!result.isSuccess()) {
+                throw new IllegalStateException("Snapshot query failed: " + result.getErrorMessage());
+            }
+        }
+    }
+
+    static String sha256(Path file) {
+        try (InputStream in = Files.newInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read snapshot file " + file, e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read snapshot file " + file, e);
+        }
+    }
+
+    private static String literal(Path path) {
+        return path.toAbsolutePath().toString().replace("\\", "\\\\").replace("'", "\\'");
+    }
+
+    private static String listLiteral(List<String> values) {
+        return values.stream()
+                .map(value -> "'" + value.replace("\\", "\\\\").replace("'", "\\'") + "'")
+                .collect(Collectors.joining(", ", "[", "]"));
+    }
+
+    private static Phase phase(String name, long rows, long nanos) {
+        return new Phase(name, rows, nanos / 1_000_000);
+    }
+
+    private record Export(String name, Kind kind, String namespace, String query) {
+    }
+}
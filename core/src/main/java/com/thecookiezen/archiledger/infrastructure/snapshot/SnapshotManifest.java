@@ -0,0 +1,34 @@
+package com.thecookiezen.archiledger.infrastructure.snapshot;
+
+import java.util.List;
+
+/**
+ * Contents of a snapshot directory, written last as {@code manifest.json}: the Parquet files with their row
+ * counts, sizes and SHA-256 checksums, and the embedding dimensions the vectors were computed with.
+ */
+public record SnapshotManifest(int formatVersion, String createdAt, int embeddingDimensions, List<SnapshotFile> files) {
+
+    public static final int FORMAT_VERSION = 1;
+
+    public SnapshotManifest {
+        files = List.copyOf(files);
+    }
+
+    public long rows(Kind kind) {
+        return files.stream().filter(file -> file.kind() == kind).mapToLong(SnapshotFile::rows).sum();
+    }
+
+    /**
+     * @param namespace the namespace of an embedding file, {@code null} for the other kinds
+     */
+    public record SnapshotFile(String name, Kind kind, String namespace, long rows, long bytes, String sha256) {
+    }
+
+    public enum Kind {
+        NAMESPACES,
+        NOTES,
+        EMBEDDINGS,
+        LINKS,
+        ARCHIVED
+    }
+}
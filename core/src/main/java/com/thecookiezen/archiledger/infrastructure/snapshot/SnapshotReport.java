@@ -0,0 +1,34 @@
+package com.thecookiezen.archiledger.infrastructure.snapshot;
+
+import com.thecookiezen.archiledger.infrastructure.importing.BulkImportReport.Phase;
+import com.thecookiezen.archiledger.infrastructure.snapshot.SnapshotManifest.Kind;
+
+import java.util.List;
+
+/**
+ * Outcome of a snapshot export or restore: the snapshot's manifest and the time and throughput of each phase.
+ */
+public record SnapshotReport(String directory, SnapshotManifest manifest, List<Phase> phases) {
+
+    public SnapshotReport {
+        phases = List.copyOf(phases);
+    }
+
+    public long totalMillis() {
+        return phases.stream().mapToLong(Phase::millis).sum();
+    }
+
+    public String generateMarkdownTable() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%nSnapshot %s: %d notes, %d embeddings, %d links, %d archived notes, %d ms%n%n",
+                directory, manifest.rows(Kind.NOTES), manifest.rows(Kind.EMBEDDINGS), manifest.rows(Kind.LINKS),
+                manifest.rows(Kind.ARCHIVED), totalMillis()));
+        sb.append("| Phase | Rows | Duration (ms) | Throughput (rows/sec) |\n");
+        sb.append("|-------|------|---------------|-----------------------|\n");
+        for (Phase phase : phases) {
+            sb.append(String.format("| %-28s | %-8d | %-13d | %-21.1f |%n",
+                    phase.name(), phase.rows(), phase.millis(), phase.rowsPerSecond()));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,109 @@
+package com.thecookiezen.archiledger.application.cache;
+
+import com.thecookiezen.archiledger.domain.model.CacheStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryResultCacheTest {
+
+    @Test
+    void shouldServeCachedValueForSameKey() {
+        QueryResultCache cache = new QueryResultCache(true, 100);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(QueryKey.of("tag", "a"), () -> List.of(loads.incrementAndGet()));
+        List<Integer> second = cache.get(QueryKey.of("tag", "a"), () -> List.of(loads.incrementAndGet()));
+
+        assertEquals(List.of(1), second);
+        assertEquals(1, loads.get());
+        CacheStats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(0.5, stats.hitRatio());
+    }
+
+    @Test
+    void shouldNotServeEntriesLoadedBeforeInvalidation() {
+        QueryResultCache cache = new QueryResultCache(true, 100);
+        cache.get(QueryKey.of("tag", "a"), () -> "old");
+
+        cache.invalidateAll();
+
+        assertEquals("new", cache.get(QueryKey.of("tag", "a"), () -> "new"));
+        assertEquals(1, cache.epoch());
+    }
+
+    @Test
+    void shouldNotCacheResultWhoseLoadOverlappedAWrite() {
+        QueryResultCache cache = new QueryResultCache(true, 100);
+
+        cache.get(QueryKey.of("tag", "a"), () -> {
+            cache.invalidateAll();
+            return "loaded-during-write";
+        });
+
+        assertEquals("fresh", cache.get(QueryKey.of("tag", "a"), () -> "fresh"));
+        assertEquals(1, cache.stats().entries());
+    }
+
+    @Test
+    void shouldInvalidateOnlyEntriesOfTheWrittenScope() {
+        QueryResultCache cache = new QueryResultCache(true, 100);
+        cache.get(QueryKey.of("tag", "a").withScope("one"), () -> "one-old");
+        cache.get(QueryKey.of("tag", "a").withScope("two"), () -> "two-old");
+
+        cache.invalidate("one");
+
+        assertEquals("one-new", cache.get(QueryKey.of("tag", "a").withScope("one"), () -> "one-new"));
+        assertEquals("two-old", cache.get(QueryKey.of("tag", "a").withScope("two"), () -> "two-new"));
+        assertEquals(1, cache.epoch("one"));
+        assertEquals(0, cache.epoch("two"));
+    }
+
+    @Test
+    void shouldNotCacheResultWhoseLoadOverlappedAWriteToItsScope() {
+        QueryResultCache cache = new QueryResultCache(true, 100);
+
+        cache.get(QueryKey.of("tag", "a").withScope("one"), () -> {
+            cache.invalidate("one");
+            return "loaded-during-write";
+        });
+        cache.get(QueryKey.of("tag", "a").withScope("two"), () -> {
+            cache.invalidate("one");
+            return "unaffected";
+        });
+
+        assertEquals("fresh", cache.get(QueryKey.of("tag", "a").withScope("one"), () -> "fresh"));
+        assertEquals("unaffected", cache.get(QueryKey.of("tag", "a").withScope("two"), () -> "other"));
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntriesWhenOverWeight() {
+        QueryResultCache cache = new QueryResultCache(true, 4);
+        cache.get(QueryKey.of("q", 1), () -> List.of(1, 2));
+        cache.get(QueryKey.of("q", 2), () -> List.of(3, 4));
+        cache.get(QueryKey.of("q", 1), () -> List.of());
+
+        cache.get(QueryKey.of("q", 3), () -> List.of(5));
+
+        CacheStats stats = cache.stats();
+        assertEquals(1, stats.evictions());
+        assertTrue(stats.weight() <= 4);
+        assertEquals(List.of(1, 2), cache.get(QueryKey.of("q", 1), () -> List.of(0)));
+    }
+
+    @Test
+    void shouldBypassCacheWhenDisabled() {
+        QueryResultCache cache = new QueryResultCache(false, 100);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(QueryKey.of("tag", "a"), loads::incrementAndGet);
+        cache.get(QueryKey.of("tag", "a"), loads::incrementAndGet);
+
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,166 @@
+package com.thecookiezen.archiledger.application.ingest;
+
+import com.thecookiezen.archiledger.application.service.MemoryNoteService;
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.NoteLink;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class IngestQueueTest {
+
+    @TempDir
+    Path journalDir;
+
+    private final MemoryNoteService service = mock(MemoryNoteService.class);
+    private final List<MemoryNote> persisted = new CopyOnWriteArrayList<>();
+    private IngestQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        when(service.namespace()).thenReturn("default");
+        when(service.inNamespace(any())).thenReturn(service);
+        when(service.createNotes(anyList())).thenAnswer(inv -> {
+            List<MemoryNote> notes = inv.getArgument(0);
+            persisted.addAll(notes);
+            return notes;
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (queue != null) {
+            queue.close();
+        }
+    }
+
+    private static MemoryNote note(String id) {
+        return new MemoryNote(new MemoryNoteId(id), "content " + id, List.of("k"), "ctx", List.of("t"),
+                List.of(new NoteLink("other", "RELATED_TO", "because")), "2026-03-04T16:00:00Z", 0, null);
+    }
+
+    @Test
+    void syncModeCreatesNotesDirectly() {
+        queue = new IngestQueue(service, false, 10, 1, 8, 100, "");
+
+        List<MemoryNote> created = queue.submit(service, List.of(note("a")));
+
+        assertEquals(List.of(note("a")), created);
+        assertEquals(1, persisted.size());
+        assertFalse(queue.status().async());
+    }
+
+    @Test
+    void asyncModeAcknowledgesAndPersistsInBackground() throws InterruptedException {
+        queue = new IngestQueue(service, true, 10, 2, 8, 100, "");
+
+        List<MemoryNote> acknowledged = queue.submit(service, List.of(note("a"), note("b"), note("c")));
+
+        assertEquals(3, acknowledged.size());
+        assertTrue(queue.flush(Duration.ofSeconds(5)));
+        assertEquals(3, persisted.size());
+        IngestStatus status = queue.status();
+        assertEquals(0, status.pending());
+        assertEquals(3, status.accepted());
+        assertEquals(3, status.completed());
+    }
+
+    @Test
+    void submissionIsPersistedInOneBatchInOrder() throws InterruptedException {
+        queue = new IngestQueue(service, true, 10, 2, 2, 100, "");
+        List<MemoryNote> notes = List.of(note("a"), note("b"), note("c"), note("d"), note("e"));
+
+        queue.submit(service, notes);
+
+        assertTrue(queue.flush(Duration.ofSeconds(5)));
+        verify(service).createNotes(notes);
+        assertEquals(notes, persisted);
+        assertEquals(5, queue.status().completed());
+    }
+
+    @Test
+    void invalidSubmissionsAreRejectedBeforeTheyAreAcknowledged() throws Exception {
+        doThrow(new IllegalArgumentException("Target note not found: other")).when(service).validateNewNotes(anyList());
+        queue = new IngestQueue(service, true, 10, 1, 8, 100, journalDir.toString());
+
+        assertThrows(IllegalArgumentException.class, () -> queue.submit(service, List.of(note("a"))));
+
+        assertEquals(0, queue.status().accepted());
+        assertEquals(0, queue.status().pending());
+        try (var files = Files.list(journalDir)) {
+            assertEquals(0, files.count());
+        }
+        verify(service, never()).createNotes(anyList());
+    }
+
+    @Test
+    void fullQueueRejectsSubmissions() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        when(service.createNotes(anyList())).thenAnswer(inv -> {
+            release.await();
+            return inv.getArgument(0);
+        });
+        queue = new IngestQueue(service, true, 2, 1, 8, 50, "");
+
+        queue.submit(service, List.of(note("a"), note("b")));
+
+        assertThrows(IllegalStateException.class, () -> queue.submit(service, List.of(note("c"))));
+        assertThrows(IllegalArgumentException.class, () -> queue.submit(service, List.of(note("x"), note("y"), note("z"))));
+        assertEquals(1, queue.status().rejected());
+        release.countDown();
+        assertTrue(queue.flush(Duration.ofSeconds(5)));
+        assertEquals(1, queue.submit(service, List.of(note("c"))).size());
+    }
+
+    @Test
+    void failedNotesAreReportedIndividually() throws InterruptedException {
+        when(service.createNotes(anyList())).thenThrow(new RuntimeException("store unavailable"));
+        when(service.createNote(any())).thenAnswer(inv -> {
+            MemoryNote note = inv.getArgument(0);
+            if (note.id().value().equals("bad")) {
+                throw new IllegalArgumentException("broken note");
+            }
+            return note;
+        });
+        queue = new IngestQueue(service, true, 10, 1, 8, 100, "");
+
+        queue.submit(service, List.of(note("good"), note("bad")));
+
+        assertTrue(queue.flush(Duration.ofSeconds(5)));
+        IngestStatus status = queue.status();
+        assertEquals(1, status.completed());
+        assertEquals(1, status.failed());
+        assertEquals(List.of(new IngestStatus.Failure("bad", "default", "broken note")), status.recentFailures());
+    }
+
+    @Test
+    void journaledSubmissionsAreReplayedOnStart() throws Exception {
+        new IngestJournal(journalDir).append(7, List.of(note("a"), note("b")));
+
+        queue = new IngestQueue(service, true, 10, 1, 8, 100, journalDir.toString());
+
+        assertTrue(queue.flush(Duration.ofSeconds(5)));
+        assertEquals(List.of(note("a"), note("b")), persisted);
+        try (var files = Files.list(journalDir)) {
+            assertEquals(0, files.count());
+        }
+        queue.submit(service, List.of(note("c")));
+        assertTrue(queue.flush(Duration.ofSeconds(5)));
+        assertEquals(3, queue.status().completed());
+    }
+}
@@ -0,0 +1,77 @@
+package com.thecookiezen.archiledger.application.retention;
+
+import com.thecookiezen.archiledger.application.service.MemoryNoteService;
+import com.thecookiezen.archiledger.domain.model.RetentionPolicy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class NoteRetentionTest {
+
+    private final MemoryNoteService service = mock(MemoryNoteService.class);
+    private final MemoryNoteService projectA = mock(MemoryNoteService.class);
+    private final RetentionPolicy policy = new RetentionPolicy(Duration.ofDays(30), 0, Set.of("decision"));
+    private NoteRetention retention;
+
+    @BeforeEach
+    void setUp() {
+        when(service.getNamespaces()).thenReturn(Set.of("default", "project_a"));
+        when(service.inNamespace("default")).thenReturn(service);
+        when(service.inNamespace("project_a")).thenReturn(projectA);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (retention != null) {
+            retention.close();
+        }
+    }
+
+    @Test
+    void runArchivesEveryNamespaceInBatchesUntilNoneAreLeft() {
+        when(service.archiveNotes(policy, 2)).thenReturn(2, 2, 1);
+        when(projectA.archiveNotes(policy, 2)).thenReturn(0);
+        retention = new NoteRetention(service, true, policy, 2, Duration.ofHours(1));
+
+        RetentionStatus status = retention.run();
+
+        verify(service, times(3)).archiveNotes(policy, 2);
+        verify(projectA).archiveNotes(policy, 2);
+        assertEquals(5, status.lastRunArchived());
+        assertEquals(5, status.archived());
+        assertEquals(1, status.runs());
+        assertEquals(30, status.maxAgeDays());
+        assertEquals(Set.of("decision"), status.keepTags());
+        assertNotNull(status.lastRunAt());
+        assertNull(status.lastError());
+    }
+
+    @Test
+    void failingNamespaceDoesNotStopTheOthers() {
+        when(service.archiveNotes(policy, 10)).thenThrow(new IllegalStateException("database closed"));
+        when(projectA.archiveNotes(policy, 10)).thenReturn(3);
+        retention = new NoteRetention(service, true, policy, 10, Duration.ofHours(1));
+
+        RetentionStatus status = retention.run();
+
+        assertEquals(3, status.lastRunArchived());
+        assertEquals("default: database closed", status.lastError());
+    }
+
+    @Test
+    void disabledRetentionRejectsRuns() {
+        retention = new NoteRetention(service, false, policy, 10, Duration.ofHours(1));
+
+        assertThrows(IllegalStateException.class, retention::run);
+        assertFalse(retention.status().enabled());
+        verify(service, never()).archiveNotes(any(), anyInt());
+    }
+}
@@ -1,8 +1,14 @@
 package com.thecookiezen.archiledger.application.service;
 
+import com.thecookiezen.archiledger.application.cache.QueryResultCache;
+import com.thecookiezen.archiledger.domain.model.ArchivedNote;
 import com.thecookiezen.archiledger.domain.model.LinkDefinition;
+import com.thecookiezen.archiledger.domain.model.LinkDirection;
 import com.thecookiezen.archiledger.domain.model.MemoryNote;
 import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.NoteLink;
+import com.thecookiezen.archiledger.domain.model.NotePatch;
+import com.thecookiezen.archiledger.domain.model.RetentionPolicy;
 import com.thecookiezen.archiledger.domain.model.SimilarityResult;
 import com.thecookiezen.archiledger.domain.repository.EmbeddingsService;
 import com.thecookiezen.archiledger.domain.repository.MemoryNoteRepository;
@@ -10,8 +16,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -19,6 +28,7 @@ import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,6 +40,15 @@ class MemoryNoteServiceImplTest {
     @Mock
     private EmbeddingsService embeddingsService;
 
+    @Spy
+    private QueryResultCache queryCache = new QueryResultCache(true, 1000);
+
+    @Spy
+    private NoteLocks noteLocks = new NoteLocks(16);
+
+    @Spy
+    private NoteDeduplication deduplication = new NoteDeduplication(false, 0.95);
+
     @InjectMocks
     private MemoryNoteServiceImpl service;
 
@@ -46,6 +65,12 @@ class MemoryNoteServiceImplTest {
                 null);
     }
 
+    private MemoryNote noteAt(String id, Instant timestamp) {
+        MemoryNote note = sampleNote(id);
+        return new MemoryNote(note.id(), note.content(), note.keywords(), note.context(), note.tags(), note.links(),
+                timestamp.toString(), note.retrievalCount(), null);
+    }
+
     @Test
     void createNote_savesAndGeneratesEmbeddings() {
         MemoryNote note = sampleNote("note-1");
@@ -61,18 +86,85 @@ class MemoryNoteServiceImplTest {
         verify(repository).save(noteWithEmbedding);
     }
 
+    @Test
+    void validateNewNotes_acceptsLinksToStoredNotesAndToNotesOfTheBatch() {
+        MemoryNote first = sampleNote("note-1").withLinks(List.of(
+                new NoteLink(new MemoryNoteId("note-2"), "RELATED_TO", "same batch"),
+                new NoteLink(new MemoryNoteId("stored"), "RELATED_TO", "stored note")));
+        when(repository.findById(new MemoryNoteId("stored"))).thenReturn(Optional.of(sampleNote("stored")));
+
+        service.validateNewNotes(List.of(sampleNote("note-2"), first));
+
+        verify(repository).requireWritable(new MemoryNoteId("note-1"));
+        verify(repository).requireWritable(new MemoryNoteId("note-2"));
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void validateNewNotes_rejectsMissingLinkTargetsAndIdsOfOtherNamespaces() {
+        MemoryNote dangling = sampleNote("note-1").withLinks(List.of(
+                new NoteLink(new MemoryNoteId("missing"), "RELATED_TO", "nowhere")));
+        IllegalArgumentException missing = assertThrows(IllegalArgumentException.class,
+                () -> service.validateNewNotes(List.of(dangling)));
+        doThrow(new IllegalArgumentException("Note taken already exists in namespace 'other'"))
+                .when(repository).requireWritable(new MemoryNoteId("taken"));
+        IllegalArgumentException taken = assertThrows(IllegalArgumentException.class,
+                () -> service.validateNewNotes(List.of(sampleNote("taken"))));
+
+        assertEquals("Target note not found: missing", missing.getMessage());
+        assertEquals("Note taken already exists in namespace 'other'", taken.getMessage());
+    }
+
+    @Test
+    void validateNewNotes_rejectsLinksToLaterNotesOfTheBatch() {
+        MemoryNote forward = sampleNote("note-1").withLinks(List.of(
+                new NoteLink(new MemoryNoteId("note-2"), "RELATED_TO", "later in the batch")));
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> service.validateNewNotes(List.of(forward, sampleNote("note-2"))));
+
+        assertEquals("Note note-1 links to note-2, which must come before it in the same call", error.getMessage());
+        verify(repository, never()).findById(any());
+    }
+
     @Test
     void createNotes_savesMultiple() {
         MemoryNote note1 = sampleNote("note-1");
         MemoryNote note2 = sampleNote("note-2");
-        when(embeddingsService.generateEmbeddings(note1)).thenReturn(new float[] { 0.1f });
-        when(embeddingsService.generateEmbeddings(note2)).thenReturn(new float[] { 0.2f });
+        when(embeddingsService.embedAll(List.of(note1.content(), note2.content())))
+                .thenReturn(List.of(new float[] { 0.1f }, new float[] { 0.2f }));
         when(repository.save(any(MemoryNote.class))).thenAnswer(inv -> inv.getArgument(0));
 
         List<MemoryNote> result = service.createNotes(List.of(note1, note2));
 
         assertEquals(2, result.size());
+        assertArrayEquals(new float[] { 0.2f }, result.get(1).embedding());
         verify(repository, times(2)).save(any(MemoryNote.class));
+        verify(embeddingsService, never()).generateEmbeddings(any());
+    }
+
+    @Test
+    void createNote_withPrecomputedEmbedding_doesNotEmbedAgain() {
+        MemoryNote note = sampleNote("note-1").withEmbedding(new float[] { 0.4f });
+        when(repository.save(any(MemoryNote.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        MemoryNote result = service.createNote(note);
+
+        assertArrayEquals(new float[] { 0.4f }, result.embedding());
+        verifyNoInteractions(embeddingsService);
+    }
+
+    @Test
+    void createNotes_embedsOnlyNotesWithoutEmbedding() {
+        MemoryNote embedded = sampleNote("note-1").withEmbedding(new float[] { 0.4f });
+        MemoryNote plain = sampleNote("note-2");
+        when(embeddingsService.embedAll(List.of(plain.content()))).thenReturn(List.<float[]>of(new float[] { 0.2f }));
+        when(repository.save(any(MemoryNote.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        List<MemoryNote> result = service.createNotes(List.of(embedded, plain));
+
+        assertArrayEquals(new float[] { 0.4f }, result.get(0).embedding());
+        assertArrayEquals(new float[] { 0.2f }, result.get(1).embedding());
     }
 
     @Test
@@ -96,6 +188,170 @@ class MemoryNoteServiceImplTest {
         verify(repository, never()).incrementRetrievalCount(any());
     }
 
+    @Test
+    void getNote_whenArchived_restoresWithEmbeddingAndCountsRetrieval() {
+        MemoryNoteId id = new MemoryNoteId("cold");
+        float[] embedding = new float[] { 0.3f };
+        when(repository.findById(id)).thenReturn(Optional.empty());
+        when(repository.findArchived(id)).thenReturn(Optional.of(
+                new ArchivedNote(sampleNote("cold"), List.of(), Instant.parse("2026-04-01T00:00:00Z"))));
+        when(embeddingsService.generateEmbeddings(any())).thenReturn(embedding);
+        when(repository.restore(any())).thenAnswer(inv -> inv.<ArchivedNote>getArgument(0).note());
+
+        Optional<MemoryNote> result = service.getNote(id);
+
+        assertTrue(result.isPresent());
+        assertEquals(1, result.get().retrievalCount());
+        assertSame(embedding, result.get().embedding());
+        verify(repository, never()).incrementRetrievalCount(any());
+    }
+
+    @Test
+    void archiveNotes_keepsCandidatesRetrievedSinceTheyWereSelected() {
+        RetentionPolicy policy = new RetentionPolicy(Duration.ofDays(30), 0, Set.of());
+        MemoryNoteId cold = new MemoryNoteId("cold");
+        MemoryNoteId warm = new MemoryNoteId("warm");
+        when(repository.findArchivable(any(), eq(0), eq(Set.of()), eq(10))).thenReturn(List.of(cold, warm));
+        when(repository.findById(cold)).thenReturn(Optional.of(sampleNote("cold")));
+        when(repository.findById(warm)).thenReturn(Optional.of(sampleNote("warm").withRetrievalCount(1)));
+        when(repository.archive(List.of(cold))).thenReturn(1);
+
+        assertEquals(1, service.archiveNotes(policy, 10));
+        verify(repository).archive(List.of(cold));
+    }
+
+    @Test
+    void updateNote_savesChangeWithoutReembeddingOrCounting() {
+        MemoryNote note = sampleNote("note-1");
+        when(repository.findById(note.id())).thenReturn(Optional.of(note));
+        when(repository.save(any(MemoryNote.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Optional<MemoryNote> updated = service.updateNote(note.id(), current -> current.withTags(List.of("evolved")));
+
+        assertEquals(List.of("evolved"), updated.orElseThrow().tags());
+        verify(embeddingsService, never()).generateEmbeddings(any());
+        verify(repository, never()).incrementRetrievalCount(any());
+    }
+
+    @Test
+    void updateNote_reembedsChangedContent() {
+        MemoryNote note = sampleNote("note-1");
+        MemoryNote rewritten = new MemoryNote(note.id(), "New content", note.keywords(), note.context(), note.tags(),
+                note.links(), note.timestamp(), note.retrievalCount(), null);
+        when(repository.findById(note.id())).thenReturn(Optional.of(note));
+        when(embeddingsService.generateEmbeddings(rewritten)).thenReturn(new float[] { 0.5f });
+        when(repository.save(any(MemoryNote.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        MemoryNote updated = service.updateNote(note.id(), current -> rewritten).orElseThrow();
+
+        assertArrayEquals(new float[] { 0.5f }, updated.embedding());
+    }
+
+    @Test
+    void updateNote_whenNotFound_returnsEmpty() {
+        when(repository.findById(new MemoryNoteId("missing"))).thenReturn(Optional.empty());
+
+        assertTrue(service.updateNote(new MemoryNoteId("missing"), current -> current).isEmpty());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void createNoteWithPatches_embedsOnlyTheNewNoteInOneSave() {
+        MemoryNote note = sampleNote("note-1");
+        List<NotePatch> patches = List.of(
+                new NotePatch(new MemoryNoteId("neighbor-1"), "refined context", null),
+                new NotePatch(new MemoryNoteId("neighbor-2"), null, List.of("evolved")));
+        when(embeddingsService.generateEmbeddings(note)).thenReturn(new float[] { 0.1f });
+        when(repository.save(any(MemoryNote.class), eq(patches))).thenAnswer(inv -> inv.getArgument(0));
+
+        MemoryNote created = service.createNote(note, patches);
+
+        assertArrayEquals(new float[] { 0.1f }, created.embedding());
+        verify(embeddingsService, times(1)).generateEmbeddings(any());
+        verify(repository, never()).save(any(MemoryNote.class));
+        verify(repository, never()).findById(any());
+        verify(repository, never()).incrementRetrievalCount(any());
+    }
+
+    @Test
+    void createNote_mergesNearDuplicateIntoStoredNote() {
+        MemoryNoteService deduplicating = new MemoryNoteServiceImpl(repository, embeddingsService, queryCache, noteLocks,
+                new NoteDeduplication(true, 0.9));
+        MemoryNote stored = new MemoryNote(new MemoryNoteId("stored"), "Sample content", List.of("keyword1"), "ctx",
+                List.of("tag1"), List.of(new NoteLink("other", "RELATES_TO", "shared topic")), "2026-03-04T16:00:00Z", 2, null);
+        float[] embedding = new float[] { 0.1f };
+        MemoryNote duplicate = new MemoryNote(new MemoryNoteId("duplicate"), "Sample content!", List.of("keyword1", "keyword2"),
+                "ctx", List.of("tag2"), List.of(new NoteLink("stored", "RELATES_TO", "same note"),
+                        new NoteLink("third", "DEPENDS_ON", "needs it")), "2026-03-05T16:00:00Z", 0, embedding);
+        when(repository.findNeighbors(duplicate)).thenReturn(List.of(new SimilarityResult<>(stored.id(), 0.97)));
+        when(repository.findById(stored.id())).thenReturn(Optional.of(stored));
+        when(repository.save(any(MemoryNote.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        MemoryNote merged = deduplicating.createNote(duplicate);
+
+        assertEquals("stored", merged.id().value());
+        assertEquals("Sample content", merged.content());
+        assertEquals(List.of("keyword1", "keyword2"), merged.keywords());
+        assertEquals(List.of("tag1", "tag2"), merged.tags());
+        assertEquals(List.of("other", "third"), merged.links().stream().map(link -> link.target().value()).toList());
+        assertEquals(3, merged.retrievalCount());
+        assertNull(merged.embedding());
+        verify(repository, times(1)).save(any(MemoryNote.class));
+        assertEquals(1, deduplicating.dedupStats().probes());
+        assertEquals(1, deduplicating.dedupStats().merges());
+    }
+
+    @Test
+    void createNoteWithPatches_appliesPatchOfMergeTargetBeforeMerging() {
+        MemoryNoteService deduplicating = new MemoryNoteServiceImpl(repository, embeddingsService, queryCache, noteLocks,
+                new NoteDeduplication(true, 0.9));
+        MemoryNote stored = sampleNote("stored");
+        MemoryNote duplicate = sampleNote("duplicate").withEmbedding(new float[] { 0.1f });
+        NotePatch targetPatch = new NotePatch(stored.id(), "refined context", null);
+        NotePatch neighborPatch = new NotePatch(new MemoryNoteId("neighbor"), null, List.of("evolved"));
+        when(repository.findNeighbors(duplicate)).thenReturn(List.of(new SimilarityResult<>(stored.id(), 0.99)));
+        when(repository.findById(stored.id())).thenReturn(Optional.of(stored));
+        when(repository.save(any(MemoryNote.class), eq(List.of(neighborPatch)))).thenAnswer(inv -> inv.getArgument(0));
+
+        MemoryNote merged = deduplicating.createNote(duplicate, List.of(targetPatch, neighborPatch));
+
+        assertEquals("stored", merged.id().value());
+        assertEquals("refined context", merged.context());
+        verify(repository, never()).save(argThat(note -> note.id().equals(duplicate.id())), any());
+    }
+
+    @Test
+    void createNotes_insertsNotesWithoutDuplicate() {
+        MemoryNoteService deduplicating = new MemoryNoteServiceImpl(repository, embeddingsService, queryCache, noteLocks,
+                new NoteDeduplication(true, 0.9));
+        MemoryNote note = sampleNote("note-1").withEmbedding(new float[] { 0.1f });
+        when(repository.findNeighbors(note)).thenReturn(List.of());
+        when(repository.save(note, List.of(), List.of())).thenReturn(note);
+
+        List<MemoryNote> created = deduplicating.createNotes(List.of(note));
+
+        assertEquals(List.of(note), created);
+        assertEquals(1, deduplicating.dedupStats().probes());
+        assertEquals(0, deduplicating.dedupStats().merges());
+        assertEquals(0.0, deduplicating.dedupStats().mergeRate());
+    }
+
+    @Test
+    void createNote_reusesDedupProbeForNeighborLinks() {
+        MemoryNoteService deduplicating = new MemoryNoteServiceImpl(repository, embeddingsService, queryCache, noteLocks,
+                new NoteDeduplication(true, 0.9));
+        MemoryNote note = sampleNote("note-1").withEmbedding(new float[] { 0.1f });
+        List<SimilarityResult<MemoryNoteId>> neighbors = List.of(new SimilarityResult<>(new MemoryNoteId("other"), 0.6));
+        when(repository.findNeighbors(note)).thenReturn(neighbors);
+        when(repository.save(note, List.of(), neighbors)).thenReturn(note);
+
+        assertEquals(note, deduplicating.createNote(note));
+
+        verify(repository, never()).findSimilar(any(float[].class), anyInt(), anyDouble(), anyDouble());
+        verify(repository, never()).save(note);
+        assertEquals(0, deduplicating.dedupStats().merges());
+    }
+
     @Test
     void addLink_delegatesToRepository() {
         MemoryNoteId from = new MemoryNoteId("A");
@@ -166,6 +422,17 @@ class MemoryNoteServiceImplTest {
         verify(repository).findNotesUpward(noteId, 3, 5);
     }
 
+    @Test
+    void expandNotes_delegatesWithDirection() {
+        MemoryNoteId noteId = new MemoryNoteId("A");
+        when(repository.expand(noteId, LinkDirection.BOTH, 2, 4)).thenReturn(List.of(sampleNote("B")));
+
+        List<MemoryNote> result = service.expandNotes(noteId, LinkDirection.BOTH, 2, 4);
+
+        assertEquals(List.of("B"), result.stream().map(n -> n.id().value()).toList());
+        verify(repository).expand(noteId, LinkDirection.BOTH, 2, 4);
+    }
+
     @Test
     void getAllTags_delegatesToRepository() {
         when(repository.findAllTags()).thenReturn(Set.of("architecture", "decision"));
@@ -226,4 +493,166 @@ class MemoryNoteServiceImplTest {
         assertEquals("close-match", results.get(0).item().id().value());
         assertEquals("far-match", results.get(2).item().id().value());
     }
+
+    @Test
+    void moreLikeThis_readsRepositoryWithoutEmbeddingAndCaches() {
+        MemoryNoteId id = new MemoryNoteId("note-1");
+        List<SimilarityResult<MemoryNote>> related = List.of(new SimilarityResult<>(sampleNote("note-2"), 0.8));
+        when(repository.findMoreLikeThis(id, 5)).thenReturn(related);
+
+        assertEquals(related, service.moreLikeThis(id, 5));
+        assertEquals(related, service.moreLikeThis(id, 5));
+
+        verify(repository, times(1)).findMoreLikeThis(id, 5);
+        verifyNoInteractions(embeddingsService);
+    }
+
+    @Test
+    void similaritySearch_withRecencyHalfLife_ranksRecentNotesHigher() {
+        MemoryNote old = noteAt("old", Instant.now().minus(Duration.ofDays(60)));
+        MemoryNote recent = noteAt("recent", Instant.now().minus(Duration.ofDays(1)));
+        float[] queryEmbedding = new float[] { 0.1f, 0.2f };
+        when(embeddingsService.embed("query")).thenReturn(queryEmbedding);
+        when(repository.findSimilar(queryEmbedding, 8, 0.0, 0.0))
+                .thenReturn(List.of(new SimilarityResult<>(old, 0.9), new SimilarityResult<>(recent, 0.7)));
+
+        List<SimilarityResult<MemoryNote>> results = service.similaritySearch("query", 2, 0.0, 0.0, Duration.ofDays(30));
+
+        assertEquals(List.of("recent", "old"), results.stream().map(r -> r.item().id().value()).toList());
+        assertEquals(0.9 / 4, results.get(1).score(), 0.01);
+    }
+
+    @Test
+    void similaritySearch_withNonPositiveHalfLife_throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.similaritySearch("query", 2, 0.0, 0.0, Duration.ZERO));
+        verifyNoInteractions(repository, embeddingsService);
+    }
+
+    @Test
+    void getRecentNotes_delegatesToRepositoryAndCaches() {
+        List<MemoryNote> notes = List.of(sampleNote("note-1"));
+        when(repository.findRecent("tag1", 5)).thenReturn(notes);
+
+        assertEquals(notes, service.getRecentNotes("tag1", 5));
+        assertEquals(notes, service.getRecentNotes("tag1", 5));
+
+        verify(repository, times(1)).findRecent("tag1", 5);
+    }
+
+    @Test
+    void getNotesInTimeRange_delegatesToRepository() {
+        Instant from = Instant.parse("2026-03-01T00:00:00Z");
+        Instant to = Instant.parse("2026-04-01T00:00:00Z");
+        List<MemoryNote> notes = List.of(sampleNote("note-1"));
+        when(repository.findByTimeRange(from, to, null, 10)).thenReturn(notes);
+
+        assertEquals(notes, service.getNotesInTimeRange(from, to, null, 10));
+    }
+
+    @Test
+    void similaritySearchBatch_embedsAllQueriesInOneCall() {
+        float[] first = new float[] { 0.1f, 0.2f };
+        float[] second = new float[] { 0.3f, 0.4f };
+        List<float[]> embeddings = List.of(first, second);
+        when(embeddingsService.embedAll(List.of("architecture", "testing"))).thenReturn(embeddings);
+        when(repository.findSimilarBatch(embeddings, 5, 0.2, 0.0))
+                .thenReturn(List.of(
+                        List.of(new SimilarityResult<>(sampleNote("arch"), 0.9)),
+                        List.of()));
+
+        List<List<SimilarityResult<MemoryNote>>> results = service.similaritySearchBatch(
+                List.of("architecture", "testing"), 5, 0.2, 0.0);
+
+        assertEquals(2, results.size());
+        assertEquals("arch", results.get(0).get(0).item().id().value());
+        assertTrue(results.get(1).isEmpty());
+        verify(embeddingsService).embedAll(List.of("architecture", "testing"));
+        verify(embeddingsService, never()).embed(any());
+    }
+
+    @Test
+    void similaritySearchBatch_withNoQueries_skipsEmbeddingAndRepository() {
+        List<List<SimilarityResult<MemoryNote>>> results = service.similaritySearchBatch(List.of(), 5, 0.0, 0.0);
+
+        assertTrue(results.isEmpty());
+        verifyNoInteractions(embeddingsService, repository);
+    }
+
+    @Test
+    void getNotesByTag_servesRepeatedQueryFromCache() {
+        when(repository.findByTag("architecture")).thenReturn(List.of(sampleNote("note-1")));
+
+        service.getNotesByTag("architecture");
+        List<MemoryNote> result = service.getNotesByTag("architecture");
+
+        assertEquals(1, result.size());
+        verify(repository, times(1)).findByTag("architecture");
+        assertEquals(1, service.cacheStats().get("query").hits());
+    }
+
+    @Test
+    void similaritySearch_normalizesQueryWhitespaceForCaching() {
+        float[] queryEmbedding = new float[] { 0.1f };
+        when(embeddingsService.embed("software  architecture ")).thenReturn(queryEmbedding);
+        when(repository.findSimilar(queryEmbedding, 10)).thenReturn(List.of());
+
+        service.similaritySearch("software  architecture ");
+        service.similaritySearch("software architecture");
+
+        verify(embeddingsService, times(1)).embed(any());
+        verify(repository, times(1)).findSimilar(queryEmbedding, 10);
+    }
+
+    @Test
+    void writes_invalidateCachedQueryResults() {
+        when(repository.findByTag("architecture")).thenReturn(List.of(sampleNote("note-1")));
+        service.getNotesByTag("architecture");
+
+        service.addLink(new LinkDefinition("A", "B", "DEPENDS_ON", "A depends on B"));
+        service.getNotesByTag("architecture");
+        service.removeLink(new MemoryNoteId("A"), new MemoryNoteId("B"), "DEPENDS_ON");
+        service.getNotesByTag("architecture");
+        service.deleteNote(new MemoryNoteId("A"));
+        service.getNotesByTag("architecture");
+
+        verify(repository, times(4)).findByTag("architecture");
+        verify(queryCache, times(3)).invalidate("default");
+    }
+
+    @Test
+    void inNamespace_routesOperationsToScopedRepository() {
+        MemoryNoteRepository scopedRepository = mock(MemoryNoteRepository.class);
+        when(scopedRepository.namespace()).thenReturn("project_a");
+        when(repository.inNamespace("project_a")).thenReturn(scopedRepository);
+        when(scopedRepository.countTags()).thenReturn(Map.of("architecture", 2L));
+
+        MemoryNoteService scoped = service.inNamespace("project_a");
+
+        assertEquals("project_a", scoped.namespace());
+        assertEquals(Map.of("architecture", 2L), scoped.getTagStatistics());
+        assertSame(service, service.inNamespace(null));
+        verify(repository, never()).countTags();
+    }
+
+    @Test
+    void writesInOneNamespace_keepOtherNamespaceResultsCached() {
+        MemoryNoteRepository scopedRepository = mock(MemoryNoteRepository.class);
+        when(scopedRepository.namespace()).thenReturn("project_a");
+        when(repository.inNamespace("project_a")).thenReturn(scopedRepository);
+        when(repository.findByTag("architecture")).thenReturn(List.of(sampleNote("note-1")));
+        MemoryNoteService scoped = service.inNamespace("project_a");
+
+        service.getNotesByTag("architecture");
+        scoped.deleteNote(new MemoryNoteId("other"));
+        service.getNotesByTag("architecture");
+
+        verify(repository, times(1)).findByTag("architecture");
+        verify(queryCache).invalidate("project_a");
+    }
+
+    @Test
+    void inNamespace_rejectsInvalidNamespace() {
+        assertThrows(IllegalArgumentException.class, () -> service.inNamespace("Project A"));
+    }
 }
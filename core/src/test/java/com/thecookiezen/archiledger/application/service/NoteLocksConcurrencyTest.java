@@ -0,0 +1,231 @@
+package com.thecookiezen.archiledger.application.service;
+
+import com.thecookiezen.archiledger.application.cache.QueryResultCache;
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.repository.EmbeddingsService;
+import com.thecookiezen.archiledger.domain.repository.MemoryNoteRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Hammers a few hot notes with concurrent retrievals and tag updates against a repository whose
+ * read-modify-write paths are deliberately racy, and checks that no update is lost and that updates of the
+ * same note never overlap. Also checks that notes on different stripes do not wait for each other.
+ */
+class NoteLocksConcurrencyTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(NoteLocksConcurrencyTest.class);
+
+    private static final int THREADS = 16;
+    private static final int OPERATIONS_PER_THREAD = 500;
+    private static final int HOT_NOTES = 4;
+
+    private final Map<MemoryNoteId, MemoryNote> store = new ConcurrentHashMap<>();
+    private final MemoryNoteRepository repository = mock(MemoryNoteRepository.class);
+    private final NoteLocks noteLocks = new NoteLocks(64);
+    private final Map<MemoryNoteId, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+    private final AtomicInteger overlaps = new AtomicInteger();
+    private MemoryNoteService service;
+
+    @BeforeEach
+    void setUp() {
+        when(repository.namespace()).thenReturn("default");
+        when(repository.findById(any())).thenAnswer(inv -> Optional.ofNullable(store.get(inv.getArgument(0))));
+        when(repository.save(any())).thenAnswer(inv -> {
+            MemoryNote note = inv.getArgument(0);
+            enter(note.id());
+            try {
+                Thread.yield();
+                store.put(note.id(), note);
+            } finally {
+                exit(note.id());
+            }
+            return note;
+        });
+        doAnswer(inv -> {
+            MemoryNoteId id = inv.getArgument(0);
+            enter(id);
+            try {
+                MemoryNote current = store.get(id);
+                Thread.yield();
+                store.put(id, current.withRetrievalCount(current.retrievalCount() + 1));
+            } finally {
+                exit(id);
+            }
+            return null;
+        }).when(repository).incrementRetrievalCount(any());
+        service = new MemoryNoteServiceImpl(repository, mock(EmbeddingsService.class), new QueryResultCache(false, 0), noteLocks,
+                new NoteDeduplication(false, 0.95));
+
+        for (int i = 0; i < HOT_NOTES; i++) {
+            MemoryNoteId id = new MemoryNoteId("hot-" + i);
+            store.put(id, new MemoryNote(id, "content", List.of(), "ctx", List.of(), List.of(),
+                    "2026-03-04T16:00:00Z", 0, null));
+        }
+    }
+
+    private void enter(MemoryNoteId id) {
+        if (inFlight.computeIfAbsent(id, key -> new AtomicInteger()).incrementAndGet() > 1) {
+            overlaps.incrementAndGet();
+        }
+    }
+
+    private void exit(MemoryNoteId id) {
+        inFlight.get(id).decrementAndGet();
+    }
+
+    @Test
+    void concurrentRetrievalsAndTagUpdatesAreNotLost() throws Exception {
+        int[][] retrievals = new int[THREADS][HOT_NOTES];
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        long elapsed;
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int op = 0; op < OPERATIONS_PER_THREAD; op++) {
+                        int note = random.nextInt(HOT_NOTES);
+                        MemoryNoteId id = new MemoryNoteId("hot-" + note);
+                        if (random.nextBoolean()) {
+                            service.getNote(id);
+                            retrievals[thread][note]++;
+                        } else {
+                            String tag = "t" + thread + "-" + op;
+                            service.updateNote(id, current -> {
+                                List<String> tags = new ArrayList<>(current.tags());
+                                tags.add(tag);
+                                return current.withTags(tags);
+                            });
+                        }
+                    }
+                    return null;
+                }));
+            }
+            long started = System.nanoTime();
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            elapsed = System.nanoTime() - started;
+        }
+
+        long tagUpdates = 0;
+        for (int note = 0; note < HOT_NOTES; note++) {
+            int expectedRetrievals = 0;
+            for (int[] perThread : retrievals) {
+                expectedRetrievals += perThread[note];
+            }
+            MemoryNote stored = store.get(new MemoryNoteId("hot-" + note));
+            assertEquals(expectedRetrievals, stored.retrievalCount(), "lost retrieval count updates on hot-" + note);
+            assertEquals(stored.tags().size(), stored.tags().stream().distinct().count());
+            tagUpdates += stored.tags().size();
+        }
+        int totalOperations = THREADS * OPERATIONS_PER_THREAD;
+        long retrievalCount = store.values().stream().mapToLong(MemoryNote::retrievalCount).sum();
+        assertEquals(totalOperations, retrievalCount + tagUpdates, "lost tag updates");
+
+        assertEquals(0, overlaps.get(), "updates of the same note overlapped");
+        assertEquals(totalOperations, noteLocks.stats().acquisitions(), "every operation takes exactly one note lock");
+        logger.info("{} operations on {} hot notes from {} threads: {} ops/s, {} of {} lock acquisitions contended",
+                totalOperations, HOT_NOTES, THREADS, totalOperations * 1_000_000_000L / Math.max(elapsed, 1),
+                noteLocks.stats().contended(), noteLocks.stats().acquisitions());
+    }
+
+    @Test
+    void sameNoteWaitsForTheHolderAndCountsAsContended() throws Exception {
+        MemoryNoteId id = new MemoryNoteId("hot-0");
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean secondEntered = new AtomicBoolean();
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<?> holder = executor.submit(() -> noteLocks.withLock(id, () -> {
+                held.countDown();
+                await(release);
+            }));
+            assertTrue(held.await(5, TimeUnit.SECONDS));
+            Future<?> waiter = executor.submit(() -> noteLocks.withLock(id, () -> secondEntered.set(true)));
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (noteLocks.stats().contended() == 0 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            assertEquals(1, noteLocks.stats().contended(), "second acquisition of the note must wait");
+            assertFalse(secondEntered.get(), "second holder entered while the note was locked");
+
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+            waiter.get(5, TimeUnit.SECONDS);
+        }
+        assertTrue(secondEntered.get());
+        assertEquals(2, noteLocks.stats().acquisitions());
+    }
+
+    @Test
+    void notesOnDifferentStripesDoNotWaitForEachOther() throws Exception {
+        MemoryNoteId first = new MemoryNoteId("hot-0");
+        MemoryNoteId second = idOnOtherStripe(first);
+        CountDownLatch bothHeld = new CountDownLatch(2);
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            List<Future<Boolean>> holders = List.of(
+                    executor.submit(() -> noteLocks.withLock(first, () -> holdUntilBoth(bothHeld))),
+                    executor.submit(() -> noteLocks.withLock(second, () -> holdUntilBoth(bothHeld))));
+            for (Future<Boolean> holder : holders) {
+                assertTrue(holder.get(10, TimeUnit.SECONDS), "locks of different notes were not held at the same time");
+            }
+        }
+        assertEquals(0, noteLocks.stats().contended());
+    }
+
+    private static boolean holdUntilBoth(CountDownLatch bothHeld) {
+        bothHeld.countDown();
+        try {
+            return bothHeld.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static MemoryNoteId idOnOtherStripe(MemoryNoteId id) {
+        int stripe = Math.floorMod(id.value().hashCode(), 64);
+        for (int i = 0; ; i++) {
+            String candidate = "cold-" + i;
+            if (Math.floorMod(candidate.hashCode(), 64) != stripe) {
+                return new MemoryNoteId(candidate);
+            }
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.NullAndEmptySource;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.time.Instant;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -31,6 +32,49 @@ class DomainModelValidationTest {
         }
     }
 
+    @Nested
+    @DisplayName("Namespace Validation")
+    class NamespacesTest {
+        @ParameterizedTest
+        @NullAndEmptySource
+        @ValueSource(strings = { " " })
+        void shouldDefaultMissingNamespace(String value) {
+            assertEquals(Namespaces.DEFAULT, Namespaces.normalize(value));
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = { "Project", "project-a", "a b", "../etc" })
+        void shouldRejectInvalidNamespace(String invalidValue) {
+            assertThrows(IllegalArgumentException.class, () -> Namespaces.normalize(invalidValue));
+        }
+
+        @Test
+        void shouldKeepNamespaceOnCopies() {
+            MemoryNote note = new MemoryNote(new MemoryNoteId("n1"), "content", null, null, null, null,
+                    "2026-03-04T16:00:00Z", 0, null, "project_a");
+            assertEquals("project_a", note.withRetrievalCount(3).namespace());
+            assertEquals("project_a", note.withEmbedding(new float[] { 1f }).namespace());
+        }
+    }
+
+    @Nested
+    @DisplayName("Timestamps")
+    class TimestampsTest {
+        @Test
+        void shouldReadOffsetLocalAndDateTimestamps() {
+            assertEquals(Instant.parse("2026-03-04T14:00:00Z"), Timestamps.parse("2026-03-04T16:00:00+02:00").orElseThrow());
+            assertEquals(Instant.parse("2026-03-04T16:00:00Z"), Timestamps.parse("2026-03-04T16:00:00").orElseThrow());
+            assertEquals(Instant.parse("2026-03-04T00:00:00Z"), Timestamps.parse("2026-03-04").orElseThrow());
+        }
+
+        @ParameterizedTest
+        @NullAndEmptySource
+        @ValueSource(strings = { "yesterday", "04/03/2026" })
+        void shouldNotReadOtherTimestamps(String timestamp) {
+            assertTrue(Timestamps.parse(timestamp).isEmpty());
+        }
+    }
+
     @Nested
     @DisplayName("NoteLink Validation")
     class NoteLinkTest {
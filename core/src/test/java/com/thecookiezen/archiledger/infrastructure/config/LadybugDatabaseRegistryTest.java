@@ -0,0 +1,151 @@
+package com.thecookiezen.archiledger.infrastructure.config;
+
+import com.ladybugdb.Database;
+import com.thecookiezen.ladybugdb.spring.connection.LadybugDBConnectionFactory;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LadybugDatabaseRegistryTest {
+
+    private final Map<Path, Database> opened = new HashMap<>();
+    private final DatabaseBinding binding = new DatabaseBinding();
+
+    private LadybugDatabaseRegistry registry(int maxOpen, Duration idleTimeout) {
+        return new LadybugDatabaseRegistry(true, "/tmp/archiledger-dbs", maxOpen, idleTimeout, binding,
+                path -> opened.computeIfAbsent(path, p -> mock(Database.class)),
+                database -> mock(LadybugDBConnectionFactory.class));
+    }
+
+    @Test
+    void shouldOpenDatabaseOnFirstUseAndBindItDuringCall() {
+        LadybugDatabaseRegistry registry = registry(4, Duration.ofMinutes(10));
+
+        assertNull(binding.connectionFactory());
+        LadybugDBConnectionFactory first = registry.call("project_a", binding::connectionFactory);
+        LadybugDBConnectionFactory second = registry.call("project_a", binding::connectionFactory);
+
+        assertNotNull(first);
+        assertSame(first, second);
+        assertNull(binding.connectionFactory());
+        assertEquals(1, opened.size());
+        assertEquals(1, registry.stats().hits());
+        assertEquals(1, registry.stats().misses());
+    }
+
+    @Test
+    void shouldNotRouteDefaultNamespace() {
+        LadybugDatabaseRegistry registry = registry(4, Duration.ofMinutes(10));
+
+        assertNull(registry.call("default", binding::connectionFactory));
+        assertTrue(opened.isEmpty());
+    }
+
+    @Test
+    void shouldCloseLeastRecentlyUsedDatabaseWhenOverBudget() {
+        LadybugDatabaseRegistry registry = registry(2, Duration.ofMinutes(10));
+        registry.run("a", () -> { });
+        registry.run("b", () -> { });
+        registry.run("a", () -> { });
+
+        registry.run("c", () -> { });
+
+        verify(opened.get(Path.of("/tmp/archiledger-dbs", "b"))).close();
+        verify(opened.get(Path.of("/tmp/archiledger-dbs", "a")), never()).close();
+        assertEquals(2, registry.stats().entries());
+        assertEquals(1, registry.stats().evictions());
+    }
+
+    @Test
+    void shouldNotCloseDatabaseWithRunningCall() {
+        LadybugDatabaseRegistry registry = registry(1, Duration.ofMinutes(10));
+
+        registry.run("a", () -> registry.run("b", () -> { }));
+
+        verify(opened.get(Path.of("/tmp/archiledger-dbs", "a")), never()).close();
+        verify(opened.get(Path.of("/tmp/archiledger-dbs", "b"))).close();
+    }
+
+    @Test
+    void shouldCloseDatabasesIdleLongerThanTimeout() {
+        LadybugDatabaseRegistry registry = registry(8, Duration.ZERO);
+
+        registry.run("a", () -> { });
+        registry.run("b", () -> { });
+
+        verify(opened.get(Path.of("/tmp/archiledger-dbs", "a"))).close();
+    }
+
+    @Test
+    void shouldServeOtherNamespacesWhileOneIsOpening() throws Exception {
+        CountDownLatch openingStarted = new CountDownLatch(1);
+        CountDownLatch finishOpening = new CountDownLatch(1);
+        Map<Path, Database> databases = new ConcurrentHashMap<>();
+        LadybugDatabaseRegistry registry = new LadybugDatabaseRegistry(true, "/tmp/archiledger-dbs", 4,
+                Duration.ofMinutes(10), binding,
+                path -> {
+                    if (path.endsWith("slow")) {
+                        openingStarted.countDown();
+                        await(finishOpening);
+                    }
+                    return databases.computeIfAbsent(path, p -> mock(Database.class));
+                },
+                database -> mock(LadybugDBConnectionFactory.class));
+
+        CompletableFuture<LadybugDBConnectionFactory> slow = CompletableFuture.supplyAsync(
+                () -> registry.call("slow", binding::connectionFactory));
+        CompletableFuture<LadybugDBConnectionFactory> waiting = CompletableFuture.supplyAsync(() -> {
+            await(openingStarted);
+            return registry.call("slow", binding::connectionFactory);
+        });
+        assertTrue(openingStarted.await(5, TimeUnit.SECONDS));
+
+        assertNotNull(registry.call("fast", binding::connectionFactory));
+        assertFalse(slow.isDone());
+
+        finishOpening.countDown();
+        assertSame(slow.get(5, TimeUnit.SECONDS), waiting.get(5, TimeUnit.SECONDS));
+        assertEquals(2, registry.stats().misses());
+        registry.close();
+    }
+
+    @Test
+    void shouldReportOpenFailureToEveryWaitingCall() {
+        LadybugDatabaseRegistry registry = new LadybugDatabaseRegistry(true, "/tmp/archiledger-dbs", 4,
+                Duration.ofMinutes(10), binding,
+                path -> {
+                    throw new IllegalStateException("corrupt database");
+                },
+                database -> mock(LadybugDBConnectionFactory.class));
+
+        assertThrows(IllegalStateException.class, () -> registry.run("broken", () -> { }));
+        assertThrows(IllegalStateException.class, () -> registry.run("broken", () -> { }));
+        assertEquals(0, registry.stats().entries());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void shouldRequireRootWhenEnabled() {
+        assertThrows(IllegalStateException.class, () -> new LadybugDatabaseRegistry(true, "", 4, Duration.ofMinutes(1), binding,
+                path -> mock(Database.class), database -> mock(LadybugDBConnectionFactory.class)));
+    }
+}
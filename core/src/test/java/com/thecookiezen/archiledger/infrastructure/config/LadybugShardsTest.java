@@ -0,0 +1,73 @@
+package com.thecookiezen.archiledger.infrastructure.config;
+
+import com.ladybugdb.Database;
+import com.thecookiezen.ladybugdb.spring.connection.LadybugDBConnectionFactory;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LadybugShardsTest {
+
+    private final Map<Path, Database> opened = new HashMap<>();
+    private final DatabaseBinding binding = new DatabaseBinding();
+
+    private LadybugShards shards(int count) {
+        return new LadybugShards(count, "/tmp/archiledger-shards", binding,
+                path -> opened.computeIfAbsent(path, p -> mock(Database.class)),
+                database -> mock(LadybugDBConnectionFactory.class));
+    }
+
+    @Test
+    void singleShardOpensNoExtraDatabases() {
+        LadybugShards shards = shards(1);
+
+        assertEquals(1, shards.count());
+        assertEquals(0, shards.shardOf("any-note"));
+        assertNull(shards.call(0, binding::database));
+        assertTrue(opened.isEmpty());
+    }
+
+    @Test
+    void secondaryShardsAreBoundWhileCalled() {
+        LadybugShards shards = shards(4);
+
+        assertEquals(3, opened.size());
+        assertNull(shards.call(0, binding::database));
+        assertSame(opened.get(Path.of("/tmp/archiledger-shards/shard-2")), shards.call(2, binding::database));
+        assertNull(binding.database());
+    }
+
+    @Test
+    void notesHaveStableHomeShard() {
+        LadybugShards shards = shards(8);
+
+        for (String id : new String[] { "a", "note-1", "note-2", "f47ac10b-58cc-4372-a567-0e02b2c3d479" }) {
+            int shard = shards.shardOf(id);
+            assertTrue(shard >= 0 && shard < 8);
+            assertEquals(shard, shards.shardOf(id));
+        }
+    }
+
+    @Test
+    void closeClosesSecondaryDatabases() {
+        LadybugShards shards = shards(3);
+
+        shards.close();
+
+        opened.values().forEach(database -> verify(database).close());
+    }
+
+    @Test
+    void rejectsShardingWithoutRoot() {
+        assertThrows(IllegalStateException.class, () -> new LadybugShards(2, " ", binding,
+                path -> mock(Database.class), database -> mock(LadybugDBConnectionFactory.class)));
+        assertThrows(IllegalArgumentException.class, () -> new LadybugShards(0, "/tmp", binding,
+                path -> mock(Database.class), database -> mock(LadybugDBConnectionFactory.class)));
+    }
+}
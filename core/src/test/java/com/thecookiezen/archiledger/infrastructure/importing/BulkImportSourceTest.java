@@ -0,0 +1,68 @@
+package com.thecookiezen.archiledger.infrastructure.importing;
+
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.NoteLink;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkImportSourceTest {
+
+    private static final String IMPORTED_AT = "2026-03-04T16:00:00Z";
+
+    @TempDir
+    Path directory;
+
+    private List<MemoryNote> read(String fileName, String... lines) throws IOException {
+        Path file = directory.resolve(fileName);
+        Files.write(file, List.of(lines));
+        List<MemoryNote> notes = new ArrayList<>();
+        try (BulkImportSource source = BulkImportSource.open(file, "project_a", IMPORTED_AT, null)) {
+            source.forEachRemaining(notes::add);
+        }
+        return notes;
+    }
+
+    @Test
+    void shouldReadJsonLines() throws IOException {
+        List<MemoryNote> notes = read("corpus.jsonl",
+                "{\"id\": \"n1\", \"content\": \"First\", \"tags\": [\"a\"], \"timestamp\": \"2026-01-01T00:00:00Z\", "
+                        + "\"links\": [{\"target\": \"n2\", \"relationType\": \"RELATED\", \"context\": \"why\"}], \"extra\": 1}",
+                "{\"content\": \"Second\", \"keywords\": [\"k\"]}");
+
+        assertEquals(2, notes.size());
+        MemoryNote first = notes.get(0);
+        assertEquals("n1", first.id().value());
+        assertEquals(List.of("a"), first.tags());
+        assertEquals(List.of(new NoteLink("n2", "RELATED", "why")), first.links());
+        assertEquals("2026-01-01T00:00:00Z", first.timestamp());
+        assertEquals("project_a", first.namespace());
+        MemoryNote second = notes.get(1);
+        assertFalse(second.id().value().isBlank());
+        assertEquals(IMPORTED_AT, second.timestamp());
+        assertEquals(0, second.retrievalCount());
+    }
+
+    @Test
+    void shouldRejectNotesWithoutContent() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> read("corpus.jsonl", "{\"content\": \"First\"}", "{\"id\": \"n2\"}"));
+
+        assertTrue(error.getMessage().contains("row 2"));
+    }
+
+    @Test
+    void shouldRejectUnknownFormats() {
+        assertThrows(IllegalArgumentException.class, () -> ImportFormat.of(Path.of("corpus.xml")));
+        assertEquals(ImportFormat.CSV, ImportFormat.of(Path.of("corpus.CSV")));
+        assertEquals(ImportFormat.PARQUET, ImportFormat.of(Path.of("corpus.parquet")));
+    }
+}
@@ -0,0 +1,202 @@
+package com.thecookiezen.archiledger.infrastructure.importing;
+
+import com.thecookiezen.archiledger.application.cache.QueryKey;
+import com.thecookiezen.archiledger.application.cache.QueryResultCache;
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.Namespaces;
+import com.thecookiezen.archiledger.domain.model.NoteLink;
+import com.thecookiezen.archiledger.domain.model.SimilarityResult;
+import com.thecookiezen.archiledger.domain.repository.EmbeddingsService;
+import com.thecookiezen.archiledger.infrastructure.config.LadybugDBConfig;
+import com.thecookiezen.archiledger.infrastructure.embeddings.LadybugVectorExtensionInitializer;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.LadybugMemoryNoteRepository;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.MemoryNoteCache;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.MemoryNoteDbRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = LadybugBulkImporterIntegrationTest.TestConfig.class)
+class LadybugBulkImporterIntegrationTest {
+
+    private static final int DIMENSIONS = 384;
+
+    @Configuration
+    @Import({ LadybugDBConfig.class, LadybugVectorExtensionInitializer.class })
+    @ComponentScan(basePackages = {
+            "com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb",
+            "com.thecookiezen.archiledger.infrastructure.importing"
+    })
+    static class TestConfig {
+
+        @Bean
+        public HashingEmbeddings embeddingsService() {
+            return new HashingEmbeddings();
+        }
+
+        @Bean
+        public QueryResultCache queryCache() {
+            return new QueryResultCache(true, 100);
+        }
+    }
+
+    /**
+     * Deterministic embeddings derived from the text, so identical content is always the nearest match.
+     */
+    static class HashingEmbeddings implements EmbeddingsService {
+
+        volatile int dimensions = DIMENSIONS;
+
+        @Override
+        public float[] generateEmbeddings(MemoryNote note) {
+            return embed(note.content());
+        }
+
+        @Override
+        public float[] embed(String text) {
+            float[] vector = new float[dimensions];
+            for (int i = 0; i < text.length(); i++) {
+                vector[(text.charAt(i) * 31 + i) % dimensions] += 1.0f;
+            }
+            return vector;
+        }
+
+        @Override
+        public List<float[]> embedAll(List<String> texts) {
+            return texts.stream().map(this::embed).toList();
+        }
+    }
+
+    @TempDir
+    Path directory;
+
+    @Autowired
+    private LadybugBulkImporter importer;
+
+    @Autowired
+    private LadybugMemoryNoteRepository repository;
+
+    @Autowired
+    private MemoryNoteDbRepository dbRepository;
+
+    @Autowired
+    private MemoryNoteCache noteCache;
+
+    @Autowired
+    private QueryResultCache queryCache;
+
+    @Autowired
+    private LadybugVectorExtensionInitializer vectorInitializer;
+
+    @Autowired
+    private HashingEmbeddings embeddings;
+
+    @BeforeEach
+    void cleanDatabase() {
+        dbRepository.deleteAllNotesWithEmbeddings();
+        dbRepository.deleteAll();
+        noteCache.clear();
+        vectorInitializer.recreateIndex();
+    }
+
+    @AfterEach
+    void resetEmbeddings() {
+        embeddings.dimensions = DIMENSIONS;
+        dbRepository.deleteArchived(Namespaces.DEFAULT, "archived-1");
+    }
+
+    private Path corpus(String... lines) throws IOException {
+        Path file = directory.resolve("corpus.jsonl");
+        Files.write(file, List.of(lines));
+        return file;
+    }
+
+    private static MemoryNote note(String id, String content) {
+        return new MemoryNote(new MemoryNoteId(id), content, List.of(), "test-context", List.of("test"), List.of(),
+                "2026-03-04T16:00:00Z", 0, null);
+    }
+
+    @Test
+    void importsNotesEmbeddingsAndLinksAndRebuildsTheIndex() throws IOException {
+        BulkImportReport report = importer.importFile(corpus(
+                "{\"id\": \"n1\", \"content\": \"Event sourcing keeps every change\", \"tags\": [\"arch\"], "
+                        + "\"links\": [{\"target\": \"n2\", \"relationType\": \"RELATED\", \"context\": \"both patterns\"}]}",
+                "{\"id\": \"n2\", \"content\": \"CQRS splits reads from writes\", \"tags\": [\"arch\"]}"),
+                Namespaces.DEFAULT);
+
+        assertEquals(2, report.notes());
+        assertEquals(1, report.links());
+        MemoryNote first = repository.findById(new MemoryNoteId("n1")).orElseThrow();
+        assertEquals("Event sourcing keeps every change", first.content());
+        assertEquals(List.of(new NoteLink("n2", "RELATED", "both patterns")), first.links());
+        List<SimilarityResult<MemoryNote>> similar = repository.findSimilar(
+                embeddings.embed("CQRS splits reads from writes"), 1);
+        assertEquals("n2", similar.getFirst().item().id().value());
+    }
+
+    @Test
+    void importDropsCachedQueryResultsOfTheNamespace() throws IOException {
+        queryCache.invalidateAll();
+        QueryKey imported = QueryKey.of("getNotesByTag", "arch").withScope(Namespaces.DEFAULT);
+        QueryKey other = QueryKey.of("getNotesByTag", "arch").withScope("team_a");
+        queryCache.get(imported, () -> List.of());
+        queryCache.get(other, () -> List.of());
+
+        importer.importFile(corpus("{\"id\": \"n1\", \"content\": \"Event sourcing\", \"tags\": [\"arch\"]}"),
+                Namespaces.DEFAULT);
+
+        assertEquals(1, queryCache.stats().entries());
+        assertEquals(List.of("n1"), queryCache.get(imported, () -> List.of("n1")));
+    }
+
+    @Test
+    void rejectsIdsThatAreTakenByLiveOrArchivedNotes() throws IOException {
+        repository.save(note("live-1", "Already stored"));
+        repository.save(note("archived-1", "Archived already"));
+        repository.archive(List.of(new MemoryNoteId("archived-1")));
+
+        IllegalArgumentException live = assertThrows(IllegalArgumentException.class, () -> importer.importFile(
+                corpus("{\"id\": \"live-1\", \"content\": \"Duplicate\"}"), Namespaces.DEFAULT));
+        IllegalArgumentException archived = assertThrows(IllegalArgumentException.class, () -> importer.importFile(
+                corpus("{\"id\": \"archived-1\", \"content\": \"Duplicate\"}"), Namespaces.DEFAULT));
+
+        assertTrue(live.getMessage().contains("live-1"));
+        assertTrue(archived.getMessage().contains("archived-1"));
+        assertEquals("Already stored", repository.findById(new MemoryNoteId("live-1")).orElseThrow().content());
+    }
+
+    @Test
+    void failedCopyLeavesNothingBehindAndCanBeRetried() throws IOException {
+        Path file = corpus(
+                "{\"id\": \"n1\", \"content\": \"Event sourcing keeps every change\"}",
+                "{\"id\": \"n2\", \"content\": \"CQRS splits reads from writes\"}");
+        embeddings.dimensions = DIMENSIONS + 1;
+
+        assertThrows(IllegalStateException.class, () -> importer.importFile(file, Namespaces.DEFAULT));
+
+        assertTrue(repository.findAll().isEmpty());
+        embeddings.dimensions = DIMENSIONS;
+        assertEquals(2, importer.importFile(file, Namespaces.DEFAULT).notes());
+        assertEquals("n1", repository.findSimilar(embeddings.embed("Event sourcing keeps every change"), 1)
+                .getFirst().item().id().value());
+    }
+}
@@ -0,0 +1,71 @@
+package com.thecookiezen.archiledger.infrastructure.persistence.ladybug;
+
+import com.thecookiezen.archiledger.domain.model.CompressionStats;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.ContentCompression;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentCompressionTest {
+
+    private static final String MARKED = "\u0000deflate:not actually compressed";
+
+    private static String document(int sentences) {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < sentences; i++) {
+            content.append("Sentence ").append(i % 7).append(" of the design document about the ingest pipeline. ");
+        }
+        return content.toString();
+    }
+
+    @Test
+    void shouldCompressLargeContentAndRestoreIt() {
+        ContentCompression compression = new ContentCompression(true, 1024);
+        String content = document(100);
+
+        String stored = compression.encode(content);
+
+        assertTrue(stored.length() < content.length());
+        assertEquals(content, compression.decode(stored));
+        CompressionStats stats = compression.stats();
+        assertEquals(1, stats.compressedWrites());
+        assertEquals(content.length(), stats.rawBytes());
+        assertEquals(stored.length(), stats.storedBytes());
+        assertEquals(1, stats.decompressions());
+    }
+
+    @Test
+    void shouldStoreSmallOrIncompressibleContentAsIs() {
+        ContentCompression compression = new ContentCompression(true, 1024);
+        String small = document(3);
+
+        assertSame(small, compression.encode(small));
+        assertSame(small, compression.decode(small));
+        assertEquals(0, compression.stats().compressedWrites());
+        assertEquals(0, compression.stats().decompressions());
+    }
+
+    @Test
+    void shouldReadCompressedContentWhenDisabled() {
+        String stored = new ContentCompression(true, 0).encode(document(100));
+        ContentCompression disabled = new ContentCompression(false, 0);
+
+        assertEquals(document(100), disabled.decode(stored));
+    }
+
+    @Test
+    void shouldAlwaysEncodeContentStartingWithTheMarker() {
+        ContentCompression disabled = new ContentCompression(false, 1024);
+
+        String stored = disabled.encode(MARKED);
+
+        assertNotEquals(MARKED, stored);
+        assertEquals(MARKED, disabled.decode(stored));
+    }
+
+    @Test
+    void shouldRejectNegativeThreshold() {
+        assertThrows(IllegalArgumentException.class, () -> new ContentCompression(true, -1));
+    }
+}
@@ -0,0 +1,154 @@
+package com.thecookiezen.archiledger.infrastructure.persistence.ladybug;
+
+import com.thecookiezen.archiledger.infrastructure.config.DatabaseBinding;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.GroupCommitWriter;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class GroupCommitWriterTest {
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final GroupCommitWriter writer = new GroupCommitWriter(transactionManager, new DatabaseBinding(), true, 128);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writer.close();
+    }
+
+    @Test
+    void pendingWritesShareOneCommit() throws Exception {
+        CountDownLatch writerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<Integer> blocking = CompletableFuture.supplyAsync(() -> writer.write(() -> {
+                writerBusy.countDown();
+                await(release);
+                return -1;
+            }), callers);
+            assertTrue(writerBusy.await(5, TimeUnit.SECONDS));
+
+            List<CompletableFuture<Integer>> queued = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                int value = i;
+                queued.add(CompletableFuture.supplyAsync(() -> writer.write(() -> value), callers));
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            assertEquals(-1, blocking.get(5, TimeUnit.SECONDS));
+            for (int i = 0; i < queued.size(); i++) {
+                assertEquals(i, queued.get(i).get(5, TimeUnit.SECONDS));
+            }
+        }
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void failingWriteDoesNotFailItsGroup() throws Exception {
+        CountDownLatch writerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<Object> blocking = CompletableFuture.supplyAsync(() -> writer.write(() -> {
+                writerBusy.countDown();
+                await(release);
+                return null;
+            }), callers);
+            assertTrue(writerBusy.await(5, TimeUnit.SECONDS));
+
+            CompletableFuture<String> good = CompletableFuture.supplyAsync(() -> writer.write(() -> "ok"), callers);
+            CompletableFuture<String> bad = CompletableFuture.supplyAsync(() -> writer.write(() -> {
+                throw new IllegalArgumentException("Source note not found: x");
+            }), callers);
+            Thread.sleep(200);
+            release.countDown();
+
+            blocking.get(5, TimeUnit.SECONDS);
+            assertEquals("ok", good.get(5, TimeUnit.SECONDS));
+            Exception failure = assertThrows(Exception.class, () -> bad.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+        }
+    }
+
+    @Test
+    void failedCheckRejectsOnlyItsWriteAndKeepsTheGroupCommit() throws Exception {
+        CountDownLatch writerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> applied = new CopyOnWriteArrayList<>();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<Object> blocking = CompletableFuture.supplyAsync(() -> writer.write(() -> {
+                writerBusy.countDown();
+                await(release);
+                return null;
+            }), callers);
+            assertTrue(writerBusy.await(5, TimeUnit.SECONDS));
+
+            CompletableFuture<String> good = CompletableFuture.supplyAsync(() -> writer.write(() -> {
+                applied.add("good");
+                return "ok";
+            }), callers);
+            CompletableFuture<String> rejected = CompletableFuture.supplyAsync(() -> writer.write(
+                    () -> {
+                        throw new IllegalArgumentException("Target note not found: x");
+                    },
+                    () -> {
+                        applied.add("rejected");
+                        return "never";
+                    }), callers);
+            Thread.sleep(200);
+            release.countDown();
+
+            blocking.get(5, TimeUnit.SECONDS);
+            assertEquals("ok", good.get(5, TimeUnit.SECONDS));
+            Exception failure = assertThrows(Exception.class, () -> rejected.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+        }
+        assertEquals(List.of("good"), applied);
+        verify(transactionManager, never()).rollback(any());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void writeAfterCloseIsRejected() throws InterruptedException {
+        writer.close();
+
+        assertThrows(IllegalStateException.class, () -> writer.write(() -> "late"));
+    }
+
+    @Test
+    void nestedWritesRunInline() {
+        assertEquals("inner", writer.write(() -> writer.write(() -> "inner")));
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void disabledWriterRunsOnCallerThread() throws InterruptedException {
+        GroupCommitWriter direct = new GroupCommitWriter(transactionManager, new DatabaseBinding(), false, 1);
+
+        assertEquals(Thread.currentThread().getName(), direct.write(() -> Thread.currentThread().getName()));
+        verifyNoInteractions(transactionManager);
+        direct.close();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
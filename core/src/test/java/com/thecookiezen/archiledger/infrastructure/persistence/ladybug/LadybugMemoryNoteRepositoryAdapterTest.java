@@ -1,11 +1,16 @@
 package com.thecookiezen.archiledger.infrastructure.persistence.ladybug;
 
+import com.thecookiezen.archiledger.domain.model.ArchivedNote;
 import com.thecookiezen.archiledger.domain.model.LinkDefinition;
+import com.thecookiezen.archiledger.domain.model.LinkDirection;
 import com.thecookiezen.archiledger.domain.model.MemoryNote;
 import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
 import com.thecookiezen.archiledger.domain.model.NoteLink;
+import com.thecookiezen.archiledger.domain.model.NotePatch;
+import com.thecookiezen.archiledger.domain.repository.MemoryNoteRepository;
 import com.thecookiezen.archiledger.infrastructure.config.LadybugDBConfig;
 import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.LadybugMemoryNoteRepository;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.MemoryNoteCache;
 import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.MemoryNoteDbRepository;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -15,10 +20,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -40,9 +47,13 @@ class LadybugMemoryNoteRepositoryAdapterTest {
     @Autowired
     private MemoryNoteDbRepository dbRepository;
 
+    @Autowired
+    private MemoryNoteCache noteCache;
+
     @BeforeEach
     void cleanDatabase() {
         dbRepository.deleteAll();
+        noteCache.clear();
     }
 
     private MemoryNote sampleNote(String id, List<String> tags) {
@@ -254,6 +265,160 @@ class LadybugMemoryNoteRepositoryAdapterTest {
         assertEquals(2, result.size());
     }
 
+    @Test
+    void expand_visitsEachNoteOnceInHopOrder() {
+        for (String id : List.of("A", "B", "C", "D", "E")) {
+            repository.save(sampleNote(id, List.of()));
+        }
+        repository.addLink(new LinkDefinition("A", "C", "RELATED_TO", "test link"));
+        repository.addLink(new LinkDefinition("A", "B", "RELATED_TO", "test link"));
+        repository.addLink(new LinkDefinition("B", "D", "RELATED_TO", "test link"));
+        repository.addLink(new LinkDefinition("C", "D", "RELATED_TO", "test link"));
+        repository.addLink(new LinkDefinition("D", "A", "RELATED_TO", "test link"));
+        repository.addLink(new LinkDefinition("D", "E", "RELATED_TO", "test link"));
+
+        List<MemoryNote> result = repository.expand(new MemoryNoteId("A"), LinkDirection.OUTGOING, 5, 10);
+
+        assertEquals(List.of("B", "C", "D", "E"), result.stream().map(n -> n.id().value()).toList());
+    }
+
+    @Test
+    void expand_followsIncomingAndBothDirections() {
+        for (String id : List.of("A", "B", "C", "D")) {
+            repository.save(sampleNote(id, List.of()));
+        }
+        repository.addLink(new LinkDefinition("B", "A", "RELATED_TO", "test link"));
+        repository.addLink(new LinkDefinition("C", "B", "RELATED_TO", "test link"));
+        repository.addLink(new LinkDefinition("A", "D", "RELATED_TO", "test link"));
+
+        List<MemoryNote> incoming = repository.expand(new MemoryNoteId("A"), LinkDirection.INCOMING, 3, 10);
+        List<MemoryNote> both = repository.expand(new MemoryNoteId("A"), LinkDirection.BOTH, 1, 10);
+
+        assertEquals(List.of("B", "C"), incoming.stream().map(n -> n.id().value()).toList());
+        assertEquals(List.of("B", "D"), both.stream().map(n -> n.id().value()).toList());
+    }
+
+    @Test
+    void expand_fillsLimitExactlyAcrossHops() {
+        for (String id : List.of("hub", "a", "b", "c", "x", "y")) {
+            repository.save(sampleNote(id, List.of()));
+        }
+        repository.addLink(new LinkDefinition("hub", "a", "RELATED_TO", "test link"));
+        repository.addLink(new LinkDefinition("hub", "b", "RELATED_TO", "test link"));
+        repository.addLink(new LinkDefinition("a", "hub", "RELATED_TO", "test link"));
+        repository.addLink(new LinkDefinition("a", "x", "RELATED_TO", "test link"));
+        repository.addLink(new LinkDefinition("b", "y", "RELATED_TO", "test link"));
+        repository.addLink(new LinkDefinition("x", "c", "RELATED_TO", "test link"));
+
+        List<MemoryNote> result = repository.expand(new MemoryNoteId("hub"), LinkDirection.OUTGOING, 3, 3);
+
+        assertEquals(List.of("a", "b", "x"), result.stream().map(n -> n.id().value()).toList());
+    }
+
+    private MemoryNote noteAt(String id, String timestamp, List<String> tags) {
+        return new MemoryNote(new MemoryNoteId(id), "Content for " + id, List.of(), "test-context", tags, List.of(),
+                timestamp, 0, null);
+    }
+
+    @Test
+    void findByTimeRange_returnsNotesInHalfOpenRangeNewestFirst() {
+        repository.save(noteAt("jan", "2026-01-15T10:00:00Z", List.of("decision")));
+        repository.save(noteAt("feb", "2026-02-01T00:00:00Z", List.of("bug")));
+        repository.save(noteAt("feb-late", "2026-02-20T08:30:00.250Z", List.of("decision")));
+        repository.save(noteAt("mar", "2026-03-01T00:00:00Z", List.of("decision")));
+
+        List<MemoryNote> february = repository.findByTimeRange(
+                Instant.parse("2026-02-01T00:00:00Z"), Instant.parse("2026-03-01T00:00:00Z"), null, 10);
+        List<MemoryNote> decisions = repository.findByTimeRange(
+                Instant.parse("2026-01-01T00:00:00Z"), Instant.parse("2026-03-01T00:00:00Z"), "decision", 10);
+
+        assertEquals(List.of("feb-late", "feb"), february.stream().map(n -> n.id().value()).toList());
+        assertEquals(List.of("feb-late", "jan"), decisions.stream().map(n -> n.id().value()).toList());
+    }
+
+    @Test
+    void findByTimeRange_withFromAfterTo_throws() {
+        assertThrows(IllegalArgumentException.class, () -> repository.findByTimeRange(
+                Instant.parse("2026-03-01T00:00:00Z"), Instant.parse("2026-02-01T00:00:00Z"), null, 10));
+    }
+
+    @Test
+    void findRecent_returnsNewestNotesOptionallyByTag() {
+        repository.save(noteAt("old", "2025-12-31T23:59:59Z", List.of("decision")));
+        repository.save(noteAt("mid", "2026-01-10T12:00:00Z", List.of("bug")));
+        repository.save(noteAt("new", "2026-02-10T12:00:00+02:00", List.of("decision")));
+
+        assertEquals(List.of("new", "mid"), repository.findRecent(null, 2).stream().map(n -> n.id().value()).toList());
+        assertEquals(List.of("new", "old"),
+                repository.findRecent("decision", 10).stream().map(n -> n.id().value()).toList());
+    }
+
+    @Test
+    void findArchivable_selectsOldRarelyRetrievedNotesWithoutKeptTags() {
+        repository.save(noteAt("old", "2025-01-01T00:00:00Z", List.of("bug")));
+        repository.save(noteAt("old-kept", "2025-01-02T00:00:00Z", List.of("decision")));
+        repository.save(noteAt("old-read", "2025-01-03T00:00:00Z", List.of("bug")));
+        repository.save(noteAt("new", "2026-03-01T00:00:00Z", List.of("bug")));
+        repository.incrementRetrievalCount(new MemoryNoteId("old-read"));
+
+        List<MemoryNoteId> archivable = repository.findArchivable(
+                Instant.parse("2026-01-01T00:00:00Z"), 0, Set.of("decision"), 10);
+
+        assertEquals(List.of(new MemoryNoteId("old")), archivable);
+    }
+
+    @Test
+    void archive_movesNoteOutOfLiveGraphAndRestoreBringsBackItsLinks() {
+        repository.save(sampleNote("hub", List.of()));
+        repository.save(sampleNote("cold", List.of("bug")));
+        repository.addLink(new LinkDefinition("hub", "cold", "DEPENDS_ON", "hub needs cold"));
+        repository.addLink(new LinkDefinition("cold", "hub", "RELATED_TO", "cold mentions hub"));
+
+        assertEquals(1, repository.archive(List.of(new MemoryNoteId("cold"), new MemoryNoteId("missing"))));
+
+        assertTrue(repository.findById(new MemoryNoteId("cold")).isEmpty());
+        assertTrue(repository.findByTag("bug").isEmpty());
+        assertTrue(repository.findById(new MemoryNoteId("hub")).orElseThrow().links().isEmpty());
+        ArchivedNote archived = repository.findArchived(new MemoryNoteId("cold")).orElseThrow();
+        assertEquals("Content for cold", archived.note().content());
+        assertEquals(List.of(new NoteLink("hub", "RELATED_TO", "cold mentions hub")), archived.note().links());
+        assertEquals(List.of(new MemoryNoteId("hub")), archived.incomingLinks().stream().map(LinkDefinition::source).toList());
+
+        MemoryNote restored = repository.restore(archived);
+
+        assertEquals("cold", restored.id().value());
+        assertTrue(repository.findArchived(new MemoryNoteId("cold")).isEmpty());
+        assertEquals(List.of("bug"), repository.findById(new MemoryNoteId("cold")).orElseThrow().tags());
+        assertEquals(1, repository.findLinksFrom(new MemoryNoteId("cold")).size());
+        assertEquals(List.of("cold"), repository.findById(new MemoryNoteId("hub")).orElseThrow().links().stream()
+                .map(link -> link.target().value()).toList());
+    }
+
+    @Test
+    void restore_keepsLinksToArchivedNotesInTheirArchivedCopies() {
+        repository.save(sampleNote("a", List.of()));
+        repository.save(sampleNote("b", List.of()));
+        repository.addLink(new LinkDefinition("a", "b", "DEPENDS_ON", "a needs b"));
+        repository.archive(List.of(new MemoryNoteId("a"), new MemoryNoteId("b")));
+
+        repository.restore(repository.findArchived(new MemoryNoteId("a")).orElseThrow());
+        assertTrue(repository.findLinksFrom(new MemoryNoteId("a")).isEmpty());
+        repository.restore(repository.findArchived(new MemoryNoteId("b")).orElseThrow());
+
+        assertEquals(List.of("b"), repository.findLinksFrom(new MemoryNoteId("a")).stream()
+                .map(link -> link.target().value()).toList());
+    }
+
+    @Test
+    void delete_removesArchivedNote() {
+        repository.save(sampleNote("cold", List.of()));
+        repository.archive(List.of(new MemoryNoteId("cold")));
+
+        repository.delete(new MemoryNoteId("cold"));
+
+        assertTrue(repository.findArchived(new MemoryNoteId("cold")).isEmpty());
+    }
+
     @Test
     void findAllTags_returnsUniqueTags() {
         repository.save(sampleNote("n1", List.of("architecture", "backend")));
@@ -304,6 +469,27 @@ class LadybugMemoryNoteRepositoryAdapterTest {
         assertEquals(2, note.get().retrievalCount());
     }
 
+    @Test
+    void saveWithPatches_updatesNeighborsInPlace() {
+        repository.save(sampleNote("neighbor-1", List.of("old")));
+        repository.incrementRetrievalCount(new MemoryNoteId("neighbor-1"));
+        repository.findById(new MemoryNoteId("neighbor-1"));
+
+        MemoryNote note = sampleNote("note-1", List.of()).withLinks(
+                List.of(new NoteLink("neighbor-1", "EXTENDS", "Builds on the neighbor")));
+        repository.save(note, List.of(
+                new NotePatch(new MemoryNoteId("neighbor-1"), null, List.of("evolved")),
+                new NotePatch(new MemoryNoteId("missing"), "ignored", null)));
+
+        MemoryNote neighbor = repository.findById(new MemoryNoteId("neighbor-1")).orElseThrow();
+        assertEquals(List.of("evolved"), neighbor.tags());
+        assertEquals("test-context", neighbor.context());
+        assertEquals("Content for neighbor-1", neighbor.content());
+        assertEquals(1, neighbor.retrievalCount());
+        assertEquals(1, repository.findLinksFrom(new MemoryNoteId("note-1")).size());
+        assertTrue(repository.findById(new MemoryNoteId("missing")).isEmpty());
+    }
+
     @Test
     void getGraph_returnsAllNotesAndLinks() {
         repository.save(sampleNote("A", List.of()));
@@ -318,4 +504,110 @@ class LadybugMemoryNoteRepositoryAdapterTest {
         assertEquals(2, notes.size());
         assertEquals(1, links.size());
     }
+
+    @Test
+    void findById_servesRepeatedReadsFromNoteCache() {
+        repository.save(sampleNote("A", List.of()));
+
+        repository.findById(new MemoryNoteId("A"));
+        repository.findById(new MemoryNoteId("A"));
+
+        assertEquals(1, repository.cacheStats().get("notes").hits());
+    }
+
+    @Test
+    void noteCache_isNotFilledByListQueries() {
+        repository.save(sampleNote("A", List.of("architecture")));
+
+        repository.findAll();
+        repository.findByTag("architecture");
+
+        assertEquals(0, repository.cacheStats().get("notes").entries());
+    }
+
+    @Test
+    void noteCache_isInvalidatedByLinkChanges() {
+        repository.save(sampleNote("A", List.of()));
+        repository.save(sampleNote("B", List.of()));
+        assertTrue(repository.findById(new MemoryNoteId("A")).get().links().isEmpty());
+
+        repository.addLink(new LinkDefinition("A", "B", "CALLS", "A calls B for processing"));
+        assertEquals(1, repository.findById(new MemoryNoteId("A")).get().links().size());
+
+        repository.removeLink(new MemoryNoteId("A"), new MemoryNoteId("B"), "CALLS");
+        assertTrue(repository.findById(new MemoryNoteId("A")).get().links().isEmpty());
+    }
+
+    @Test
+    void noteCache_dropsLinksToDeletedNote() {
+        repository.save(sampleNote("A", List.of()));
+        repository.save(sampleNote("B", List.of()));
+        repository.addLink(new LinkDefinition("A", "B", "CALLS", "A calls B for processing"));
+        assertEquals(1, repository.findById(new MemoryNoteId("A")).get().links().size());
+
+        repository.delete(new MemoryNoteId("B"));
+
+        assertTrue(repository.findById(new MemoryNoteId("B")).isEmpty());
+        assertTrue(repository.findById(new MemoryNoteId("A")).get().links().isEmpty());
+    }
+
+    @Test
+    void noteCache_tracksRetrievalCountOfCachedNote() {
+        repository.save(sampleNote("note-1", List.of()));
+        repository.findById(new MemoryNoteId("note-1"));
+
+        repository.incrementRetrievalCount(new MemoryNoteId("note-1"));
+
+        assertEquals(1, repository.findById(new MemoryNoteId("note-1")).get().retrievalCount());
+    }
+
+    @Test
+    void namespaces_isolateNotesTagsAndLinks() {
+        MemoryNoteRepository projectA = repository.inNamespace("project_a");
+        repository.save(sampleNote("default-note", List.of("architecture")));
+        projectA.save(sampleNote("a-1", List.of("architecture", "api")));
+        projectA.save(sampleNote("a-2", List.of("architecture")));
+        projectA.addLink(new LinkDefinition("a-1", "a-2", "CALLS", "a-1 calls a-2"));
+
+        assertEquals(Set.of("a-1", "a-2"), ids(projectA.findAll()));
+        assertEquals(Set.of("default-note"), ids(repository.findAll()));
+        assertEquals(Set.of("a-1", "a-2"), ids(projectA.findByTag("architecture")));
+        assertEquals(Set.of("default-note"), ids(repository.findByTag("architecture")));
+        assertTrue(repository.findById(new MemoryNoteId("a-1")).isEmpty());
+        assertEquals("project_a", projectA.findById(new MemoryNoteId("a-1")).get().namespace());
+        assertEquals(Map.of("architecture", 2L, "api", 1L), projectA.countTags());
+        assertEquals(Set.of("default", "project_a"), repository.findAllNamespaces());
+    }
+
+    @Test
+    void namespaces_rejectCrossNamespaceWrites() {
+        MemoryNoteRepository projectA = repository.inNamespace("project_a");
+        repository.save(sampleNote("default-note", List.of()));
+        projectA.save(sampleNote("a-1", List.of()));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> projectA.addLink(new LinkDefinition("a-1", "default-note", "CALLS", "cross-namespace link")));
+        assertThrows(IllegalArgumentException.class,
+                () -> projectA.save(sampleNote("default-note", List.of())));
+        assertThrows(IllegalArgumentException.class,
+                () -> repository.save(sampleNote("x", List.of()).withNamespace("project_b")));
+
+        repository.delete(new MemoryNoteId("a-1"));
+        assertTrue(projectA.findById(new MemoryNoteId("a-1")).isPresent());
+    }
+
+    @Test
+    void contentThatLooksCompressed_roundTrips() {
+        String content = "\u0000deflate:raw content of a note";
+        repository.save(new MemoryNote(new MemoryNoteId("marked"), content, List.of(), "test-context", List.of(),
+                List.of(), "2026-03-04T16:00:00Z", 0, null));
+        noteCache.clear();
+
+        assertNotEquals(content, dbRepository.findById("marked").get().getContent());
+        assertEquals(content, repository.findById(new MemoryNoteId("marked")).get().content());
+    }
+
+    private static Set<String> ids(List<MemoryNote> notes) {
+        return notes.stream().map(note -> note.id().value()).collect(Collectors.toSet());
+    }
 }
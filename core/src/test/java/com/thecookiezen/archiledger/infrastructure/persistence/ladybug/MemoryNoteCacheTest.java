@@ -0,0 +1,151 @@
+package com.thecookiezen.archiledger.infrastructure.persistence.ladybug;
+
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.MemoryNoteCache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoryNoteCacheTest {
+
+    private MemoryNote note(String id, int retrievalCount) {
+        return new MemoryNote(
+                new MemoryNoteId(id),
+                "Content for " + id,
+                List.of("keyword"),
+                "test-context",
+                List.of("tag"),
+                List.of(),
+                "2026-03-04T16:00:00Z",
+                retrievalCount,
+                null);
+    }
+
+    private long weightOfOneNote() {
+        MemoryNoteCache probe = new MemoryNoteCache(true, Long.MAX_VALUE, 0);
+        probe.get(new MemoryNoteId("n0"), id -> note(id.value(), 0));
+        return probe.stats().weight();
+    }
+
+    @Test
+    void shouldLoadOnceAndServeFromCache() {
+        MemoryNoteCache cache = new MemoryNoteCache(true, Long.MAX_VALUE, 0);
+
+        cache.get(new MemoryNoteId("n1"), id -> note(id.value(), 0));
+        MemoryNote cached = cache.get(new MemoryNoteId("n1"), id -> fail("should be served from cache"));
+
+        assertEquals("n1", cached.id().value());
+        assertEquals(1, cache.stats().hits());
+        assertEquals(1, cache.stats().misses());
+    }
+
+    @Test
+    void shouldNotCacheMissingNotes() {
+        MemoryNoteCache cache = new MemoryNoteCache(true, Long.MAX_VALUE, 0);
+
+        assertNull(cache.get(new MemoryNoteId("missing"), id -> null));
+
+        assertEquals(0, cache.stats().entries());
+    }
+
+    @Test
+    void shouldReloadAfterInvalidation() {
+        MemoryNoteCache cache = new MemoryNoteCache(true, Long.MAX_VALUE, 0);
+        cache.get(new MemoryNoteId("n1"), id -> note(id.value(), 0));
+
+        cache.invalidate(new MemoryNoteId("n1"));
+
+        assertEquals(3, cache.get(new MemoryNoteId("n1"), id -> note(id.value(), 3)).retrievalCount());
+    }
+
+    @Test
+    void shouldNotCacheLoadThatOverlappedInvalidation() {
+        MemoryNoteCache cache = new MemoryNoteCache(true, Long.MAX_VALUE, 0);
+
+        cache.get(new MemoryNoteId("n1"), id -> {
+            cache.invalidate(id);
+            return note(id.value(), 0);
+        });
+
+        assertEquals(0, cache.stats().entries());
+    }
+
+    @Test
+    void getIfPresentShouldNotLoad() {
+        MemoryNoteCache cache = new MemoryNoteCache(true, Long.MAX_VALUE, 0);
+
+        assertNull(cache.getIfPresent(new MemoryNoteId("n1")));
+        cache.get(new MemoryNoteId("n1"), id -> note(id.value(), 0));
+
+        assertEquals("n1", cache.getIfPresent(new MemoryNoteId("n1")).id().value());
+        assertEquals(1, cache.stats().entries());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedButKeepMostRetrievedNotesPinned() {
+        MemoryNoteCache cache = new MemoryNoteCache(true, 2 * weightOfOneNote(), 1);
+        cache.get(new MemoryNoteId("n1"), id -> note(id.value(), 7));
+        cache.get(new MemoryNoteId("n2"), id -> note(id.value(), 0));
+
+        cache.get(new MemoryNoteId("n3"), id -> note(id.value(), 0));
+
+        assertEquals(1, cache.stats().evictions());
+        assertEquals(7, cache.get(new MemoryNoteId("n1"), id -> fail("pinned note was evicted")).retrievalCount());
+        assertEquals(0, cache.get(new MemoryNoteId("n3"), id -> fail("newest note was evicted")).retrievalCount());
+    }
+
+    @Test
+    void shouldNotDropLoadWhenAnotherKeyIsInvalidated() {
+        MemoryNoteCache cache = new MemoryNoteCache(true, Long.MAX_VALUE, 0);
+
+        cache.get(new MemoryNoteId("n1"), id -> {
+            cache.invalidate(new MemoryNoteId("n2"));
+            return note(id.value(), 0);
+        });
+
+        assertEquals(1, cache.stats().entries());
+    }
+
+    @Test
+    void shouldPinNoteWhoseRetrievalCountGrowsPastThePinnedOne() {
+        MemoryNoteCache cache = new MemoryNoteCache(true, 2 * weightOfOneNote(), 1);
+        cache.get(new MemoryNoteId("n1"), id -> note(id.value(), 2));
+        cache.get(new MemoryNoteId("n2"), id -> note(id.value(), 1));
+        cache.update(new MemoryNoteId("n2"), n -> n.withRetrievalCount(9));
+        cache.get(new MemoryNoteId("n1"), id -> fail("should be served from cache"));
+
+        cache.get(new MemoryNoteId("n3"), id -> note(id.value(), 0));
+
+        assertEquals(9, cache.get(new MemoryNoteId("n2"), id -> fail("pinned note was evicted")).retrievalCount());
+        assertEquals(3, cache.get(new MemoryNoteId("n1"), id -> note(id.value(), 3)).retrievalCount());
+    }
+
+    @Test
+    void shouldKeepNotesWithTheSameIdApartPerDatabase() {
+        MemoryNoteCache cache = new MemoryNoteCache(true, Long.MAX_VALUE, 0);
+        MemoryNoteCache tenantA = cache.forDatabase("tenant_a");
+        MemoryNoteCache tenantB = cache.forDatabase("tenant_b");
+        tenantA.get(new MemoryNoteId("n1"), id -> note(id.value(), 1));
+        tenantB.get(new MemoryNoteId("n1"), id -> note(id.value(), 2));
+
+        tenantA.invalidate(new MemoryNoteId("n1"));
+
+        assertEquals(2, tenantB.get(new MemoryNoteId("n1"), id -> fail("should be served from cache")).retrievalCount());
+        assertEquals(4, tenantA.get(new MemoryNoteId("n1"), id -> note(id.value(), 4)).retrievalCount());
+        assertNull(cache.get(new MemoryNoteId("n1"), id -> null));
+    }
+
+    @Test
+    void shouldUpdateCachedNoteInPlace() {
+        MemoryNoteCache cache = new MemoryNoteCache(true, Long.MAX_VALUE, 0);
+        cache.get(new MemoryNoteId("n1"), id -> note(id.value(), 0));
+
+        cache.update(new MemoryNoteId("n1"), n -> n.withRetrievalCount(5));
+
+        assertEquals(5, cache.get(new MemoryNoteId("n1"), id -> fail("should be served from cache")).retrievalCount());
+    }
+}
@@ -0,0 +1,97 @@
+package com.thecookiezen.archiledger.infrastructure.persistence.ladybug;
+
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.repository.MemoryNoteRepository;
+import com.thecookiezen.archiledger.infrastructure.config.LadybugDBConfig;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.LadybugMemoryNoteRepository;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.MemoryNoteCache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = NamespaceDatabasesIntegrationTest.TestConfig.class)
+class NamespaceDatabasesIntegrationTest {
+
+    @org.springframework.context.annotation.Configuration
+    @org.springframework.context.annotation.Import(LadybugDBConfig.class)
+    @org.springframework.context.annotation.ComponentScan(basePackages = {
+            "com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb"
+    })
+    static class TestConfig {
+    }
+
+    @DynamicPropertySource
+    static void databases(DynamicPropertyRegistry registry) throws IOException {
+        String root = Files.createTempDirectory("archiledger-namespaces").toString();
+        registry.add("ladybugdb.databases.enabled", () -> "true");
+        registry.add("ladybugdb.databases.root", () -> root);
+    }
+
+    @Autowired
+    private LadybugMemoryNoteRepository repository;
+
+    @Autowired
+    private MemoryNoteCache noteCache;
+
+    @BeforeEach
+    void cleanDatabases() {
+        for (String namespace : List.of("tenant_a", "tenant_b")) {
+            MemoryNoteRepository scoped = repository.inNamespace(namespace);
+            scoped.findAll().forEach(note -> scoped.delete(note.id()));
+        }
+        noteCache.clear();
+    }
+
+    private MemoryNote note(String id, String content) {
+        return new MemoryNote(
+                new MemoryNoteId(id),
+                content,
+                List.of("keyword"),
+                "test-context",
+                List.of("tag"),
+                List.of(),
+                "2026-03-04T16:00:00Z",
+                0,
+                null);
+    }
+
+    @Test
+    void namespaceDatabasesMayReuseAnIdWithoutSeeingEachOthersNote() {
+        MemoryNoteRepository tenantA = repository.inNamespace("tenant_a");
+        MemoryNoteRepository tenantB = repository.inNamespace("tenant_b");
+        tenantA.save(note("shared-id", "Belongs to tenant A"));
+        tenantB.save(note("shared-id", "Belongs to tenant B"));
+
+        assertEquals("Belongs to tenant A", tenantA.findById(new MemoryNoteId("shared-id")).orElseThrow().content());
+        assertEquals("Belongs to tenant B", tenantB.findById(new MemoryNoteId("shared-id")).orElseThrow().content());
+        assertEquals("Belongs to tenant A", tenantA.findById(new MemoryNoteId("shared-id")).orElseThrow().content());
+    }
+
+    @Test
+    void deletingInOneNamespaceDatabaseKeepsTheOtherCached() {
+        MemoryNoteRepository tenantA = repository.inNamespace("tenant_a");
+        MemoryNoteRepository tenantB = repository.inNamespace("tenant_b");
+        tenantA.save(note("shared-id", "Belongs to tenant A"));
+        tenantB.save(note("shared-id", "Belongs to tenant B"));
+        tenantB.findById(new MemoryNoteId("shared-id"));
+
+        tenantA.delete(new MemoryNoteId("shared-id"));
+
+        assertTrue(tenantA.findById(new MemoryNoteId("shared-id")).isEmpty());
+        assertEquals("Belongs to tenant B", tenantB.findById(new MemoryNoteId("shared-id")).orElseThrow().content());
+    }
+}
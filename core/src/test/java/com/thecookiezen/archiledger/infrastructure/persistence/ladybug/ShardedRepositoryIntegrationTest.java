@@ -0,0 +1,254 @@
+package com.thecookiezen.archiledger.infrastructure.persistence.ladybug;
+
+import com.thecookiezen.archiledger.domain.model.LinkDefinition;
+import com.thecookiezen.archiledger.domain.model.LinkDirection;
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.NoteLink;
+import com.thecookiezen.archiledger.domain.model.SimilarityResult;
+import com.thecookiezen.archiledger.domain.repository.EmbeddingsService;
+import com.thecookiezen.archiledger.domain.repository.MemoryNoteRepository;
+import com.thecookiezen.archiledger.infrastructure.config.LadybugDBConfig;
+import com.thecookiezen.archiledger.infrastructure.config.LadybugShards;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.MemoryNoteCache;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.ShardedMemoryNoteRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.transformers.TransformersEmbeddingModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = ShardedRepositoryIntegrationTest.TestConfig.class)
+class ShardedRepositoryIntegrationTest {
+
+    @Configuration
+    @Import(LadybugDBConfig.class)
+    @ComponentScan(basePackages = {
+            "com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb",
+            "com.thecookiezen.archiledger.infrastructure.embeddings"
+    })
+    static class TestConfig {
+
+        @Bean
+        public EmbeddingModel embeddingModel() {
+            return new TransformersEmbeddingModel();
+        }
+    }
+
+    @DynamicPropertySource
+    static void shards(DynamicPropertyRegistry registry) throws IOException {
+        String root = Files.createTempDirectory("archiledger-shards").toString();
+        registry.add("ladybugdb.shards.count", () -> "2");
+        registry.add("ladybugdb.shards.root", () -> root);
+    }
+
+    @Autowired
+    private MemoryNoteRepository repository;
+
+    @Autowired
+    private LadybugShards shards;
+
+    @Autowired
+    private EmbeddingsService embeddingsService;
+
+    @Autowired
+    private MemoryNoteCache noteCache;
+
+    @BeforeEach
+    void cleanShards() {
+        assertInstanceOf(ShardedMemoryNoteRepository.class, repository);
+        repository.findAll().forEach(note -> repository.delete(note.id()));
+        noteCache.clear();
+    }
+
+    private String idOnShard(String prefix, int shard) {
+        for (int i = 0; ; i++) {
+            String id = prefix + "-" + i;
+            if (shards.shardOf(id) == shard) {
+                return id;
+            }
+        }
+    }
+
+    private MemoryNote note(String id, String content, String tag) {
+        return new MemoryNote(
+                new MemoryNoteId(id),
+                content,
+                List.of(),
+                "test-context",
+                List.of(tag),
+                List.of(),
+                "2026-03-21T10:00:00Z",
+                0,
+                null);
+    }
+
+    private MemoryNote saveWithEmbedding(MemoryNote note) {
+        return repository.save(note.withEmbedding(embeddingsService.generateEmbeddings(note)));
+    }
+
+    private static Set<String> ids(List<MemoryNote> notes) {
+        return notes.stream().map(note -> note.id().value()).collect(Collectors.toSet());
+    }
+
+    @Test
+    void similaritySearch_mergesGlobalTopKFromAllShards() {
+        String java = idOnShard("java", 0);
+        String python = idOnShard("python", 1);
+        String cooking = idOnShard("cooking", 1);
+        saveWithEmbedding(note(java, "Java is a programming language. Spring Boot is a Java framework for microservices.", "lang"));
+        saveWithEmbedding(note(python, "Python is a programming language. Django is a Python web framework.", "lang"));
+        saveWithEmbedding(note(cooking, "Boil water, add salt and cook the spaghetti for ten minutes.", "food"));
+
+        List<SimilarityResult<MemoryNote>> results = repository.findSimilar(
+                embeddingsService.embed("programming language frameworks"), 2);
+
+        assertEquals(Set.of(java, python), results.stream().map(result -> result.item().id().value()).collect(Collectors.toSet()));
+        assertTrue(results.get(0).score() >= results.get(1).score());
+    }
+
+    @Test
+    void moreLikeThis_mergesRelatedNotesFromAllShards() {
+        String java = idOnShard("java", 0);
+        String kotlin = idOnShard("kotlin", 0);
+        String python = idOnShard("python", 1);
+        String cooking = idOnShard("cooking", 0);
+        saveWithEmbedding(note(java, "Java is a programming language. Spring Boot is a Java framework for microservices.", "lang"));
+        saveWithEmbedding(note(python, "Python is a programming language. Django is a Python web framework.", "lang"));
+        saveWithEmbedding(note(kotlin, "Kotlin is a programming language. Ktor is a Kotlin web framework.", "lang"));
+        saveWithEmbedding(note(cooking, "Boil water, add salt and cook the spaghetti for ten minutes.", "food"));
+
+        List<SimilarityResult<MemoryNote>> results = repository.findMoreLikeThis(new MemoryNoteId(java), 2);
+
+        assertEquals(Set.of(kotlin, python), results.stream().map(result -> result.item().id().value()).collect(Collectors.toSet()));
+        assertTrue(results.get(0).score() >= results.get(1).score());
+    }
+
+    @Test
+    void listingAndTagQueries_gatherEveryShard() {
+        String first = idOnShard("note", 0);
+        String second = idOnShard("note", 1);
+        repository.save(note(first, "First note", "shared"));
+        repository.save(note(second, "Second note", "shared"));
+
+        assertEquals(Set.of(first, second), ids(repository.findAll()));
+        assertEquals(Set.of(first, second), ids(repository.findByTag("shared")));
+        assertEquals(2L, repository.countTags().get("shared"));
+    }
+
+    @Test
+    void crossShardLink_isVisibleFromBothEnds() {
+        MemoryNoteId source = new MemoryNoteId(idOnShard("source", 0));
+        MemoryNoteId target = new MemoryNoteId(idOnShard("target", 1));
+        repository.save(note(source.value(), "Source note", "link"));
+        repository.save(note(target.value(), "Target note", "link"));
+
+        repository.addLink(new LinkDefinition(source, target, "relates_to", "across shards"));
+
+        assertEquals(List.of(new NoteLink(target, "relates_to", "across shards")),
+                repository.findById(source).orElseThrow().links());
+        assertEquals(Set.of(source.value()), ids(repository.findLinkedNotes(target)));
+        assertEquals(Set.of(source.value()), ids(repository.expand(target, LinkDirection.INCOMING, 1, 10)));
+        assertEquals(Set.of(target.value()), ids(repository.expand(source, LinkDirection.OUTGOING, 1, 10)));
+    }
+
+    @Test
+    void crossShardLinks_areDistinctPerContext() {
+        MemoryNoteId source = new MemoryNoteId(idOnShard("source", 0));
+        MemoryNoteId target = new MemoryNoteId(idOnShard("target", 1));
+        repository.save(note(source.value(), "Source note", "link"));
+        repository.save(note(target.value(), "Target note", "link"));
+
+        repository.addLink(new LinkDefinition(source, target, "relates_to", "first reason"));
+        repository.addLink(new LinkDefinition(source, target, "relates_to", "second reason"));
+        repository.addLink(new LinkDefinition(source, target, "relates_to", "first reason"));
+
+        assertEquals(Set.of(new NoteLink(target, "relates_to", "first reason"), new NoteLink(target, "relates_to", "second reason")),
+                Set.copyOf(repository.findById(source).orElseThrow().links()));
+        assertEquals(2, repository.findById(source).orElseThrow().links().size());
+    }
+
+    @Test
+    void crossShardLink_toMissingNoteIsRejected() {
+        MemoryNoteId source = new MemoryNoteId(idOnShard("source", 0));
+        repository.save(note(source.value(), "Source note", "link"));
+
+        assertThrows(IllegalArgumentException.class, () -> repository.addLink(
+                new LinkDefinition(source, new MemoryNoteId(idOnShard("missing", 1)), "relates_to", "none")));
+        assertTrue(repository.findById(source).orElseThrow().links().isEmpty());
+    }
+
+    @Test
+    void removeLink_dropsCrossShardLinkOnBothShards() {
+        MemoryNoteId source = new MemoryNoteId(idOnShard("source", 0));
+        MemoryNoteId target = new MemoryNoteId(idOnShard("target", 1));
+        repository.save(note(source.value(), "Source note", "link"));
+        repository.save(note(target.value(), "Target note", "link"));
+        repository.addLink(new LinkDefinition(source, target, "relates_to", "across shards"));
+
+        repository.removeLink(source, target, "relates_to");
+
+        assertTrue(repository.findById(source).orElseThrow().links().isEmpty());
+        assertTrue(repository.findLinkedNotes(target).isEmpty());
+    }
+
+    @Test
+    void deletingNote_dropsItsCrossShardLinksOnThePartnerShard() {
+        MemoryNoteId source = new MemoryNoteId(idOnShard("source", 0));
+        MemoryNoteId target = new MemoryNoteId(idOnShard("target", 1));
+        repository.save(note(source.value(), "Source note", "link"));
+        repository.save(note(target.value(), "Target note", "link"));
+        repository.addLink(new LinkDefinition(source, target, "relates_to", "across shards"));
+
+        repository.delete(target);
+
+        assertTrue(repository.findById(source).orElseThrow().links().isEmpty());
+        assertTrue(repository.expand(source, LinkDirection.OUTGOING, 1, 10).isEmpty());
+
+        repository.save(note(target.value(), "Target note again", "link"));
+        assertTrue(repository.findLinkedNotes(target).isEmpty());
+    }
+
+    @Test
+    void archivedNote_getsItsCrossShardLinksBackOnRestore() {
+        MemoryNoteId source = new MemoryNoteId(idOnShard("archived-source", 0));
+        MemoryNoteId target = new MemoryNoteId(idOnShard("archived-target", 1));
+        MemoryNoteId other = new MemoryNoteId(idOnShard("archived-other", 1));
+        repository.save(note(source.value(), "Source note", "link"));
+        repository.save(note(target.value(), "Target note", "link"));
+        repository.save(note(other.value(), "Other note", "link"));
+        repository.addLink(new LinkDefinition(source, target, "relates_to", "across shards"));
+        repository.addLink(new LinkDefinition(other, source, "depends_on", "back across shards"));
+
+        assertEquals(1, repository.archive(List.of(source)));
+        assertTrue(repository.findLinkedNotes(target).isEmpty());
+        assertTrue(repository.findById(other).orElseThrow().links().isEmpty());
+
+        MemoryNote restored = repository.restore(repository.findArchived(source).orElseThrow());
+
+        assertEquals(List.of(new NoteLink(target, "relates_to", "across shards")), restored.links());
+        assertEquals(restored.links(), repository.findById(source).orElseThrow().links());
+        assertEquals(Set.of(source.value()), ids(repository.findLinkedNotes(target)));
+        assertEquals(List.of(new NoteLink(source, "depends_on", "back across shards")),
+                repository.findById(other).orElseThrow().links());
+    }
+}
@@ -4,9 +4,11 @@ import com.thecookiezen.archiledger.domain.model.MemoryNote;
 import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
 import com.thecookiezen.archiledger.domain.model.SimilarityResult;
 import com.thecookiezen.archiledger.domain.repository.EmbeddingsService;
+import com.thecookiezen.archiledger.domain.repository.MemoryNoteRepository;
 import com.thecookiezen.archiledger.infrastructure.config.LadybugDBConfig;
 import com.thecookiezen.archiledger.infrastructure.embeddings.LadybugVectorExtensionInitializer;
 import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.LadybugMemoryNoteRepository;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.MemoryNoteCache;
 import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.MemoryNoteDbRepository;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -24,6 +26,7 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -58,9 +61,13 @@ class SimilaritySearchIntegrationTest {
     @Autowired
     private LadybugVectorExtensionInitializer vectorExtensionInitializer;
 
+    @Autowired
+    private MemoryNoteCache noteCache;
+
     @BeforeEach
     void cleanDatabase() {
         dbRepository.deleteAllNotesWithEmbeddings();
+        noteCache.clear();
         vectorExtensionInitializer.recreateIndex();
     }
 
@@ -261,6 +268,114 @@ class SimilaritySearchIntegrationTest {
                 "Lower temperature should give lower score for same distance");
     }
 
+    @Test
+    void findSimilarBatch_returnsResultsPerQueryInOrder() {
+        saveNoteWithEmbedding(createNote("java-note",
+                "Java is a high-level programming language. Spring Boot is a popular Java framework."));
+        saveNoteWithEmbedding(createNote("cooking-note",
+                "To make pasta, boil water and add salt. Cook spaghetti for 10 minutes until al dente."));
+
+        List<float[]> queryEmbeddings = embeddingsService.embedAll(
+                List.of("programming languages", "cooking pasta recipes"));
+        List<List<SimilarityResult<MemoryNote>>> results = repository.findSimilarBatch(queryEmbeddings, 10, -1, 0);
+
+        assertEquals(2, results.size());
+        assertEquals("java-note", results.get(0).get(0).item().id().value());
+        assertEquals("cooking-note", results.get(1).get(0).item().id().value());
+    }
+
+    @Test
+    void findSimilarBatch_hydratesSharedNotesOnce() {
+        saveNoteWithEmbedding(createNote("java-note",
+                "Java is a high-level programming language. Spring Boot is a popular Java framework."));
+
+        List<float[]> queryEmbeddings = embeddingsService.embedAll(List.of("Java", "Spring Boot"));
+        List<List<SimilarityResult<MemoryNote>>> results = repository.findSimilarBatch(queryEmbeddings, 10, -1, 0);
+
+        assertSame(results.get(0).get(0).item(), results.get(1).get(0).item());
+    }
+
+    @Test
+    void similaritySearch_isConfinedToNamespaceIndex() {
+        MemoryNoteRepository projectA = repository.inNamespace("search_project_a");
+        MemoryNote javaNote = createNote("ns-java-note",
+                "Java is a high-level programming language. Spring Boot is a popular Java framework for building microservices.");
+        saveNoteWithEmbedding(createNote("default-java-note",
+                "Java is a high-level programming language used for enterprise backends."));
+        projectA.save(javaNote.withEmbedding(embeddingsService.generateEmbeddings(javaNote)));
+
+        try {
+            float[] queryEmbedding = embeddingsService.embed("Java programming");
+
+            List<SimilarityResult<MemoryNote>> namespaceResults = projectA.findSimilar(queryEmbedding, 10);
+            List<SimilarityResult<MemoryNote>> defaultResults = repository.findSimilar(queryEmbedding, 10);
+
+            assertEquals(List.of("ns-java-note"), namespaceResults.stream().map(r -> r.item().id().value()).toList());
+            assertEquals(List.of("default-java-note"), defaultResults.stream().map(r -> r.item().id().value()).toList());
+        } finally {
+            projectA.delete(javaNote.id());
+        }
+    }
+
+    @Test
+    void moreLikeThis_readsNeighborsLinkedAtInsert() {
+        MemoryNote javaNote = createNote("java-note",
+                "Java is a high-level programming language. Spring Boot is a popular Java framework for building microservices.");
+        MemoryNote cookingNote = createNote("cooking-note",
+                "To make pasta, boil water and add salt. Cook spaghetti for 10 minutes until al dente.");
+        MemoryNote pythonNote = createNote("python-note",
+                "Python is a high-level programming language. Django is a popular Python framework for web development.");
+        saveNoteWithEmbedding(javaNote);
+        saveNoteWithEmbedding(cookingNote);
+        saveNoteWithEmbedding(pythonNote);
+
+        List<String> linked = dbRepository.findSimilarTo("java-note", 10).stream()
+                .map(projection -> projection.note().getId())
+                .toList();
+        List<SimilarityResult<MemoryNote>> related = repository.findMoreLikeThis(javaNote.id(), 2);
+
+        assertTrue(linked.contains("python-note"), "Python note inserted later should join the Java note's neighbors: " + linked);
+        assertEquals(List.of("python-note", "cooking-note"), related.stream().map(r -> r.item().id().value()).toList());
+        assertTrue(related.get(0).score() > related.get(1).score());
+    }
+
+    @Test
+    void moreLikeThis_rebuildsNeighborsAfterNeighborIsDeleted() throws InterruptedException {
+        MemoryNote javaNote = createNote("java-note",
+                "Java is a high-level programming language. Spring Boot is a popular Java framework for building microservices.");
+        MemoryNote pythonNote = createNote("python-note",
+                "Python is a high-level programming language. Django is a popular Python framework for web development.");
+        MemoryNote cookingNote = createNote("cooking-note",
+                "To make pasta, boil water and add salt. Cook spaghetti for 10 minutes until al dente.");
+        saveNoteWithEmbedding(javaNote);
+        saveNoteWithEmbedding(pythonNote);
+        saveNoteWithEmbedding(cookingNote);
+
+        repository.delete(pythonNote.id());
+
+        assertEquals(List.of("cooking-note"), repository.findMoreLikeThis(javaNote.id(), 5).stream()
+                .map(r -> r.item().id().value())
+                .toList());
+        awaitRelinked("java-note");
+        assertEquals(1, dbRepository.findSimilarTo("java-note", 10).size());
+    }
+
+    /**
+     * Waits for the background relink of a stale similar-note list to finish.
+     */
+    private void awaitRelinked(String noteId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!dbRepository.findIdIfSimilarStale(noteId).isEmpty()) {
+            assertTrue(System.nanoTime() < deadline, "similar notes of " + noteId + " were not relinked");
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    void moreLikeThis_ofUnknownNote_isEmpty() {
+        assertTrue(repository.findMoreLikeThis(new MemoryNoteId("missing"), 5).isEmpty());
+    }
+
     private MemoryNote createNote(String id, String content) {
         return new MemoryNote(
                 new MemoryNoteId(id),
@@ -0,0 +1,230 @@
+package com.thecookiezen.archiledger.infrastructure.snapshot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thecookiezen.archiledger.application.cache.QueryKey;
+import com.thecookiezen.archiledger.application.cache.QueryResultCache;
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.Namespaces;
+import com.thecookiezen.archiledger.domain.model.NoteLink;
+import com.thecookiezen.archiledger.domain.repository.EmbeddingsService;
+import com.thecookiezen.archiledger.domain.repository.MemoryNoteRepository;
+import com.thecookiezen.archiledger.infrastructure.config.LadybugDBConfig;
+import com.thecookiezen.archiledger.infrastructure.embeddings.LadybugVectorExtensionInitializer;
+import com.thecookiezen.archiledger.infrastructure.importing.LadybugBulkImporter;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.LadybugMemoryNoteRepository;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.MemoryNoteCache;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.MemoryNoteDbRepository;
+import com.thecookiezen.archiledger.infrastructure.snapshot.SnapshotManifest.Kind;
+import com.thecookiezen.archiledger.infrastructure.snapshot.SnapshotManifest.SnapshotFile;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = LadybugSnapshotsIntegrationTest.TestConfig.class)
+class LadybugSnapshotsIntegrationTest {
+
+    private static final int DIMENSIONS = 384;
+
+    private static final String NAMESPACE = "team_a";
+
+    @Configuration
+    @Import({ LadybugDBConfig.class, LadybugVectorExtensionInitializer.class })
+    @ComponentScan(basePackages = {
+            "com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb",
+            "com.thecookiezen.archiledger.infrastructure.importing",
+            "com.thecookiezen.archiledger.infrastructure.snapshot"
+    })
+    static class TestConfig {
+
+        @Bean
+        public HashingEmbeddings embeddingsService() {
+            return new HashingEmbeddings();
+        }
+
+        @Bean
+        public QueryResultCache queryCache() {
+            return new QueryResultCache(true, 100);
+        }
+    }
+
+    /**
+     * Deterministic embeddings derived from the text, so identical content is always the nearest match.
+     */
+    static class HashingEmbeddings implements EmbeddingsService {
+
+        @Override
+        public float[] generateEmbeddings(MemoryNote note) {
+            return embed(note.content());
+        }
+
+        @Override
+        public float[] embed(String text) {
+            float[] vector = new float[DIMENSIONS];
+            for (int i = 0; i < text.length(); i++) {
+                vector[(text.charAt(i) * 31 + i) % DIMENSIONS] += 1.0f;
+            }
+            return vector;
+        }
+
+        @Override
+        public List<float[]> embedAll(List<String> texts) {
+            return texts.stream().map(this::embed).toList();
+        }
+    }
+
+    @TempDir
+    Path directory;
+
+    @Autowired
+    private LadybugSnapshots snapshots;
+
+    @Autowired
+    private LadybugBulkImporter importer;
+
+    @Autowired
+    private LadybugMemoryNoteRepository repository;
+
+    @Autowired
+    private MemoryNoteDbRepository dbRepository;
+
+    @Autowired
+    private MemoryNoteCache noteCache;
+
+    @Autowired
+    private QueryResultCache queryCache;
+
+    @Autowired
+    private LadybugVectorExtensionInitializer vectorInitializer;
+
+    @Autowired
+    private HashingEmbeddings embeddings;
+
+    @BeforeEach
+    void cleanDatabase() {
+        emptyDatabase();
+        vectorInitializer.recreateIndex();
+    }
+
+    private void emptyDatabase() {
+        for (MemoryNoteRepository scoped : List.of(repository, repository.inNamespace(NAMESPACE))) {
+            scoped.findAll().forEach(note -> scoped.delete(note.id()));
+        }
+        dbRepository.deleteArchived(Namespaces.DEFAULT, "archived-1");
+        noteCache.clear();
+    }
+
+    private void populate() throws IOException {
+        Path defaultCorpus = directory.resolve("default.jsonl");
+        Files.write(defaultCorpus, List.of(
+                "{\"id\": \"n1\", \"content\": \"Event sourcing keeps every change\", \"tags\": [\"arch\"], "
+                        + "\"links\": [{\"target\": \"n2\", \"relationType\": \"RELATED\", \"context\": \"both patterns\"}]}",
+                "{\"id\": \"n2\", \"content\": \"CQRS splits reads from writes\", \"tags\": [\"arch\"]}",
+                "{\"id\": \"archived-1\", \"content\": \"Old decision\"}"));
+        Path namespaceCorpus = directory.resolve("team.jsonl");
+        Files.write(namespaceCorpus, List.of("{\"id\": \"t1\", \"content\": \"Team A deploys on Fridays\"}"));
+        importer.importFile(defaultCorpus, Namespaces.DEFAULT);
+        importer.importFile(namespaceCorpus, NAMESPACE);
+        repository.archive(List.of(new MemoryNoteId("archived-1")));
+    }
+
+    private void assertRestored() {
+        MemoryNote first = repository.findById(new MemoryNoteId("n1")).orElseThrow();
+        assertEquals("Event sourcing keeps every change", first.content());
+        assertEquals(List.of(new NoteLink("n2", "RELATED", "both patterns")), first.links());
+        assertEquals("n2", repository.findSimilar(embeddings.embed("CQRS splits reads from writes"), 1)
+                .getFirst().item().id().value());
+        MemoryNoteRepository team = repository.inNamespace(NAMESPACE);
+        assertEquals("Team A deploys on Fridays", team.findById(new MemoryNoteId("t1")).orElseThrow().content());
+        assertEquals("t1", team.findSimilar(embeddings.embed("Team A deploys on Fridays"), 1)
+                .getFirst().item().id().value());
+        assertTrue(repository.findArchived(new MemoryNoteId("archived-1")).isPresent());
+    }
+
+    @Test
+    void restoresAnExportedSnapshotIntoAnEmptyDatabase() throws IOException {
+        populate();
+        Path snapshot = directory.resolve("snapshot");
+
+        SnapshotReport exported = snapshots.export(snapshot);
+        emptyDatabase();
+        queryCache.get(QueryKey.of("getNotesByTag", "arch").withScope(Namespaces.DEFAULT), () -> List.of());
+        snapshots.restore(snapshot);
+
+        assertEquals(3, exported.manifest().rows(Kind.NOTES));
+        assertEquals(1, exported.manifest().rows(Kind.LINKS));
+        assertEquals(1, exported.manifest().rows(Kind.ARCHIVED));
+        assertEquals(0, queryCache.stats().entries());
+        assertRestored();
+    }
+
+    @Test
+    void refusesToRestoreIntoADatabaseWithNotes() throws IOException {
+        populate();
+        Path snapshot = directory.resolve("snapshot");
+        snapshots.export(snapshot);
+
+        assertThrows(IllegalStateException.class, () -> snapshots.restore(snapshot));
+    }
+
+    @Test
+    void failedRestoreIsRemovedAndCanBeRetried() throws IOException {
+        populate();
+        Path snapshot = directory.resolve("snapshot");
+        snapshots.export(snapshot);
+        emptyDatabase();
+        Path backup = Files.createDirectories(directory.resolve("backup"));
+        Files.copy(snapshot.resolve("links.parquet"), backup.resolve("links.parquet"));
+        Files.copy(snapshot.resolve(LadybugSnapshots.MANIFEST), backup.resolve(LadybugSnapshots.MANIFEST));
+        replaceLinksWithNotes(snapshot);
+
+        assertThrows(IllegalStateException.class, () -> snapshots.restore(snapshot));
+
+        assertTrue(repository.findAll().isEmpty());
+        assertTrue(repository.inNamespace(NAMESPACE).findAll().isEmpty());
+        Files.copy(backup.resolve("links.parquet"), snapshot.resolve("links.parquet"),
+                StandardCopyOption.REPLACE_EXISTING);
+        Files.copy(backup.resolve(LadybugSnapshots.MANIFEST), snapshot.resolve(LadybugSnapshots.MANIFEST),
+                StandardCopyOption.REPLACE_EXISTING);
+        snapshots.restore(snapshot);
+        assertRestored();
+    }
+
+    /**
+     * Swaps the links file for the notes file and fixes its checksum, so the snapshot verifies but the links
+     * copy fails after notes and embeddings are loaded.
+     */
+    private void replaceLinksWithNotes(Path snapshot) throws IOException {
+        Path links = snapshot.resolve("links.parquet");
+        Files.copy(snapshot.resolve("notes.parquet"), links, StandardCopyOption.REPLACE_EXISTING);
+        ObjectMapper mapper = new ObjectMapper();
+        Path manifestFile = snapshot.resolve(LadybugSnapshots.MANIFEST);
+        SnapshotManifest manifest = mapper.readValue(manifestFile.toFile(), SnapshotManifest.class);
+        long size = Files.size(links);
+        String sha256 = LadybugSnapshots.sha256(links);
+        List<SnapshotFile> files = manifest.files().stream()
+                .map(file -> file.kind() != Kind.LINKS ? file
+                        : new SnapshotFile(file.name(), file.kind(), file.namespace(), file.rows(), size, sha256))
+                .toList();
+        mapper.writeValue(manifestFile.toFile(), new SnapshotManifest(manifest.formatVersion(), manifest.createdAt(),
+                manifest.embeddingDimensions(), files));
+    }
+}
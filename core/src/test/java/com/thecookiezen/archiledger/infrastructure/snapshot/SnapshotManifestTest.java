@@ -0,0 +1,49 @@
+package com.thecookiezen.archiledger.infrastructure.snapshot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thecookiezen.archiledger.infrastructure.snapshot.SnapshotManifest.Kind;
+import com.thecookiezen.archiledger.infrastructure.snapshot.SnapshotManifest.SnapshotFile;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotManifestTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldRoundTripThroughJson() throws IOException {
+        SnapshotManifest manifest = new SnapshotManifest(SnapshotManifest.FORMAT_VERSION, "2026-03-04T16:00:00Z", 384,
+                List.of(new SnapshotFile("notes.parquet", Kind.NOTES, null, 3, 1024, "ab"),
+                        new SnapshotFile("embeddings_default.parquet", Kind.EMBEDDINGS, "default", 2, 2048, "cd"),
+                        new SnapshotFile("embeddings_project_a.parquet", Kind.EMBEDDINGS, "project_a", 1, 512, "ef")));
+        ObjectMapper mapper = new ObjectMapper();
+
+        SnapshotManifest read = mapper.readValue(mapper.writeValueAsString(manifest), SnapshotManifest.class);
+
+        assertEquals(manifest, read);
+        assertEquals(3, read.rows(Kind.NOTES));
+        assertEquals(3, read.rows(Kind.EMBEDDINGS));
+        assertEquals(0, read.rows(Kind.LINKS));
+    }
+
+    @Test
+    void shouldChecksumFileContent() throws IOException {
+        Path file = directory.resolve("notes.parquet");
+        Files.writeString(file, "abc", StandardCharsets.UTF_8);
+
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", LadybugSnapshots.sha256(file));
+
+        Files.writeString(file, "abd", StandardCharsets.UTF_8);
+        assertNotEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", LadybugSnapshots.sha256(file));
+    }
+}
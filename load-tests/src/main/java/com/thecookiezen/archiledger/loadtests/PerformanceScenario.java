@@ -4,7 +4,9 @@ public record PerformanceScenario(
         String name,
         int noteCount,
         int linksPerNote,
-        int batchSize) {
+        int batchSize,
+        int writerThreads,
+        int searchQueries) {
     public int totalLinks() {
         return noteCount * linksPerNote;
     }
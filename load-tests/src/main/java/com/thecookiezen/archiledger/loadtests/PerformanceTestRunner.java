@@ -4,12 +4,16 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.IntStream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 import com.thecookiezen.archiledger.application.service.MemoryNoteService;
@@ -18,6 +22,7 @@ import com.thecookiezen.archiledger.domain.model.MemoryNote;
 import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
 
 @Component
+@Profile("!agentic")
 public class PerformanceTestRunner implements CommandLineRunner {
 
     private static final Logger log = LoggerFactory.getLogger(PerformanceTestRunner.class);
@@ -56,6 +61,15 @@ public class PerformanceTestRunner implements CommandLineRunner {
     @Value("${loadtest.batch-size:25}")
     private int batchSize;
 
+    @Value("${loadtest.writer-threads:1}")
+    private int writerThreads;
+
+    @Value("${loadtest.search-queries:0}")
+    private int searchQueries;
+
+    @Value("${loadtest.content-bytes:0}")
+    private int contentBytes;
+
     public PerformanceTestRunner(MemoryNoteService memoryNoteService) {
         this.memoryNoteService = memoryNoteService;
     }
@@ -65,12 +79,13 @@ public class PerformanceTestRunner implements CommandLineRunner {
         log.info("Starting Performance Test Runner...");
 
         PerformanceScenario scenario = new PerformanceScenario(scenarioName, noteCount, linksPerNote,
-                batchSize);
+                batchSize, writerThreads, searchQueries);
         PerformanceReport report = new PerformanceReport();
 
         runScenario(scenario, report);
 
         System.out.println(report.generateMarkdownTable());
+        log.info("Content compression: {}", memoryNoteService.compressionStats());
 
         System.exit(0);
     }
@@ -78,7 +93,8 @@ public class PerformanceTestRunner implements CommandLineRunner {
     private void runScenario(PerformanceScenario scenario, PerformanceReport report) {
         log.info("--------------------------------------------------");
         log.info("Running Scenario: {}", scenario.name());
-        log.info("Notes: {}, Links/Note: {}", scenario.noteCount(), scenario.linksPerNote());
+        log.info("Notes: {}, Links/Note: {}, Writer threads: {}", scenario.noteCount(), scenario.linksPerNote(),
+                scenario.writerThreads());
 
         long startTime = System.currentTimeMillis();
 
@@ -92,7 +108,27 @@ public class PerformanceTestRunner implements CommandLineRunner {
         long duration = endTime - startTime;
 
         log.info("Finished Scenario: {} in {} ms", scenario.name(), duration);
-        report.addResult(scenario.name(), scenario.noteCount(), scenario.totalLinks(), duration);
+
+        long searchDuration = 0;
+        if (scenario.searchQueries() > 0) {
+            long searchStartTime = System.currentTimeMillis();
+            try {
+                runSearches(scenario);
+            } catch (Exception e) {
+                log.error("Search phase of scenario {} failed", scenario.name(), e);
+            }
+            searchDuration = System.currentTimeMillis() - searchStartTime;
+            log.info("Ran {} similarity searches in {} ms", scenario.searchQueries(), searchDuration);
+        }
+
+        report.addResult(scenario.name(), scenario.noteCount(), scenario.totalLinks(), duration,
+                scenario.searchQueries(), searchDuration);
+    }
+
+    private void runSearches(PerformanceScenario scenario) {
+        for (int i = 0; i < scenario.searchQueries(); i++) {
+            memoryNoteService.similaritySearch(generateRandomContent(), 10, 0.0, 0.0);
+        }
     }
 
     private String generateRandomContent() {
@@ -112,63 +148,95 @@ public class PerformanceTestRunner implements CommandLineRunner {
         return sentence;
     }
 
-    private void processBatches(PerformanceScenario scenario) {
+    /**
+     * Note content of at least {@code loadtest.content-bytes} characters, for content-heavy graphs.
+     */
+    private String generateNoteContent() {
+        String content = generateRandomContent();
+        if (content.length() >= contentBytes) {
+            return content;
+        }
+        StringBuilder document = new StringBuilder(contentBytes + 64).append(content);
+        while (document.length() < contentBytes) {
+            document.append(' ').append(generateRandomContent());
+        }
+        return document.toString();
+    }
+
+    private void processBatches(PerformanceScenario scenario) throws Exception {
         log.info("Generating and saving data in batches...");
         int batches = (int) Math.ceil((double) scenario.noteCount() / scenario.batchSize());
-        int linksPerNote = scenario.linksPerNote();
 
-        for (int i = 0; i < batches; i++) {
-            long batchStartTime = System.currentTimeMillis();
-            int start = i * scenario.batchSize();
-            int end = Math.min(start + scenario.batchSize(), scenario.noteCount());
-
-            List<MemoryNote> batchNotes = IntStream.range(start, end)
-                    .mapToObj(idx -> {
-                        String uuid = UUID.randomUUID().toString();
-                        return new MemoryNote(
-                                new MemoryNoteId(uuid),
-                                generateRandomContent(),
-                                List.of("load-test", "benchmark"),
-                                "load-test-scenario",
-                                List.of("test"),
-                                List.of(),
-                                Instant.now().toString(),
-                                0,
-                                null);
-                    })
-                    .toList();
-
-            memoryNoteService.createNotes(batchNotes);
-
-            final int currentBatchSize = batchNotes.size();
-            int createdLinksCount = 0;
-            if (currentBatchSize > 0 && linksPerNote > 0) {
-                List<MemoryNoteId[]> linkPairs = new ArrayList<>();
-                for (int j = 0; j < currentBatchSize; j++) {
-                    MemoryNote source = batchNotes.get(j);
-                    for (int k = 0; k < linksPerNote; k++) {
-                        int targetIndex = (j + k + 1) % currentBatchSize;
-                        MemoryNote target = batchNotes.get(targetIndex);
-
-                        if (!source.id().equals(target.id())) {
-                            linkPairs.add(new MemoryNoteId[] { source.id(), target.id() });
-                        }
+        if (scenario.writerThreads() <= 1) {
+            for (int i = 0; i < batches; i++) {
+                processBatch(scenario, i, batches);
+            }
+            return;
+        }
+        try (ExecutorService executor = Executors.newFixedThreadPool(scenario.writerThreads())) {
+            List<Future<?>> pending = new ArrayList<>();
+            for (int i = 0; i < batches; i++) {
+                int batch = i;
+                pending.add(executor.submit(() -> processBatch(scenario, batch, batches)));
+            }
+            for (Future<?> future : pending) {
+                future.get();
+            }
+        }
+    }
+
+    private void processBatch(PerformanceScenario scenario, int i, int batches) {
+        int linksPerNote = scenario.linksPerNote();
+        long batchStartTime = System.currentTimeMillis();
+        int start = i * scenario.batchSize();
+        int end = Math.min(start + scenario.batchSize(), scenario.noteCount());
+
+        List<MemoryNote> batchNotes = IntStream.range(start, end)
+                .mapToObj(idx -> {
+                    String uuid = UUID.randomUUID().toString();
+                    return new MemoryNote(
+                            new MemoryNoteId(uuid),
+                            generateNoteContent(),
+                            List.of("load-test", "benchmark"),
+                            "load-test-scenario",
+                            List.of("test"),
+                            List.of(),
+                            Instant.now().toString(),
+                            0,
+                            null);
+                })
+                .toList();
+
+        memoryNoteService.createNotes(batchNotes);
+
+        final int currentBatchSize = batchNotes.size();
+        int createdLinksCount = 0;
+        if (currentBatchSize > 0 && linksPerNote > 0) {
+            List<MemoryNoteId[]> linkPairs = new ArrayList<>();
+            for (int j = 0; j < currentBatchSize; j++) {
+                MemoryNote source = batchNotes.get(j);
+                for (int k = 0; k < linksPerNote; k++) {
+                    int targetIndex = (j + k + 1) % currentBatchSize;
+                    MemoryNote target = batchNotes.get(targetIndex);
+
+                    if (!source.id().equals(target.id())) {
+                        linkPairs.add(new MemoryNoteId[] { source.id(), target.id() });
                     }
                 }
-                for (MemoryNoteId[] pair : linkPairs) {
-                    memoryNoteService.addLink(new LinkDefinition(pair[0], pair[1], "RELATED_TO", "Performance test link"));
-                }
-                createdLinksCount = linkPairs.size();
             }
+            for (MemoryNoteId[] pair : linkPairs) {
+                memoryNoteService.addLink(new LinkDefinition(pair[0], pair[1], "RELATED_TO", "Performance test link"));
+            }
+            createdLinksCount = linkPairs.size();
+        }
 
-            long batchEndTime = System.currentTimeMillis();
-            long batchDuration = batchEndTime - batchStartTime;
-            int totalOps = currentBatchSize + createdLinksCount;
-            double throughput = batchDuration > 0 ? (double) totalOps / (batchDuration / 1000.0) : 0.0;
+        long batchEndTime = System.currentTimeMillis();
+        long batchDuration = batchEndTime - batchStartTime;
+        int totalOps = currentBatchSize + createdLinksCount;
+        double throughput = batchDuration > 0 ? (double) totalOps / (batchDuration / 1000.0) : 0.0;
 
-            log.info("Batch {}/{}: {} notes, {} links in {} ms ({} ops/sec)",
-                    i + 1, batches, currentBatchSize, createdLinksCount, batchDuration,
-                    String.format("%.2f", throughput));
-        }
+        log.info("Batch {}/{}: {} notes, {} links in {} ms ({} ops/sec)",
+                i + 1, batches, currentBatchSize, createdLinksCount, batchDuration,
+                String.format("%.2f", throughput));
     }
 }
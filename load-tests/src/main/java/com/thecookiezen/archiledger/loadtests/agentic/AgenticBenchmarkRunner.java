@@ -0,0 +1,227 @@
+package com.thecookiezen.archiledger.loadtests.agentic;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.embabel.agent.api.invocation.AgentInvocation;
+import com.embabel.agent.core.AgentPlatform;
+import com.embabel.agent.core.ProcessOptions;
+import com.thecookiezen.archiledger.agenticmemory.AgentMetrics;
+import com.thecookiezen.archiledger.agenticmemory.AgenticMemoryProperties;
+import com.thecookiezen.archiledger.agenticmemory.DeferredEvolutionQueue;
+import com.thecookiezen.archiledger.agenticmemory.LlmScheduler;
+import com.thecookiezen.archiledger.agenticmemory.WriteMode;
+import com.thecookiezen.archiledger.agenticmemory.domain.EvolutionRequest;
+import com.thecookiezen.archiledger.agenticmemory.domain.UpsertMemoryRequest;
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.loadtests.agentic.StubChatModel.PromptKind;
+
+/**
+ * Drives {@code AgenticMemoryAgent} end to end against the stub models and reports write throughput and the
+ * latency of each agent action with the simulated model time subtracted, i.e. the cost of the agent plumbing,
+ * prompt rendering, response conversion and storage.
+ */
+@Component
+@Profile("agentic")
+public class AgenticBenchmarkRunner implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(AgenticBenchmarkRunner.class);
+
+    private static final String[] COMPONENTS = {
+            "The ingest pipeline", "The search service", "The graph store", "The embedding cache", "The scheduler",
+            "The API gateway", "The billing job", "The auth module", "The report builder", "The sync worker"
+    };
+
+    private static final String[] CONCERNS = {
+            "retries failed requests", "leaks connections under load", "needs a larger heap", "drops stale entries",
+            "times out on cold start", "logs too verbosely", "skips validation", "holds locks too long",
+            "batches writes", "ignores backpressure"
+    };
+
+    private static final String[] DECISIONS = {
+            "so we added a circuit breaker", "so we moved it behind a queue", "so we pinned the dependency",
+            "so we added an index", "so we split the service", "so we reverted the change",
+            "so we doubled the pool size", "so we added tracing", "so we cache the result", "so we paged the owner"
+    };
+
+    private final AgentPlatform agentPlatform;
+    private final DeferredEvolutionQueue evolutionQueue;
+    private final LlmScheduler llmScheduler;
+    private final AgentMetrics agentMetrics;
+    private final AgenticMemoryProperties properties;
+    private final StubChatModel chatModel;
+    private final StubEmbeddingModel embeddingModel;
+
+    @Value("${loadtest.scenario.name:Agentic}")
+    private String scenarioName;
+
+    @Value("${loadtest.note-count:200}")
+    private int writes;
+
+    @Value("${loadtest.writer-threads:1}")
+    private int writerThreads;
+
+    @Value("${loadtest.agentic.warmup-writes:20}")
+    private int warmupWrites;
+
+    public AgenticBenchmarkRunner(AgentPlatform agentPlatform, DeferredEvolutionQueue evolutionQueue,
+            LlmScheduler llmScheduler, AgentMetrics agentMetrics, AgenticMemoryProperties properties,
+            StubChatModel chatModel, StubEmbeddingModel embeddingModel) {
+        this.agentPlatform = agentPlatform;
+        this.evolutionQueue = evolutionQueue;
+        this.llmScheduler = llmScheduler;
+        this.agentMetrics = agentMetrics;
+        this.properties = properties;
+        this.chatModel = chatModel;
+        this.embeddingModel = embeddingModel;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        log.info("Starting Agentic Memory Benchmark: {} writes on {} threads, write mode {}, evolution mode {}",
+                writes, writerThreads, evolutionQueue.writeMode(), properties.evolutionMode());
+
+        log.info("Warming up with {} writes...", warmupWrites);
+        runWrites(0, warmupWrites, new LongAdder());
+        evolutionQueue.awaitIdle(Duration.ofMinutes(10));
+
+        Snapshot before = snapshot();
+        LongAdder writeNanos = new LongAdder();
+        long started = System.nanoTime();
+        runWrites(warmupWrites, writes, writeNanos);
+        long duration = System.nanoTime() - started;
+        long drainStarted = System.nanoTime();
+        if (!evolutionQueue.awaitIdle(Duration.ofMinutes(10))) {
+            log.warn("Background evolution did not finish within 10 minutes");
+        }
+        long drain = System.nanoTime() - drainStarted;
+        Snapshot after = snapshot();
+
+        AgenticPerformanceReport report = new AgenticPerformanceReport(scenarioName,
+                evolutionQueue.writeMode().name(), properties.evolutionMode().name());
+        report.setRun(writes, writerThreads, duration / 1_000_000, drain / 1_000_000);
+        // Only synchronous writes wait for every model call they cause; deferred evolution overlaps other writes.
+        double writeModelMs = evolutionQueue.writeMode() == WriteMode.SYNC
+                ? after.chatModelMs() - before.chatModelMs() + after.embeddingModelMs() - before.embeddingModelMs()
+                : -1;
+        report.addStage("write", writes, writeNanos.sum() / 1e6, writeModelMs);
+        addActionStage(report, "analyzeContent", PromptKind.ANALYSIS, before, after);
+        addActionStage(report, "evaluateEvolution", PromptKind.EVOLUTION, before, after);
+        // Storage actions make no model calls: the note carries the embedding computed during analysis.
+        for (String action : List.of("storeMemory", "storeForEvolution", "planEvolution")) {
+            Timing from = before.spans().getOrDefault(action, Timing.NONE);
+            Timing to = after.spans().getOrDefault(action, Timing.NONE);
+            if (to.count() > from.count()) {
+                report.addStage(action, to.count() - from.count(), to.totalMs() - from.totalMs(), 0);
+            }
+        }
+        report.setEmbeddings(after.embeddingRequests() - before.embeddingRequests(),
+                after.embeddedTexts() - before.embeddedTexts(), after.embeddingModelMs() - before.embeddingModelMs());
+
+        System.out.println(report.generateMarkdownTable());
+
+        System.exit(0);
+    }
+
+    private void addActionStage(AgenticPerformanceReport report, String action, PromptKind kind, Snapshot before,
+            Snapshot after) {
+        Timing from = before.actions().getOrDefault(action, Timing.NONE);
+        Timing to = after.actions().getOrDefault(action, Timing.NONE);
+        report.addStage(action, to.count() - from.count(), to.totalMs() - from.totalMs(),
+                after.modelMs().get(kind) - before.modelMs().get(kind));
+    }
+
+    private void runWrites(int first, int count, LongAdder writeNanos) throws Exception {
+        if (writerThreads <= 1) {
+            for (int i = first; i < first + count; i++) {
+                write(i, writeNanos);
+            }
+            return;
+        }
+        try (ExecutorService executor = Executors.newFixedThreadPool(writerThreads)) {
+            List<Future<?>> pending = new ArrayList<>();
+            for (int i = first; i < first + count; i++) {
+                int index = i;
+                pending.add(executor.submit(() -> write(index, writeNanos)));
+            }
+            for (Future<?> future : pending) {
+                future.get();
+            }
+        }
+    }
+
+    private void write(int index, LongAdder writeNanos) {
+        String content = content(index);
+        long started = System.nanoTime();
+        switch (evolutionQueue.writeMode()) {
+            case SYNC -> invocation(MemoryNote.class).invoke(new UpsertMemoryRequest(content));
+            case DEFERRED -> evolutionQueue.submit(invocation(EvolutionRequest.class).invoke(new UpsertMemoryRequest(content)));
+            case RAW -> evolutionQueue.storeRaw(content);
+        }
+        writeNanos.add(System.nanoTime() - started);
+    }
+
+    private <T> AgentInvocation<T> invocation(Class<T> resultType) {
+        return AgentInvocation
+                .builder(agentPlatform)
+                .options(new ProcessOptions())
+                .build(resultType);
+    }
+
+    /**
+     * Content is deterministic per index and unique, so the analysis cache never short-circuits a benchmark write.
+     */
+    private static String content(int index) {
+        Random random = new Random(index);
+        return String.format("Note %d: %s %s, %s.", index,
+                COMPONENTS[random.nextInt(COMPONENTS.length)],
+                CONCERNS[random.nextInt(CONCERNS.length)],
+                DECISIONS[random.nextInt(DECISIONS.length)]);
+    }
+
+    private Snapshot snapshot() {
+        Map<String, Timing> actions = llmScheduler.stats().latencyByAction().stream()
+                .collect(Collectors.toMap(LlmScheduler.TimerStats::name, Timing::of));
+        Map<String, Timing> spans = agentMetrics.stats().latencyByAction().stream()
+                .collect(Collectors.toMap(LlmScheduler.TimerStats::name, Timing::of));
+        Map<PromptKind, Double> modelMs = new EnumMap<>(PromptKind.class);
+        for (PromptKind kind : PromptKind.values()) {
+            modelMs.put(kind, chatModel.modelTime(kind).toNanos() / 1e6);
+        }
+        return new Snapshot(actions, spans, modelMs, embeddingModel.requests(), embeddingModel.texts(),
+                embeddingModel.modelTime().toNanos() / 1e6);
+    }
+
+    private record Timing(long count, double totalMs) {
+
+        static final Timing NONE = new Timing(0, 0);
+
+        static Timing of(LlmScheduler.TimerStats stats) {
+            return new Timing(stats.count(), stats.count() * stats.meanMs());
+        }
+    }
+
+    private record Snapshot(Map<String, Timing> actions, Map<String, Timing> spans, Map<PromptKind, Double> modelMs, long embeddingRequests,
+            long embeddedTexts, double embeddingModelMs) {
+
+        double chatModelMs() {
+            return modelMs.values().stream().mapToDouble(Double::doubleValue).sum();
+        }
+    }
+}
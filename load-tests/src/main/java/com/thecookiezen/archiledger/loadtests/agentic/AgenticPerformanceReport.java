@@ -0,0 +1,77 @@
+package com.thecookiezen.archiledger.loadtests.agentic;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class AgenticPerformanceReport {
+
+    private final String scenarioName;
+    private final String writeMode;
+    private final String evolutionMode;
+    private final List<Stage> stages = new ArrayList<>();
+    private long writes;
+    private int threads;
+    private long durationMs;
+    private long drainMs;
+    private long embeddingRequests;
+    private long embeddedTexts;
+    private double embeddingModelMs;
+
+    public AgenticPerformanceReport(String scenarioName, String writeMode, String evolutionMode) {
+        this.scenarioName = scenarioName;
+        this.writeMode = writeMode;
+        this.evolutionMode = evolutionMode;
+    }
+
+    public void setRun(long writes, int threads, long durationMs, long drainMs) {
+        this.writes = writes;
+        this.threads = threads;
+        this.durationMs = durationMs;
+        this.drainMs = drainMs;
+    }
+
+    public void setEmbeddings(long requests, long texts, double modelMs) {
+        this.embeddingRequests = requests;
+        this.embeddedTexts = texts;
+        this.embeddingModelMs = modelMs;
+    }
+
+    /**
+     * Adds a stage with its total measured time and the part of it spent in the (stub) model. A negative model
+     * time means it cannot be attributed to the stage.
+     */
+    public void addStage(String name, long count, double totalMs, double modelMs) {
+        stages.add(new Stage(name, count, totalMs, modelMs));
+    }
+
+    public String generateMarkdownTable() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("\n# Agentic Memory Benchmark Results\n\n");
+        sb.append("| Scenario | Write mode | Evolution mode | Writes | Threads | Duration (ms) | Drain (ms) | Throughput (writes/sec) |\n");
+        sb.append("|----------|------------|----------------|--------|---------|---------------|------------|-------------------------|\n");
+        double throughput = durationMs + drainMs > 0 ? writes / ((durationMs + drainMs) / 1000.0) : 0.0;
+        sb.append(String.format("| %-8s | %-10s | %-14s | %-6d | %-7d | %-13d | %-10d | %-23.2f |\n",
+                scenarioName, writeMode, evolutionMode, writes, threads, durationMs, drainMs, throughput));
+
+        sb.append("\n| Stage | Calls | Mean (ms) | Model mean (ms) | Overhead mean (ms) |\n");
+        sb.append("|-------|-------|-----------|-----------------|--------------------|\n");
+        for (Stage stage : stages) {
+            double mean = stage.count > 0 ? stage.totalMs / stage.count : 0.0;
+            if (stage.modelMs < 0) {
+                sb.append(String.format("| %-17s | %-5d | %-9.2f | %-15s | %-18s |\n", stage.name, stage.count, mean, "-", "-"));
+                continue;
+            }
+            double modelMean = stage.count > 0 ? stage.modelMs / stage.count : 0.0;
+            sb.append(String.format("| %-17s | %-5d | %-9.2f | %-15.2f | %-18.2f |\n",
+                    stage.name, stage.count, mean, modelMean, mean - modelMean));
+        }
+
+        sb.append(String.format("%nEmbedding model: %d requests, %d texts, %.2f ms simulated latency%n",
+                embeddingRequests, embeddedTexts, embeddingModelMs));
+        sb.append("\n");
+        return sb.toString();
+    }
+
+    private record Stage(String name, long count, double totalMs, double modelMs) {
+    }
+}
@@ -0,0 +1,216 @@
+package com.thecookiezen.archiledger.loadtests.agentic;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.tool.ToolCallback;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Deterministic chat model standing in for the agentic memory LLM in benchmarks.
+ * <p>
+ * Recognizes the content analysis and evolution prompts and answers them with scripted {@code NoteAnalysis}
+ * and {@code EvolutionDecision} JSON derived from the prompt: keywords are taken from the content, links point
+ * to the memory ids the prompt and earlier tool results mention. Before answering an evolution prompt it can
+ * request a configurable number of tool calls so the tool loop is exercised as well. Every call sleeps for the
+ * configured latency, which is recorded per prompt kind so benchmarks can subtract it from measured latencies.
+ */
+public class StubChatModel implements ChatModel {
+
+    public static final String MODEL = "stub";
+
+    public enum PromptKind {
+        ANALYSIS, EVOLUTION, OTHER
+    }
+
+    private static final Pattern MEMORY_ID = Pattern
+            .compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+    private static final String ANALYSIS_MARKER = "Content for analysis:";
+    private static final String EVOLUTION_MARKER = "memory evolution agent";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Duration latency;
+    private final int toolCalls;
+    private final int links;
+    private final Map<PromptKind, LongAdder> calls = new EnumMap<>(PromptKind.class);
+    private final Map<PromptKind, LongAdder> modelNanos = new EnumMap<>(PromptKind.class);
+
+    public StubChatModel(Duration latency, int toolCalls, int links) {
+        if (latency.isNegative()) {
+            throw new IllegalArgumentException("Stub LLM latency must not be negative");
+        }
+        if (toolCalls < 0 || links < 0) {
+            throw new IllegalArgumentException("Stub LLM tool calls and links must not be negative");
+        }
+        this.latency = latency;
+        this.toolCalls = toolCalls;
+        this.links = links;
+        for (PromptKind kind : PromptKind.values()) {
+            calls.put(kind, new LongAdder());
+            modelNanos.put(kind, new LongAdder());
+        }
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        String text = text(prompt.getInstructions());
+        PromptKind kind = text.contains(ANALYSIS_MARKER) ? PromptKind.ANALYSIS
+                : text.contains(EVOLUTION_MARKER) ? PromptKind.EVOLUTION : PromptKind.OTHER;
+        simulateLatency(kind);
+
+        AssistantMessage answer = switch (kind) {
+            case ANALYSIS -> new AssistantMessage(analysis(text.substring(text.indexOf(ANALYSIS_MARKER) + ANALYSIS_MARKER.length())));
+            case EVOLUTION -> {
+                List<ToolCallback> tools = prompt.getOptions() instanceof ToolCallingChatOptions options
+                        ? options.getToolCallbacks()
+                        : List.of();
+                yield toolResponses(prompt.getInstructions()) < toolCalls && !tools.isEmpty()
+                        ? toolCall(tools.getFirst(), text)
+                        : new AssistantMessage(decision(text));
+            }
+            case OTHER -> new AssistantMessage("{}");
+        };
+        return new ChatResponse(List.of(new Generation(answer)));
+    }
+
+    public long calls(PromptKind kind) {
+        return calls.get(kind).sum();
+    }
+
+    /**
+     * Time spent simulating model latency for prompts of the given kind.
+     */
+    public Duration modelTime(PromptKind kind) {
+        return Duration.ofNanos(modelNanos.get(kind).sum());
+    }
+
+    private void simulateLatency(PromptKind kind) {
+        calls.get(kind).increment();
+        if (latency.isZero()) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Stub LLM call interrupted", e);
+        } finally {
+            modelNanos.get(kind).add(System.nanoTime() - started);
+        }
+    }
+
+    private String analysis(String content) {
+        Set<String> keywords = new LinkedHashSet<>();
+        for (String word : content.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.length() >= 4) {
+                keywords.add(word);
+            }
+            if (keywords.size() == 3) {
+                break;
+            }
+        }
+        Map<String, Object> analysis = new LinkedHashMap<>();
+        analysis.put("keywords", List.copyOf(keywords));
+        analysis.put("context", "Benchmark note about " + String.join(", ", keywords));
+        analysis.put("tags", List.of("load-test", "benchmark", "agentic"));
+        return json(analysis);
+    }
+
+    private String decision(String text) {
+        Set<String> ids = new LinkedHashSet<>();
+        Matcher matcher = MEMORY_ID.matcher(text);
+        while (matcher.find() && ids.size() < links) {
+            ids.add(matcher.group());
+        }
+        List<Map<String, Object>> suggestedLinks = new ArrayList<>();
+        for (String id : ids) {
+            suggestedLinks.add(Map.of("targetId", id, "relationType", "related", "context", "Scripted benchmark link"));
+        }
+        List<Map<String, Object>> neighborUpdates = ids.stream()
+                .limit(1)
+                .map(id -> Map.<String, Object>of("noteId", id, "newContext", "", "newTags", List.of("benchmark", "linked")))
+                .toList();
+
+        Map<String, Object> decision = new LinkedHashMap<>();
+        decision.put("shouldEvolve", !ids.isEmpty());
+        decision.put("suggestedLinks", suggestedLinks);
+        decision.put("updatedTags", ids.isEmpty() ? List.of() : List.of("load-test", "benchmark", "linked"));
+        decision.put("neighborUpdates", neighborUpdates);
+        return json(decision);
+    }
+
+    private AssistantMessage toolCall(ToolCallback tool, String text) {
+        Map<String, Object> arguments = new LinkedHashMap<>();
+        try {
+            JsonNode properties = mapper.readTree(tool.getToolDefinition().inputSchema()).path("properties");
+            properties.fieldNames().forEachRemaining(name -> arguments.put(name,
+                    switch (properties.path(name).path("type").asText()) {
+                        case "integer" -> 5;
+                        case "number" -> 0.0;
+                        case "boolean" -> false;
+                        default -> query(text);
+                    }));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable input schema of tool " + tool.getToolDefinition().name(), e);
+        }
+        var call = new AssistantMessage.ToolCall(UUID.randomUUID().toString(), "function",
+                tool.getToolDefinition().name(), json(arguments));
+        return new AssistantMessage("", Map.of(), List.of(call));
+    }
+
+    private static String query(String text) {
+        int start = text.indexOf("Content:");
+        if (start < 0) {
+            return "benchmark";
+        }
+        int end = text.indexOf('\n', start);
+        return text.substring(start + "Content:".length(), end < 0 ? text.length() : end).strip();
+    }
+
+    private static long toolResponses(List<Message> messages) {
+        return messages.stream().filter(ToolResponseMessage.class::isInstance).count();
+    }
+
+    private static String text(List<Message> messages) {
+        StringBuilder text = new StringBuilder();
+        for (Message message : messages) {
+            if (message instanceof ToolResponseMessage response) {
+                response.getResponses().forEach(r -> text.append(r.responseData()).append('\n'));
+            } else if (message.getText() != null) {
+                text.append(message.getText()).append('\n');
+            }
+        }
+        return text.toString();
+    }
+
+    private String json(Object value) {
+        try {
+            return mapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize stub LLM response", e);
+        }
+    }
+}
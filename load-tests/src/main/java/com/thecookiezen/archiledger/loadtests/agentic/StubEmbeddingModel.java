@@ -0,0 +1,113 @@
+package com.thecookiezen.archiledger.loadtests.agentic;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+/**
+ * Deterministic embedding model for benchmarks. Hashes the words of a text into a normalized vector of the
+ * configured dimensions, so texts sharing words end up close to each other, and sleeps for the configured
+ * latency once per request.
+ */
+public class StubEmbeddingModel implements EmbeddingModel {
+
+    private final int dimensions;
+    private final Duration latency;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder texts = new LongAdder();
+    private final LongAdder modelNanos = new LongAdder();
+
+    public StubEmbeddingModel(int dimensions, Duration latency) {
+        if (dimensions < 1) {
+            throw new IllegalArgumentException("Stub embedding dimensions must be at least 1");
+        }
+        if (latency.isNegative()) {
+            throw new IllegalArgumentException("Stub embedding latency must not be negative");
+        }
+        this.dimensions = dimensions;
+        this.latency = latency;
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        requests.increment();
+        texts.add(request.getInstructions().size());
+        simulateLatency();
+        List<Embedding> embeddings = new ArrayList<>(request.getInstructions().size());
+        for (int i = 0; i < request.getInstructions().size(); i++) {
+            embeddings.add(new Embedding(vector(request.getInstructions().get(i)), i));
+        }
+        return new EmbeddingResponse(embeddings);
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return embed(document.getText());
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+
+    public long requests() {
+        return requests.sum();
+    }
+
+    public long texts() {
+        return texts.sum();
+    }
+
+    /**
+     * Time spent simulating model latency.
+     */
+    public Duration modelTime() {
+        return Duration.ofNanos(modelNanos.sum());
+    }
+
+    private void simulateLatency() {
+        if (latency.isZero()) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Stub embedding call interrupted", e);
+        } finally {
+            modelNanos.add(System.nanoTime() - started);
+        }
+    }
+
+    private float[] vector(String text) {
+        float[] vector = new float[dimensions];
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                int hash = word.hashCode();
+                vector[Math.floorMod(hash, dimensions)] += (hash & 1) == 0 ? 1.0f : -1.0f;
+            }
+        }
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm == 0) {
+            vector[0] = 1.0f;
+            return vector;
+        }
+        float scale = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] *= scale;
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,46 @@
+package com.thecookiezen.archiledger.loadtests.agentic;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+import com.embabel.common.ai.model.DefaultOptionsConverter;
+import com.embabel.common.ai.model.Llm;
+import com.thecookiezen.archiledger.agenticmemory.AgenticMemoryProperties;
+
+/**
+ * Registers the stub LLM with the agent platform. The load tests never talk to a real model, so the stub is
+ * always the platform's LLM; the stub embedding model replaces the ONNX one only in the {@code agentic} profile.
+ */
+@Configuration
+@EnableConfigurationProperties(AgenticMemoryProperties.class)
+public class StubModelsConfiguration {
+
+    @Bean
+    public StubChatModel stubChatModel(
+            @Value("${loadtest.stub-llm.latency-ms:0}") long latencyMs,
+            @Value("${loadtest.stub-llm.tool-calls:0}") int toolCalls,
+            @Value("${loadtest.stub-llm.links:2}") int links) {
+        return new StubChatModel(Duration.ofMillis(latencyMs), toolCalls, links);
+    }
+
+    @Bean
+    public Llm stubLlm(StubChatModel stubChatModel) {
+        return new Llm(StubChatModel.MODEL, "stub", stubChatModel, DefaultOptionsConverter.INSTANCE, null, List.of(), null);
+    }
+
+    @Bean
+    @Primary
+    @Profile("agentic")
+    public StubEmbeddingModel stubEmbeddingModel(
+            @Value("${ladybugdb.embedding.dimensions:384}") int dimensions,
+            @Value("${loadtest.stub-embedding.latency-ms:0}") long latencyMs) {
+        return new StubEmbeddingModel(dimensions, Duration.ofMillis(latencyMs));
+    }
+}
@@ -0,0 +1,64 @@
+package com.thecookiezen.archiledger.infrastructure.cli;
+
+import com.thecookiezen.archiledger.infrastructure.importing.BulkImportReport;
+import com.thecookiezen.archiledger.infrastructure.importing.LadybugBulkImporter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Bulk imports {@code archiledger.import.source} at startup, logs the phase report and, unless
+ * {@code archiledger.import.exit} is {@code false}, shuts the server down again, which makes
+ * <pre>
+ * java -jar archiledger-server.jar --spring.main.web-application-type=none \
+ *     --ladybugdb.data-path=/data/archiledger.lbdb --archiledger.import.source=corpus.jsonl
+ * </pre>
+ * a command line import into a persistent database.
+ */
+@Component
+@ConditionalOnProperty(prefix = "archiledger.import", name = "source")
+public class BulkImportRunner implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkImportRunner.class);
+
+    private final LadybugBulkImporter importer;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${archiledger.import.source}")
+    private String source;
+
+    @Value("${archiledger.import.namespace:}")
+    private String namespace;
+
+    @Value("${archiledger.import.exit:true}")
+    private boolean exit;
+
+    public BulkImportRunner(LadybugBulkImporter importer, ConfigurableApplicationContext context) {
+        this.importer = importer;
+        this.context = context;
+    }
+
+    @Override
+    public void run(String... args) {
+        int status = 0;
+        try {
+            BulkImportReport report = importer.importFile(Path.of(source), namespace);
+            log.info("Bulk import of {} finished:\n{}", source, report.generateMarkdownTable());
+        } catch (RuntimeException e) {
+            log.error("Bulk import of {} failed", source, e);
+            status = 1;
+        }
+        if (exit) {
+            int code = status;
+            System.exit(SpringApplication.exit(context, () -> code));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.thecookiezen.archiledger.infrastructure.cli;
+
+import com.thecookiezen.archiledger.infrastructure.snapshot.LadybugSnapshots;
+import com.thecookiezen.archiledger.infrastructure.snapshot.SnapshotReport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Restores the snapshot in {@code archiledger.snapshot.restore} at startup and logs the phase report. The
+ * database must be empty; a failed restore stops the startup.
+ */
+@Component
+@ConditionalOnProperty(prefix = "archiledger.snapshot", name = "restore")
+public class SnapshotRestoreRunner implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotRestoreRunner.class);
+
+    private final LadybugSnapshots snapshots;
+
+    @Value("${archiledger.snapshot.restore}")
+    private String snapshot;
+
+    public SnapshotRestoreRunner(LadybugSnapshots snapshots) {
+        this.snapshots = snapshots;
+    }
+
+    @Override
+    public void run(String... args) {
+        SnapshotReport report = snapshots.restore(Path.of(snapshot));
+        log.info("Restore of {} finished:\n{}", snapshot, report.generateMarkdownTable());
+    }
+}
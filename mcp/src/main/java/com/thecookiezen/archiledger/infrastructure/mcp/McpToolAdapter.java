@@ -1,18 +1,32 @@
 package com.thecookiezen.archiledger.infrastructure.mcp;
 
+import com.thecookiezen.archiledger.application.ingest.IngestQueue;
+import com.thecookiezen.archiledger.application.ingest.IngestStatus;
+import com.thecookiezen.archiledger.application.retention.NoteRetention;
+import com.thecookiezen.archiledger.application.retention.RetentionStatus;
 import com.thecookiezen.archiledger.application.service.MemoryNoteService;
+import com.thecookiezen.archiledger.domain.model.CacheStats;
+import com.thecookiezen.archiledger.domain.model.CompressionStats;
+import com.thecookiezen.archiledger.domain.model.DedupStats;
 import com.thecookiezen.archiledger.domain.model.LinkDefinition;
+import com.thecookiezen.archiledger.domain.model.LockStats;
 import com.thecookiezen.archiledger.domain.model.MemoryNote;
 import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
 import com.thecookiezen.archiledger.domain.model.SimilarityResult;
 import com.thecookiezen.archiledger.infrastructure.mcp.dto.MemoryNoteDto;
 import com.thecookiezen.archiledger.infrastructure.mcp.dto.NoteLinkDto;
 import com.thecookiezen.archiledger.infrastructure.mcp.dto.NoteLinksDto;
+import com.thecookiezen.archiledger.infrastructure.mcp.dto.SearchResultsDto;
+import com.thecookiezen.archiledger.infrastructure.snapshot.LadybugSnapshots;
+import com.thecookiezen.archiledger.infrastructure.snapshot.SnapshotReport;
 
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -21,27 +35,54 @@ import java.util.stream.Collectors;
 @Component
 public class McpToolAdapter {
 
+        private static final String NAMESPACE_DESCRIPTION = "Memory namespace to operate on (lowercase letters, digits and underscores). Defaults to 'default'.";
+
         private final MemoryNoteService memoryNoteService;
+        private final IngestQueue ingestQueue;
+        private final NoteRetention noteRetention;
+        private final LadybugSnapshots snapshots;
 
-        public McpToolAdapter(MemoryNoteService memoryNoteService) {
+        public McpToolAdapter(MemoryNoteService memoryNoteService, IngestQueue ingestQueue, NoteRetention noteRetention,
+                        LadybugSnapshots snapshots) {
                 this.memoryNoteService = memoryNoteService;
+                this.ingestQueue = ingestQueue;
+                this.noteRetention = noteRetention;
+                this.snapshots = snapshots;
         }
 
-        @Tool(name = "create_notes", description = "Create one or more memory notes. Each note is an atomic unit of knowledge with content, keywords, tags, and optional links to other notes.")
+        @Tool(name = "create_notes", description = "Create one or more memory notes. Each note is an atomic unit of knowledge with content, keywords, tags, and optional links to other notes. When the server runs in async ingest mode, the notes are acknowledged once queued and become searchable shortly after; use flush_ingest to wait for them.")
         public List<MemoryNoteDto> createNotes(
-                        @ToolParam(description = "List of memory notes to create") List<MemoryNoteDto> notes) {
-                return memoryNoteService.createNotes(
+                        @ToolParam(description = "List of memory notes to create") List<MemoryNoteDto> notes,
+                        @ToolParam(description = NAMESPACE_DESCRIPTION, required = false) String namespace) {
+                return ingestQueue.submit(service(namespace),
                                 notes.stream().map(MemoryNoteDto::toDomain).toList()).stream()
                                 .map(MemoryNoteDto::fromDomain)
                                 .collect(Collectors.toList());
         }
 
+        @Tool(name = "get_ingest_status", description = "Report the state of the async ingest queue: notes pending persistence, queue capacity, accepted/completed/failed/rejected counters and the most recent failures.")
+        public IngestStatus getIngestStatus() {
+                return ingestQueue.status();
+        }
+
+        @Tool(name = "flush_ingest", description = "Wait until all notes acknowledged by create_notes are persisted, then report the ingest queue state.")
+        public IngestStatus flushIngest(
+                        @ToolParam(description = "Maximum number of seconds to wait (default 30)", required = false) Integer timeoutSeconds) {
+                try {
+                        ingestQueue.flush(Duration.ofSeconds(timeoutSeconds != null ? timeoutSeconds : 30));
+                } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                }
+                return ingestQueue.status();
+        }
+
         @Tool(name = "add_links", description = "Add typed links between existing memory notes. Links represent connections with a relation type (e.g., 'DEPENDS_ON', 'RELATED_TO', 'CONTRADICTS') and context explaining why the link exists.")
         public void addLinks(
-                        @ToolParam(description = "List of links to create, each with source note ID, target note ID, relation type, and context") List<NoteLinksDto> links) {
+                        @ToolParam(description = "List of links to create, each with source note ID, target note ID, relation type, and context") List<NoteLinksDto> links,
+                        @ToolParam(description = NAMESPACE_DESCRIPTION, required = false) String namespace) {
                 for (NoteLinksDto link : links) {
                         for (NoteLinkDto noteLink : link.links()) {
-                                memoryNoteService.addLink(new LinkDefinition(
+                                service(namespace).addLink(new LinkDefinition(
                                                 link.fromNoteId(),
                                                 noteLink.target(),
                                                 noteLink.relationType(),
@@ -50,25 +91,59 @@ public class McpToolAdapter {
                 }
         }
 
-        @Tool(name = "get_note", description = "Retrieve a specific memory note by its ID. Returns the note with its content, keywords, tags, links, and metadata. Increments the retrieval counter for relevance tracking.")
+        @Tool(name = "get_note", description = "Retrieve a specific memory note by its ID. Returns the note with its content, keywords, tags, links, and metadata. Increments the retrieval counter for relevance tracking. Archived notes are restored.")
         public Optional<MemoryNoteDto> getNote(
-                        @ToolParam(description = "ID of the note to retrieve") String noteId) {
-                return memoryNoteService.getNote(new MemoryNoteId(noteId))
+                        @ToolParam(description = "ID of the note to retrieve") String noteId,
+                        @ToolParam(description = NAMESPACE_DESCRIPTION, required = false) String namespace) {
+                return service(namespace).getNote(new MemoryNoteId(noteId))
+                                .map(MemoryNoteDto::fromDomain);
+        }
+
+        @Tool(name = "restore_note", description = "Move a note archived by retention back into the live graph, with its links to live notes. Returns nothing when no archived note has the ID.")
+        public Optional<MemoryNoteDto> restoreNote(
+                        @ToolParam(description = "ID of the archived note to restore") String noteId,
+                        @ToolParam(description = NAMESPACE_DESCRIPTION, required = false) String namespace) {
+                return service(namespace).restoreNote(new MemoryNoteId(noteId))
                                 .map(MemoryNoteDto::fromDomain);
         }
 
         @Tool(name = "get_notes_by_tag", description = "Find all memory notes with a given tag. Useful for retrieving notes of a specific category (e.g., 'architecture', 'bug', 'decision').")
         public List<MemoryNoteDto> getNotesByTag(
-                        @ToolParam(description = "Tag to search for (e.g., 'architecture', 'decision')") String tag) {
-                return memoryNoteService.getNotesByTag(tag).stream()
+                        @ToolParam(description = "Tag to search for (e.g., 'architecture', 'decision')") String tag,
+                        @ToolParam(description = NAMESPACE_DESCRIPTION, required = false) String namespace) {
+                return service(namespace).getNotesByTag(tag).stream()
+                                .map(MemoryNoteDto::fromDomain)
+                                .collect(Collectors.toList());
+        }
+
+        @Tool(name = "get_recent_notes", description = "Retrieve the most recently created memory notes, newest first, optionally only those with a given tag.")
+        public List<MemoryNoteDto> getRecentNotes(
+                        @ToolParam(description = "Maximum number of notes to return (default 10)", required = false) Integer limit,
+                        @ToolParam(description = "Only return notes with this tag", required = false) String tag,
+                        @ToolParam(description = NAMESPACE_DESCRIPTION, required = false) String namespace) {
+                return service(namespace).getRecentNotes(tag, limit != null ? limit : 10).stream()
+                                .map(MemoryNoteDto::fromDomain)
+                                .collect(Collectors.toList());
+        }
+
+        @Tool(name = "get_notes_in_time_range", description = "Retrieve the memory notes created in a time range, newest first, optionally only those with a given tag.")
+        public List<MemoryNoteDto> getNotesInTimeRange(
+                        @ToolParam(description = "Start of the range, inclusive, as an ISO-8601 instant (e.g., '2025-01-01T00:00:00Z')") String from,
+                        @ToolParam(description = "End of the range, exclusive, as an ISO-8601 instant") String to,
+                        @ToolParam(description = "Only return notes with this tag", required = false) String tag,
+                        @ToolParam(description = "Maximum number of notes to return (default 100)", required = false) Integer limit,
+                        @ToolParam(description = NAMESPACE_DESCRIPTION, required = false) String namespace) {
+                return service(namespace).getNotesInTimeRange(Instant.parse(from), Instant.parse(to), tag,
+                                limit != null ? limit : 100).stream()
                                 .map(MemoryNoteDto::fromDomain)
                                 .collect(Collectors.toList());
         }
 
         @Tool(name = "get_linked_notes", description = "Find all notes directly connected to a given note. Returns notes that are either linked from or linked to the specified note.")
         public List<MemoryNoteDto> getLinkedNotes(
-                        @ToolParam(description = "ID of the note to find connections for") String noteId) {
-                return memoryNoteService.getLinkedNotes(new MemoryNoteId(noteId)).stream()
+                        @ToolParam(description = "ID of the note to find connections for") String noteId,
+                        @ToolParam(description = NAMESPACE_DESCRIPTION, required = false) String namespace) {
+                return service(namespace).getLinkedNotes(new MemoryNoteId(noteId)).stream()
                                 .map(MemoryNoteDto::fromDomain)
                                 .collect(Collectors.toList());
         }
@@ -77,8 +152,9 @@ public class McpToolAdapter {
         public List<MemoryNoteDto> getLinkedNotesByType(
                         @ToolParam(description = "ID of the note to find connections for") String noteId,
                         @ToolParam(description = "Relation type to filter by (e.g., 'DEPENDS_ON', 'CONTAINS', 'RELATED_TO')") String relationType,
-                        @ToolParam(description = "Maximum number of notes to return") int limit) {
-                return memoryNoteService.getLinkedNotes(new MemoryNoteId(noteId), relationType, limit).stream()
+                        @ToolParam(description = "Maximum number of notes to return") int limit,
+                        @ToolParam(description = NAMESPACE_DESCRIPTION, required = false) String namespace) {
+                return service(namespace).getLinkedNotes(new MemoryNoteId(noteId), relationType, limit).stream()
                                 .map(MemoryNoteDto::fromDomain)
                                 .collect(Collectors.toList());
         }
@@ -87,31 +163,71 @@ public class McpToolAdapter {
         public List<MemoryNoteDto> getNotesUpward(
                         @ToolParam(description = "ID of the starting note") String noteId,
                         @ToolParam(description = "Maximum number of hops to traverse") int maxHops,
-                        @ToolParam(description = "Maximum number of notes to return") int limit) {
-                return memoryNoteService.getNotesUpward(new MemoryNoteId(noteId), maxHops, limit).stream()
+                        @ToolParam(description = "Maximum number of notes to return") int limit,
+                        @ToolParam(description = NAMESPACE_DESCRIPTION, required = false) String namespace) {
+                return service(namespace).getNotesUpward(new MemoryNoteId(noteId), maxHops, limit).stream()
                                 .map(MemoryNoteDto::fromDomain)
                                 .collect(Collectors.toList());
         }
 
         @Tool(name = "search_notes", description = "Perform a semantic similarity search across all memory notes. Returns the most relevant notes based on vector embeddings of their content.")
         public List<SimilarityResult<MemoryNote>> searchNotes(
-                        @ToolParam(description = "Natural language query to search for similar notes") String query) {
-                return memoryNoteService.similaritySearch(query);
+                        @ToolParam(description = "Natural language query to search for similar notes") String query,
+                        @ToolParam(description = "Favor recent notes: a note's score halves every this many days of age. Omit to rank by similarity only.", required = false) Double recencyHalfLifeDays,
+                        @ToolParam(description = NAMESPACE_DESCRIPTION, required = false) String namespace) {
+                if (recencyHalfLifeDays == null) {
+                        return service(namespace).similaritySearch(query);
+                }
+                return service(namespace).similaritySearch(query, 10, 0.0, 0.0,
+                                Duration.ofMillis(Math.round(recencyHalfLifeDays * Duration.ofDays(1).toMillis())));
+        }
+
+        @Tool(name = "more_like_this", description = "Find the notes most similar to an existing note. Reads the note's precomputed nearest neighbors, so it is cheaper than searching with the note's content.")
+        public List<SimilarityResult<MemoryNote>> moreLikeThis(
+                        @ToolParam(description = "ID of the note to find similar notes for") String noteId,
+                        @ToolParam(description = "Maximum number of results to return (default 10)", required = false) Integer limit,
+                        @ToolParam(description = NAMESPACE_DESCRIPTION, required = false) String namespace) {
+                return service(namespace).moreLikeThis(new MemoryNoteId(noteId), limit != null ? limit : 10);
+        }
+
+        @Tool(name = "search_notes_batch", description = "Perform several semantic similarity searches in one call. All queries are embedded together and searched concurrently. Returns one result list per query, in the order the queries were given.")
+        public List<SearchResultsDto> searchNotesBatch(
+                        @ToolParam(description = "List of natural language queries to search for similar notes") List<String> queries,
+                        @ToolParam(description = "Maximum number of results to return per query", required = false) Integer topK,
+                        @ToolParam(description = "Minimum similarity threshold (0.0 to 1.0)", required = false) Double threshold,
+                        @ToolParam(description = NAMESPACE_DESCRIPTION, required = false) String namespace) {
+                if (queries == null || queries.isEmpty()) {
+                        throw new IllegalArgumentException("search_notes_batch needs at least one query");
+                }
+                if (queries.stream().anyMatch(query -> query == null || query.isBlank())) {
+                        throw new IllegalArgumentException("search_notes_batch queries must not be blank");
+                }
+                int limit = topK != null ? topK : 10;
+                double simThreshold = threshold != null ? threshold : 0.0;
+
+                List<List<SimilarityResult<MemoryNote>>> results = service(namespace).similaritySearchBatch(queries, limit, simThreshold, 0.0);
+                List<SearchResultsDto> response = new ArrayList<>(queries.size());
+                for (int i = 0; i < queries.size(); i++) {
+                        response.add(new SearchResultsDto(queries.get(i), results.get(i)));
+                }
+                return response;
         }
 
         @Tool(name = "delete_notes", description = "Delete one or more memory notes by their IDs. Also removes associated links and embeddings.")
         public void deleteNotes(
-                        @ToolParam(description = "List of note IDs to delete") List<String> noteIds) {
-                memoryNoteService.deleteNotes(
+                        @ToolParam(description = "List of note IDs to delete") List<String> noteIds,
+                        @ToolParam(description = NAMESPACE_DESCRIPTION, required = false) String namespace) {
+                service(namespace).deleteNotes(
                                 noteIds.stream().map(MemoryNoteId::new).collect(Collectors.toList()));
         }
 
         @Tool(name = "delete_links", description = "Remove typed links between memory notes.")
         public void deleteLinks(
                         @ToolParam(description = "Source note ID") String fromNoteId,
-                        @ToolParam(description = "List of links to remove") List<NoteLinkDto> links) {
+                        @ToolParam(description = "List of links to remove") List<NoteLinkDto> links,
+                        @ToolParam(description = NAMESPACE_DESCRIPTION, required = false) String namespace) {
                 for (NoteLinkDto link : links) {
-                        memoryNoteService.removeLink(
+                        service(namespace).removeLink(
                                         new MemoryNoteId(fromNoteId),
                                         new MemoryNoteId(link.target()),
                                         link.relationType());
@@ -119,12 +235,65 @@ public class McpToolAdapter {
         }
 
         @Tool(name = "read_graph", description = "Read the entire knowledge graph. Returns all memory notes and their links.")
-        public Map<String, Object> readGraph() {
-                return memoryNoteService.readGraph();
+        public Map<String, Object> readGraph(
+                        @ToolParam(description = NAMESPACE_DESCRIPTION, required = false) String namespace) {
+                return service(namespace).readGraph();
         }
 
         @Tool(name = "get_all_tags", description = "List all unique tags currently used across all memory notes. Useful for discovering available categories.")
-        public List<String> getAllTags() {
-                return memoryNoteService.getAllTags().stream().toList();
+        public List<String> getAllTags(
+                        @ToolParam(description = NAMESPACE_DESCRIPTION, required = false) String namespace) {
+                return service(namespace).getAllTags().stream().toList();
+        }
+
+        @Tool(name = "get_cache_stats", description = "Report hit/miss counters, hit ratio and footprint of the server's read caches. Useful for diagnosing memory server performance.")
+        public Map<String, CacheStats> getCacheStats() {
+                return memoryNoteService.cacheStats();
+        }
+
+        @Tool(name = "get_dedup_stats", description = "Report how many created notes were checked for near-duplicates and how many were merged into an existing note instead of being stored.")
+        public DedupStats getDedupStats() {
+                return memoryNoteService.dedupStats();
+        }
+
+        @Tool(name = "get_lock_stats", description = "Report how many note lock acquisitions the server made and how many had to wait for a concurrent update of a note sharing the same lock.")
+        public LockStats getLockStats() {
+                return memoryNoteService.lockStats();
+        }
+
+        @Tool(name = "get_compression_stats", description = "Report how many note contents were stored compressed, their size before and after compression and the mean time to decompress one.")
+        public CompressionStats getCompressionStats() {
+                return memoryNoteService.compressionStats();
+        }
+
+        @Tool(name = "get_retention_status", description = "Report the note retention policy, how many notes were archived and the outcome of the last retention run.")
+        public RetentionStatus getRetentionStatus() {
+                return noteRetention.status();
+        }
+
+        @Tool(name = "run_retention", description = "Archive all notes matching the retention policy now, in every namespace, and report the retention state. Fails when retention is disabled.")
+        public RetentionStatus runRetention() {
+                return noteRetention.run();
+        }
+
+        @Tool(name = "export_snapshot", description = "Export all notes, links, archived notes and raw embeddings of the server into a new checksummed snapshot in the configured snapshot directory, while the server keeps serving. Restoring a snapshot reuses the embeddings instead of computing them again.")
+        public SnapshotReport exportSnapshot(
+                        @ToolParam(description = "Name of the snapshot directory to create: letters, digits, dots, dashes or underscores") String name) {
+                return snapshots.export(name);
+        }
+
+        @Tool(name = "get_tag_statistics", description = "Count how many memory notes carry each tag in a namespace, most used tags first.")
+        public Map<String, Long> getTagStatistics(
+                        @ToolParam(description = NAMESPACE_DESCRIPTION, required = false) String namespace) {
+                return service(namespace).getTagStatistics();
+        }
+
+        @Tool(name = "list_namespaces", description = "List all memory namespaces. Each namespace holds its own notes, links, tags and vector index.")
+        public List<String> listNamespaces() {
+                return memoryNoteService.getNamespaces().stream().sorted().toList();
+        }
+
+        private MemoryNoteService service(String namespace) {
+                return memoryNoteService.inNamespace(namespace);
         }
-}
\ No newline at end of file
+}
@@ -0,0 +1,12 @@
+package com.thecookiezen.archiledger.infrastructure.mcp.dto;
+
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.SimilarityResult;
+
+import java.util.List;
+
+public record SearchResultsDto(String query, List<SimilarityResult<MemoryNote>> results) {
+    public SearchResultsDto {
+        results = (results != null) ? List.copyOf(results) : List.of();
+    }
+}
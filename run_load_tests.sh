@@ -45,4 +45,75 @@ run_scenario "Functional" 100 5 "512m"
 
 # run_scenario "Large" 100000 30 "1g"
 
+# Shard scaling: the same ingest + search workload against 1, 2, 4 and 8 shards of the default namespace.
+run_shard_scenario() {
+    local SHARDS=$1
+    local ENTITIES=$2
+    local NAME="Shards-$SHARDS"
+
+    echo "===================================================================================================="
+    echo "Running Scenario: $NAME | Entities: $ENTITIES | Shards: $SHARDS"
+    echo "===================================================================================================="
+
+    rm -rf "/tmp/$NAME" "/tmp/$NAME-shards"
+    java -Xmx1g -jar "$JAR_FILE" \
+    --logging.level.root=ERROR \
+    --logging.level.com.thecookiezen.archiledger.loadtests=INFO \
+    --spring.profiles.active=ladybugdb \
+    --ladybugdb.data-path=/tmp/$NAME \
+    --ladybugdb.shards.count=$SHARDS \
+    --ladybugdb.shards.root=/tmp/$NAME-shards \
+    --loadtest.scenario.name="$NAME" \
+    --loadtest.note-count=$ENTITIES \
+    --loadtest.links-per-note=5 \
+    --loadtest.batch-size=25 \
+    --loadtest.writer-threads=$SHARDS \
+    --loadtest.search-queries=200 || { status=$?; echo "Scenario $NAME FAILED with exit code $status"; }
+
+    echo ""
+}
+
+if [ "${RUN_SHARD_SCALING:-false}" = "true" ]; then
+    for SHARDS in 1 2 4 8; do
+        run_shard_scenario $SHARDS 2000
+    done
+fi
+
+# Agentic pipeline: drives the agentic memory agent end to end against the stub LLM and embedding model.
+run_agentic_scenario() {
+    local NAME=$1
+    local WRITE_MODE=$2
+    local EVOLUTION_MODE=$3
+    local TOOL_CALLS=$4
+
+    echo "===================================================================================================="
+    echo "Running Scenario: $NAME | Write mode: $WRITE_MODE | Evolution mode: $EVOLUTION_MODE | Tool calls: $TOOL_CALLS"
+    echo "===================================================================================================="
+
+    rm -rf "/tmp/$NAME"
+    java -Xmx1g -jar "$JAR_FILE" \
+    --logging.level.root=ERROR \
+    --logging.level.com.thecookiezen.archiledger.loadtests=INFO \
+    --spring.profiles.active=ladybugdb,agentic \
+    --spring.ai.model.embedding=none \
+    --ladybugdb.data-path=/tmp/$NAME \
+    --agenticmemory.analysis-cache.enabled=false \
+    --agenticmemory.write-mode=$WRITE_MODE \
+    --agenticmemory.evolution-mode=$EVOLUTION_MODE \
+    --loadtest.scenario.name="$NAME" \
+    --loadtest.note-count=200 \
+    --loadtest.writer-threads=4 \
+    --loadtest.stub-llm.latency-ms=${STUB_LLM_LATENCY_MS:-50} \
+    --loadtest.stub-llm.tool-calls=$TOOL_CALLS \
+    --loadtest.stub-embedding.latency-ms=${STUB_EMBEDDING_LATENCY_MS:-5} || { status=$?; echo "Scenario $NAME FAILED with exit code $status"; }
+
+    echo ""
+}
+
+if [ "${RUN_AGENTIC:-false}" = "true" ]; then
+    run_agentic_scenario "Agentic-Sync-Prefetch" sync prefetch 0
+    run_agentic_scenario "Agentic-Sync-ToolLoop" sync tool_loop 2
+    run_agentic_scenario "Agentic-Deferred" deferred prefetch 0
+fi
+
 echo "All tests completed."